@@ -0,0 +1,51 @@
+package com.eziocdl.api;
+
+import com.eziocdl.api.dto.request.CreateVmRequest;
+import com.eziocdl.api.dto.response.VmStatusResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON binding of the provisioning API with the same Jackson 3 mapper type Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private static final String CREATE_JSON = "{\"username\":\"devuser\",\"ram\":\"16GB\",\"cpu\":\"4vCPU\"}";
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final CreateVmRequest createRequest = new CreateVmRequest("devuser", "16GB", "4vCPU");
+    private final VmStatusResponse statusResponse = new VmStatusResponse(UUID.randomUUID(), "PENDING_APPROVAL",
+            "6f1c2a9b3d4e5f60");
+
+    @Benchmark
+    public CreateVmRequest readCreateVmRequest() {
+        return mapper.readValue(CREATE_JSON, CreateVmRequest.class);
+    }
+
+    @Benchmark
+    public String writeCreateVmRequest() {
+        return mapper.writeValueAsString(createRequest);
+    }
+
+    @Benchmark
+    public String writeVmStatusResponse() {
+        return mapper.writeValueAsString(statusResponse);
+    }
+}
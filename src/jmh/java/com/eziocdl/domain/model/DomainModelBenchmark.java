@@ -0,0 +1,61 @@
+package com.eziocdl.domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value objects and the request lifecycle: role lookup, size parsing, construction and the
+ * approve -> provision -> active transitions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainModelBenchmark {
+
+    private static final CloudInstance INSTANCE = new CloudInstance("openstack", "RegionOne", "srv-bench");
+
+    @State(Scope.Benchmark)
+    public static class Roles {
+
+        @Param({"DEV", "administrator", "unknown"})
+        public String role;
+    }
+
+    @Benchmark
+    public ResourceQuota quotaForRole(Roles roles) {
+        return ResourceQuota.forRole(roles.role);
+    }
+
+    @Benchmark
+    public ResourceSpec parseResourceSpec() {
+        return ResourceSpec.of("16GB", "4vCPU");
+    }
+
+    @Benchmark
+    public ProvisioningRequest newRequest() {
+        return new ProvisioningRequest("devuser", "16GB", "4vCPU");
+    }
+
+    @Benchmark
+    public ProvisioningRequest fullLifecycle() {
+        ProvisioningRequest request = new ProvisioningRequest("devuser", "16GB", "4vCPU");
+        request.approve();
+        request.markProvisioning();
+        request.assignInstance(INSTANCE);
+        request.complete();
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.eziocdl.domain.service;
+
+import com.eziocdl.domain.exception.PolicyViolationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quota check on every create. The service logs each decision to stdout; the stream is swapped
+ * for a null one so the numbers include building the log lines but not the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyEnforcementServiceBenchmark {
+
+    private final PolicyEnforcementService service = new PolicyEnforcementService();
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void muteLogs() {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreLogs() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void approved() {
+        service.enforce("DEV", "16GB", "4vCPU");
+    }
+
+    @Benchmark
+    public Object rejected() {
+        try {
+            service.enforce("TRAINEE", "64GB", "4vCPU");
+            return null;
+        } catch (PolicyViolationException e) {
+            return e; // Caminho do 403: monta a mensagem e o stack trace
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nova create-server bodies built by {@link OpenStackAdapter}, single and multi-create.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenStackPayloadBenchmark {
+
+    private static final String IMAGE_REF = "c1d6a0f4-7a3e-4b38-9f0e-2f1a6c8d9e01";
+    private static final String FLAVOR_REF = "m1.medium";
+
+    private final String name = "vm-" + UUID.randomUUID();
+
+    @Benchmark
+    public String createServer() {
+        return OpenStackAdapter.createServerPayload(name, IMAGE_REF, FLAVOR_REF);
+    }
+
+    @Benchmark
+    public String multiCreate() {
+        return OpenStackAdapter.multiCreatePayload(name, IMAGE_REF, FLAVOR_REF, 16);
+    }
+}
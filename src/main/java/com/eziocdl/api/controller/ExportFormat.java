@@ -0,0 +1,154 @@
+package com.eziocdl.api.controller;
+
+import com.eziocdl.domain.model.ProvisioningHistoryEntry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Line formats of the history export. Every row is written as soon as it is read: no format needs
+ * to see the whole export first. Rows are formatted into a reused line buffer and written at once.
+ */
+enum ExportFormat {
+
+    NDJSON("application/x-ndjson") {
+        @Override
+        void writeHeader(Writer out) {
+        }
+
+        @Override
+        void write(StringBuilder out, ProvisioningHistoryEntry entry) {
+            out.append("{\"id\":\"");
+            out.append(entry.id().toString());
+            out.append("\",\"requesterUsername\":");
+            json(out, entry.requesterUsername());
+            out.append(",\"ram\":");
+            json(out, entry.ram());
+            out.append(",\"cpu\":");
+            json(out, entry.cpu());
+            out.append(",\"status\":\"");
+            out.append(entry.status().name());
+            out.append("\",\"createdAt\":");
+            json(out, format(entry.createdAt()));
+            out.append(",\"updatedAt\":");
+            json(out, format(entry.updatedAt()));
+            out.append(",\"cloudProvider\":");
+            json(out, entry.cloudProvider());
+            out.append(",\"cloudRegion\":");
+            json(out, entry.cloudRegion());
+            out.append(",\"instanceId\":");
+            json(out, entry.instanceId());
+            out.append(",\"archived\":");
+            out.append(entry.archived() ? "true" : "false");
+            out.append("}\n");
+        }
+    },
+
+    CSV("text/csv") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("id,requester_username,ram,cpu,status,created_at,updated_at,"
+                    + "cloud_provider,cloud_region,instance_id,archived\r\n");
+        }
+
+        @Override
+        void write(StringBuilder out, ProvisioningHistoryEntry entry) {
+            out.append(entry.id().toString());
+            out.append(',');
+            csv(out, entry.requesterUsername());
+            out.append(',');
+            csv(out, entry.ram());
+            out.append(',');
+            csv(out, entry.cpu());
+            out.append(',');
+            out.append(entry.status().name());
+            out.append(',');
+            csv(out, format(entry.createdAt()));
+            out.append(',');
+            csv(out, format(entry.updatedAt()));
+            out.append(',');
+            csv(out, entry.cloudProvider());
+            out.append(',');
+            csv(out, entry.cloudRegion());
+            out.append(',');
+            csv(out, entry.instanceId());
+            out.append(',');
+            out.append(entry.archived() ? "true" : "false");
+            out.append("\r\n");
+        }
+    };
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    String contentType() {
+        return contentType;
+    }
+
+    abstract void writeHeader(Writer out) throws IOException;
+
+    abstract void write(StringBuilder out, ProvisioningHistoryEntry entry);
+
+    static ExportFormat of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value + " (ndjson or csv)");
+        }
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    private static void json(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // RFC 4180: aspas so quando o valor tem separador, aspas ou quebra de linha
+    private static void csv(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        out.append(value.replace("\"", "\"\""));
+        out.append('"');
+    }
+}
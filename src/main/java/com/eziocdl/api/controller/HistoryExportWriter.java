@@ -0,0 +1,77 @@
+package com.eziocdl.api.controller;
+
+import com.eziocdl.domain.model.ProvisioningHistoryEntry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sink of a history export: formats each row into a fixed-size buffer over the response stream,
+ * gzipped on request. The stream is only opened with the first row (or on {@link #close} for an
+ * empty export), so an export refused before any row can still answer with an error status.
+ *
+ * {@link #close} ends the body; an export that fails midway must not be closed, so that a client
+ * never takes a truncated body (or gzip stream) for a complete one.
+ */
+final class HistoryExportWriter implements Consumer<ProvisioningHistoryEntry>, AutoCloseable {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final ExportFormat format;
+    private final boolean gzip;
+    private final Opener opener;
+    private final StringBuilder line = new StringBuilder(512);
+    private Writer out;
+    private long rows;
+
+    HistoryExportWriter(ExportFormat format, boolean gzip, Opener opener) {
+        this.format = format;
+        this.gzip = gzip;
+        this.opener = opener;
+    }
+
+    @Override
+    public void accept(ProvisioningHistoryEntry entry) {
+        try {
+            line.setLength(0);
+            format.write(line, entry);
+            open().append(line);
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export interrompido apos " + rows + " linha(s)", e); // Cliente desconectou
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        open().close();
+    }
+
+    private Writer open() throws IOException {
+        if (out == null) {
+            OutputStream stream = opener.open();
+            if (gzip) {
+                stream = new GZIPOutputStream(stream, BUFFER);
+            }
+            out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER);
+            format.writeHeader(out);
+        }
+        return out;
+    }
+
+    @FunctionalInterface
+    interface Opener {
+        OutputStream open() throws IOException;
+    }
+}
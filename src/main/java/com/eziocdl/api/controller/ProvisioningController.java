@@ -1,53 +1,276 @@
 package com.eziocdl.api.controller;
 
 import com.eziocdl.api.dto.request.CreateVmRequest;
+import com.eziocdl.api.dto.request.DesiredVmRequest;
+import com.eziocdl.api.dto.request.ReconcileRequest;
+import com.eziocdl.api.dto.response.CloudInstanceResponse;
+import com.eziocdl.api.dto.response.ReconcileResponse;
+import com.eziocdl.api.dto.response.StatusTransitionResponse;
+import com.eziocdl.api.dto.response.TimelineResponse;
 import com.eziocdl.api.dto.response.VmStatusResponse;
-import com.eziocdl.application.port.in.CreateProvisioningUseCasePort;
-import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.application.port.in.DeprovisionProvisioningUseCasePort;
+import com.eziocdl.application.port.in.ExportProvisioningHistoryUseCasePort;
+import com.eziocdl.application.port.in.FindProvisioningByInstanceUseCasePort;
+import com.eziocdl.application.port.in.IdempotentProvisioningUseCasePort;
+import com.eziocdl.application.port.in.ProvisioningTimelineUseCasePort;
+import com.eziocdl.application.port.in.ReconcileProvisioningUseCasePort;
+import com.eziocdl.domain.model.ProvisioningHistoryQuery;
+import com.eziocdl.domain.model.ProvisioningReceipt;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.ReconcilePlan;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.StatusTransition;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // No modo reativo: ProvisioningHandler
 @RequestMapping("/api/v1/provisioning")
 @Tag(name = "Provisioning API", description = "Endpoints para gerenciamento do ciclo de vida de infraestrutura")
 public class ProvisioningController {
 
-    private final CreateProvisioningUseCasePort useCase;
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private final IdempotentProvisioningUseCasePort useCase;
+    private final FindProvisioningByInstanceUseCasePort findByInstanceUseCase;
+    private final ProvisioningTimelineUseCasePort timelineUseCase;
+    private final ExportProvisioningHistoryUseCasePort exportUseCase;
+    private final ReconcileProvisioningUseCasePort reconcileUseCase;
+    private final DeprovisionProvisioningUseCasePort deprovisionUseCase;
 
-    public ProvisioningController(CreateProvisioningUseCasePort useCase) {
+    public ProvisioningController(IdempotentProvisioningUseCasePort useCase,
+                                  FindProvisioningByInstanceUseCasePort findByInstanceUseCase,
+                                  ProvisioningTimelineUseCasePort timelineUseCase,
+                                  ExportProvisioningHistoryUseCasePort exportUseCase,
+                                  ReconcileProvisioningUseCasePort reconcileUseCase,
+                                  DeprovisionProvisioningUseCasePort deprovisionUseCase) {
         this.useCase = useCase;
+        this.findByInstanceUseCase = findByInstanceUseCase;
+        this.timelineUseCase = timelineUseCase;
+        this.exportUseCase = exportUseCase;
+        this.reconcileUseCase = reconcileUseCase;
+        this.deprovisionUseCase = deprovisionUseCase;
     }
 
     @Operation(
             summary = "Provisionar Recurso",
-            description = "Inicia o workflow de provisionamento de uma nova Máquina Virtual. A solicitação é persistida e submetida às regras de governança antes da execução no provedor de nuvem."
+            description = "Inicia o workflow de provisionamento de uma nova Máquina Virtual. A solicitação é persistida e submetida às regras de governança antes da execução no provedor de nuvem. "
+                    + "Com o header Idempotency-Key, repetições da mesma chamada devolvem a resposta original (com Idempotent-Replayed: true) em vez de criar outra VM. "
+                    + "Com leaseHours, a VM é removida automaticamente quando o lease vence."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Solicitação aceita e persistida."),
+            @ApiResponse(responseCode = "201", description = "Solicitação aceita e persistida, ou resposta original de uma chamada repetida."),
             @ApiResponse(responseCode = "400", description = "Falha na validação do contrato de entrada."),
             @ApiResponse(responseCode = "403", description = "Violação de política de governança. Recursos solicitados excedem a cota do usuário."),
-            @ApiResponse(responseCode = "500", description = "Erro interno no processamento da solicitação.")
+            @ApiResponse(responseCode = "409", description = "Uma chamada com a mesma Idempotency-Key ainda está em processamento."),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outro corpo de requisição."),
+            @ApiResponse(responseCode = "429", description = "Limite de criações por minuto do usuário atingido. Tente novamente após o tempo indicado em Retry-After."),
+            @ApiResponse(responseCode = "500", description = "Erro interno no processamento da solicitação."),
+            @ApiResponse(responseCode = "503", description = "API sobrecarregada. Tente novamente após o tempo indicado em Retry-After.")
     })
     @PostMapping
-    public ResponseEntity<VmStatusResponse> create(@RequestBody CreateVmRequest request) {
+    public ResponseEntity<VmStatusResponse> create(
+            @RequestBody CreateVmRequest request,
+            @Parameter(description = "Chave única por tentativa lógica; retries com a mesma chave não criam outra VM.")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
-        ProvisioningRequest domainObject = useCase.create(
+        ProvisioningReceipt receipt = useCase.create(
+                idempotencyKey,
                 request.username(),
                 request.ram(),
-                request.cpu()
+                request.cpu(),
+                request.leaseHours() == null ? null : Duration.ofHours(request.leaseHours())
         );
 
         VmStatusResponse response = new VmStatusResponse(
-                domainObject.getId(),
-                domainObject.getStatus().name(),
-                domainObject.getId().toString()
+                receipt.provisioningId(),
+                receipt.status().name(),
+                receipt.provisioningId().toString()
         );
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        ResponseEntity.BodyBuilder created = ResponseEntity.status(HttpStatus.CREATED);
+        if (receipt.replayed()) {
+            created.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return created.body(response);
+    }
+
+    @Operation(
+            summary = "Reconciliar Estado Desejado",
+            description = "Recebe o conjunto completo de VMs que o dono deve ter e cria ou remove apenas a diferença em relação às solicitações vivas dele. "
+                    + "VMs do mesmo tamanho são intercambiáveis; as remoções começam pelas que ainda não subiram. Repetir a mesma chamada não muda nada. "
+                    + "Com dryRun=true só devolve o plano."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado reconciliado (ou plano calculado)."),
+            @ApiResponse(responseCode = "400", description = "Tamanho inválido, quantidade negativa ou VMs demais."),
+            @ApiResponse(responseCode = "403", description = "Algum tamanho excede a cota do usuário, ou quem chama não é o dono nem admin; nada foi aplicado.")
+    })
+    @PutMapping("/owners/{owner}/desired-state")
+    public ResponseEntity<ReconcileResponse> reconcile(@PathVariable String owner,
+                                                       @RequestBody ReconcileRequest request,
+                                                       @RequestParam(defaultValue = "false") boolean dryRun) {
+        Map<ResourceSpec, Integer> desired = new LinkedHashMap<>();
+        for (DesiredVmRequest vm : request.vms()) {
+            desired.merge(ResourceSpec.of(vm.ram(), vm.cpu()), vm.count(), Integer::sum);
+        }
+
+        ReconcilePlan plan = reconcileUseCase.reconcile(owner, desired, dryRun);
+
+        return ResponseEntity.ok(new ReconcileResponse(
+                owner,
+                dryRun,
+                plan.toCreate().stream().map(spec -> spec.ramFormatted() + "/" + spec.cpuFormatted()).toList(),
+                plan.toDelete().stream().map(ProvisioningSnapshot::id).toList(),
+                plan.unchanged()
+        ));
+    }
+
+    @Operation(
+            summary = "Buscar por Instância",
+            description = "Localiza a solicitação que originou um servidor no provedor de nuvem, a partir do ID da instância (ex: ID do Nova)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação encontrada."),
+            @ApiResponse(responseCode = "404", description = "Nenhuma solicitação associada a esta instância, ou de outro usuário sem ser admin.")
+    })
+    @GetMapping("/instances/{instanceId}")
+    public ResponseEntity<CloudInstanceResponse> findByInstance(@PathVariable String instanceId,
+                                                                @RequestParam(defaultValue = "openstack") String provider) {
+        return findByInstanceUseCase.find(provider, instanceId)
+                .map(request -> new CloudInstanceResponse(
+                        request.getId(),
+                        request.getStatus().name(),
+                        request.getCloudProvider(),
+                        request.getCloudRegion(),
+                        request.getInstanceId()
+                ))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Remover VM",
+            description = "Pede a remoção da VM da solicitação. O pedido passa a DELETING na hora e a VM é apagada no provedor pela varredura de leases, em lote, "
+                    + "chegando a DELETED. Repetir a chamada não muda nada; pedidos que nunca tiveram VM (FAILED, REJECTED) ficam como estão."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Remoção pedida ou já em andamento."),
+            @ApiResponse(responseCode = "200", description = "Nada a remover: a VM já foi removida ou nunca existiu."),
+            @ApiResponse(responseCode = "404", description = "Solicitação não encontrada, ou de outro usuário sem ser admin.")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<VmStatusResponse> delete(@PathVariable UUID id) {
+        return deprovisionUseCase.requestDeletion(id)
+                .map(status -> ResponseEntity.status(status == ProvisioningStatus.DELETING ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                        .body(new VmStatusResponse(id, status.name(), id.toString())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Histórico de Estados",
+            description = "Lista cada mudança de estado da solicitação, com quem a fez e quando, a partir do log append-only de transições. "
+                    + "O log é gravado em lote: a mudança mais recente pode levar alguns milissegundos para aparecer."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histórico encontrado."),
+            @ApiResponse(responseCode = "404", description = "Nenhuma transição registrada para esta solicitação.")
+    })
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<TimelineResponse> timeline(@PathVariable UUID id) {
+        List<StatusTransition> transitions = timelineUseCase.timeline(id);
+        if (transitions.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new TimelineResponse(id, transitions.stream()
+                .map(transition -> new StatusTransitionResponse(
+                        transition.from() == null ? null : transition.from().name(),
+                        transition.to().name(),
+                        transition.actor(),
+                        transition.occurredAt()
+                ))
+                .toList()));
+    }
+
+    @Operation(
+            summary = "Exportar Histórico",
+            description = "Exporta as solicitações (ativas e arquivadas) criadas no período, em NDJSON ou CSV. "
+                    + "As linhas são enviadas conforme saem do banco (chunked), sem ordenação; com Accept-Encoding: gzip a resposta vem comprimida. "
+                    + "Se a exportação falhar no meio, a conexão é encerrada sem finalizar o corpo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação enviada por completo."),
+            @ApiResponse(responseCode = "400", description = "Período inválido, status ou formato desconhecido."),
+            @ApiResponse(responseCode = "503", description = "Limite de exportações simultâneas atingido. Tente novamente após o tempo indicado em Retry-After.")
+    })
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "Início do período (inclusivo), ex: 2026-09-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (exclusivo)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Status aceitos; sem o parâmetro, todos")
+            @RequestParam(required = false) Set<ProvisioningStatus> status,
+            @Parameter(description = "ndjson ou csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        ProvisioningHistoryQuery query = new ProvisioningHistoryQuery(from, to, status);
+        ExportFormat exportFormat = ExportFormat.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        HistoryExportWriter writer = new HistoryExportWriter(exportFormat, gzip, () -> {
+            response.setContentType(exportFormat.contentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.getOutputStream();
+        });
+        try {
+            exportUseCase.export(query, writer);
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset(); // Nada saiu ainda: o GlobalExceptionHandler responde o erro
+            }
+            throw e;
+        }
+        writer.close();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
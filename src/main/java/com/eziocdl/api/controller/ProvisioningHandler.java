@@ -0,0 +1,86 @@
+package com.eziocdl.api.controller;
+
+import com.eziocdl.api.dto.request.CreateVmRequest;
+import com.eziocdl.api.dto.response.CloudInstanceResponse;
+import com.eziocdl.api.dto.response.VmStatusResponse;
+import com.eziocdl.api.exception.GlobalExceptionHandler;
+import com.eziocdl.application.port.in.ReactiveProvisioningUseCasePort;
+import com.eziocdl.domain.exception.PolicyViolationException;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional WebFlux endpoints of the reactive mode, with the same paths, bodies and error
+ * responses as {@link ProvisioningController}.
+ */
+public class ProvisioningHandler {
+
+    private final ReactiveProvisioningUseCasePort useCase;
+    private final GlobalExceptionHandler errors;
+
+    public ProvisioningHandler(ReactiveProvisioningUseCasePort useCase, GlobalExceptionHandler errors) {
+        this.useCase = useCase;
+        this.errors = errors;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST("/api/v1/provisioning", this::create)
+                .GET("/api/v1/provisioning/instances/{instanceId}", this::findByInstance)
+                .build();
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(CreateVmRequest.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Request body required")))
+                .flatMap(body -> useCase.create(body.username(), body.ram(), body.cpu()))
+                .flatMap(created -> ServerResponse.status(HttpStatus.CREATED).bodyValue(new VmStatusResponse(
+                        created.getId(),
+                        created.getStatus().name(),
+                        created.getId().toString()
+                )))
+                .onErrorResume(PolicyViolationException.class, e -> problem(errors.handlePolicyViolation(e)))
+                .onErrorResume(RateLimitExceededException.class, e -> problem(errors.handleRateLimitExceeded(e)))
+                .onErrorResume(IllegalArgumentException.class, e -> problem(errors.handleBadRequest(e)))
+                .onErrorResume(e -> e instanceof CodecException || e instanceof ServerWebInputException,
+                        e -> problem(errors.handleBadRequest(new IllegalArgumentException(
+                                NestedExceptionUtils.getMostSpecificCause(e).getMessage()))));
+    }
+
+    public Mono<ServerResponse> findByInstance(ServerRequest request) {
+        String provider = request.queryParam("provider").orElse("openstack");
+        return useCase.findByInstance(provider, request.pathVariable("instanceId"))
+                .flatMap(found -> ServerResponse.ok().bodyValue(new CloudInstanceResponse(
+                        found.getId(),
+                        found.getStatus().name(),
+                        found.getCloudProvider(),
+                        found.getCloudRegion(),
+                        found.getInstanceId()
+                )))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private static Mono<ServerResponse> problem(ProblemDetail problem) {
+        return ServerResponse.status(problem.getStatus())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .bodyValue(problem);
+    }
+
+    private static Mono<ServerResponse> problem(ResponseEntity<ProblemDetail> response) {
+        return ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()))
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .bodyValue(response.getBody());
+    }
+}
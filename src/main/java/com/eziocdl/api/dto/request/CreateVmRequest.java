@@ -12,11 +12,19 @@ public record CreateVmRequest(
         String ram,
 
         @Schema(description = "Alocação de vCPUs.", example = "8vCPU", requiredMode = Schema.RequiredMode.REQUIRED)
-        String cpu
+        String cpu,
+
+        @Schema(description = "Lease em horas: passado esse tempo a VM é removida. Sem valor, vale o padrão do perfil (TRAINEE: 7 dias; demais: sem expiração).", example = "72")
+        Integer leaseHours
 ) {
     public CreateVmRequest {
         if (username == null || username.isBlank()) throw new IllegalArgumentException("Username required");
         if (ram == null || ram.isBlank()) throw new IllegalArgumentException("RAM required");
         if (cpu == null || cpu.isBlank()) throw new IllegalArgumentException("CPU required");
+        if (leaseHours != null && leaseHours <= 0) throw new IllegalArgumentException("Lease must be positive");
+    }
+
+    public CreateVmRequest(String username, String ram, String cpu) {
+        this(username, ram, cpu, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.eziocdl.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Quantidade desejada de VMs de um tamanho.")
+public record DesiredVmRequest(
+
+        @Schema(description = "Memória RAM de cada VM.", example = "8GB", requiredMode = Schema.RequiredMode.REQUIRED)
+        String ram,
+
+        @Schema(description = "vCPUs de cada VM.", example = "2vCPU", requiredMode = Schema.RequiredMode.REQUIRED)
+        String cpu,
+
+        @Schema(description = "Quantas VMs deste tamanho o dono deve ter (0 remove todas).", example = "3", requiredMode = Schema.RequiredMode.REQUIRED)
+        int count
+) {
+    public DesiredVmRequest {
+        if (ram == null || ram.isBlank()) throw new IllegalArgumentException("RAM required");
+        if (cpu == null || cpu.isBlank()) throw new IllegalArgumentException("CPU required");
+        if (count < 0) throw new IllegalArgumentException("Count must be zero or positive");
+    }
+}
@@ -0,0 +1,16 @@
+package com.eziocdl.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Conjunto completo de VMs que o dono deve ter. Tamanhos ausentes contam como zero.")
+public record ReconcileRequest(
+
+        @Schema(description = "VMs desejadas por tamanho; o mesmo tamanho repetido soma as quantidades.")
+        List<DesiredVmRequest> vms
+) {
+    public ReconcileRequest {
+        vms = vms == null ? List.of() : List.copyOf(vms);
+    }
+}
@@ -0,0 +1,23 @@
+package com.eziocdl.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+
+@Schema(description = "Solicitação de provisionamento associada a um servidor do provedor de nuvem.")
+public record CloudInstanceResponse(
+
+        @Schema(description = "Identificador único (UUID) da solicitação no sistema.", example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID id,
+
+        @Schema(description = "Estado atual do ciclo de vida da solicitação.", example = "ACTIVE")
+        String status,
+
+        @Schema(description = "Provedor de nuvem que hospeda o servidor.", example = "openstack")
+        String provider,
+
+        @Schema(description = "Região do provedor.", example = "RegionOne")
+        String region,
+
+        @Schema(description = "Identificador do servidor no provedor (ex: ID do Nova).", example = "5d3f6c1e-9a2b-4c7d-8e1f-0a1b2c3d4e5f")
+        String instanceId
+) {}
@@ -0,0 +1,25 @@
+package com.eziocdl.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Resultado (ou plano, em dry run) da reconciliação do estado desejado de um dono.")
+public record ReconcileResponse(
+
+        @Schema(description = "Dono das VMs reconciliadas.", example = "team-payments")
+        String owner,
+
+        @Schema(description = "true quando nada foi aplicado, só calculado.", example = "false")
+        boolean dryRun,
+
+        @Schema(description = "Tamanhos das VMs criadas (ou a criar), uma entrada por VM.", example = "[\"8GB/2vCPU\"]")
+        List<String> created,
+
+        @Schema(description = "Solicitações marcadas (ou a marcar) para remoção.")
+        List<UUID> deleting,
+
+        @Schema(description = "VMs existentes que já atendiam o estado desejado.", example = "12")
+        int unchanged
+) {}
@@ -0,0 +1,20 @@
+package com.eziocdl.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "Mudança de estado de uma solicitação.")
+public record StatusTransitionResponse(
+
+        @Schema(description = "Estado anterior; nulo na criação.", example = "PROVISIONING")
+        String from,
+
+        @Schema(description = "Novo estado.", example = "ACTIVE")
+        String to,
+
+        @Schema(description = "Quem fez a mudança: o usuário, ou 'system' para os workers de provisionamento.", example = "system")
+        String actor,
+
+        @Schema(description = "Quando a mudança aconteceu.", example = "2026-10-19T14:03:27.118")
+        LocalDateTime at
+) {}
@@ -0,0 +1,14 @@
+package com.eziocdl.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Histórico de estados de uma solicitação, do mais antigo ao mais recente.")
+public record TimelineResponse(
+
+        @Schema(description = "Identificador único (UUID) da solicitação no sistema.", example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID id,
+
+        List<StatusTransitionResponse> transitions
+) {}
@@ -1,8 +1,15 @@
 package com.eziocdl.api.exception;
 
+import com.eziocdl.domain.exception.ExportLimitExceededException;
+import com.eziocdl.domain.exception.IdempotencyKeyInProgressException;
+import com.eziocdl.domain.exception.IdempotencyKeyMismatchException;
+import com.eziocdl.domain.exception.OwnershipViolationException;
 import com.eziocdl.domain.exception.PolicyViolationException;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -32,6 +39,94 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(OwnershipViolationException.class)
+    public ProblemDetail handleOwnershipViolation(OwnershipViolationException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.FORBIDDEN,
+                ex.getMessage()
+        );
+
+        problem.setTitle("Ownership Violation");
+        problem.setType(URI.create("https://cpm.org/errors/ownership-violation"));
+        problem.setProperty("caller", ex.getCaller());
+        problem.setProperty("owner", ex.getOwner());
+        problem.setProperty("timestamp", Instant.now());
+
+        System.err.println("🚫 [Ownership] BLOCKED: " + ex.getMessage());
+
+        return problem;
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceeded(RateLimitExceededException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage()
+        );
+
+        problem.setTitle("Rate Limit Exceeded");
+        problem.setType(URI.create("https://cpm.org/errors/rate-limit-exceeded"));
+        problem.setProperty("username", ex.getUsername());
+        problem.setProperty("limit", ex.getLimit());
+        problem.setProperty("windowSeconds", ex.getWindow().toSeconds());
+        problem.setProperty("timestamp", Instant.now());
+
+        System.err.println("⏳ [RateLimit] BLOCKED: " + ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(problem);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ProblemDetail handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                ex.getMessage()
+        );
+
+        problem.setTitle("Idempotency Key In Progress");
+        problem.setType(URI.create("https://cpm.org/errors/idempotency-key-in-progress"));
+        problem.setProperty("idempotencyKey", ex.getIdempotencyKey());
+        problem.setProperty("timestamp", Instant.now());
+
+        return problem;
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ProblemDetail handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNPROCESSABLE_CONTENT,
+                ex.getMessage()
+        );
+
+        problem.setTitle("Idempotency Key Mismatch");
+        problem.setType(URI.create("https://cpm.org/errors/idempotency-key-mismatch"));
+        problem.setProperty("idempotencyKey", ex.getIdempotencyKey());
+        problem.setProperty("timestamp", Instant.now());
+
+        return problem;
+    }
+
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleExportLimitExceeded(ExportLimitExceededException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage()
+        );
+
+        problem.setTitle("Export Limit Exceeded");
+        problem.setType(URI.create("https://cpm.org/errors/export-limit-exceeded"));
+        problem.setProperty("limit", ex.getLimit());
+        problem.setProperty("timestamp", Instant.now());
+
+        // Exportacoes levam minutos: nao adianta tentar de novo em 1s
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body(problem);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleBadRequest(IllegalArgumentException ex) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(
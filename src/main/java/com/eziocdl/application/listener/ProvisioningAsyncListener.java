@@ -1,44 +1,124 @@
 package com.eziocdl.application.listener;
 
+import com.eziocdl.application.port.in.ProvisioningEventHandlerPort;
+import com.eziocdl.application.port.in.RetryProvisioningUseCasePort;
+import com.eziocdl.application.port.in.WarmPoolUseCasePort;
 import com.eziocdl.application.port.out.CloudProviderPort;
 import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.ProvisioningSchedulerPort;
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
 import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.model.CloudInstance;
 import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+@Workload(Workload.Pool.WORKER)
 @Component
 @RequiredArgsConstructor
-public class ProvisioningAsyncListener {
+public class ProvisioningAsyncListener implements ProvisioningEventHandlerPort {
 
     private final CloudProviderPort cloudProviderPort;
     private final ProvisioningRepositoryPort repository;
+    private final ServerStatusTrackerPort statusTracker;
+    private final RetryProvisioningUseCasePort retryUseCase;
+    private final WarmPoolUseCasePort warmPool;
+    private final ProvisioningSchedulerPort scheduler;
 
-    @Async
+    @Override
+    public void onProvisioningRequested(ProvisioningRequestedEvent event) {
+        // Fila justa por usuario e role: um usuario com 500 pedidos nao segura os outros
+        scheduler.submit(event.requesterUsername(), event.requesterRole(), () -> provision(event.request()));
+    }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    // So com cpm.events.pipeline.enabled=false; fallbackExecution cobre o create reativo, sem transacao
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleProvisioningRequested(ProvisioningRequestedEvent event) {
-        System.out.println("⚡ [Listener] Thread separada iniciada (Pós-Commit) para ID: " + event.provisioningId());
+        onProvisioningRequested(event);
+    }
 
-        ProvisioningRequest request = repository.findById(event.provisioningId())
-                .orElseThrow(() -> new RuntimeException("Pedido sumiu do banco!"));
+    private void provision(ProvisioningSnapshot snapshot) {
+        System.out.println("⚡ [Listener] Thread separada iniciada (Pós-Commit) para ID: " + snapshot.id());
+
+        // O evento traz o pedido como foi commitado: nada de findById antes de provisionar
+        ProvisioningRequest request = ProvisioningRequest.restore(snapshot);
 
         try {
 
-            String instanceId = cloudProviderPort.provisionInstance(request);
-            System.out.println("[Listener] Sucesso! ID Nuvem: " + instanceId);
+            Optional<CloudInstance> warm = warmPool.claim(request);
+            if (warm.isPresent()) {
+                // VM do warm pool ja esta ACTIVE: sem boot e sem tracking
+                request.assignInstance(warm.get());
+                request.complete();
+                repository.update(request);
+                return;
+            }
+
+            CloudInstance instance = cloudProviderPort.provisionInstance(request);
 
+            if (!instance.isAllocated()) {
+                // Fallback do circuit breaker: vai para a fila de retry em vez de se perder
+                retryUseCase.enqueue(request, "Provedor indisponivel (fallback)");
+                return;
+            }
 
-            request.complete();
-            repository.save(request);
+            // POST aceito != VM pronta: o tracker avisa quando o Nova reportar ACTIVE ou ERROR
+            System.out.println("[Listener] Servidor criado, aguardando ACTIVE. ID Nuvem: " + instance.instanceId());
+            request.assignInstance(instance);
+            repository.update(request);
+            statusTracker.track(request.getId(), instance);
 
         } catch (Exception e) {
             System.err.println(" [Listener] Falha: " + e.getMessage());
             request.fail();
-            repository.save(request);
+            repository.update(request);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The tracker only lives in memory: after a restart, servers still building would never settle.
+     * Every request waiting on its server goes back to the tracker, from its last recorded progress.
+     * Requests still queued in the scheduler at shutdown never got a server and are not resumed here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int resumeTracking() {
+        List<ProvisioningRequest> awaiting = repository.findAwaitingServer();
+        for (ProvisioningRequest request : awaiting) {
+            CloudInstance instance = new CloudInstance(request.getCloudProvider(), request.getCloudRegion(),
+                    request.getInstanceId());
+            var since = (request.getUpdatedAt() != null ? request.getUpdatedAt() : request.getCreatedAt())
+                    .atZone(ZoneId.systemDefault()).toInstant(); // Timestamps gravados com LocalDateTime.now()
+            statusTracker.resume(request.getId(), instance, since);
+        }
+        if (!awaiting.isEmpty()) {
+            System.out.println("[Listener] Retomando acompanhamento de " + awaiting.size() + " VM(s) em boot");
+        }
+        return awaiting.size();
+    }
+
+    @EventListener
+    public void handleInstanceStatusChanged(InstanceStatusChangedEvent event) {
+        repository.findById(event.provisioningId()).ifPresent(request -> {
+            if (event.status() == ProvisioningStatus.ACTIVE) {
+                System.out.println("[Listener] VM ativa: " + event.instanceId());
+                request.complete();
+            } else {
+                System.err.println(" [Listener] VM falhou (" + event.detail() + "): " + event.instanceId());
+                request.fail();
+            }
+            repository.update(request); // Nunca merge: uma remocao pedida enquanto a VM subia vence
+        });
+    }
+}
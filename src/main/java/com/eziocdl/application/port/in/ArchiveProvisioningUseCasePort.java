@@ -0,0 +1,8 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+
+@Workload(Workload.Pool.WORKER)
+public interface ArchiveProvisioningUseCasePort {
+    int archive();
+}
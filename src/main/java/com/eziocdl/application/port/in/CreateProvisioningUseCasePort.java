@@ -1,7 +1,20 @@
 package com.eziocdl.application.port.in;
 
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.IdempotencyKey;
 import com.eziocdl.domain.model.ProvisioningRequest;
 
+import java.time.Duration;
+
+@Workload(Workload.Pool.API)
 public interface CreateProvisioningUseCasePort {
     ProvisioningRequest create(String username, String ram, String cpu);
+
+    /**
+     * Same as {@link #create(String, String, String)}, with an optional lease (null takes the role's
+     * default) and recording the key, when given, in the same transaction.
+     *
+     * @throws com.eziocdl.domain.exception.DuplicateIdempotencyKeyException when a live record holds the key
+     */
+    ProvisioningRequest create(String username, String ram, String cpu, Duration lease, IdempotencyKey idempotencyKey);
 }
@@ -0,0 +1,21 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DeprovisionProvisioningUseCasePort {
+
+    /**
+     * Asks for the VM of a request to be deleted; the lease sweep tears it down shortly after.
+     * Returns the status the request ended up in, or empty when it does not exist.
+     */
+    @Workload(Workload.Pool.API)
+    Optional<ProvisioningStatus> requestDeletion(UUID provisioningId);
+
+    /** Tears down the requests whose lease expired or whose deletion was asked; returns how many were deleted. */
+    @Workload(Workload.Pool.WORKER)
+    int reclaimDue();
+}
@@ -0,0 +1,12 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningHistoryEntry;
+import com.eziocdl.domain.model.ProvisioningHistoryQuery;
+
+import java.util.function.Consumer;
+
+@Workload(Workload.Pool.READ_ONLY)
+public interface ExportProvisioningHistoryUseCasePort {
+    long export(ProvisioningHistoryQuery query, Consumer<ProvisioningHistoryEntry> sink);
+}
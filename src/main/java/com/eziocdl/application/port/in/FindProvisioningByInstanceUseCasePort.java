@@ -0,0 +1,11 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningRequest;
+
+import java.util.Optional;
+
+@Workload(Workload.Pool.READ_ONLY)
+public interface FindProvisioningByInstanceUseCasePort {
+    Optional<ProvisioningRequest> find(String cloudProvider, String instanceId);
+}
@@ -0,0 +1,20 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningReceipt;
+
+import java.time.Duration;
+
+public interface IdempotentProvisioningUseCasePort {
+
+    /**
+     * Creates the request, or replays the first answer given for this Idempotency-Key. A null key always
+     * creates. The lease is part of the request: the same key with another lease is a different body.
+     */
+    @Workload(Workload.Pool.API) // So o create: o purge agendado fica no pool de workers
+    ProvisioningReceipt create(String idempotencyKey, String username, String ram, String cpu, Duration lease);
+
+    default ProvisioningReceipt create(String idempotencyKey, String username, String ram, String cpu) {
+        return create(idempotencyKey, username, ram, cpu, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+
+/**
+ * Receives committed requests from the event pipeline, on the pipeline's consumer thread.
+ * Implementations must hand long work off instead of running it inline.
+ */
+public interface ProvisioningEventHandlerPort {
+    void onProvisioningRequested(ProvisioningRequestedEvent event);
+}
@@ -0,0 +1,12 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.StatusTransition;
+
+import java.util.List;
+import java.util.UUID;
+
+@Workload(Workload.Pool.READ_ONLY)
+public interface ProvisioningTimelineUseCasePort {
+    List<StatusTransition> timeline(UUID provisioningId);
+}
@@ -0,0 +1,10 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.domain.model.ProvisioningRequest;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProvisioningUseCasePort {
+    Mono<ProvisioningRequest> create(String username, String ram, String cpu);
+
+    Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId);
+}
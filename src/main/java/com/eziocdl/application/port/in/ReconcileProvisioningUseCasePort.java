@@ -0,0 +1,17 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ReconcilePlan;
+import com.eziocdl.domain.model.ResourceSpec;
+
+import java.util.Map;
+
+@Workload(Workload.Pool.API)
+public interface ReconcileProvisioningUseCasePort {
+
+    /**
+     * Converges the owner's live requests to {@code desired} (VM count per size). With {@code dryRun}
+     * only computes the plan.
+     */
+    ReconcilePlan reconcile(String owner, Map<ResourceSpec, Integer> desired, boolean dryRun);
+}
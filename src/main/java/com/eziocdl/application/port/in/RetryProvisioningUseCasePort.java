@@ -0,0 +1,11 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningRequest;
+
+@Workload(Workload.Pool.WORKER)
+public interface RetryProvisioningUseCasePort {
+    void enqueue(ProvisioningRequest request, String reason);
+
+    int drainDue();
+}
@@ -0,0 +1,14 @@
+package com.eziocdl.application.port.in;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+
+import java.util.Optional;
+
+@Workload(Workload.Pool.WORKER)
+public interface WarmPoolUseCasePort {
+    Optional<CloudInstance> claim(ProvisioningRequest request);
+
+    int refill();
+}
@@ -1,7 +1,29 @@
 package com.eziocdl.application.port.out;
 
+import com.eziocdl.domain.model.CloudInstance;
 import com.eziocdl.domain.model.ProvisioningRequest;
 
+import java.util.List;
+
 public interface CloudProviderPort {
-    String provisionInstance(ProvisioningRequest request);
+    CloudInstance provisionInstance(ProvisioningRequest request);
+
+    /**
+     * Provisions requests that share the same spec, returning one instance per request, in order.
+     * Providers with a multi-create API should override this to use a single call.
+     */
+    default List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+        return requests.stream().map(this::provisionInstance).toList();
+    }
+
+    /**
+     * Deletes the given servers in one call and returns the IDs that are gone, including the ones the
+     * provider no longer knew. Instances left out were not confirmed deleted and should be retried.
+     */
+    List<String> deprovisionInstances(List<CloudInstance> instances);
+
+    /** False while calls would be short-circuited anyway (e.g. open circuit breaker). */
+    default boolean isAvailable() {
+        return true;
+    }
 }
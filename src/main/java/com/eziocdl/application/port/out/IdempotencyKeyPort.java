@@ -0,0 +1,21 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyPort {
+
+    Optional<IdempotencyRecord> find(String owner, String idempotencyKey);
+
+    /**
+     * Stores the record in the caller's transaction, taking over an expired record with the same key.
+     * Returns false when a live record holds the key. A concurrent, still uncommitted reservation of
+     * the same key makes this wait for its transaction to end.
+     */
+    boolean reserve(IdempotencyRecord record);
+
+    /** Deletes expired records in batches of {@code batchSize}; returns how many were removed. */
+    int deleteExpired(LocalDateTime now, int batchSize);
+}
@@ -0,0 +1,26 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.application.workload.Workload;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Maintenance of the monthly partitions of the provisioning requests and of their archive.
+ * When another replica is already running a step, the call returns 0 without doing anything.
+ */
+@Workload(Workload.Pool.WORKER)
+public interface ProvisioningArchivePort {
+
+    /** Creates the missing partitions from {@code from} to {@code monthsAhead} months later; returns how many. */
+    int createPartitions(YearMonth from, int monthsAhead);
+
+    /**
+     * Moves FAILED, REJECTED and DELETED requests created before {@code cutoff} to the archive,
+     * {@code batchSize} rows per transaction; returns how many moved.
+     */
+    int archiveTerminal(LocalDateTime cutoff, int batchSize);
+
+    /** Drops the partitions that end before {@code cutoff} and no longer hold any request; returns how many. */
+    int dropEmptyPartitions(LocalDateTime cutoff);
+}
@@ -0,0 +1,27 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+
+import java.util.List;
+
+/**
+ * Hands new requests to the provisioning workers. Inside a transaction the event is only
+ * delivered after commit; without one it is delivered right away.
+ */
+public interface ProvisioningEventPort {
+    void publish(ProvisioningRequestedEvent event);
+
+    /**
+     * Publishes only if that can be done without waiting (e.g. the ring has a free slot); returns
+     * false otherwise and the caller should {@link #publish} from a thread that may block.
+     */
+    default boolean tryPublish(ProvisioningRequestedEvent event) {
+        publish(event);
+        return true;
+    }
+
+    /** Publishes many events as one delivery, in order (e.g. every create of a reconciliation). */
+    default void publishAll(List<ProvisioningRequestedEvent> events) {
+        events.forEach(this::publish);
+    }
+}
@@ -0,0 +1,18 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.ProvisioningHistoryEntry;
+import com.eziocdl.domain.model.ProvisioningHistoryQuery;
+
+import java.util.function.Consumer;
+
+/**
+ * Row-by-row read of the provisioning history, live and archived requests alike.
+ */
+public interface ProvisioningHistoryPort {
+
+    /**
+     * Hands each matching request to {@code sink} as it is read, holding no more than one fetch
+     * of rows in memory. Rows are not sorted. Returns how many rows were read.
+     */
+    long stream(ProvisioningHistoryQuery query, Consumer<ProvisioningHistoryEntry> sink);
+}
@@ -0,0 +1,29 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based access to the requests of one owner, for reconciliation: every method is one statement,
+ * whatever the number of requests.
+ */
+public interface ProvisioningInventoryPort {
+
+    /** Serializes reconciliations of the same owner until the current transaction ends. */
+    void lockOwner(String owner);
+
+    /** Live requests (see {@link com.eziocdl.domain.model.ProvisioningStatus#isLive()}) of the owner. */
+    List<ProvisioningSnapshot> findLive(String owner);
+
+    void insertAll(List<ProvisioningRequest> requests);
+
+    /**
+     * Moves the given requests to DELETING, due for teardown at {@code at}, when they are still live.
+     * Returns the ids that moved; the others changed in the meantime and were left alone.
+     */
+    List<UUID> markDeleting(List<ProvisioningSnapshot> requests, LocalDateTime at);
+}
@@ -0,0 +1,29 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.DeprovisionTarget;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Requests due for teardown: leases that expired and deletions already requested (DELETING).
+ */
+@Workload(Workload.Pool.WORKER)
+public interface ProvisioningLeasePort {
+
+    /**
+     * Returns up to {@code limit} requests due at {@code now}, earliest expiry first, moved to DELETING.
+     * Their expiry is pushed {@code lease} ahead, so a teardown that does not finish comes back then and
+     * concurrent sweepers (other replicas) skip them meanwhile.
+     */
+    List<DeprovisionTarget> claimDue(LocalDateTime now, int limit, Duration lease);
+
+    /**
+     * Moves claimed requests from DELETING to DELETED, unless a worker recorded another instance for
+     * them since the claim. Returns the ids that moved.
+     */
+    List<UUID> markDeleted(List<DeprovisionTarget> targets, LocalDateTime at);
+}
@@ -2,10 +2,23 @@ package com.eziocdl.application.port.out;
 
 import com.eziocdl.domain.model.ProvisioningRequest;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ProvisioningRepositoryPort {
     ProvisioningRequest save(ProvisioningRequest request);
+
+    /**
+     * Writes the status and the cloud columns the request carries onto a request that already exists,
+     * without loading it first. The lease and the other columns stay as stored, and a stored DELETING or DELETED is never
+     * overwritten by a worker's progress. Workers write with this, never with {@link #save}.
+     */
+    void update(ProvisioningRequest request);
+
     Optional<ProvisioningRequest> findById(UUID id);
+    Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId);
+
+    /** Requests whose server was created but not yet reported ACTIVE or failed (PROVISIONING with an instance). */
+    List<ProvisioningRequest> findAwaitingServer();
 }
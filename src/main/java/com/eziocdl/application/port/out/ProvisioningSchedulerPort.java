@@ -0,0 +1,9 @@
+package com.eziocdl.application.port.out;
+
+/**
+ * Runs provisioning work asynchronously, sharing capacity fairly between users and roles.
+ * Tasks of the same user start in submission order.
+ */
+public interface ProvisioningSchedulerPort {
+    void submit(String username, String role, Runnable task);
+}
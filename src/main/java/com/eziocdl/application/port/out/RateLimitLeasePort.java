@@ -0,0 +1,14 @@
+package com.eziocdl.application.port.out;
+
+import java.time.LocalDateTime;
+
+public interface RateLimitLeasePort {
+
+    /**
+     * Atomically takes up to {@code chunk} tokens of the {@code limit} shared by every replica for
+     * this user and window. Returns how many were granted; 0 once the window is spent.
+     */
+    int lease(String username, LocalDateTime windowStart, int chunk, int limit);
+
+    void purgeBefore(LocalDateTime windowStart);
+}
@@ -0,0 +1,22 @@
+package com.eziocdl.application.port.out;
+
+public interface RateLimiterPort {
+
+    /**
+     * Takes one create from the caller's budget.
+     *
+     * @throws com.eziocdl.domain.exception.RateLimitExceededException when the budget is spent
+     */
+    void acquire(String username);
+
+    /**
+     * Takes {@code permits} creates at once, for calls that create many VMs in one request.
+     *
+     * @throws com.eziocdl.domain.exception.RateLimitExceededException when fewer are left
+     */
+    default void acquire(String username, int permits) {
+        for (int i = 0; i < permits; i++) {
+            acquire(username);
+        }
+    }
+}
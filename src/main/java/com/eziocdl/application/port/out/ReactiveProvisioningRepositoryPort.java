@@ -0,0 +1,15 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.ProvisioningRequest;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/** Non-blocking counterpart of {@link ProvisioningRepositoryPort}, used by the reactive mode. */
+public interface ReactiveProvisioningRepositoryPort {
+    Mono<ProvisioningRequest> save(ProvisioningRequest request);
+
+    Mono<ProvisioningRequest> findById(UUID id);
+
+    Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId);
+}
@@ -0,0 +1,24 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ProvisioningRetry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Workload(Workload.Pool.WORKER)
+public interface RetryQueuePort {
+    ProvisioningRetry save(ProvisioningRetry retry);
+
+    /**
+     * Returns up to {@code limit} PENDING entries due at {@code now}, oldest first, and leases them
+     * for {@code lease} so concurrent drainers (other replicas) skip them.
+     */
+    List<ProvisioningRetry> claimDue(LocalDateTime now, int limit, Duration lease);
+
+    void remove(UUID provisioningId);
+
+    long countPending();
+}
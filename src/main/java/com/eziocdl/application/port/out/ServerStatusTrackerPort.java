@@ -0,0 +1,22 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.CloudInstance;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Follows a freshly created server until the cloud reports it ACTIVE or failed.
+ * The outcome is published as an {@link com.eziocdl.domain.event.InstanceStatusChangedEvent}.
+ */
+public interface ServerStatusTrackerPort {
+    void track(UUID provisioningId, CloudInstance instance);
+
+    /**
+     * Tracks a server created before this process started, e.g. after a restart. It may have settled
+     * while nobody was watching, so changes since {@code since} (its last recorded progress) count too.
+     */
+    default void resume(UUID provisioningId, CloudInstance instance, Instant since) {
+        track(provisioningId, instance);
+    }
+}
@@ -0,0 +1,15 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.domain.model.StatusTransition;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TransitionLogPort {
+
+    /** Appends the transitions; the buffered implementation returns before they reach the table. */
+    void append(List<StatusTransition> transitions);
+
+    /** Every transition of the request, oldest first. */
+    List<StatusTransition> findByProvisioningId(UUID provisioningId);
+}
@@ -0,0 +1,29 @@
+package com.eziocdl.application.port.out;
+
+import com.eziocdl.application.workload.Workload;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.WarmInstance;
+import com.eziocdl.domain.model.WarmInstanceState;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Workload(Workload.Pool.WORKER)
+public interface WarmPoolPort {
+    WarmInstance save(WarmInstance instance);
+
+    Optional<WarmInstance> findById(UUID id);
+
+    /**
+     * Atomically takes the oldest READY instance of this spec and image out of the pool, so two
+     * requests (or replicas) never get the same server.
+     */
+    Optional<WarmInstance> claimReady(ResourceSpec spec, String image);
+
+    void remove(UUID id);
+
+    long count(ResourceSpec spec, String image, WarmInstanceState state);
+
+    List<WarmInstance> findBooting();
+}
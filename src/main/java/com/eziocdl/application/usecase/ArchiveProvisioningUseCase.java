@@ -0,0 +1,83 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.ArchiveProvisioningUseCasePort;
+import com.eziocdl.application.port.out.ProvisioningArchivePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Keeps the provisioning table small: requests are partitioned by creation month, and finished ones
+ * (FAILED, REJECTED, DELETED) older than {@code retention} move to the archive table in batches. ACTIVE requests
+ * stay: their VMs still exist.
+ * Partitions left empty afterwards are dropped.
+ *
+ * Partitions for the coming months are created on every run, even with archiving disabled.
+ *
+ * Metrics: {@code cpm.archive.rows} and {@code cpm.archive.partitions{action=created|dropped}}.
+ */
+@Service
+public class ArchiveProvisioningUseCase implements ArchiveProvisioningUseCasePort {
+
+    private final ProvisioningArchivePort archive;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final int monthsAhead;
+
+    private final Counter archived;
+    private final Counter created;
+    private final Counter dropped;
+
+    public ArchiveProvisioningUseCase(ProvisioningArchivePort archive,
+                                      MeterRegistry registry,
+                                      Clock clock,
+                                      @Value("${cpm.archive.enabled:true}") boolean enabled,
+                                      @Value("${cpm.archive.retention:90d}") Duration retention,
+                                      @Value("${cpm.archive.batch-size:1000}") int batchSize,
+                                      @Value("${cpm.archive.months-ahead:3}") int monthsAhead) {
+        this.archive = archive;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.monthsAhead = monthsAhead;
+        this.archived = Counter.builder("cpm.archive.rows").register(registry);
+        this.created = Counter.builder("cpm.archive.partitions").tag("action", "created").register(registry);
+        this.dropped = Counter.builder("cpm.archive.partitions").tag("action", "dropped").register(registry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cpm.archive.interval:1h}")
+    public int archive() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            created.increment(archive.createPartitions(YearMonth.from(now), monthsAhead));
+            if (!enabled) {
+                return 0;
+            }
+
+            LocalDateTime cutoff = now.minus(retention);
+            int moved = archive.archiveTerminal(cutoff, batchSize);
+            int removed = archive.dropEmptyPartitions(cutoff);
+            archived.increment(moved);
+            dropped.increment(removed);
+            if (moved > 0 || removed > 0) {
+                System.out.println("[Archive] " + moved + " pedido(s) arquivado(s), " + removed
+                        + " particao(oes) vazia(s) removida(s)");
+            }
+            return moved;
+        } catch (RuntimeException e) {
+            System.err.println("[Archive] Falha na manutencao das particoes: " + e.getMessage());
+            return 0;
+        }
+    }
+}
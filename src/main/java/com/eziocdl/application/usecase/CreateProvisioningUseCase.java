@@ -1,29 +1,42 @@
 package com.eziocdl.application.usecase;
 
 import com.eziocdl.application.port.in.CreateProvisioningUseCasePort;
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
 import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
 import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.exception.DuplicateIdempotencyKeyException;
+import com.eziocdl.domain.model.IdempotencyKey;
+import com.eziocdl.domain.model.IdempotencyRecord;
 import com.eziocdl.domain.model.ProvisioningRequest;
 import com.eziocdl.domain.service.PolicyEnforcementService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class CreateProvisioningUseCase implements CreateProvisioningUseCasePort {
 
     private final ProvisioningRepositoryPort repository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final ProvisioningEventPort events;
     private final PolicyEnforcementService policyEnforcementService;
+    private final IdempotencyKeyPort idempotencyKeys;
 
     @Override
     @Transactional
     public ProvisioningRequest create(String username, String ram, String cpu) {
+        return create(username, ram, cpu, null, null);
+    }
+
+    @Override
+    @Transactional
+    public ProvisioningRequest create(String username, String ram, String cpu, Duration lease, IdempotencyKey idempotencyKey) {
 
         // 1. Extract user role from security context
         String userRole = extractUserRole();
@@ -31,13 +44,22 @@ public class CreateProvisioningUseCase implements CreateProvisioningUseCasePort
         // 2. Enforce governance policies BEFORE processing
         policyEnforcementService.enforce(userRole, ram, cpu);
 
-        // 3. Create and persist the request
+        // 3. Lease: the one asked for, or the role's default (TRAINEE VMs are not kept forever)
         ProvisioningRequest request = new ProvisioningRequest(username, ram, cpu);
+        request.leaseFor(userRole, lease);
+
+        // 4. Claim the Idempotency-Key first: a duplicate rolls back before publishing anything
+        //    (the rate limit was charged by IdempotentCreateProvisioningUseCase, outside this transaction)
+        if (idempotencyKey != null && !idempotencyKeys.reserve(new IdempotencyRecord(idempotencyKey, request))) {
+            throw new DuplicateIdempotencyKeyException(idempotencyKey.key());
+        }
+
+        // 5. Persist the request
         ProvisioningRequest savedRequest = repository.save(request);
         System.out.println("💾 [UseCase] Pedido salvo no DB: " + savedRequest.getId());
 
-        // 4. Publish event for async processing
-        eventPublisher.publishEvent(new ProvisioningRequestedEvent(savedRequest.getId()));
+        // 6. Hand a snapshot to the workers once the transaction commits
+        events.publish(new ProvisioningRequestedEvent(savedRequest.snapshot(), userRole));
 
         return savedRequest;
     }
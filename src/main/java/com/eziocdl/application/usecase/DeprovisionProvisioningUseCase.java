@@ -0,0 +1,190 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.DeprovisionProvisioningUseCasePort;
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.application.port.out.ProvisioningLeasePort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.DeprovisionTarget;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.StatusTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * VM teardown. A request is due once its lease expires or its deletion is asked for (explicitly or by a
+ * reconciliation, which moves it to DELETING right away). Only the requester or an admin can ask for it;
+ * to anyone else the request does not exist.
+ *
+ * A scheduled sweep claims due requests in batches of {@code batchSize}, earliest expiry first, straight
+ * from the expiry index, and sends each batch as one {@code deprovisionInstances} call, only while the
+ * provider reports itself available. Requests whose server is confirmed gone (or never existed) become
+ * DELETED; the others come back after {@code lease}.
+ *
+ * Metrics: {@code cpm.deprovision.requests{outcome=deleted|retried}}, {@code cpm.deprovision.expired}
+ * and {@code cpm.deprovision.lag} (expiry to deletion).
+ */
+@Service
+public class DeprovisionProvisioningUseCase implements DeprovisionProvisioningUseCasePort {
+
+    private final ProvisioningLeasePort leases;
+    private final ProvisioningInventoryPort inventory;
+    private final ProvisioningRepositoryPort repository;
+    private final CloudProviderPort cloudProviderPort;
+    private final TransitionLogPort transitionLog;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration lease;
+
+    private final Counter deleted;
+    private final Counter retried;
+    private final Counter expired;
+    private final Timer lag;
+
+    public DeprovisionProvisioningUseCase(ProvisioningLeasePort leases,
+                                          ProvisioningInventoryPort inventory,
+                                          ProvisioningRepositoryPort repository,
+                                          CloudProviderPort cloudProviderPort,
+                                          TransitionLogPort transitionLog,
+                                          MeterRegistry registry,
+                                          Clock clock,
+                                          @Value("${cpm.deprovisioning.batch-size:100}") int batchSize,
+                                          @Value("${cpm.deprovisioning.lease:5m}") Duration lease) {
+        this.leases = leases;
+        this.inventory = inventory;
+        this.repository = repository;
+        this.cloudProviderPort = cloudProviderPort;
+        this.transitionLog = transitionLog;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.lease = lease;
+
+        this.deleted = Counter.builder("cpm.deprovision.requests").tag("outcome", "deleted").register(registry);
+        this.retried = Counter.builder("cpm.deprovision.requests").tag("outcome", "retried").register(registry);
+        this.expired = Counter.builder("cpm.deprovision.expired").register(registry);
+        this.lag = Timer.builder("cpm.deprovision.lag").register(registry);
+    }
+
+    @Override
+    @Transactional
+    public Optional<ProvisioningStatus> requestDeletion(UUID provisioningId) {
+        Optional<ProvisioningRequest> found = repository.findById(provisioningId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ProvisioningRequest request = found.get();
+        if (!RequesterAccess.isRequesterOrAdmin(request.getRequesterUsername())) {
+            // 404 e nao 403: nao revela que o pedido existe
+            System.err.println("[Deprovision] Remocao de " + provisioningId + " negada a "
+                    + RequesterAccess.caller(request.getRequesterUsername()));
+            return Optional.empty();
+        }
+        if (!request.getStatus().isLive()) {
+            return Optional.of(request.getStatus()); // Ja em remocao, removido ou sem VM
+        }
+
+        if (inventory.markDeleting(List.of(request.snapshot()), now()).isEmpty()) {
+            // Mudou entre a leitura e o UPDATE (ex: reconciliacao do mesmo dono)
+            return repository.findById(provisioningId).map(ProvisioningRequest::getStatus);
+        }
+        request.requestDeletion(RequesterAccess.caller(request.getRequesterUsername()));
+        transitionLog.append(request.pullTransitions());
+        System.out.println("[Deprovision] Remocao pedida para " + provisioningId);
+        return Optional.of(ProvisioningStatus.DELETING);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cpm.deprovisioning.interval:10s}")
+    public int reclaimDue() {
+        int reclaimed = 0;
+        try {
+            while (cloudProviderPort.isAvailable()) { // Circuito aberto: os vencidos esperam na fila
+                List<DeprovisionTarget> due = leases.claimDue(now(), batchSize, lease);
+                reclaimed += teardown(due);
+                if (due.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[Deprovision] Falha na varredura de leases: " + e.getMessage());
+        }
+        if (reclaimed > 0) {
+            System.out.println("[Deprovision] " + reclaimed + " VM(s) removida(s)");
+        }
+        return reclaimed;
+    }
+
+    private int teardown(List<DeprovisionTarget> due) {
+        if (due.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = now();
+        List<StatusTransition> transitions = new ArrayList<>();
+        List<CloudInstance> allocated = new ArrayList<>(due.size());
+        for (DeprovisionTarget target : due) {
+            if (target.previousStatus() != ProvisioningStatus.DELETING) {
+                expired.increment(); // Lease vencido: quem remove e o sistema
+                transitions.add(new StatusTransition(target.id(), target.previousStatus(), ProvisioningStatus.DELETING,
+                        ProvisioningRequest.SYSTEM_ACTOR, now));
+            }
+            if (target.instance().isAllocated()) {
+                allocated.add(target.instance());
+            }
+        }
+
+        Set<String> gone = new HashSet<>(deprovision(allocated));
+        List<DeprovisionTarget> finished = due.stream()
+                .filter(target -> !target.instance().isAllocated() || gone.contains(target.instance().instanceId()))
+                .toList();
+        List<UUID> moved = finished.isEmpty() ? List.of() : leases.markDeleted(finished, now);
+
+        Set<UUID> movedIds = new HashSet<>(moved);
+        for (DeprovisionTarget target : finished) {
+            if (movedIds.contains(target.id())) {
+                transitions.add(new StatusTransition(target.id(), ProvisioningStatus.DELETING, ProvisioningStatus.DELETED,
+                        ProvisioningRequest.SYSTEM_ACTOR, now));
+                lag.record(Duration.between(target.expiredAt(), now));
+            }
+        }
+        transitionLog.append(transitions);
+
+        deleted.increment(moved.size());
+        retried.increment(due.size() - moved.size());
+        return moved.size();
+    }
+
+    private List<String> deprovision(List<CloudInstance> instances) {
+        if (instances.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return cloudProviderPort.deprovisionInstances(instances);
+        } catch (RuntimeException e) {
+            System.err.println("[Deprovision] Falha ao remover " + instances.size() + " VM(s), nova tentativa em "
+                    + lease + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
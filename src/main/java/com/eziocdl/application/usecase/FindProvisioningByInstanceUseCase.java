@@ -0,0 +1,30 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.FindProvisioningByInstanceUseCasePort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Maps a cloud server back to its request via the (cloud_provider, instance_id) index. The index is not
+ * unique on the partitioned table, so if a server ever shows up on two requests the newest one wins.
+ * Only the requester or an admin gets the request back; to anyone else it does not exist.
+ */
+@Service
+@RequiredArgsConstructor
+public class FindProvisioningByInstanceUseCase implements FindProvisioningByInstanceUseCasePort {
+
+    private final ProvisioningRepositoryPort repository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProvisioningRequest> find(String cloudProvider, String instanceId) {
+        // Vazio e nao 403: nao revela que a VM pertence a outro usuario
+        return repository.findByInstance(cloudProvider, instanceId)
+                .filter(request -> RequesterAccess.isRequesterOrAdmin(request.getRequesterUsername()));
+    }
+}
@@ -0,0 +1,230 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.CreateProvisioningUseCasePort;
+import com.eziocdl.application.port.in.IdempotentProvisioningUseCasePort;
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.domain.exception.DuplicateIdempotencyKeyException;
+import com.eziocdl.domain.exception.IdempotencyKeyInProgressException;
+import com.eziocdl.domain.exception.IdempotencyKeyMismatchException;
+import com.eziocdl.domain.model.IdempotencyKey;
+import com.eziocdl.domain.model.IdempotencyRecord;
+import com.eziocdl.domain.model.ProvisioningReceipt;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for creates. Keys are scoped to the caller and remembered for {@code ttl}.
+ *
+ * A repeat call is answered from a bounded LRU of recent records, then from the idempotency table,
+ * without opening a create transaction. Concurrent duplicates on this replica wait for the call
+ * already in flight (up to {@code waitTimeout}); on another replica, the unique index makes the
+ * second reservation wait for the first transaction and then replay its record. A failed create
+ * records nothing, so the key can be retried. Expired records are deleted in small batches.
+ *
+ * New creates are charged to the caller's rate limit here, before the create transaction opens,
+ * so the lease upsert never holds a second pooled connection. Replays are not charged.
+ *
+ * Metrics: {@code cpm.idempotency.requests{outcome=created|cached|stored|waited}}.
+ */
+public class IdempotentCreateProvisioningUseCase implements IdempotentProvisioningUseCasePort {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final CreateProvisioningUseCasePort createUseCase;
+    private final IdempotencyKeyPort idempotencyKeys;
+    private final RateLimiterPort rateLimiter;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final int purgeBatchSize;
+    private final Map<String, IdempotencyRecord> recent;
+    private final Map<String, CompletableFuture<ProvisioningReceipt>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter created;
+    private final Counter cached;
+    private final Counter stored;
+    private final Counter waited;
+
+    public IdempotentCreateProvisioningUseCase(CreateProvisioningUseCasePort createUseCase,
+                                               IdempotencyKeyPort idempotencyKeys,
+                                               RateLimiterPort rateLimiter,
+                                               MeterRegistry registry,
+                                               Clock clock,
+                                               Duration ttl,
+                                               int cacheSize,
+                                               Duration waitTimeout,
+                                               int purgeBatchSize) {
+        this.createUseCase = createUseCase;
+        this.idempotencyKeys = idempotencyKeys;
+        this.rateLimiter = rateLimiter;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.purgeBatchSize = purgeBatchSize;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.created = counter(registry, "created");
+        this.cached = counter(registry, "cached");
+        this.stored = counter(registry, "stored");
+        this.waited = counter(registry, "waited");
+    }
+
+    @Override
+    public ProvisioningReceipt create(String idempotencyKey, String username, String ram, String cpu, Duration lease) {
+        if (idempotencyKey == null) {
+            rateLimiter.acquire(extractCaller(username));
+            return ProvisioningReceipt.of(createUseCase.create(username, ram, cpu, lease, null));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String owner = extractCaller(username);
+        String requestHash = fingerprint(username, ram, cpu, lease);
+        String cacheKey = owner + '\n' + idempotencyKey;
+        while (true) {
+            IdempotencyRecord known = recent.get(cacheKey);
+            if (known != null && !known.isExpired(now())) {
+                cached.increment();
+                return replay(known, requestHash);
+            }
+
+            CompletableFuture<ProvisioningReceipt> mine = new CompletableFuture<>();
+            CompletableFuture<ProvisioningReceipt> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running == null) {
+                LocalDateTime now = now();
+                IdempotencyKey key = new IdempotencyKey(owner, idempotencyKey, requestHash, now, now.plus(ttl));
+                return createOnce(key, cacheKey, mine, username, ram, cpu, lease);
+            }
+            if (await(running, idempotencyKey)) {
+                waited.increment(); // O registro ja esta no cache: a proxima volta faz o replay
+            }
+            // Se a chamada original falhou sem gravar nada, esta tenta de novo
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cpm.idempotency.purge-interval:5m}")
+    public int purgeExpired() {
+        try {
+            int removed = idempotencyKeys.deleteExpired(now(), purgeBatchSize);
+            if (removed > 0) {
+                System.out.println("[Idempotency] " + removed + " chave(s) expirada(s) removida(s)");
+            }
+            return removed;
+        } catch (RuntimeException e) {
+            System.err.println("[Idempotency] Falha ao remover chaves expiradas: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private ProvisioningReceipt createOnce(IdempotencyKey key, String cacheKey, CompletableFuture<ProvisioningReceipt> mine,
+                                           String username, String ram, String cpu, Duration lease) {
+        try {
+            ProvisioningReceipt receipt;
+            Optional<IdempotencyRecord> existing = idempotencyKeys.find(key.owner(), key.key())
+                    .filter(record -> !record.isExpired(now()));
+            if (existing.isPresent()) {
+                stored.increment();
+                receipt = remember(cacheKey, existing.get(), key.requestHash());
+            } else {
+                rateLimiter.acquire(key.owner()); // Antes da transacao do create: uma conexao por vez
+                try {
+                    ProvisioningRequest request = createUseCase.create(username, ram, cpu, lease, key);
+                    created.increment();
+                    recent.put(cacheKey, new IdempotencyRecord(key, request));
+                    receipt = ProvisioningReceipt.of(request);
+                } catch (DuplicateIdempotencyKeyException e) {
+                    // Outra replica gravou a mesma chave enquanto esta esperava no indice unico
+                    stored.increment();
+                    receipt = remember(cacheKey, idempotencyKeys.find(key.owner(), key.key()).orElseThrow(), key.requestHash());
+                }
+            }
+            mine.complete(receipt);
+            return receipt;
+        } catch (RuntimeException e) {
+            mine.complete(null); // Quem esperava tenta por conta propria
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    private ProvisioningReceipt remember(String cacheKey, IdempotencyRecord record, String requestHash) {
+        recent.put(cacheKey, record);
+        return replay(record, requestHash);
+    }
+
+    private boolean await(CompletableFuture<ProvisioningReceipt> running, String idempotencyKey) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS) != null;
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(idempotencyKey);
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private ProvisioningReceipt replay(IdempotencyRecord record, String requestHash) {
+        if (!record.matches(requestHash)) {
+            throw new IdempotencyKeyMismatchException(record.getIdempotencyKey());
+        }
+        return record.replay();
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static String extractCaller(String username) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+            return username;
+        }
+        return auth.getName();
+    }
+
+    private static String fingerprint(String username, String ram, String cpu, Duration lease) {
+        // Sem lease o hash e o de antes: chaves gravadas antes do lease continuam batendo
+        String body = username + '\n' + ram + '\n' + cpu + (lease == null ? "" : "\n" + lease);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(body.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cpm.idempotency.requests").tag("outcome", outcome).register(registry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.ProvisioningTimelineUseCasePort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.StatusTransition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Status history of a request, from the append-only transition log.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProvisioningTimelineUseCase implements ProvisioningTimelineUseCasePort {
+
+    private final TransitionLogPort transitionLog;
+
+    @Override
+    public List<StatusTransition> timeline(UUID provisioningId) {
+        return transitionLog.findByProvisioningId(provisioningId);
+    }
+}
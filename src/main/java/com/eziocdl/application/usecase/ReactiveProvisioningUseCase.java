@@ -0,0 +1,99 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.ReactiveProvisioningUseCasePort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.port.out.ReactiveProvisioningRepositoryPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Same flow as {@link CreateProvisioningUseCase}, without blocking the calling thread: policy check,
+ * per-user rate limit, R2DBC insert, then the {@link ProvisioningRequestedEvent} that hands the
+ * request to the provisioning scheduler. The R2DBC insert commits on its own, so the event is only
+ * published once the row is visible; with no Spring transaction around it, the listener's
+ * {@code @TransactionalEventListener} relies on {@code fallbackExecution}. The rate limiter may lease
+ * budget from the database and the request id comes from {@code SecureRandom}, so both run on the
+ * bounded elastic scheduler. The event is offered without waiting; only when the ring is full does
+ * the blocking publish hop to the bounded elastic scheduler.
+ * Idempotency keys are only handled by the servlet endpoint.
+ */
+public class ReactiveProvisioningUseCase implements ReactiveProvisioningUseCasePort {
+
+    private final ReactiveProvisioningRepositoryPort repository;
+    private final ProvisioningEventPort events;
+    private final PolicyEnforcementService policyEnforcementService;
+    private final RateLimiterPort rateLimiter;
+
+    public ReactiveProvisioningUseCase(ReactiveProvisioningRepositoryPort repository,
+                                       ProvisioningEventPort events,
+                                       PolicyEnforcementService policyEnforcementService,
+                                       RateLimiterPort rateLimiter) {
+        this.repository = repository;
+        this.events = events;
+        this.policyEnforcementService = policyEnforcementService;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<ProvisioningRequest> create(String username, String ram, String cpu) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(auth -> {
+                    String userRole = extractUserRole(auth);
+                    policyEnforcementService.enforce(userRole, ram, cpu);
+
+                    // UUID.randomUUID le /dev/urandom e o rate limit pode ir ao banco: os dois fora do event loop
+                    return Mono.fromCallable(() -> {
+                                ProvisioningRequest request = new ProvisioningRequest(username, ram, cpu);
+                                request.leaseFor(userRole, null);
+                                rateLimiter.acquire(extractCaller(auth, username));
+                                return request;
+                            })
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(repository::save)
+                            .flatMap(saved -> {
+                                System.out.println("💾 [UseCase] Pedido salvo no DB (R2DBC): " + saved.getId());
+                                return publish(new ProvisioningRequestedEvent(saved.snapshot(), userRole)).thenReturn(saved);
+                            });
+                });
+    }
+
+    @Override
+    public Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+        return repository.findByInstance(cloudProvider, instanceId);
+    }
+
+    // O pedido ja esta salvo, entao o evento nao pode ser descartado: com o ring cheio, espera fora do event loop
+    private Mono<Void> publish(ProvisioningRequestedEvent event) {
+        if (events.tryPublish(event)) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> events.publish(event)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static String extractCaller(Optional<Authentication> auth, String username) {
+        return auth.filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .orElse(username);
+    }
+
+    private static String extractUserRole(Optional<Authentication> auth) {
+        return auth.flatMap(a -> a.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .map(role -> role.replace("ROLE_", ""))
+                        .findFirst())
+                .orElse("TRAINEE"); // Least privilege
+    }
+}
@@ -0,0 +1,187 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.ReconcileProvisioningUseCasePort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.exception.OwnershipViolationException;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ReconcilePlan;
+import com.eziocdl.domain.model.ResourceQuota;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.StatusTransition;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Desired-state API: the caller sends every VM an owner should have and gets the creates and deletions
+ * needed to get there, all in one transaction. Reconciling twice with the same desired state is a no-op.
+ * Only the owner or an admin can reconcile an owner's VMs, and every VM created is charged to the
+ * caller's create rate limit, as if it had been asked on its own.
+ *
+ * Creates are one multi-row INSERT and one batch of events for the workers; surplus requests move to
+ * DELETING in one UPDATE. Reconciliations of the same owner are serialized, so two concurrent calls
+ * never both create the missing VMs.
+ *
+ * Metrics: {@code cpm.reconcile.vms{action=created|deleted}}.
+ */
+@Service
+public class ReconcileProvisioningUseCase implements ReconcileProvisioningUseCasePort {
+
+    private final ProvisioningInventoryPort inventory;
+    private final ProvisioningEventPort events;
+    private final TransitionLogPort transitionLog;
+    private final PolicyEnforcementService policyEnforcementService;
+    private final RateLimiterPort rateLimiter;
+    private final Clock clock;
+    private final int maxVms;
+
+    private final Counter created;
+    private final Counter deleted;
+
+    public ReconcileProvisioningUseCase(ProvisioningInventoryPort inventory,
+                                        ProvisioningEventPort events,
+                                        TransitionLogPort transitionLog,
+                                        PolicyEnforcementService policyEnforcementService,
+                                        RateLimiterPort rateLimiter,
+                                        Clock clock,
+                                        MeterRegistry registry,
+                                        @Value("${cpm.reconcile.max-vms:20000}") int maxVms) {
+        this.inventory = inventory;
+        this.events = events;
+        this.transitionLog = transitionLog;
+        this.policyEnforcementService = policyEnforcementService;
+        this.rateLimiter = rateLimiter;
+        this.clock = clock;
+        this.maxVms = maxVms;
+        this.created = Counter.builder("cpm.reconcile.vms").tag("action", "created").register(registry);
+        this.deleted = Counter.builder("cpm.reconcile.vms").tag("action", "deleted").register(registry);
+    }
+
+    @Override
+    @Transactional
+    public ReconcilePlan reconcile(String owner, Map<ResourceSpec, Integer> desired, boolean dryRun) {
+        validate(owner, desired);
+
+        String caller = extractCaller(owner);
+        String userRole = extractUserRole();
+        if (!owner.equals(caller) && ResourceQuota.forRole(userRole) != ResourceQuota.ADMIN) {
+            throw new OwnershipViolationException(caller, owner);
+        }
+
+        // Cota checada uma vez por tamanho, antes de tocar no banco
+        desired.keySet().forEach(spec ->
+                policyEnforcementService.enforce(userRole, spec.ramFormatted(), spec.cpuFormatted()));
+
+        if (!dryRun) {
+            inventory.lockOwner(owner);
+        }
+        ReconcilePlan plan = ReconcilePlan.diff(desired, inventory.findLive(owner));
+        if (dryRun || plan.isEmpty()) {
+            return plan;
+        }
+
+        if (!plan.toCreate().isEmpty()) {
+            rateLimiter.acquire(caller, plan.toCreate().size()); // Antes do INSERT: negado, nada muda
+        }
+
+        List<StatusTransition> transitions = new ArrayList<>();
+        List<ProvisioningRequest> requests = new ArrayList<>(plan.toCreate().size());
+        for (ResourceSpec spec : plan.toCreate()) {
+            ProvisioningRequest request = new ProvisioningRequest(owner, spec.ramFormatted(), spec.cpuFormatted());
+            request.leaseFor(userRole, null); // A cota aplicada acima e a mesma que define o lease
+            transitions.addAll(request.pullTransitions());
+            requests.add(request);
+        }
+        if (!requests.isEmpty()) {
+            inventory.insertAll(requests);
+        }
+
+        List<ProvisioningSnapshot> deleting = markDeleting(plan.toDelete(), caller, transitions);
+
+        transitionLog.append(transitions);
+        events.publishAll(requests.stream()
+                .map(request -> new ProvisioningRequestedEvent(request.snapshot(), userRole))
+                .toList());
+
+        created.increment(requests.size());
+        deleted.increment(deleting.size());
+        System.out.println("[Reconcile] " + owner + ": " + requests.size() + " criada(s), " + deleting.size()
+                + " para remover, " + plan.unchanged() + " mantida(s)");
+        return new ReconcilePlan(plan.toCreate(), deleting, plan.unchanged());
+    }
+
+    private List<ProvisioningSnapshot> markDeleting(List<ProvisioningSnapshot> surplus, String actor,
+                                                    List<StatusTransition> transitions) {
+        if (surplus.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> moved = new HashSet<>(inventory.markDeleting(surplus, LocalDateTime.now(clock)));
+        List<ProvisioningSnapshot> deleting = new ArrayList<>(moved.size());
+        for (ProvisioningSnapshot snapshot : surplus) {
+            if (moved.contains(snapshot.id())) {
+                ProvisioningRequest request = ProvisioningRequest.restore(snapshot);
+                request.requestDeletion(actor);
+                transitions.addAll(request.pullTransitions());
+                deleting.add(snapshot);
+            }
+        }
+        return deleting;
+    }
+
+    private void validate(String owner, Map<ResourceSpec, Integer> desired) {
+        if (owner == null || owner.isBlank()) {
+            throw new IllegalArgumentException("Owner is required");
+        }
+        long total = 0;
+        for (Integer count : desired.values()) {
+            if (count == null || count < 0) {
+                throw new IllegalArgumentException("VM count must be zero or positive");
+            }
+            total += count;
+        }
+        if (total > maxVms) {
+            throw new IllegalArgumentException("Desired state has " + total + " VMs; at most " + maxVms
+                    + " per owner can be reconciled");
+        }
+    }
+
+    private static String extractCaller(String owner) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+            return owner;
+        }
+        return auth.getName();
+    }
+
+    private static String extractUserRole() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getAuthorities().isEmpty()) {
+            return "TRAINEE"; // Least privilege
+        }
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(role -> role.replace("ROLE_", ""))
+                .findFirst()
+                .orElse("TRAINEE");
+    }
+}
@@ -0,0 +1,39 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.domain.model.ResourceQuota;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Who may see or act on a request: its requester or an admin. Calls without an authenticated user come
+ * from inside the application and are let through.
+ */
+final class RequesterAccess {
+
+    private RequesterAccess() {
+    }
+
+    static boolean isRequesterOrAdmin(String requester) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+            return true; // Chamada interna, sem usuario
+        }
+        if (auth.getName().equals(requester)) {
+            return true;
+        }
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(role -> role.replace("ROLE_", ""))
+                .anyMatch(role -> ResourceQuota.forRole(role) == ResourceQuota.ADMIN);
+    }
+
+    /** The authenticated user, or {@code requester} on internal calls. */
+    static String caller(String requester) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+            return requester;
+        }
+        return auth.getName();
+    }
+}
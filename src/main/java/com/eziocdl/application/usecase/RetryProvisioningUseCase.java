@@ -0,0 +1,201 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.RetryProvisioningUseCasePort;
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.RetryQueuePort;
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningRetry;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.RetryPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable retry queue for requests the cloud could not take (e.g. open circuit).
+ *
+ * The listener enqueues them with a jittered exponential backoff. A scheduled drain claims due
+ * entries in batches, but only while the provider reports itself available, and sends each
+ * same-spec group as one {@code provisionInstances} call. Entries that run out of attempts are
+ * parked as DEAD_LETTER and the request is failed.
+ *
+ * Metrics: {@code cpm.retry.queue.depth}, {@code cpm.retry.attempts{outcome}} and
+ * {@code cpm.retry.recovery} (enqueue to successful allocation).
+ */
+@Service
+public class RetryProvisioningUseCase implements RetryProvisioningUseCasePort {
+
+    private final RetryQueuePort queue;
+    private final ProvisioningRepositoryPort repository;
+    private final CloudProviderPort cloudProviderPort;
+    private final ServerStatusTrackerPort statusTracker;
+    private final RetryPolicy policy;
+    private final int batchSize;
+    private final Duration lease;
+    private final Clock clock;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final Counter enqueued;
+    private final Counter recovered;
+    private final Counter rescheduled;
+    private final Counter deadLettered;
+    private final Timer recovery;
+
+    public RetryProvisioningUseCase(RetryQueuePort queue,
+                                    ProvisioningRepositoryPort repository,
+                                    CloudProviderPort cloudProviderPort,
+                                    ServerStatusTrackerPort statusTracker,
+                                    MeterRegistry registry,
+                                    Clock clock,
+                                    @Value("${cpm.retry.max-attempts:8}") int maxAttempts,
+                                    @Value("${cpm.retry.base-delay:5s}") Duration baseDelay,
+                                    @Value("${cpm.retry.max-delay:10m}") Duration maxDelay,
+                                    @Value("${cpm.retry.batch-size:50}") int batchSize,
+                                    @Value("${cpm.retry.lease:2m}") Duration lease) {
+        this.queue = queue;
+        this.repository = repository;
+        this.cloudProviderPort = cloudProviderPort;
+        this.statusTracker = statusTracker;
+        this.clock = clock;
+        this.policy = new RetryPolicy(maxAttempts, baseDelay, maxDelay);
+        this.batchSize = batchSize;
+        this.lease = lease;
+
+        Gauge.builder("cpm.retry.queue.depth", depth, AtomicLong::get).register(registry);
+        this.enqueued = Counter.builder("cpm.retry.enqueued").register(registry);
+        this.recovered = Counter.builder("cpm.retry.attempts").tag("outcome", "recovered").register(registry);
+        this.rescheduled = Counter.builder("cpm.retry.attempts").tag("outcome", "rescheduled").register(registry);
+        this.deadLettered = Counter.builder("cpm.retry.attempts").tag("outcome", "dead_letter").register(registry);
+        this.recovery = Timer.builder("cpm.retry.recovery").register(registry);
+    }
+
+    /**
+     * Parks the request and its retry entry in one transaction, so a crash in between cannot leave a
+     * WAITING_ALLOCATION request that no drain will ever pick up. With {@code max-attempts=1} the
+     * original call was the only attempt: the entry is born dead-lettered and the request fails.
+     * The request usually comes from the event snapshot, without lease or cloud columns, so it is written
+     * with {@code update}: a merge would clear its lease and overwrite a deletion asked meanwhile.
+     */
+    @Override
+    @Transactional
+    public void enqueue(ProvisioningRequest request, String reason) {
+        ProvisioningRetry retry = new ProvisioningRetry(request.getId(), reason, policy, now(), ThreadLocalRandom.current());
+        if (retry.isDeadLetter()) {
+            request.fail();
+            repository.update(request);
+            queue.save(retry);
+            deadLettered.increment();
+            System.err.println("☠️ [Retry] Pedido " + request.getId() + " sem tentativas restantes: " + reason);
+            return;
+        }
+        request.awaitAllocation();
+        repository.update(request);
+        queue.save(retry);
+        enqueued.increment();
+        depth.incrementAndGet();
+        System.out.println("🔁 [Retry] Pedido " + request.getId() + " na fila, proxima tentativa em " + retry.getNextAttemptAt());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cpm.retry.poll-interval:5s}")
+    public int drainDue() {
+        int drained = 0;
+        while (cloudProviderPort.isAvailable()) { // Circuito aberto: nem tenta, espera fechar
+            List<ProvisioningRetry> due = queue.claimDue(now(), batchSize, lease);
+            drained += attempt(due);
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        depth.set(queue.countPending());
+        return drained;
+    }
+
+    private int attempt(List<ProvisioningRetry> due) {
+        Map<ResourceSpec, List<Pending>> bySpec = new LinkedHashMap<>();
+        for (ProvisioningRetry retry : due) {
+            ProvisioningRequest request = repository.findById(retry.getProvisioningId()).orElse(null);
+            if (request == null || request.getStatus() != ProvisioningStatus.WAITING_ALLOCATION) {
+                queue.remove(retry.getProvisioningId()); // Cancelado ou resolvido por outro caminho
+                continue;
+            }
+            bySpec.computeIfAbsent(request.resourceSpec(), spec -> new ArrayList<>()).add(new Pending(retry, request));
+        }
+
+        int recoveredCount = 0;
+        for (List<Pending> group : bySpec.values()) {
+            List<CloudInstance> instances;
+            String error = "Provedor indisponivel";
+            try {
+                instances = cloudProviderPort.provisionInstances(group.stream().map(Pending::request).toList());
+            } catch (RuntimeException e) {
+                instances = null;
+                error = e.getMessage();
+            }
+            for (int i = 0; i < group.size(); i++) {
+                CloudInstance instance = instances == null ? null : instances.get(i);
+                if (instance != null && instance.isAllocated()) {
+                    recover(group.get(i), instance);
+                    recoveredCount++;
+                } else {
+                    reschedule(group.get(i), error);
+                }
+            }
+        }
+        return recoveredCount;
+    }
+
+    private void recover(Pending pending, CloudInstance instance) {
+        ProvisioningRequest request = pending.request();
+        request.assignInstance(instance);
+        repository.update(request);
+        queue.remove(request.getId());
+        statusTracker.track(request.getId(), instance);
+
+        recovered.increment();
+        recovery.record(Duration.between(pending.retry().getEnqueuedAt(), now()));
+        System.out.println("[Retry] Pedido " + request.getId() + " alocado apos " + pending.retry().getAttempts() + " tentativa(s)");
+    }
+
+    private void reschedule(Pending pending, String error) {
+        ProvisioningRetry retry = pending.retry();
+        retry.recordFailure(error, policy, now(), ThreadLocalRandom.current());
+        queue.save(retry);
+
+        if (retry.isDeadLetter()) {
+            ProvisioningRequest request = pending.request();
+            request.fail();
+            repository.update(request);
+            deadLettered.increment();
+            System.err.println("☠️ [Retry] Pedido " + request.getId() + " esgotou " + retry.getAttempts() + " tentativas: " + error);
+        } else {
+            rescheduled.increment();
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private record Pending(ProvisioningRetry retry, ProvisioningRequest request) {
+    }
+}
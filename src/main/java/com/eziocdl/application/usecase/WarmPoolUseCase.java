@@ -0,0 +1,218 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.WarmPoolUseCasePort;
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.application.port.out.WarmPoolPort;
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.DecayingRate;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.WarmInstance;
+import com.eziocdl.domain.model.WarmInstanceState;
+import com.eziocdl.domain.model.WarmPoolTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps pre-booted servers for common sizes so matching requests skip the Nova boot.
+ *
+ * A claim takes a READY server out of the pool atomically; the request is ACTIVE right away.
+ * Every claim (hit or miss) feeds a per-pool {@link DecayingRate}, and the scheduled refill
+ * tops each pool up to what that demand would consume during {@code bootTime}, within the
+ * pool's bounds. New servers stay BOOTING until the status tracker reports them ACTIVE; on startup
+ * the BOOTING rows go back to the tracker, so a restart does not leave them counting against the pool.
+ * Surplus servers are not deleted when demand drops; they wait to be claimed.
+ *
+ * Metrics: {@code cpm.warmpool.claims{pool,outcome=hit|miss}}, {@code cpm.warmpool.ready{pool}},
+ * {@code cpm.warmpool.target{pool}}, {@code cpm.warmpool.idle.vcpus{pool}} (vCPUs sitting idle),
+ * {@code cpm.warmpool.idle.time{pool}} (READY to claimed) and {@code cpm.warmpool.boots{outcome}}.
+ */
+public class WarmPoolUseCase implements WarmPoolUseCasePort {
+
+    static final String POOL_OWNER = "warm-pool";
+
+    private final WarmPoolPort pool;
+    private final CloudProviderPort cloudProviderPort;
+    private final ServerStatusTrackerPort statusTracker;
+    private final Clock clock;
+    private final String image;
+    private final Duration bootTime;
+    private final Map<ResourceSpec, Pool> pools = new LinkedHashMap<>();
+
+    private final Counter booted;
+    private final Counter bootFailed;
+
+    public WarmPoolUseCase(WarmPoolPort pool,
+                           CloudProviderPort cloudProviderPort,
+                           ServerStatusTrackerPort statusTracker,
+                           MeterRegistry registry,
+                           Clock clock,
+                           List<WarmPoolTarget> targets,
+                           String image,
+                           Duration bootTime,
+                           Duration demandHalfLife) {
+        this.pool = pool;
+        this.cloudProviderPort = cloudProviderPort;
+        this.statusTracker = statusTracker;
+        this.clock = clock;
+        this.image = image;
+        this.bootTime = bootTime;
+        for (WarmPoolTarget target : targets) {
+            if (pools.put(target.spec(), new Pool(target, demandHalfLife, registry)) != null) {
+                throw new IllegalArgumentException("Warm pool configurado duas vezes: " + target.spec());
+            }
+        }
+        this.booted = Counter.builder("cpm.warmpool.boots").tag("outcome", "booted").register(registry);
+        this.bootFailed = Counter.builder("cpm.warmpool.boots").tag("outcome", "failed").register(registry);
+    }
+
+    @Override
+    public Optional<CloudInstance> claim(ProvisioningRequest request) {
+        Pool target = pools.get(request.resourceSpec());
+        if (target == null) {
+            return Optional.empty(); // Tamanho sem pool: nem conta como miss
+        }
+        target.demand.record(clock.millis());
+
+        Optional<WarmInstance> warm;
+        try {
+            warm = pool.claimReady(target.target.spec(), image);
+        } catch (RuntimeException e) {
+            System.err.println("[WarmPool] Falha ao reservar instancia, seguindo com boot normal: " + e.getMessage());
+            warm = Optional.empty();
+        }
+        if (warm.isEmpty()) {
+            target.misses.increment();
+            return Optional.empty();
+        }
+
+        WarmInstance instance = warm.get();
+        target.hits.increment();
+        target.ready.updateAndGet(ready -> Math.max(ready - 1, 0));
+        target.idleTime.record(Duration.between(instance.getReadyAt(), now()));
+        System.out.println("🔥 [WarmPool] Pedido " + request.getId() + " servido pela instancia " + instance.getInstanceId());
+        return Optional.of(instance.cloudInstance());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cpm.warm-pool.refill-interval:15s}")
+    public int refill() {
+        int started = 0;
+        boolean available = cloudProviderPort.isAvailable();
+        for (Pool target : pools.values()) {
+            ResourceSpec spec = target.target.spec();
+            long ready = pool.count(spec, image, WarmInstanceState.READY);
+            long booting = pool.count(spec, image, WarmInstanceState.BOOTING);
+            int size = target.target.size(target.demand.perSecond(clock.millis()), bootTime);
+            target.ready.set(ready);
+            target.size.set(size);
+
+            long missing = size - ready - booting;
+            if (missing > 0 && available) { // Circuito aberto: o pool espera como a fila de retry
+                started += boot(spec, (int) missing);
+            }
+        }
+        return started;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int resumeBooting() {
+        List<WarmInstance> booting = pool.findBooting();
+        booting.forEach(warm -> statusTracker.resume(warm.getId(), warm.cloudInstance(),
+                warm.getBootedAt().atZone(clock.getZone()).toInstant()));
+        return booting.size();
+    }
+
+    @EventListener
+    public void handleInstanceStatusChanged(InstanceStatusChangedEvent event) {
+        pool.findById(event.provisioningId()).ifPresent(warm -> {
+            if (warm.isReady()) {
+                return; // Ja reportada (ex: duas replicas acompanhando o mesmo boot)
+            }
+            if (event.status() == ProvisioningStatus.ACTIVE) {
+                warm.markReady(now());
+                pool.save(warm);
+                Optional.ofNullable(pools.get(warm.resourceSpec())).ifPresent(target -> target.ready.incrementAndGet());
+            } else {
+                System.err.println(" [WarmPool] Instancia do pool falhou (" + event.detail() + "): " + event.instanceId());
+                pool.remove(warm.getId());
+                bootFailed.increment();
+            }
+        });
+    }
+
+    private int boot(ResourceSpec spec, int count) {
+        // Pedidos descartaveis so para reaproveitar o caminho de provisionamento (coalescing, roteamento)
+        List<ProvisioningRequest> placeholders = IntStream.range(0, count)
+                .mapToObj(i -> new ProvisioningRequest(POOL_OWNER, spec.ramGb() + "GB", spec.cpuCores() + "vCPU"))
+                .toList();
+        List<CloudInstance> instances;
+        try {
+            instances = cloudProviderPort.provisionInstances(placeholders);
+        } catch (RuntimeException e) {
+            System.err.println("[WarmPool] Falha ao reabastecer " + spec + ": " + e.getMessage());
+            bootFailed.increment(count);
+            return 0;
+        }
+
+        int started = 0;
+        for (CloudInstance instance : instances) {
+            if (!instance.isAllocated()) {
+                bootFailed.increment();
+                continue;
+            }
+            WarmInstance warm = pool.save(new WarmInstance(spec, image, instance, now()));
+            statusTracker.track(warm.getId(), instance);
+            started++;
+        }
+        booted.increment(started);
+        System.out.println("[WarmPool] Reabastecendo " + spec + " com " + started + " instancia(s)");
+        return started;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static final class Pool {
+
+        private final WarmPoolTarget target;
+        private final DecayingRate demand;
+        private final AtomicLong ready = new AtomicLong();
+        private final AtomicLong size = new AtomicLong();
+        private final Counter hits;
+        private final Counter misses;
+        private final Timer idleTime;
+
+        private Pool(WarmPoolTarget target, Duration demandHalfLife, MeterRegistry registry) {
+            this.target = target;
+            this.demand = new DecayingRate(demandHalfLife, 0);
+            String name = target.spec().ramGb() + "GB-" + target.spec().cpuCores() + "vCPU";
+            this.hits = Counter.builder("cpm.warmpool.claims").tag("pool", name).tag("outcome", "hit").register(registry);
+            this.misses = Counter.builder("cpm.warmpool.claims").tag("pool", name).tag("outcome", "miss").register(registry);
+            this.idleTime = Timer.builder("cpm.warmpool.idle.time").tag("pool", name).register(registry);
+            Gauge.builder("cpm.warmpool.ready", ready, AtomicLong::get).tag("pool", name).register(registry);
+            Gauge.builder("cpm.warmpool.target", size, AtomicLong::get).tag("pool", name).register(registry);
+            Gauge.builder("cpm.warmpool.idle.vcpus", ready, r -> r.get() * target.spec().cpuCores())
+                    .tag("pool", name).register(registry);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.eziocdl.application.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Picks the database connection pool of a use case or port; on a type it covers every method.
+ *
+ * The outermost annotated call wins, so a worker that goes through a port marked {@code API} keeps its
+ * worker connection. Code with no annotation on the call path runs on the worker pool.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Workload {
+
+    Pool value();
+
+    enum Pool {
+        /** Request threads: small pool, short acquire timeout. */
+        API,
+        /** Provisioning workers, retry drain, warm pool and scheduled jobs. */
+        WORKER,
+        /** Queries that tolerate replication lag; the API pool when no replica is configured. */
+        READ_ONLY
+    }
+}
@@ -0,0 +1,13 @@
+package com.eziocdl.domain.event;
+
+import com.eziocdl.domain.model.ProvisioningStatus;
+
+import java.util.UUID;
+
+/**
+ * A tracked server reached a final state: {@code status} is ACTIVE or FAILED,
+ * {@code detail} carries the provider status (e.g. ERROR) or the reason.
+ */
+public record InstanceStatusChangedEvent(UUID provisioningId, String instanceId,
+                                         ProvisioningStatus status, String detail) {
+}
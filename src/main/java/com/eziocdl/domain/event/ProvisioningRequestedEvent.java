@@ -1,6 +1,16 @@
 package com.eziocdl.domain.event;
 
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+
 import java.util.UUID;
 
-public record ProvisioningRequestedEvent(UUID provisioningId) {
-}
\ No newline at end of file
+public record ProvisioningRequestedEvent(ProvisioningSnapshot request, String requesterRole) {
+
+    public UUID provisioningId() {
+        return request.id();
+    }
+
+    public String requesterUsername() {
+        return request.requesterUsername();
+    }
+}
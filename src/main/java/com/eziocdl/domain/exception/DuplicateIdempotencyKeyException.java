@@ -0,0 +1,19 @@
+package com.eziocdl.domain.exception;
+
+/**
+ * A live record already holds this Idempotency-Key; the create was rolled back and the caller
+ * should replay that record instead.
+ */
+public class DuplicateIdempotencyKeyException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public DuplicateIdempotencyKeyException(String idempotencyKey) {
+        super("Idempotency-Key already used: " + idempotencyKey);
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,15 @@
+package com.eziocdl.domain.exception;
+
+public class ExportLimitExceededException extends RuntimeException {
+
+    private final int limit;
+
+    public ExportLimitExceededException(int limit) {
+        super(String.format("Export limit exceeded: at most %d history exports may run at the same time", limit));
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,15 @@
+package com.eziocdl.domain.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyInProgressException(String idempotencyKey) {
+        super("A request with Idempotency-Key '" + idempotencyKey + "' is still being processed");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,15 @@
+package com.eziocdl.domain.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency-Key '" + idempotencyKey + "' was already used with a different request body");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,21 @@
+package com.eziocdl.domain.exception;
+
+public class OwnershipViolationException extends RuntimeException {
+
+    private final String caller;
+    private final String owner;
+
+    public OwnershipViolationException(String caller, String owner) {
+        super(String.format("User '%s' cannot manage the VMs of '%s'", caller, owner));
+        this.caller = caller;
+        this.owner = owner;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
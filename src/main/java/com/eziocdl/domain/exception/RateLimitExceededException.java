@@ -0,0 +1,38 @@
+package com.eziocdl.domain.exception;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String username;
+    private final int limit;
+    private final Duration window;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String username, int limit, Duration window, Duration retryAfter) {
+        super(String.format(
+                "Rate limit exceeded: user '%s' may create %d provisioning requests per %ds",
+                username, limit, window.toSeconds()
+        ));
+        this.username = username;
+        this.limit = limit;
+        this.window = window;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
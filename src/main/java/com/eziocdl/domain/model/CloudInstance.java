@@ -0,0 +1,19 @@
+package com.eziocdl.domain.model;
+
+/**
+ * Value Object identifying a server at a cloud provider.
+ * {@code instanceId} is null when the provider could not take the request (e.g. open circuit).
+ */
+public record CloudInstance(
+        String provider,
+        String region,
+        String instanceId
+) {
+    public static CloudInstance unallocated(String provider, String region) {
+        return new CloudInstance(provider, region, null);
+    }
+
+    public boolean isAllocated() {
+        return instanceId != null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eziocdl.domain.model;
+
+import java.time.Duration;
+
+/**
+ * Event rate with exponential decay: recent events weigh more, and the estimate fades towards
+ * zero once events stop. {@code halfLife} sets how fast old demand is forgotten.
+ */
+public final class DecayingRate {
+
+    private final double tauMillis;
+    private double weight;
+    private long lastMillis;
+
+    public DecayingRate(Duration halfLife, long startMillis) {
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        this.tauMillis = halfLife.toMillis() / Math.log(2);
+        this.lastMillis = startMillis;
+    }
+
+    public synchronized void record(long nowMillis) {
+        decay(nowMillis);
+        weight += 1;
+    }
+
+    /** Events per second; under a steady rate r this converges to r. */
+    public synchronized double perSecond(long nowMillis) {
+        decay(nowMillis);
+        return weight / (tauMillis / 1000.0);
+    }
+
+    private void decay(long nowMillis) {
+        if (nowMillis > lastMillis) {
+            weight *= Math.exp(-(nowMillis - lastMillis) / tauMillis);
+            lastMillis = nowMillis;
+        }
+    }
+}
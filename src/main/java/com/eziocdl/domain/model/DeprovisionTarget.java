@@ -0,0 +1,17 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A request claimed for teardown: its lease ran out, or someone asked for the deletion.
+ * {@code instance} is unallocated when no server was ever created for it.
+ */
+public record DeprovisionTarget(
+        UUID id,
+        LocalDateTime createdAt,
+        ProvisioningStatus previousStatus,
+        LocalDateTime expiredAt,
+        CloudInstance instance
+) {
+}
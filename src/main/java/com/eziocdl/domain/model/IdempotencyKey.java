@@ -0,0 +1,11 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Client-supplied Idempotency-Key, scoped to the caller. {@code requestHash} fingerprints the payload
+ * so a key cannot be replayed for a different request.
+ */
+public record IdempotencyKey(String owner, String key, String requestHash, LocalDateTime issuedAt,
+                             LocalDateTime expiresAt) {
+}
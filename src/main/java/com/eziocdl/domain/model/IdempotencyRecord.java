@@ -0,0 +1,71 @@
+package com.eziocdl.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The outcome of the first create made with an Idempotency-Key. Later calls with the same key
+ * (and payload) get this receipt back until {@code expiresAt}.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_owner_key",
+                columnNames = {"owner", "idempotency_key"}))
+@Getter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private UUID provisioningId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProvisioningStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Factory
+
+    public IdempotencyRecord(IdempotencyKey key, ProvisioningRequest request) {
+        this.id = UUID.randomUUID();
+        this.owner = key.owner();
+        this.idempotencyKey = key.key();
+        this.requestHash = key.requestHash();
+        this.provisioningId = request.getId();
+        this.status = request.getStatus();
+        this.createdAt = key.issuedAt();
+        this.expiresAt = key.expiresAt();
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean matches(String requestHash) {
+        return this.requestHash.equals(requestHash);
+    }
+
+    public ProvisioningReceipt replay() {
+        return new ProvisioningReceipt(provisioningId, status, true);
+    }
+}
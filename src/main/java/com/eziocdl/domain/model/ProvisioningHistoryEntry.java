@@ -0,0 +1,23 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One provisioning request as exported, read straight from its row (live or archived) and never
+ * turned into a managed {@link ProvisioningRequest}.
+ */
+public record ProvisioningHistoryEntry(
+        UUID id,
+        String requesterUsername,
+        String ram,
+        String cpu,
+        ProvisioningStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String cloudProvider,
+        String cloudRegion,
+        String instanceId,
+        boolean archived
+) {
+}
@@ -0,0 +1,18 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Filter of a history export: requests created in [{@code from}, {@code to}) with one of the
+ * {@code statuses}. A null bound is open; no statuses means every status.
+ */
+public record ProvisioningHistoryQuery(LocalDateTime from, LocalDateTime to, Set<ProvisioningStatus> statuses) {
+
+    public ProvisioningHistoryQuery {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range must end after it starts: " + from + " >= " + to);
+        }
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+    }
+}
@@ -0,0 +1,14 @@
+package com.eziocdl.domain.model;
+
+import java.util.UUID;
+
+/**
+ * What a create answered: the request and its status at creation. {@code replayed} is true when an
+ * Idempotency-Key matched an earlier call and nothing new was created.
+ */
+public record ProvisioningReceipt(UUID provisioningId, ProvisioningStatus status, boolean replayed) {
+
+    public static ProvisioningReceipt of(ProvisioningRequest request) {
+        return new ProvisioningReceipt(request.getId(), request.getStatus(), false);
+    }
+}
@@ -1,18 +1,27 @@
 package com.eziocdl.domain.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "provisioning_requests")
+@Table(name = "provisioning_requests",
+        indexes = @Index(name = "idx_provisioning_requests_cloud_instance", columnList = "cloud_provider, instance_id"))
 @Getter
 @NoArgsConstructor
 public class ProvisioningRequest {
 
+    /** Actor of the transitions made by the provisioning workers, not by a person. */
+    public static final String SYSTEM_ACTOR = "system";
+
     @Id
     private UUID id;
 
@@ -34,6 +43,18 @@ public class ProvisioningRequest {
 
     private LocalDateTime updatedAt;
 
+    private String cloudProvider;
+
+    private String cloudRegion;
+
+    private String instanceId;
+
+    private LocalDateTime expiresAt; // Fim do lease; null nunca expira
+
+    @Transient // Vao para provisioning_transitions pelo audit log, nao para esta tabela
+    @Getter(AccessLevel.NONE)
+    private final List<StatusTransition> transitions = new ArrayList<>();
+
     // Factory
 
     public ProvisioningRequest(String requesterUsername, String ram, String cpu) {
@@ -52,44 +73,143 @@ public class ProvisioningRequest {
         this.ram = ram;
         this.cpu = cpu;
         this.status = ProvisioningStatus.PENDING_APPROVAL;
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // Precisao do TIMESTAMP: e chave de particao
+        this.transitions.add(new StatusTransition(id, null, status, requesterUsername, createdAt));
+    }
+
+    /** Rebuilds a request from its snapshot, without reading it from the database. */
+    public static ProvisioningRequest restore(ProvisioningSnapshot snapshot) {
+        ProvisioningRequest request = new ProvisioningRequest();
+        request.id = snapshot.id();
+        request.requesterUsername = snapshot.requesterUsername();
+        request.ram = snapshot.ram();
+        request.cpu = snapshot.cpu();
+        request.status = snapshot.status();
+        request.createdAt = snapshot.createdAt();
+        return request;
+    }
+
+    public ProvisioningSnapshot snapshot() {
+        return new ProvisioningSnapshot(id, requesterUsername, ram, cpu, status, createdAt);
     }
 
+    /** Gives the VM a lease: once {@code lease} has passed since creation, it is deleted. */
+    public void lease(Duration lease) {
+        if (lease == null || lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Lease must be positive");
+        }
+        this.expiresAt = this.createdAt.plus(lease);
+    }
+
+    /**
+     * Gives the VM the lease asked for, or the default of the role it is created under when none was
+     * asked (TRAINEE VMs are not kept forever). Every path that creates a request goes through here.
+     */
+    public void leaseFor(String role, Duration requested) {
+        Duration effective = requested != null ? requested : ResourceQuota.forRole(role).defaultLease();
+        if (effective != null) {
+            lease(effective);
+        }
+    }
+
+    public ResourceSpec resourceSpec() {
+        return ResourceSpec.of(ram, cpu);
+    }
+
+    public void assignInstance(CloudInstance instance) {
+        if (instance == null || !instance.isAllocated()) {
+            throw new IllegalArgumentException("Instance ID is required");
+        }
+        this.cloudProvider = instance.provider();
+        this.cloudRegion = instance.region();
+        this.instanceId = instance.instanceId();
+        moveTo(ProvisioningStatus.PROVISIONING, SYSTEM_ACTOR);
+    }
 
+    public void awaitAllocation() {
+        if (this.status == ProvisioningStatus.ACTIVE || this.status == ProvisioningStatus.REJECTED) {
+            throw new IllegalStateException("Pedido finalizado não pode aguardar alocação");
+        }
+        moveTo(ProvisioningStatus.WAITING_ALLOCATION, SYSTEM_ACTOR);
+    }
 
     public void approve() {
+        approve(SYSTEM_ACTOR);
+    }
+
+    public void approve(String approver) {
         if (this.status != ProvisioningStatus.PENDING_APPROVAL) {
             throw new IllegalStateException("Apenas os pedidos pendentes podem ser aprovados");
         }
-        this.status = ProvisioningStatus.APPROVED;
-        this.updatedAt = LocalDateTime.now();
+        moveTo(ProvisioningStatus.APPROVED, approver);
     }
 
     public void reject() {
+        reject(SYSTEM_ACTOR);
+    }
+
+    public void reject(String approver) {
         if (this.status != ProvisioningStatus.PENDING_APPROVAL) {
             throw new IllegalStateException("Apenas os pedidos pendentes podem ser rejeitados");
         }
 
-        this.status = ProvisioningStatus.REJECTED;
-        this.updatedAt = LocalDateTime.now();
+        moveTo(ProvisioningStatus.REJECTED, approver);
     }
 
     public void markProvisioning() {
         if (this.status != ProvisioningStatus.APPROVED) {
             throw new IllegalStateException("O pedido precisa ser aprovado antes de provisionar");
         }
-        this.status = ProvisioningStatus.PROVISIONING;
-        this.updatedAt = LocalDateTime.now();
+        moveTo(ProvisioningStatus.PROVISIONING, SYSTEM_ACTOR);
     }
 
     public void complete() {
 
-        this.status = ProvisioningStatus.ACTIVE;
-        this.updatedAt = LocalDateTime.now();
+        moveTo(ProvisioningStatus.ACTIVE, SYSTEM_ACTOR);
     }
 
     public void fail() {
-        this.status = ProvisioningStatus.FAILED;
-        this.updatedAt = LocalDateTime.now();
+        moveTo(ProvisioningStatus.FAILED, SYSTEM_ACTOR);
+    }
+
+    /**
+     * Marks the request for teardown, due right away. From then on the status stays DELETING until the
+     * teardown marks it DELETED: progress reported by the workers still records the cloud instance, so
+     * whatever got created can be found and removed.
+     */
+    public void requestDeletion(String actor) {
+        if (!this.status.isLive() && this.status != ProvisioningStatus.DELETING) {
+            throw new IllegalStateException("Pedido finalizado não pode ser removido: " + this.status);
+        }
+        moveTo(ProvisioningStatus.DELETING, actor);
+        this.expiresAt = this.updatedAt; // A varredura de leases faz a remocao
+    }
+
+    /** The cloud instance is gone (or never existed): teardown is over. */
+    public void markDeleted() {
+        if (this.status != ProvisioningStatus.DELETING) {
+            throw new IllegalStateException("Só um pedido em remoção pode ser dado como removido: " + this.status);
+        }
+        moveTo(ProvisioningStatus.DELETED, SYSTEM_ACTOR);
+    }
+
+    /** Status changes made since the last call, oldest first; the audit log takes them when the request is saved. */
+    public List<StatusTransition> pullTransitions() {
+        List<StatusTransition> pulled = List.copyOf(transitions);
+        transitions.clear();
+        return pulled;
+    }
+
+    private void moveTo(ProvisioningStatus next, String actor) {
+        LocalDateTime now = LocalDateTime.now();
+        if (this.status == ProvisioningStatus.DELETED
+                || this.status == ProvisioningStatus.DELETING && next != ProvisioningStatus.DELETED) {
+            return; // Remocao pedida vence o progresso do provisionamento
+        }
+        if (next != this.status) {
+            transitions.add(new StatusTransition(id, this.status, next, actor, now));
+        }
+        this.status = next;
+        this.updatedAt = now;
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.eziocdl.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Entry of the durable retry queue: a provisioning request the cloud could not take yet.
+ * Each failed attempt pushes {@code nextAttemptAt} out by the policy's backoff; once the
+ * attempts run out the entry is parked as DEAD_LETTER.
+ */
+@Entity
+@Table(name = "provisioning_retries")
+@Getter
+@NoArgsConstructor
+public class ProvisioningRetry {
+
+    @Id
+    private UUID provisioningId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RetryState state;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime enqueuedAt;
+
+    private LocalDateTime updatedAt;
+
+    // Factory: the first failure counts as attempt 1
+
+    public ProvisioningRetry(UUID provisioningId, String reason, RetryPolicy policy,
+                             LocalDateTime now, RandomGenerator random) {
+        if (provisioningId == null) {
+            throw new IllegalArgumentException("Provisioning ID is required");
+        }
+        this.provisioningId = provisioningId;
+        this.state = RetryState.PENDING;
+        this.enqueuedAt = now;
+        recordFailure(reason, policy, now, random);
+    }
+
+    public void recordFailure(String reason, RetryPolicy policy, LocalDateTime now, RandomGenerator random) {
+        if (this.state != RetryState.PENDING) {
+            throw new IllegalStateException("Apenas retries pendentes podem ser reagendados");
+        }
+        this.attempts++;
+        this.lastError = reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason;
+        this.updatedAt = now;
+        if (policy.isExhausted(attempts)) {
+            this.state = RetryState.DEAD_LETTER;
+            this.nextAttemptAt = now; // Coluna NOT NULL: na dead letter marca quando foi estacionado
+        } else {
+            this.nextAttemptAt = now.plus(policy.backoff(attempts, random));
+        }
+    }
+
+    /** Hides the entry from other drainers while an attempt is in progress. */
+    public void lease(LocalDateTime until) {
+        this.nextAttemptAt = until;
+    }
+
+    public boolean isDeadLetter() {
+        return state == RetryState.DEAD_LETTER;
+    }
+}
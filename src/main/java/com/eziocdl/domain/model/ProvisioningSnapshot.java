@@ -0,0 +1,19 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a {@link ProvisioningRequest} as it was committed.
+ * Travels with {@link com.eziocdl.domain.event.ProvisioningRequestedEvent} so the worker
+ * does not have to read the request back from the database.
+ */
+public record ProvisioningSnapshot(
+        UUID id,
+        String requesterUsername,
+        String ram,
+        String cpu,
+        ProvisioningStatus status,
+        LocalDateTime createdAt
+) {
+}
@@ -4,8 +4,15 @@ public enum ProvisioningStatus {
     PENDING_APPROVAL,
     APPROVED,
     PROVISIONING,
+    WAITING_ALLOCATION,
     ACTIVE,
     FAILED,
-    REJECTED
+    REJECTED,
+    DELETING,
+    DELETED;
 
+    /** Counts as a VM the owner has (or is getting): what a desired state is compared against. */
+    public boolean isLive() {
+        return this != FAILED && this != REJECTED && this != DELETING && this != DELETED;
+    }
 }
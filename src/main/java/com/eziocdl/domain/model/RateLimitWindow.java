@@ -0,0 +1,35 @@
+package com.eziocdl.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Global create budget of one user in one rate-limit window. Replicas lease tokens from
+ * {@code consumed} in chunks; {@code lastGrant} is what the latest lease actually got.
+ */
+@Entity
+@Table(name = "rate_limit_windows")
+@IdClass(RateLimitWindow.Key.class)
+@Getter
+@NoArgsConstructor
+public class RateLimitWindow {
+
+    @Id
+    private String username;
+
+    @Id
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private int consumed;
+
+    @Column(nullable = false)
+    private int lastGrant;
+
+    public record Key(String username, LocalDateTime windowStart) implements Serializable {
+    }
+}
@@ -0,0 +1,74 @@
+package com.eziocdl.domain.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What it takes to turn an owner's live requests into a desired set of VMs. VMs of the same size are
+ * interchangeable, so the comparison is a multiset difference keyed by the parsed {@link ResourceSpec}
+ * ("8GB"/"8 gb" are the same key): one hash lookup per desired and per current VM.
+ *
+ * Surplus VMs that are already ACTIVE are the last ones picked for deletion.
+ */
+public record ReconcilePlan(List<ResourceSpec> toCreate, List<ProvisioningSnapshot> toDelete, int unchanged) {
+
+    public ReconcilePlan {
+        toCreate = List.copyOf(toCreate);
+        toDelete = List.copyOf(toDelete);
+    }
+
+    public static ReconcilePlan diff(Map<ResourceSpec, Integer> desired, List<ProvisioningSnapshot> current) {
+        Map<ResourceSpec, Integer> missing = new HashMap<>(desired);
+        Map<String, ResourceSpec> parsed = new HashMap<>(); // Poucos tamanhos distintos: o regex roda uma vez por par
+        List<ProvisioningSnapshot> pending = new ArrayList<>();
+        List<ProvisioningSnapshot> activeSurplus = new ArrayList<>();
+        List<ProvisioningSnapshot> toDelete = new ArrayList<>();
+        int unchanged = 0;
+
+        // ACTIVE primeiro: ficam com as vagas e os excedentes removidos sao os que ainda nem subiram
+        for (ProvisioningSnapshot request : current) {
+            if (request.status() != ProvisioningStatus.ACTIVE) {
+                pending.add(request);
+            } else if (claim(missing, spec(parsed, request))) {
+                unchanged++;
+            } else {
+                activeSurplus.add(request);
+            }
+        }
+        for (ProvisioningSnapshot request : pending) {
+            if (claim(missing, spec(parsed, request))) {
+                unchanged++;
+            } else {
+                toDelete.add(request);
+            }
+        }
+        toDelete.addAll(activeSurplus);
+
+        List<ResourceSpec> toCreate = new ArrayList<>();
+        missing.forEach((spec, count) -> {
+            for (int i = 0; i < count; i++) {
+                toCreate.add(spec);
+            }
+        });
+        return new ReconcilePlan(toCreate, toDelete, unchanged);
+    }
+
+    public boolean isEmpty() {
+        return toCreate.isEmpty() && toDelete.isEmpty();
+    }
+
+    private static boolean claim(Map<ResourceSpec, Integer> missing, ResourceSpec spec) {
+        Integer left = missing.get(spec);
+        if (left == null || left == 0) {
+            return false;
+        }
+        missing.put(spec, left - 1);
+        return true;
+    }
+
+    private static ResourceSpec spec(Map<String, ResourceSpec> parsed, ProvisioningSnapshot request) {
+        return parsed.computeIfAbsent(request.ram() + '|' + request.cpu(), key -> ResourceSpec.of(request.ram(), request.cpu()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.eziocdl.domain.model;
 
+import java.time.Duration;
+
 /**
  * Value Object representing resource quotas for a user role.
  * Immutable by design - enforces governance limits.
@@ -14,6 +16,8 @@ public record ResourceQuota(
     public static final ResourceQuota DEV = new ResourceQuota("DEV", 32, 8);
     public static final ResourceQuota ADMIN = new ResourceQuota("ADMIN", Integer.MAX_VALUE, Integer.MAX_VALUE);
 
+    private static final Duration TRAINEE_LEASE = Duration.ofDays(7);
+
     public static ResourceQuota forRole(String role) {
         return switch (role.toUpperCase()) {
             case "TRAINEE" -> TRAINEE;
@@ -31,6 +35,11 @@ public record ResourceQuota(
         return requestedCores <= maxCpuCores;
     }
 
+    /** Lease given to VMs created without one; null keeps them until deleted. */
+    public Duration defaultLease() {
+        return "TRAINEE".equals(role) ? TRAINEE_LEASE : null;
+    }
+
     public String maxRamFormatted() {
         return maxRamGb == Integer.MAX_VALUE ? "unlimited" : maxRamGb + "GB";
     }
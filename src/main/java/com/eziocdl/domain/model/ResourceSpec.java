@@ -0,0 +1,51 @@
+package com.eziocdl.domain.model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Value Object with the numeric size of a VM request.
+ * Parses the user-facing formats ("16GB", "4vCPU") once, so governance
+ * and cloud adapters agree on what was asked for.
+ */
+public record ResourceSpec(
+        int ramGb,
+        int cpuCores
+) {
+    private static final Pattern RAM_PATTERN = Pattern.compile("(\\d+)\\s*[Gg][Bb]?");
+    private static final Pattern CPU_PATTERN = Pattern.compile("(\\d+)\\s*[vV]?[Cc][Pp][Uu]?");
+
+    public static ResourceSpec of(String ram, String cpu) {
+        return new ResourceSpec(parseRam(ram), parseCpu(cpu));
+    }
+
+    public int ramMb() {
+        return ramGb * 1024;
+    }
+
+    /** Canonical request format, e.g. "16GB". */
+    public String ramFormatted() {
+        return ramGb + "GB";
+    }
+
+    /** Canonical request format, e.g. "4vCPU". */
+    public String cpuFormatted() {
+        return cpuCores + "vCPU";
+    }
+
+    private static int parseRam(String ram) {
+        Matcher matcher = RAM_PATTERN.matcher(ram);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+        throw new IllegalArgumentException("Invalid RAM format: " + ram + ". Expected format: '16GB' or '32gb'");
+    }
+
+    private static int parseCpu(String cpu) {
+        Matcher matcher = CPU_PATTERN.matcher(cpu);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+        throw new IllegalArgumentException("Invalid CPU format: " + cpu + ". Expected format: '4vCPU' or '8vcpu'");
+    }
+}
@@ -0,0 +1,34 @@
+package com.eziocdl.domain.model;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Value Object with the retry rules for provisioning that the cloud could not take.
+ * Backoff doubles per attempt up to {@code maxDelay} and is jittered over the upper half of
+ * that window, so requests that failed together do not all come back together.
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        Duration baseDelay,
+        Duration maxDelay
+) {
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+    }
+
+    public Duration backoff(int attempt, RandomGenerator random) {
+        long capMillis = baseDelay.toMillis() << Math.min(attempt - 1, 30);
+        if (capMillis <= 0 || capMillis > maxDelay.toMillis()) {
+            capMillis = maxDelay.toMillis();
+        }
+        long half = capMillis / 2;
+        return Duration.ofMillis(half + random.nextLong(capMillis - half + 1));
+    }
+
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+}
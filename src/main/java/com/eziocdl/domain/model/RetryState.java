@@ -0,0 +1,6 @@
+package com.eziocdl.domain.model;
+
+public enum RetryState {
+    PENDING,
+    DEAD_LETTER
+}
@@ -0,0 +1,16 @@
+package com.eziocdl.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One status change of a {@link ProvisioningRequest}. {@code from} is null for the creation.
+ */
+public record StatusTransition(
+        UUID provisioningId,
+        ProvisioningStatus from,
+        ProvisioningStatus to,
+        String actor,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,87 @@
+package com.eziocdl.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A pre-booted server waiting in the warm pool. It is BOOTING until Nova reports it ACTIVE,
+ * then READY to be handed to a matching request; claiming removes it from the pool.
+ */
+@Entity
+@Table(name = "warm_pool_instances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warm_pool_instances_cloud_instance",
+                columnNames = {"cloud_provider", "instance_id"}))
+@Getter
+@NoArgsConstructor
+public class WarmInstance {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private int ramGb;
+
+    @Column(nullable = false)
+    private int cpuCores;
+
+    @Column(nullable = false)
+    private String image;
+
+    @Column(nullable = false)
+    private String cloudProvider;
+
+    private String cloudRegion;
+
+    @Column(nullable = false)
+    private String instanceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WarmInstanceState state;
+
+    @Column(nullable = false)
+    private LocalDateTime bootedAt;
+
+    private LocalDateTime readyAt;
+
+    // Factory
+
+    public WarmInstance(ResourceSpec spec, String image, CloudInstance instance, LocalDateTime now) {
+        if (instance == null || !instance.isAllocated()) {
+            throw new IllegalArgumentException("Instance ID is required");
+        }
+        this.id = UUID.randomUUID();
+        this.ramGb = spec.ramGb();
+        this.cpuCores = spec.cpuCores();
+        this.image = image;
+        this.cloudProvider = instance.provider();
+        this.cloudRegion = instance.region();
+        this.instanceId = instance.instanceId();
+        this.state = WarmInstanceState.BOOTING;
+        this.bootedAt = now;
+    }
+
+    public void markReady(LocalDateTime now) {
+        if (this.state != WarmInstanceState.BOOTING) {
+            throw new IllegalStateException("Apenas instancias em boot podem ficar prontas");
+        }
+        this.state = WarmInstanceState.READY;
+        this.readyAt = now;
+    }
+
+    public boolean isReady() {
+        return state == WarmInstanceState.READY;
+    }
+
+    public ResourceSpec resourceSpec() {
+        return new ResourceSpec(ramGb, cpuCores);
+    }
+
+    public CloudInstance cloudInstance() {
+        return new CloudInstance(cloudProvider, cloudRegion, instanceId);
+    }
+}
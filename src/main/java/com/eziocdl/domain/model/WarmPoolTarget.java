@@ -0,0 +1,27 @@
+package com.eziocdl.domain.model;
+
+import java.time.Duration;
+
+/**
+ * Value Object with the size bounds of one warm pool. The pool holds as many ready servers as
+ * the recent demand would consume while a replacement boots, clamped to {@code [minSize, maxSize]}.
+ */
+public record WarmPoolTarget(
+        ResourceSpec spec,
+        int minSize,
+        int maxSize
+) {
+    public WarmPoolTarget {
+        if (spec == null) {
+            throw new IllegalArgumentException("Resource spec is required");
+        }
+        if (minSize < 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("Warm pool size must satisfy 0 <= minSize <= maxSize");
+        }
+    }
+
+    public int size(double demandPerSecond, Duration bootTime) {
+        long expected = (long) Math.ceil(demandPerSecond * bootTime.toMillis() / 1000.0);
+        return (int) Math.max(minSize, Math.min(maxSize, expected));
+    }
+}
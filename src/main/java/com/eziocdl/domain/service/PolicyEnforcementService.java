@@ -2,11 +2,9 @@ package com.eziocdl.domain.service;
 
 import com.eziocdl.domain.exception.PolicyViolationException;
 import com.eziocdl.domain.model.ResourceQuota;
+import com.eziocdl.domain.model.ResourceSpec;
 import org.springframework.stereotype.Service;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Domain Service responsible for enforcing resource governance policies.
  *
@@ -20,9 +18,6 @@ import java.util.regex.Pattern;
 @Service
 public class PolicyEnforcementService {
 
-    private static final Pattern RAM_PATTERN = Pattern.compile("(\\d+)\\s*[Gg][Bb]?");
-    private static final Pattern CPU_PATTERN = Pattern.compile("(\\d+)\\s*[vV]?[Cc][Pp][Uu]?");
-
     /**
      * Validates if the requested resources comply with the user's role quota.
      *
@@ -34,8 +29,9 @@ public class PolicyEnforcementService {
     public void enforce(String userRole, String ram, String cpu) {
         ResourceQuota quota = ResourceQuota.forRole(userRole);
 
-        int requestedRam = parseRam(ram);
-        int requestedCpu = parseCpu(cpu);
+        ResourceSpec requested = ResourceSpec.of(ram, cpu);
+        int requestedRam = requested.ramGb();
+        int requestedCpu = requested.cpuCores();
 
         System.out.println("🛡️ [Policy] Checking quota for role=" + userRole +
                            " | Requested: RAM=" + requestedRam + "GB, CPU=" + requestedCpu + "vCPU" +
@@ -55,20 +51,4 @@ public class PolicyEnforcementService {
 
         System.out.println("✅ [Policy] Request APPROVED for role=" + userRole);
     }
-
-    private int parseRam(String ram) {
-        Matcher matcher = RAM_PATTERN.matcher(ram);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group(1));
-        }
-        throw new IllegalArgumentException("Invalid RAM format: " + ram + ". Expected format: '16GB' or '32gb'");
-    }
-
-    private int parseCpu(String cpu) {
-        Matcher matcher = CPU_PATTERN.matcher(cpu);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group(1));
-        }
-        throw new IllegalArgumentException("Invalid CPU format: " + cpu + ". Expected format: '4vCPU' or '8vcpu'");
-    }
 }
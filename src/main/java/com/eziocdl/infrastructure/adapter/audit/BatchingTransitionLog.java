@@ -0,0 +1,265 @@
+package com.eziocdl.infrastructure.adapter.audit;
+
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.StatusTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes status transitions to the {@code store} from one background thread, many per INSERT.
+ *
+ * {@link #append} only queues, and inside a transaction only after it commits. The writer takes what
+ * is queued, waits up to {@code linger} for a batch to fill, and writes it. A batch that fails for a
+ * transient reason (lost connection, timeout) is retried with backoff, so while the database is down
+ * the queue fills up. Any other failure is the data's: the batch is split in halves until the bad rows
+ * are alone, and those are logged and counted as dropped. With the queue full, a caller waits up to
+ * {@code offerTimeout} once and then writes the rest of its transitions itself (backpressure instead
+ * of loss). {@link #close} stops taking new work in the queue and flushes what is left before
+ * returning; transitions appended after that are written directly.
+ *
+ * Reads go straight to the store: a timeline can lag the request by up to {@code linger}.
+ *
+ * Metrics: {@code cpm.audit.queue}, {@code cpm.audit.batch.size}, {@code cpm.audit.flush} and
+ * {@code cpm.audit.transitions{outcome=batched|direct|dropped}}.
+ */
+public class BatchingTransitionLog implements TransitionLogPort, AutoCloseable {
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final TransitionLogPort store;
+    private final BlockingQueue<StatusTransition> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long offerTimeoutNanos;
+    private final Duration shutdownTimeout;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile List<StatusTransition> unwritten = List.of(); // Lote do writer que nao chegou ao banco
+
+    private final DistributionSummary batchSizes;
+    private final Timer flush;
+    private final Counter batched;
+    private final Counter direct;
+    private final Counter dropped;
+
+    public BatchingTransitionLog(TransitionLogPort store, MeterRegistry registry, int capacity, int batchSize,
+                                 Duration linger, Duration offerTimeout, Duration shutdownTimeout) {
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.writer = new Thread(this::run, "cpm-audit-writer");
+        this.writer.setDaemon(true);
+
+        Gauge.builder("cpm.audit.queue", queue, BlockingQueue::size).register(registry);
+        this.batchSizes = DistributionSummary.builder("cpm.audit.batch.size").register(registry);
+        this.flush = Timer.builder("cpm.audit.flush").register(registry);
+        this.batched = Counter.builder("cpm.audit.transitions").tag("outcome", "batched").register(registry);
+        this.direct = Counter.builder("cpm.audit.transitions").tag("outcome", "direct").register(registry);
+        this.dropped = Counter.builder("cpm.audit.transitions").tag("outcome", "dropped").register(registry);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    @Override
+    public void append(List<StatusTransition> transitions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(transitions);
+            return;
+        }
+        // Rollback nao deixa historico de um estado que nunca existiu
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(transitions);
+            }
+        });
+    }
+
+    @Override
+    public List<StatusTransition> findByProvisioningId(UUID provisioningId) {
+        return store.findByProvisioningId(provisioningId);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            try {
+                writer.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<StatusTransition> left = new ArrayList<>(unwritten);
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            writeDirect(left);
+        }
+        System.out.println("[Audit] Writer parado, fila vazia");
+    }
+
+    private void enqueue(List<StatusTransition> transitions) {
+        List<StatusTransition> overflow = new ArrayList<>();
+        for (StatusTransition transition : transitions) {
+            // Depois de um offer vencido o resto vai direto: esperar de novo a cada item seria N x offerTimeout
+            if (!running || !overflow.isEmpty() || !offer(transition)) {
+                overflow.add(transition);
+            } else if (!running && queue.remove(transition)) {
+                overflow.add(transition); // Entrou na fila depois do flush do close
+            }
+        }
+        if (!overflow.isEmpty()) {
+            writeDirect(overflow); // Fila cheia por mais de offerTimeout: quem gerou grava
+        }
+    }
+
+    private boolean offer(StatusTransition transition) {
+        try {
+            return queue.offer(transition, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        List<StatusTransition> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                StatusTransition first = queue.poll(100, TimeUnit.MILLISECONDS); // Acorda para ver o running
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                if (!write(batch)) {
+                    return; // Parando com o banco fora: o close tenta mais uma vez
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unwritten = List.copyOf(batch);
+        }
+    }
+
+    private void fill(List<StatusTransition> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            StatusTransition next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes the batch, retrying transient failures and bisecting the others down to the offending rows.
+     * Gives up (false) only when shutting down, leaving in {@code batch} what was not written.
+     */
+    private boolean write(List<StatusTransition> batch) throws InterruptedException {
+        Deque<List<StatusTransition>> chunks = new ArrayDeque<>();
+        chunks.push(List.copyOf(batch));
+        Duration backoff = Duration.ofMillis(100);
+        while (!chunks.isEmpty()) {
+            List<StatusTransition> chunk = chunks.peek();
+            try {
+                long start = System.nanoTime();
+                store.append(chunk);
+                flush.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batchSizes.record(chunk.size());
+                batched.increment(chunk.size());
+                chunks.pop();
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    chunks.pop();
+                    split(chunk, e, chunks);
+                    continue;
+                }
+                System.err.println("[Audit] Falha ao gravar " + chunk.size() + " transicao(oes): " + e.getMessage());
+                if (!running) {
+                    batch.clear();
+                    chunks.forEach(batch::addAll); // Do topo para baixo: mesma ordem de chegada
+                    return false;
+                }
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+        return true;
+    }
+
+    private void split(List<StatusTransition> chunk, RuntimeException e, Deque<List<StatusTransition>> chunks) {
+        if (chunk.size() == 1) {
+            // Repetir nao muda o resultado: registra e segue com o resto
+            dropped.increment();
+            System.err.println("[Audit] Transicao descartada " + chunk.getFirst() + ": " + e.getMessage());
+            return;
+        }
+        int half = chunk.size() / 2;
+        chunks.push(chunk.subList(half, chunk.size()));
+        chunks.push(chunk.subList(0, half));
+    }
+
+    /** Failures worth retrying as they are: the database or the connection, not the rows. */
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeDirect(List<StatusTransition> transitions) {
+        try {
+            store.append(transitions);
+            direct.increment(transitions.size());
+        } catch (RuntimeException e) {
+            dropped.increment(transitions.size());
+            System.err.println("[Audit] " + transitions.size() + " transicao(oes) perdida(s): " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.infrastructure.config.CloudEndpointProperties;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One tuned {@link WebClient} per configured cloud endpoint, each backed by its own
+ * Reactor Netty {@link ConnectionProvider}.
+ *
+ * Pool metrics are published as {@code reactor.netty.connection.provider.*}
+ * (active, idle, pending acquire) tagged with {@code name=cloud-<endpoint>}.
+ */
+public class CloudEndpointClients implements DisposableBean {
+
+    private final Map<String, WebClient> clients = new LinkedHashMap<>();
+    private final Map<String, ConnectionProvider> providers = new LinkedHashMap<>();
+
+    public CloudEndpointClients(WebClient.Builder builder, CloudEndpointProperties properties) {
+        properties.endpoints().forEach((name, endpoint) -> {
+            ConnectionProvider provider = connectionProvider(name, endpoint.pool());
+            providers.put(name, provider);
+            clients.put(name, builder.clone()
+                    .baseUrl(endpoint.baseUrl())
+                    .clientConnector(new ReactorClientHttpConnector(httpClient(provider, endpoint)))
+                    .build());
+        });
+    }
+
+    public WebClient forEndpoint(String name) {
+        WebClient client = clients.get(name);
+        if (client == null) {
+            throw new IllegalStateException("Cloud endpoint not configured: cpm.cloud.endpoints." + name);
+        }
+        return client;
+    }
+
+    public Set<String> endpointNames() {
+        return clients.keySet();
+    }
+
+    @Override
+    public void destroy() {
+        providers.values().forEach(provider -> provider.disposeLater().block(Duration.ofSeconds(5)));
+    }
+
+    private static ConnectionProvider connectionProvider(String name, CloudEndpointProperties.Pool pool) {
+        return ConnectionProvider.builder("cloud-" + name)
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    private static HttpClient httpClient(ConnectionProvider provider, CloudEndpointProperties.Endpoint endpoint) {
+        HttpProtocol[] protocols = endpoint.http2()
+                ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+
+        return HttpClient.create(provider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) endpoint.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, endpoint.pool().keepAlive())
+                .keepAlive(endpoint.pool().keepAlive())
+                .responseTimeout(endpoint.responseTimeout())
+                .compress(endpoint.compression());
+    }
+}
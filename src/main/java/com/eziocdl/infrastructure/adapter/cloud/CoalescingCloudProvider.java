@@ -0,0 +1,151 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ResourceSpec;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CloudProviderPort} decorator that groups requests with the same spec (and therefore the
+ * same flavor and image) arriving within a short window into one {@code provisionInstances} call.
+ *
+ * Callers still see a synchronous {@code provisionInstance}; they block until their batch returns.
+ * A batch is sent when the window closes or when it reaches {@code maxBatch}.
+ */
+public class CoalescingCloudProvider implements CloudProviderPort, AutoCloseable {
+
+    private final CloudProviderPort delegate;
+    private final Duration window;
+    private final int maxBatch;
+    private final DistributionSummary batchSizes;
+
+    private final Object lock = new Object();
+    private final Map<ResourceSpec, Batch> openBatches = new HashMap<>();
+    private final ScheduledExecutorService windowTimer;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CoalescingCloudProvider(CloudProviderPort delegate, Duration window, int maxBatch, MeterRegistry registry) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        this.delegate = delegate;
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.batchSizes = DistributionSummary.builder("cpm.cloud.coalesce.batch.size")
+                .description("Requests sent per provider call")
+                .register(registry);
+        this.windowTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cloud-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CloudInstance provisionInstance(ProvisioningRequest request) {
+        try {
+            return submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+        batchSizes.record(requests.size());
+        return delegate.provisionInstances(requests); // Already a batch
+    }
+
+    @Override
+    public List<String> deprovisionInstances(List<CloudInstance> instances) {
+        return delegate.deprovisionInstances(instances); // Already a batch
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    CompletableFuture<CloudInstance> submit(ProvisioningRequest request) {
+        ResourceSpec key = request.resourceSpec();
+        Pending pending = new Pending(request, new CompletableFuture<>());
+        List<Pending> full = null;
+
+        synchronized (lock) {
+            Batch batch = openBatches.get(key);
+            if (batch == null) {
+                Batch created = new Batch();
+                created.timer = windowTimer.schedule(() -> closeWindow(key, created), window.toMillis(), TimeUnit.MILLISECONDS);
+                openBatches.put(key, created);
+                batch = created;
+            }
+            batch.items.add(pending);
+            if (batch.items.size() >= maxBatch) {
+                openBatches.remove(key);
+                batch.timer.cancel(false);
+                full = batch.items;
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return pending.result();
+    }
+
+    @Override
+    public void close() {
+        windowTimer.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    private void closeWindow(ResourceSpec key, Batch batch) {
+        synchronized (lock) {
+            if (!openBatches.remove(key, batch)) {
+                return; // Already sent because it filled up
+            }
+        }
+        dispatch(batch.items);
+    }
+
+    private void dispatch(List<Pending> items) {
+        dispatcher.execute(() -> {
+            List<ProvisioningRequest> requests = items.stream().map(Pending::request).toList();
+            try {
+                batchSizes.record(requests.size());
+                List<CloudInstance> instances = delegate.provisionInstances(requests);
+                for (int i = 0; i < items.size(); i++) {
+                    items.get(i).result().complete(instances.get(i));
+                }
+            } catch (Throwable t) {
+                items.forEach(item -> item.result().completeExceptionally(t));
+            }
+        });
+    }
+
+    private static final class Batch {
+        private final List<Pending> items = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+    }
+
+    private record Pending(ProvisioningRequest request, CompletableFuture<CloudInstance> result) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse deadlines: O(1) schedule, and advancing one tick only touches
+ * the entries in that tick's slot. Deadlines further away than one revolution wait extra rounds.
+ *
+ * Not thread-safe: owned by the thread that calls {@link #advance}. There is no cancel; owners
+ * check on expiry whether the item is still relevant.
+ */
+final class DeadlineWheel<T> {
+
+    private final long tickMillis;
+    private final List<Entry<T>>[] slots;
+    private long nextTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    DeadlineWheel(Duration tick, int slotCount, long startMillis) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    void schedule(T item, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, nextTick); // Already late: fires on the next advance
+        long rounds = (tick - nextTick) / slots.length;
+        slots[(int) (tick % slots.length)].add(new Entry<>(item, rounds));
+        size++;
+    }
+
+    /** Fires every entry whose deadline tick is at or before {@code nowMillis}. */
+    void advance(long nowMillis, Consumer<T> onExpired) {
+        long target = nowMillis / tickMillis;
+        while (nextTick <= target) {
+            Iterator<Entry<T>> bucket = slots[(int) (nextTick % slots.length)].iterator();
+            while (bucket.hasNext()) {
+                Entry<T> entry = bucket.next();
+                if (entry.rounds == 0) {
+                    bucket.remove();
+                    size--;
+                    onExpired.accept(entry.item);
+                } else {
+                    entry.rounds--;
+                }
+            }
+            nextTick++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private long rounds;
+
+        private Entry(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+}
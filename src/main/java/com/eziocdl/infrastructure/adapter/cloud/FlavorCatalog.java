@@ -0,0 +1,90 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable index of Nova flavors answering "smallest flavor with at least N vCPU and M MB RAM".
+ *
+ * Built once per refresh: for every distinct vCPU level, a table maps each RAM threshold to the
+ * best flavor among those with at least that many vCPUs. A lookup is two binary searches
+ * (vCPU level, then RAM threshold), so it is O(log n) and needs no locking.
+ * "Best" means least RAM, then fewest vCPUs, then name.
+ */
+public final class FlavorCatalog {
+
+    public record Flavor(String id, String name, int vcpus, int ramMb) {
+    }
+
+    private static final Comparator<Flavor> SMALLEST_FIRST = Comparator
+            .comparingInt(Flavor::ramMb)
+            .thenComparingInt(Flavor::vcpus)
+            .thenComparing(Flavor::name);
+
+    public static final FlavorCatalog EMPTY = new FlavorCatalog(List.of());
+
+    private final int size;
+    private final int[] vcpuLevels;
+    private final int[][] ramThresholds;
+    private final Flavor[][] bestFits;
+
+    private FlavorCatalog(List<Flavor> flavors) {
+        this.size = flavors.size();
+        this.vcpuLevels = flavors.stream().mapToInt(Flavor::vcpus).distinct().sorted().toArray();
+        this.ramThresholds = new int[vcpuLevels.length][];
+        this.bestFits = new Flavor[vcpuLevels.length][];
+
+        for (int level = 0; level < vcpuLevels.length; level++) {
+            int minVcpus = vcpuLevels[level];
+            List<Flavor> candidates = new ArrayList<>(flavors.stream()
+                    .filter(f -> f.vcpus() >= minVcpus)
+                    .sorted(Comparator.comparingInt(Flavor::ramMb))
+                    .toList());
+
+            // Suffix minimum: for a RAM threshold, the best flavor among candidates with ram >= threshold
+            int[] thresholds = candidates.stream().mapToInt(Flavor::ramMb).distinct().toArray();
+            Flavor[] best = new Flavor[thresholds.length];
+            Flavor running = null;
+            int c = candidates.size() - 1;
+            for (int t = thresholds.length - 1; t >= 0; t--) {
+                while (c >= 0 && candidates.get(c).ramMb() >= thresholds[t]) {
+                    Flavor candidate = candidates.get(c--);
+                    if (running == null || SMALLEST_FIRST.compare(candidate, running) < 0) {
+                        running = candidate;
+                    }
+                }
+                best[t] = running;
+            }
+            ramThresholds[level] = thresholds;
+            bestFits[level] = best;
+        }
+    }
+
+    public static FlavorCatalog of(List<Flavor> flavors) {
+        return flavors.isEmpty() ? EMPTY : new FlavorCatalog(flavors);
+    }
+
+    public Optional<Flavor> bestFit(int vcpus, int ramMb) {
+        int level = firstAtLeast(vcpuLevels, vcpus);
+        if (level == vcpuLevels.length) {
+            return Optional.empty();
+        }
+        int threshold = firstAtLeast(ramThresholds[level], ramMb);
+        if (threshold == ramThresholds[level].length) {
+            return Optional.empty();
+        }
+        return Optional.of(bestFits[level][threshold]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int firstAtLeast(int[] sorted, int key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+}
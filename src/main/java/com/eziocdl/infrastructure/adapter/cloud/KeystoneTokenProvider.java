@@ -0,0 +1,151 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.infrastructure.config.KeystoneProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-project cache of Keystone tokens.
+ *
+ * - Single flight: concurrent callers for the same project share one {@code POST /v3/auth/tokens}.
+ * - Proactive refresh: once a token is within {@code refreshBefore} of expiry, callers keep
+ *   using it while a single background request fetches the replacement.
+ * - 401 handling: {@link #withToken} drops the rejected token and retries the call once.
+ */
+public class KeystoneTokenProvider {
+
+    private final WebClient keystone;
+    private final KeystoneProperties properties;
+    private final Clock clock;
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+
+    public KeystoneTokenProvider(WebClient keystone, KeystoneProperties properties, Clock clock) {
+        this.keystone = keystone;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Provider for deployments without Keystone (e.g. the WireMock stub): calls run without a token.
+     */
+    public static KeystoneTokenProvider disabled() {
+        return new KeystoneTokenProvider(null, null, Clock.systemUTC());
+    }
+
+    public boolean isEnabled() {
+        return properties != null && properties.enabled();
+    }
+
+    public <T> Mono<T> withToken(Function<String, Mono<T>> call) {
+        return withToken(isEnabled() ? properties.project() : null, call);
+    }
+
+    /**
+     * Runs {@code call} with a valid token for the project. If the cloud answers 401,
+     * the token is invalidated and the call is retried once with a fresh one.
+     */
+    public <T> Mono<T> withToken(String project, Function<String, Mono<T>> call) {
+        if (!isEnabled()) {
+            return call.apply(null);
+        }
+        return token(project).flatMap(token -> call.apply(token)
+                .onErrorResume(WebClientResponseException.Unauthorized.class, unauthorized -> {
+                    invalidate(project, token);
+                    return token(project).flatMap(call);
+                }));
+    }
+
+    /** Lazy: the cache is read and Keystone called on subscribe, not when the Mono is assembled. */
+    public Mono<String> token(String project) {
+        return Mono.defer(() -> {
+            CachedToken cached = tokens.get(project);
+            Instant now = clock.instant();
+
+            if (cached != null && now.isBefore(cached.expiresAt())) {
+                if (now.isAfter(cached.expiresAt().minus(properties.refreshBefore()))) {
+                    acquire(project); // Background refresh; keep serving the current token meanwhile
+                }
+                return Mono.just(cached.value());
+            }
+            return Mono.fromFuture(acquire(project), true).map(CachedToken::value);
+        });
+    }
+
+    /**
+     * Drops the cached token only if it is still the one the cloud rejected, so a burst
+     * of 401s for the same token triggers a single re-authentication.
+     */
+    public void invalidate(String project, String rejectedToken) {
+        tokens.computeIfPresent(project, (p, cached) -> cached.value().equals(rejectedToken) ? null : cached);
+    }
+
+    private CompletableFuture<CachedToken> acquire(String project) {
+        CompletableFuture<CachedToken> created = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(project, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        requestToken(project).subscribe(
+                token -> {
+                    tokens.put(project, token);
+                    inFlight.remove(project, created);
+                    created.complete(token);
+                },
+                error -> {
+                    inFlight.remove(project, created);
+                    created.completeExceptionally(error);
+                });
+        return created;
+    }
+
+    private Mono<CachedToken> requestToken(String project) {
+        System.out.println("🔑 [Keystone] Solicitando token para o projeto " + project);
+
+        return keystone.post()
+                .uri("/v3/auth/tokens")
+                .bodyValue(authRequest(project))
+                .retrieve()
+                .toEntity(TokenResponse.class)
+                .map(entity -> {
+                    String value = entity.getHeaders().getFirst("X-Subject-Token");
+                    if (value == null || entity.getBody() == null) {
+                        throw new IllegalStateException("Keystone response without X-Subject-Token");
+                    }
+                    return new CachedToken(value, entity.getBody().token().expiresAt());
+                });
+    }
+
+    private Map<String, Object> authRequest(String project) {
+        return Map.of("auth", Map.of(
+                "identity", Map.of(
+                        "methods", List.of("password"),
+                        "password", Map.of("user", Map.of(
+                                "name", properties.username(),
+                                "domain", Map.of("name", properties.userDomain()),
+                                "password", properties.password()))),
+                "scope", Map.of("project", Map.of(
+                        "name", project,
+                        "domain", Map.of("name", properties.projectDomain())))));
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {
+    }
+
+    record TokenResponse(Token token) {
+        record Token(@JsonProperty("expires_at") Instant expiresAt) {
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+/**
+ * The flavor catalog has nothing covering the requested size. A configuration problem, not a cloud
+ * failure: the circuit breakers ignore it, so it never takes a healthy region out of service.
+ */
+public class NoMatchingFlavorException extends IllegalStateException {
+
+    public NoMatchingFlavorException(int vcpus, int ramGb) {
+        super("Nenhum flavor atende " + vcpus + "vCPU/" + ramGb + "GB");
+    }
+}
@@ -0,0 +1,253 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Follows every in-flight server of one cloud with a single poll loop.
+ *
+ * Each cycle is one {@code GET /servers/detail?changes-since=} (paged with limit/marker), so the
+ * cost depends on how many servers changed, not on how many are tracked. The interval drops to
+ * {@code minInterval} when something settles and doubles up to {@code maxInterval} while nothing
+ * does. Build deadlines live in a {@link DeadlineWheel}; a server that is not ACTIVE by then is
+ * reported FAILED.
+ *
+ * Servers resumed after a restart pull the next poll back to their last recorded progress, so one
+ * that settled while the service was down is still seen.
+ */
+public class NovaServerStatusTracker implements ServerStatusTrackerPort, AutoCloseable {
+
+    // The watermark is Nova's own "updated" clock (changes-since is inclusive). After new servers are
+    // tracked, re-read a little history in case a poll saw them change just before track() ran
+    private static final Duration REWIND = Duration.ofSeconds(5);
+    private static final Duration WHEEL_TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SLOTS = 512;
+
+    private final WebClient webClient;
+    private final KeystoneTokenProvider keystone;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration buildTimeout;
+    private final int pageSize;
+
+    private final Map<String, UUID> inFlight = new ConcurrentHashMap<>();
+    private final Queue<String> newlyTracked = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Instant> resumeFrom = new AtomicReference<>();
+    private final DeadlineWheel<String> deadlines;
+    private final ScheduledExecutorService poller;
+
+    // Only touched by the poll thread
+    private Instant watermark;
+    private Duration interval;
+
+    private final Timer pollDuration;
+    private final Counter settledActive;
+    private final Counter settledFailed;
+    private final Counter settledTimeout;
+
+    public NovaServerStatusTracker(String cloud, WebClient webClient, KeystoneTokenProvider keystone,
+                                   ApplicationEventPublisher publisher, Clock clock, MeterRegistry registry,
+                                   Duration minInterval, Duration maxInterval, Duration buildTimeout, int pageSize) {
+        this.webClient = webClient;
+        this.keystone = keystone;
+        this.publisher = publisher;
+        this.clock = clock;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.buildTimeout = buildTimeout;
+        this.pageSize = pageSize;
+        this.interval = minInterval;
+        this.watermark = clock.instant();
+        this.deadlines = new DeadlineWheel<>(WHEEL_TICK, WHEEL_SLOTS, clock.millis());
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "status-poller-" + cloud);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.pollDuration = Timer.builder("cpm.cloud.status.poll.duration").tag("cloud", cloud).register(registry);
+        this.settledActive = settledCounter(registry, cloud, "active");
+        this.settledFailed = settledCounter(registry, cloud, "failed");
+        this.settledTimeout = settledCounter(registry, cloud, "timeout");
+        Gauge.builder("cpm.cloud.status.in.flight", inFlight, Map::size).tag("cloud", cloud).register(registry);
+    }
+
+    public void start() {
+        poller.schedule(this::cycle, minInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void track(UUID provisioningId, CloudInstance instance) {
+        inFlight.put(instance.instanceId(), provisioningId);
+        newlyTracked.add(instance.instanceId());
+    }
+
+    @Override
+    public void resume(UUID provisioningId, CloudInstance instance, Instant since) {
+        resumeFrom.accumulateAndGet(since, (current, next) -> current == null || next.isBefore(current) ? next : current);
+        track(provisioningId, instance);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Runs one poll cycle and returns the delay until the next one. Called by the poll thread;
+     * exposed for tests.
+     */
+    Duration pollOnce() {
+        long now = clock.millis();
+        String added;
+        boolean rewind = false;
+        while ((added = newlyTracked.poll()) != null) {
+            deadlines.schedule(added, now + buildTimeout.toMillis());
+            rewind = true;
+        }
+        deadlines.advance(now, this::expire);
+
+        if (inFlight.isEmpty()) {
+            interval = minInterval;
+            return interval;
+        }
+
+        Instant from = rewind ? watermark.minus(REWIND) : watermark;
+        Instant resumed = resumeFrom.getAndSet(null);
+        if (resumed != null && resumed.minus(REWIND).isBefore(from)) {
+            from = resumed.minus(REWIND); // Relogio do banco x relogio do Nova: mesma folga do rewind
+        }
+
+        Timer.Sample sample = Timer.start();
+        int settled = fetchChanges(from);
+        sample.stop(pollDuration);
+        interval = settled > 0 ? minInterval : min(interval.multipliedBy(2), maxInterval);
+        return interval;
+    }
+
+    private int fetchChanges(Instant from) {
+        String since = from.truncatedTo(ChronoUnit.SECONDS).toString();
+        int settled = 0;
+        String marker = null;
+        while (true) {
+            OpenStackAdapter.ServersResponse page = fetchPage(since, marker);
+            for (OpenStackAdapter.NovaServer server : page.servers()) {
+                if (server.updated() != null && server.updated().isAfter(watermark)) {
+                    watermark = server.updated();
+                }
+                if (settle(server)) {
+                    settled++;
+                }
+                marker = server.id();
+            }
+            if (page.servers().size() < pageSize) {
+                return settled;
+            }
+        }
+    }
+
+    private OpenStackAdapter.ServersResponse fetchPage(String since, String marker) {
+        return keystone.withToken(token -> webClient.get()
+                        .uri(uri -> {
+                            uri.path("/servers/detail")
+                                    .queryParam("changes-since", since)
+                                    .queryParam("limit", pageSize);
+                            if (marker != null) {
+                                uri.queryParam("marker", marker);
+                            }
+                            return uri.build();
+                        })
+                        .headers(headers -> {
+                            if (token != null) {
+                                headers.set("X-Auth-Token", token);
+                            }
+                        })
+                        .retrieve()
+                        .bodyToMono(OpenStackAdapter.ServersResponse.class))
+                .block();
+    }
+
+    private boolean settle(OpenStackAdapter.NovaServer server) {
+        ProvisioningStatus outcome = switch (server.status()) {
+            case "ACTIVE" -> ProvisioningStatus.ACTIVE;
+            case "ERROR", "DELETED", "SOFT_DELETED" -> ProvisioningStatus.FAILED;
+            default -> null; // BUILD, REBUILD, ...: still in progress
+        };
+        if (outcome == null) {
+            return false;
+        }
+        UUID provisioningId = inFlight.remove(server.id());
+        if (provisioningId == null) {
+            return false; // Not ours, or already settled
+        }
+        (outcome == ProvisioningStatus.ACTIVE ? settledActive : settledFailed).increment();
+        publish(new InstanceStatusChangedEvent(provisioningId, server.id(), outcome, server.status()));
+        return true;
+    }
+
+    private void expire(String instanceId) {
+        UUID provisioningId = inFlight.remove(instanceId);
+        if (provisioningId != null) {
+            settledTimeout.increment();
+            publish(new InstanceStatusChangedEvent(provisioningId, instanceId, ProvisioningStatus.FAILED,
+                    "BUILD_TIMEOUT"));
+        }
+    }
+
+    private void publish(InstanceStatusChangedEvent event) {
+        try {
+            publisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            System.err.println("[StatusTracker] Falha ao atualizar pedido " + event.provisioningId() + ": " + e.getMessage());
+        }
+    }
+
+    private void cycle() {
+        Duration next = maxInterval;
+        try {
+            next = pollOnce();
+        } catch (RuntimeException e) {
+            System.err.println("[StatusTracker] Falha no polling de status, tentando de novo em " + next + ": " + e.getMessage());
+        } finally {
+            if (!poller.isShutdown()) {
+                poller.schedule(this::cycle, next.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static Counter settledCounter(MeterRegistry registry, String cloud, String outcome) {
+        return Counter.builder("cpm.cloud.status.settled").tag("cloud", cloud).tag("outcome", outcome).register(registry);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
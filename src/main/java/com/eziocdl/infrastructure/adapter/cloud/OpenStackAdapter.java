@@ -1,50 +1,277 @@
 package com.eziocdl.infrastructure.adapter.cloud;
 
 import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.domain.model.CloudInstance;
 import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class OpenStackAdapter implements CloudProviderPort {
 
+    static final String ENDPOINT = "openstack";
+    public static final String PROVIDER = "openstack";
+    private static final int MAX_CONCURRENT_DELETES = 16;
+
     private final WebClient webClient;
+    private final KeystoneTokenProvider keystone;
+    private final OpenStackCatalogCache catalog;
+    private final String defaultImage;
+    private final String region;
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    public OpenStackAdapter(CloudEndpointClients clients, KeystoneTokenProvider keystone,
+                            OpenStackCatalogCache catalog, CircuitBreakerRegistry circuitBreakers,
+                            @Value("${cpm.cloud.catalog.default-image:ubuntu-22.04}") String defaultImage,
+                            @Value("${cpm.cloud.region:RegionOne}") String region) {
+        this(clients.forEndpoint(ENDPOINT), keystone, catalog, circuitBreakers, defaultImage, region);
+    }
 
-    public OpenStackAdapter(WebClient.Builder builder) {
-        this.webClient = builder
-                .baseUrl("http://localhost:8081")
-                .build();
+    /**
+     * Adapter for one region behind {@link RoutingCloudProvider}. It is not a Spring proxy, so the
+     * {@code @CircuitBreaker} annotations do not apply: the router guards each backend itself.
+     */
+    public OpenStackAdapter(WebClient webClient, KeystoneTokenProvider keystone, OpenStackCatalogCache catalog,
+                            CircuitBreakerRegistry circuitBreakers, String defaultImage, String region) {
+        this.webClient = webClient;
+        this.keystone = keystone;
+        this.catalog = catalog;
+        this.defaultImage = defaultImage;
+        this.region = region;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    public String region() {
+        return region;
     }
 
     @Override
     @CircuitBreaker(name = "openstack", fallbackMethod = "fallbackProvision")
-    public String provisionInstance(ProvisioningRequest request) {
+    public CloudInstance provisionInstance(ProvisioningRequest request) {
         System.out.println("☁️ [OpenStackAdapter] Tentando chamar a nuvem...");
 
-        var payload = """
-            { "server": { "name": "vm-%s", "imageRef": "ubuntu-22.04" } }
-            """.formatted(request.getId());
-
+        var payload = createServerPayload("vm-" + request.getId(), imageRef(), flavorFor(request.resourceSpec()));
 
-        String response = webClient.post()
-                .uri("/servers")
-                .header("Content-Type", "application/json")
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(3)) // Timeout técnico
-                .block();
+        CreateServerResponse response = post(payload, CreateServerResponse.class);
 
         System.out.println("[OpenStackAdapter] Sucesso!");
-        return "i-007-instance-uuid";
+        return instance(response.server().id());
+    }
+
+    /**
+     * Boots all requests with one Nova multi-create call ({@code min_count = max_count = N}).
+     * The servers of one reservation share flavor and image, so they are handed out in the order Nova
+     * lists them. Their names come from the operator's {@code multi_instance_name_template} and are not
+     * read; a reservation that does not list exactly N distinct servers fails the batch. Once the POST
+     * went through, a failed batch deletes the reservation's servers before it throws.
+     */
+    @Override
+    @CircuitBreaker(name = "openstack", fallbackMethod = "fallbackProvisionBatch")
+    public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+        if (requests.size() == 1) {
+            return List.of(provisionInstance(requests.get(0)));
+        }
+        System.out.println("☁️ [OpenStackAdapter] Multi-create de " + requests.size() + " VMs");
+
+        ResourceSpec spec = requests.get(0).resourceSpec();
+        String baseName = "vm-batch-" + UUID.randomUUID();
+        var payload = multiCreatePayload(baseName, imageRef(), flavorFor(spec), requests.size());
+
+        ReservationResponse reservation = post(payload, ReservationResponse.class);
+        List<String> serverIds = List.of();
+        try {
+            serverIds = reservationServers(reservation.reservationId());
+            if (serverIds.size() != requests.size()) {
+                throw new IllegalStateException("Reserva " + reservation.reservationId() + " com " + serverIds.size()
+                        + " servidor(es) no Nova; esperados " + requests.size());
+            }
+            return serverIds.stream().map(this::instance).toList();
+        } catch (RuntimeException e) {
+            discard(reservation.reservationId(), serverIds);
+            throw e;
+        }
+    }
+
+        /**
+     * Nova has no bulk delete: the whole batch goes as concurrent {@code DELETE /servers/{id}} under one
+     * circuit breaker call, and only the servers confirmed gone are returned (a 404 means already gone).
+     * A server Nova refuses to delete is logged and left for the next sweep. The call itself fails, and
+     * counts against the breaker, only when no server could be deleted or Nova could not be reached.
+     */
+    @Override
+    @CircuitBreaker(name = "openstack", fallbackMethod = "fallbackDeprovision")
+    public List<String> deprovisionInstances(List<CloudInstance> instances) {
+        System.out.println("☁️ [OpenStackAdapter] Removendo " + instances.size() + " VM(s)");
+
+        List<String> gone = deleteAll(instances.stream().map(CloudInstance::instanceId).toList());
+        if (gone.isEmpty() && !instances.isEmpty()) {
+            throw new IllegalStateException("Nenhuma das " + instances.size() + " VM(s) foi removida");
+        }
+        return gone;
     }
 
-    public String fallbackProvision(ProvisioningRequest request, Throwable t) {
+    @Override
+    public boolean isAvailable() {
+        State state = circuitBreakers.circuitBreaker("openstack").getState();
+        return state != State.OPEN && state != State.FORCED_OPEN;
+    }
+
+    public CloudInstance fallbackProvision(ProvisioningRequest request, Throwable t) {
+        rethrowIfUnmatched(t);
         System.err.println("[Resilience] Circuito Aberto ou Erro! Causa: " + t.getMessage());
 
-        return "QUEUE-WAITING-ALLOCATION";
+        return CloudInstance.unallocated(PROVIDER, region);
+    }
+
+    public List<CloudInstance> fallbackProvisionBatch(List<ProvisioningRequest> requests, Throwable t) {
+        rethrowIfUnmatched(t);
+        System.err.println("[Resilience] Circuito Aberto ou Erro no lote! Causa: " + t.getMessage());
+
+        return Collections.nCopies(requests.size(), CloudInstance.unallocated(PROVIDER, region));
+    }
+
+    public List<String> fallbackDeprovision(List<CloudInstance> instances, Throwable t) {
+        System.err.println("[Resilience] Circuito Aberto ou Erro na remocao! Causa: " + t.getMessage());
+
+        return List.of(); // Nada confirmado: a varredura de leases tenta de novo
+    }
+
+    // Sem flavor, nenhuma nova tentativa resolve: o pedido falha ja, em vez de ir para a fila de retry
+    private static void rethrowIfUnmatched(Throwable t) {
+        if (t instanceof NoMatchingFlavorException unmatched) {
+            throw unmatched;
+        }
+    }
+
+    static String createServerPayload(String name, String imageRef, String flavorRef) {
+        return """
+            { "server": { "name": "%s", "imageRef": "%s", "flavorRef": "%s" } }
+            """.formatted(name, imageRef, flavorRef);
+    }
+
+    static String multiCreatePayload(String baseName, String imageRef, String flavorRef, int count) {
+        return """
+            { "server": { "name": "%s", "imageRef": "%s", "flavorRef": "%s",
+                          "min_count": %d, "max_count": %d, "return_reservation_id": true } }
+            """.formatted(baseName, imageRef, flavorRef, count, count);
+    }
+
+    private CloudInstance instance(String instanceId) {
+        return new CloudInstance(PROVIDER, region, instanceId);
+    }
+
+    private <T> T post(String payload, Class<T> responseType) {
+        return keystone.withToken(token -> webClient.post()
+                        .uri("/servers")
+                        .header("Content-Type", "application/json")
+                        .headers(headers -> {
+                            if (token != null) {
+                                headers.set("X-Auth-Token", token);
+                            }
+                        })
+                        .bodyValue(payload)
+                        .retrieve()
+                        .bodyToMono(responseType))
+                .block(); // Connect/response timeouts vêm do pool (cpm.cloud.endpoints.openstack)
+    }
+
+    private List<String> reservationServers(String reservationId) {
+        ServersResponse servers = keystone.withToken(token -> webClient.get()
+                        .uri(uri -> uri.path("/servers/detail")
+                                .queryParam("reservation_id", reservationId)
+                                .build())
+                        .headers(headers -> {
+                            if (token != null) {
+                                headers.set("X-Auth-Token", token);
+                            }
+                        })
+                        .retrieve()
+                        .bodyToMono(ServersResponse.class))
+                .block();
+        return servers.servers().stream().map(NovaServer::id).distinct().toList();
+    }
+
+    /**
+     * Deletes the servers of a reservation the batch could not hand out, so a failed listing or a
+     * short count does not leave VMs nobody tracks. Without the ids already listed it lists once more.
+     */
+    private void discard(String reservationId, List<String> listed) {
+        List<String> serverIds = listed;
+        try {
+            if (serverIds.isEmpty()) {
+                serverIds = reservationServers(reservationId);
+            }
+            List<String> gone = deleteAll(serverIds);
+            System.err.println("[OpenStackAdapter] Reserva " + reservationId + " descartada: " + gone.size() + " de "
+                    + serverIds.size() + " servidor(es) removido(s)");
+        } catch (RuntimeException e) {
+            System.err.println("[OpenStackAdapter] Reserva " + reservationId + " nao foi descartada, servidores podem"
+                    + " ter ficado orfaos: " + e.getMessage());
+        }
+    }
+
+    private List<String> deleteAll(List<String> instanceIds) {
+        return Flux.fromIterable(instanceIds)
+                .flatMap(this::delete, MAX_CONCURRENT_DELETES)
+                .collectList()
+                .block(); // Espera na thread do worker ou da varredura de leases, nunca num event loop
+    }
+
+    private Mono<String> delete(String instanceId) {
+        return keystone.withToken(token -> webClient.delete()
+                        .uri("/servers/{id}", instanceId)
+                        .headers(headers -> {
+                            if (token != null) {
+                                headers.set("X-Auth-Token", token);
+                            }
+                        })
+                        .retrieve()
+                        .toBodilessEntity())
+                .thenReturn(instanceId)
+                .onErrorResume(WebClientResponseException.NotFound.class, gone -> Mono.just(instanceId))
+                .onErrorResume(WebClientResponseException.class, refused -> {
+                    System.err.println("[OpenStackAdapter] Nova recusou remover " + instanceId + ": "
+                            + refused.getStatusCode().value());
+                    return Mono.empty(); // So esta VM fica para a proxima varredura
+                });
+    }
+
+    private String flavorFor(ResourceSpec spec) {
+        return catalog.resolveFlavor(spec.cpuCores(), spec.ramMb())
+                .map(FlavorCatalog.Flavor::id)
+                .orElseThrow(() -> new NoMatchingFlavorException(spec.cpuCores(), spec.ramGb()));
+    }
+
+    private String imageRef() {
+        // Sem o catalogo de imagens (ex: WireMock), o nome segue como imageRef
+        return catalog.resolveImage(defaultImage).orElse(defaultImage);
+    }
+
+    record CreateServerResponse(NovaServer server) {
+    }
+
+    record ReservationResponse(@JsonProperty("reservation_id") String reservationId) {
+    }
+
+    record ServersResponse(List<NovaServer> servers) {
+    }
+
+    record NovaServer(String id, String name, String status, Instant updated) {
     }
-}
\ No newline at end of file
+}
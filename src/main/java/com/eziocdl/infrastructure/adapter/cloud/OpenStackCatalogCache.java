@@ -0,0 +1,112 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Background-refreshed snapshot of the Nova flavor and image catalogs.
+ *
+ * Lookups read a volatile reference to an immutable snapshot, so the provisioning path never
+ * blocks on (or waits for) a refresh. Metrics: {@code cpm.cloud.catalog.refresh{result}},
+ * {@code cpm.cloud.catalog.refresh.duration}, {@code cpm.cloud.catalog.miss{kind}} and
+ * {@code cpm.cloud.catalog.size{kind}}.
+ */
+public class OpenStackCatalogCache {
+
+    private final WebClient webClient;
+    private final KeystoneTokenProvider keystone;
+
+    private volatile FlavorCatalog flavors = FlavorCatalog.EMPTY;
+    private volatile Map<String, String> imageIdsByName = Map.of();
+
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+    private final Timer refreshDuration;
+    private final Counter flavorMiss;
+    private final Counter imageMiss;
+
+    public OpenStackCatalogCache(WebClient webClient, KeystoneTokenProvider keystone, MeterRegistry registry) {
+        this.webClient = webClient;
+        this.keystone = keystone;
+
+        this.refreshSuccess = Counter.builder("cpm.cloud.catalog.refresh").tag("result", "success").register(registry);
+        this.refreshFailure = Counter.builder("cpm.cloud.catalog.refresh").tag("result", "failure").register(registry);
+        this.refreshDuration = Timer.builder("cpm.cloud.catalog.refresh.duration").register(registry);
+        this.flavorMiss = Counter.builder("cpm.cloud.catalog.miss").tag("kind", "flavor").register(registry);
+        this.imageMiss = Counter.builder("cpm.cloud.catalog.miss").tag("kind", "image").register(registry);
+        Gauge.builder("cpm.cloud.catalog.size", this, cache -> cache.flavors.size()).tag("kind", "flavor").register(registry);
+        Gauge.builder("cpm.cloud.catalog.size", this, cache -> cache.imageIdsByName.size()).tag("kind", "image").register(registry);
+    }
+
+    public Optional<FlavorCatalog.Flavor> resolveFlavor(int vcpus, int ramMb) {
+        Optional<FlavorCatalog.Flavor> flavor = flavors.bestFit(vcpus, ramMb);
+        if (flavor.isEmpty()) {
+            flavorMiss.increment();
+        }
+        return flavor;
+    }
+
+    public Optional<String> resolveImage(String name) {
+        String id = imageIdsByName.get(name);
+        if (id == null) {
+            imageMiss.increment();
+        }
+        return Optional.ofNullable(id);
+    }
+
+    @Scheduled(initialDelayString = "0", fixedDelayString = "${cpm.cloud.catalog.refresh-interval:5m}")
+    public void refresh() {
+        Timer.Sample sample = Timer.start();
+        try {
+            FlavorsResponse flavorList = get("/flavors/detail", FlavorsResponse.class);
+            ImagesResponse imageList = get("/images", ImagesResponse.class);
+
+            flavors = FlavorCatalog.of(flavorList.flavors().stream()
+                    .map(f -> new FlavorCatalog.Flavor(f.id(), f.name(), f.vcpus(), f.ram()))
+                    .toList());
+            imageIdsByName = imageList.images().stream()
+                    .collect(Collectors.toUnmodifiableMap(NovaImage::name, NovaImage::id, (first, second) -> first));
+            refreshSuccess.increment();
+        } catch (RuntimeException e) {
+            refreshFailure.increment();
+            System.err.println("[Catalog] Falha ao atualizar flavors/images, mantendo snapshot anterior: " + e.getMessage());
+        } finally {
+            sample.stop(refreshDuration);
+        }
+    }
+
+    private <T> T get(String uri, Class<T> type) {
+        return keystone.withToken(token -> webClient.get()
+                        .uri(uri)
+                        .headers(headers -> {
+                            if (token != null) {
+                                headers.set("X-Auth-Token", token);
+                            }
+                        })
+                        .retrieve()
+                        .bodyToMono(type))
+                .block(Duration.ofSeconds(30));
+    }
+
+    record FlavorsResponse(List<NovaFlavor> flavors) {
+    }
+
+    record NovaFlavor(String id, String name, int vcpus, int ram) {
+    }
+
+    record ImagesResponse(List<NovaImage> images) {
+    }
+
+    record NovaImage(String id, String name) {
+    }
+}
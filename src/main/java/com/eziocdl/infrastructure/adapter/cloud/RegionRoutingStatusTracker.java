@@ -0,0 +1,48 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.domain.model.CloudInstance;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands each server to the status tracker of the region that created it, so every region
+ * keeps its own single {@code changes-since} poll.
+ */
+public class RegionRoutingStatusTracker implements ServerStatusTrackerPort, AutoCloseable {
+
+    private final Map<String, NovaServerStatusTracker> byRegion;
+
+    public RegionRoutingStatusTracker(Map<String, NovaServerStatusTracker> byRegion) {
+        this.byRegion = Map.copyOf(byRegion);
+    }
+
+    @Override
+    public void track(UUID provisioningId, CloudInstance instance) {
+        trackerFor(instance).track(provisioningId, instance);
+    }
+
+    @Override
+    public void resume(UUID provisioningId, CloudInstance instance, Instant since) {
+        trackerFor(instance).resume(provisioningId, instance, since);
+    }
+
+    private NovaServerStatusTracker trackerFor(CloudInstance instance) {
+        NovaServerStatusTracker tracker = byRegion.get(instance.region());
+        if (tracker == null) {
+            throw new IllegalStateException("Nenhum tracker para a regiao " + instance.region());
+        }
+        return tracker;
+    }
+
+    public void start() {
+        byRegion.values().forEach(NovaServerStatusTracker::start);
+    }
+
+    @Override
+    public void close() {
+        byRegion.values().forEach(NovaServerStatusTracker::close);
+    }
+}
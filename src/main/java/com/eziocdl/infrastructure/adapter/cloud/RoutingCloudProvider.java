@@ -0,0 +1,262 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CloudProviderPort} that spreads requests over several regions.
+ *
+ * Each backend has its own circuit breaker (see {@link #regionBreaker}) and a non-waiting bulkhead. A call goes to the
+ * available backend with the lowest {@code (outstanding + 1) * latencyEwma / weight}: busy or slow
+ * regions get less traffic, and a region whose breaker is open or bulkhead is full is skipped.
+ * If the chosen backend fails, the next best one is tried; when all fail, the caller gets
+ * {@link CloudInstance#unallocated} and the request goes to the retry queue. When no region has a
+ * flavor for the size, the {@link NoMatchingFlavorException} is thrown instead, so the request fails.
+ *
+ * The serving region ends up in the returned {@link CloudInstance} and is persisted with the request.
+ * Deletes go to the backend of the instance's region only, through the same breaker and bulkhead; a
+ * region that cannot take them leaves its instances for the next try.
+ * Metrics: {@code cpm.cloud.route{backend,outcome}}, {@code cpm.cloud.route.outstanding{backend}}
+ * and {@code cpm.cloud.route.latency.ewma{backend}} (ms).
+ */
+public class RoutingCloudProvider implements CloudProviderPort {
+
+    /** Shared resilience4j config ({@code resilience4j.circuitbreaker.configs.cloud}) for cloud breakers. */
+    public static final String BREAKER_CONFIG = "cloud";
+
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final List<Backend> backends;
+    private final String provider;
+
+    public RoutingCloudProvider(String provider, List<Backend> backends, MeterRegistry registry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one routing backend required");
+        }
+        if (backends.stream().map(Backend::region).distinct().count() != backends.size()) {
+            throw new IllegalArgumentException("Routing backends must have distinct regions");
+        }
+        this.provider = provider;
+        this.backends = List.copyOf(backends);
+        this.backends.forEach(backend -> backend.bindMetrics(registry));
+    }
+
+    /**
+     * Breaker for one region, from the {@value #BREAKER_CONFIG} config (registry default if absent).
+     * The router never calls an OPEN backend, so nothing would move the breaker to HALF_OPEN: the
+     * transition is always automatic, after {@code waitDurationInOpenState}.
+     */
+    public static CircuitBreaker regionBreaker(CircuitBreakerRegistry registry, String name) {
+        CircuitBreakerConfig base = registry.getConfiguration(BREAKER_CONFIG).orElse(registry.getDefaultConfig());
+        return registry.circuitBreaker(name, () -> CircuitBreakerConfig.from(base)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+    }
+
+    @Override
+    public CloudInstance provisionInstance(ProvisioningRequest request) {
+        return provisionInstances(List.of(request)).get(0);
+    }
+
+    @Override
+    public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+        List<Backend> tried = new ArrayList<>();
+        NoMatchingFlavorException unmatched = null;
+        boolean onlyUnmatched = true;
+        Backend backend;
+        while ((backend = choose(tried)) != null) {
+            tried.add(backend);
+            try {
+                return backend.call(requests);
+            } catch (NoMatchingFlavorException e) {
+                unmatched = e; // Outra regiao pode ter um catalogo que atende
+                System.err.println("[Router] Backend " + backend.name() + " sem flavor, tentando o proximo: " + e.getMessage());
+            } catch (RuntimeException e) {
+                onlyUnmatched = false;
+                System.err.println("[Router] Backend " + backend.name() + " falhou, tentando o proximo: " + e.getMessage());
+            }
+        }
+        if (unmatched != null && onlyUnmatched) {
+            throw unmatched; // Nenhuma regiao tem o tamanho: repetir nao adianta
+        }
+        System.err.println("[Router] Nenhum backend disponivel para " + requests.size() + " pedido(s)");
+        return Collections.nCopies(requests.size(), CloudInstance.unallocated(provider, null));
+    }
+
+    @Override
+    public List<String> deprovisionInstances(List<CloudInstance> instances) {
+        Map<String, List<CloudInstance>> byRegion = new LinkedHashMap<>();
+        instances.forEach(instance -> byRegion.computeIfAbsent(instance.region(), region -> new ArrayList<>()).add(instance));
+
+        List<String> gone = new ArrayList<>(instances.size());
+        byRegion.forEach((region, group) -> {
+            Backend backend = backends.stream().filter(b -> b.region().equals(region)).findFirst().orElse(null);
+            if (backend == null) {
+                System.err.println("[Router] Nenhum backend na regiao " + region + " para remover " + group.size() + " VM(s)");
+                return;
+            }
+            if (!backend.isAvailable()) {
+                return; // A VM so existe nesta regiao: espera o backend voltar
+            }
+            try {
+                gone.addAll(backend.delete(group));
+            } catch (RuntimeException e) {
+                System.err.println("[Router] Backend " + backend.name() + " falhou ao remover " + group.size()
+                        + " VM(s): " + e.getMessage());
+            }
+        });
+        return gone;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return backends.stream().anyMatch(Backend::isAvailable);
+    }
+
+    List<Backend> backends() {
+        return backends;
+    }
+
+    private Backend choose(List<Backend> exclude) {
+        Backend best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (Backend backend : backends) {
+            if (exclude.contains(backend) || !backend.isAvailable()) {
+                continue;
+            }
+            double cost = backend.cost();
+            if (cost < bestCost) {
+                best = backend;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One region: its adapter plus the guards and load statistics the router scores it by.
+     */
+    public static final class Backend {
+
+        private final String name;
+        private final String region;
+        private final CloudProviderPort delegate;
+        private final int weight;
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile double latencyEwmaMillis; // 0 until measured: new backends get tried first
+
+        private Counter served;
+        private Counter rejected;
+        private Counter failed;
+        private Counter deleted;
+
+        public Backend(String name, String region, CloudProviderPort delegate, int weight,
+                       CircuitBreaker circuitBreaker, int maxConcurrentCalls) {
+            this.name = name;
+            this.region = region;
+            this.delegate = delegate;
+            this.weight = weight;
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = Bulkhead.of("cloud-" + name, BulkheadConfig.custom()
+                    .maxConcurrentCalls(maxConcurrentCalls)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build());
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String region() {
+            return region;
+        }
+
+        double latencyEwmaMillis() {
+            return latencyEwmaMillis;
+        }
+
+        boolean isAvailable() {
+            return circuitBreaker.getState() != CircuitBreaker.State.OPEN
+                    && circuitBreaker.getState() != CircuitBreaker.State.FORCED_OPEN
+                    && bulkhead.getMetrics().getAvailableConcurrentCalls() > 0;
+        }
+
+        double cost() {
+            return (outstanding.get() + 1) * Math.max(latencyEwmaMillis, 1.0) / weight;
+        }
+
+        List<CloudInstance> call(List<ProvisioningRequest> requests) {
+            if (!bulkhead.tryAcquirePermission()) {
+                rejected.increment();
+                throw new IllegalStateException("bulkhead cheio");
+            }
+            outstanding.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                List<CloudInstance> instances = circuitBreaker.executeSupplier(() -> delegate.provisionInstances(requests));
+                served.increment(requests.size());
+                return instances;
+            } catch (RuntimeException e) {
+                failed.increment(requests.size());
+                throw e;
+            } finally {
+                recordLatency((System.nanoTime() - start) / 1_000_000.0);
+                outstanding.decrementAndGet();
+                bulkhead.onComplete();
+            }
+        }
+
+        List<String> delete(List<CloudInstance> instances) {
+            if (!bulkhead.tryAcquirePermission()) {
+                rejected.increment();
+                throw new IllegalStateException("bulkhead cheio");
+            }
+            outstanding.incrementAndGet();
+            try {
+                List<String> gone = circuitBreaker.executeSupplier(() -> delegate.deprovisionInstances(instances));
+                deleted.increment(gone.size());
+                return gone;
+            } catch (RuntimeException e) {
+                failed.increment(instances.size());
+                throw e;
+            } finally {
+                outstanding.decrementAndGet();
+                bulkhead.onComplete();
+            }
+        }
+
+        private void recordLatency(double millis) {
+            double current = latencyEwmaMillis;
+            latencyEwmaMillis = current == 0 ? millis : current + EWMA_ALPHA * (millis - current);
+        }
+
+        private void bindMetrics(MeterRegistry registry) {
+            served = Counter.builder("cpm.cloud.route").tag("backend", name).tag("outcome", "served").register(registry);
+            rejected = Counter.builder("cpm.cloud.route").tag("backend", name).tag("outcome", "bulkhead_full").register(registry);
+            failed = Counter.builder("cpm.cloud.route").tag("backend", name).tag("outcome", "failed").register(registry);
+            deleted = Counter.builder("cpm.cloud.route").tag("backend", name).tag("outcome", "deleted").register(registry);
+            Gauge.builder("cpm.cloud.route.outstanding", outstanding, AtomicInteger::get).tag("backend", name).register(registry);
+            Gauge.builder("cpm.cloud.route.latency.ewma", this, Backend::latencyEwmaMillis).tag("backend", name).register(registry);
+        }
+    }
+}
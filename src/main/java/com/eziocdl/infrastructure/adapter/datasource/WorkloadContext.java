@@ -0,0 +1,26 @@
+package com.eziocdl.infrastructure.adapter.datasource;
+
+import com.eziocdl.application.workload.Workload;
+
+/**
+ * Workload of the current thread, read by {@link WorkloadRoutingDataSource} when a connection is taken.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload.Pool> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload.Pool current() {
+        return CURRENT.get();
+    }
+
+    static void set(Workload.Pool pool) {
+        CURRENT.set(pool);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,69 @@
+package com.eziocdl.infrastructure.adapter.datasource;
+
+import com.eziocdl.application.workload.Workload;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link Workload} from the method, its class or the port interfaces it implements.
+ *
+ * Runs ahead of the transaction interceptor, so the pool is already chosen when the transaction takes
+ * its connection. A call nested in another annotated call keeps the outer workload.
+ */
+public class WorkloadRoutingAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private final Map<CacheKey, Optional<Workload.Pool>> cache = new ConcurrentHashMap<>();
+
+    public WorkloadRoutingAdvisor() {
+        setAdvice((MethodInterceptor) this::invoke);
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return resolve(method, targetClass).isPresent();
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        if (WorkloadContext.current() != null) {
+            return invocation.proceed(); // Chamada aninhada: a conexao da transacao externa ja foi escolhida
+        }
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        Optional<Workload.Pool> pool = resolve(invocation.getMethod(), targetClass);
+        if (pool.isEmpty()) {
+            return invocation.proceed();
+        }
+        WorkloadContext.set(pool.get());
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+
+    private Optional<Workload.Pool> resolve(Method method, Class<?> targetClass) {
+        return cache.computeIfAbsent(new CacheKey(method, targetClass), key -> {
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            Workload workload = AnnotatedElementUtils.findMergedAnnotation(specific, Workload.class);
+            if (workload == null && targetClass != null) {
+                workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+            }
+            if (workload == null) {
+                workload = AnnotatedElementUtils.findMergedAnnotation(specific.getDeclaringClass(), Workload.class);
+            }
+            return Optional.ofNullable(workload).map(Workload::value);
+        });
+    }
+
+    private record CacheKey(Method method, Class<?> targetClass) {
+    }
+}
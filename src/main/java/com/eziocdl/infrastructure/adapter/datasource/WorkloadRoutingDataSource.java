@@ -0,0 +1,67 @@
+package com.eziocdl.infrastructure.adapter.datasource;
+
+import com.eziocdl.application.workload.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One Hikari pool per workload, so workers holding connections while Nova answers slowly cannot starve
+ * the inserts of the API. The pool is picked from {@link WorkloadContext} when a connection is taken;
+ * with no workload set it is the worker pool.
+ *
+ * Hikari publishes {@code hikaricp.connections.acquire{pool}} (wait for a connection),
+ * {@code hikaricp.connections.usage{pool}}, active/idle/pending counts and timeouts; on top of that
+ * {@code cpm.datasource.utilization{pool}} is active / maximum.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Set<HikariDataSource> pools = new LinkedHashSet<>();
+
+    /** {@code replica} may be null: read-only work then uses the API pool. */
+    public WorkloadRoutingDataSource(HikariDataSource api, HikariDataSource worker, HikariDataSource replica,
+                                     MeterRegistry registry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Workload.Pool.API, api);
+        targets.put(Workload.Pool.WORKER, worker);
+        targets.put(Workload.Pool.READ_ONLY, replica != null ? replica : api);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(worker);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        pools.add(api);
+        pools.add(worker);
+        if (replica != null) {
+            pools.add(replica);
+        }
+        for (HikariDataSource pool : pools) {
+            Gauge.builder("cpm.datasource.utilization", pool, WorkloadRoutingDataSource::utilization)
+                    .tag("pool", pool.getPoolName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static double utilization(HikariDataSource pool) {
+        if (pool.getHikariPoolMXBean() == null) {
+            return 0;
+        }
+        return (double) pool.getHikariPoolMXBean().getActiveConnections() / pool.getMaximumPoolSize();
+    }
+}
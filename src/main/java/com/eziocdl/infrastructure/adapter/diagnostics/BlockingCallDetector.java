@@ -0,0 +1,163 @@
+package com.eziocdl.infrastructure.adapter.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Reports blocking calls made on Reactor non-blocking threads (Netty event loops, {@code parallel()})
+ * through BlockHound, and virtual threads pinned to their carrier through the JFR
+ * {@code jdk.VirtualThreadPinned} event.
+ *
+ * BlockHound can only be installed once per JVM and needs {@code -XX:+AllowRedefinitionToAddDeleteMethods};
+ * its callback goes to the detector started last, and does nothing while none is running. With
+ * {@code failFast} the blocking call also throws {@link BlockingOperationError} (tests); otherwise it is
+ * only logged and counted (staging). The last {@code keep} violations stay available in {@link #violations()}.
+ *
+ * Metrics: {@code cpm.diagnostics.blocking.calls{method}} and {@code cpm.diagnostics.pinned} (pin duration).
+ */
+public class BlockingCallDetector implements AutoCloseable {
+
+    public enum Kind { BLOCKING_CALL, PINNED_VIRTUAL_THREAD }
+
+    public record Violation(Kind kind, String operation, String thread, Duration duration, List<String> stackTrace,
+                            Instant at) {
+
+        @Override
+        public String toString() {
+            return kind + " " + operation + " em " + thread
+                    + (duration.isZero() ? "" : " (" + duration.toMillis() + "ms)")
+                    + stackTrace.stream().collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        }
+    }
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+    private static volatile BlockingCallDetector active;
+    private static final ThreadLocal<Boolean> REPORTING = ThreadLocal.withInitial(() -> false);
+    private static final int MAX_FRAMES = 25;
+
+    private final MeterRegistry registry;
+    private final boolean failFast;
+    private final Duration pinnedThreshold;
+    private final int keep;
+    private final Timer pinned;
+    private final Deque<Violation> recent = new ArrayDeque<>(); // Guarded by this
+    private RecordingStream pinnedEvents;
+
+    public BlockingCallDetector(MeterRegistry registry, boolean failFast, Duration pinnedThreshold, int keep) {
+        this.registry = registry;
+        this.failFast = failFast;
+        this.pinnedThreshold = pinnedThreshold;
+        this.keep = keep;
+        this.pinned = Timer.builder("cpm.diagnostics.pinned").register(registry);
+    }
+
+    public synchronized void start() {
+        if (INSTALLED.compareAndSet(false, true)) {
+            BlockHound.install(builder -> builder
+                    // Lock do cache de deserializers do Jackson: so disputado na primeira leitura de cada tipo
+                    .allowBlockingCallsInside("tools.jackson.databind.deser.DeserializerCache", "_createAndCacheValueDeserializer")
+                    .blockingMethodCallback(BlockingCallDetector::onBlockingCall));
+        }
+        active = this;
+
+        pinnedEvents = new RecordingStream();
+        pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        pinnedEvents.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        pinnedEvents.startAsync();
+        System.out.println("[BlockingCallDetector] Ativo (failFast=" + failFast + ", pinned >= "
+                + pinnedThreshold.toMillis() + "ms)");
+    }
+
+    public synchronized List<Violation> violations() {
+        return List.copyOf(recent);
+    }
+
+    public synchronized void reset() {
+        recent.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (active == this) {
+            active = null;
+        }
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+            pinnedEvents = null;
+        }
+    }
+
+    private static void onBlockingCall(BlockingMethod method) {
+        BlockingCallDetector detector = active;
+        if (detector == null || REPORTING.get()) {
+            return; // O proprio relatorio (System.err) tambem bloqueia
+        }
+        REPORTING.set(true);
+        try {
+            detector.report(method);
+        } finally {
+            REPORTING.set(false);
+        }
+        if (detector.failFast) {
+            throw new BlockingOperationError(method);
+        }
+    }
+
+    private void report(BlockingMethod method) {
+        List<String> frames = Arrays.stream(new Throwable().getStackTrace())
+                .map(StackTraceElement::toString)
+                .filter(frame -> !frame.startsWith("reactor.blockhound.") && !frame.startsWith(BlockingCallDetector.class.getName() + "."))
+                .limit(MAX_FRAMES)
+                .toList();
+        record(new Violation(Kind.BLOCKING_CALL, method.toString(), Thread.currentThread().getName(),
+                Duration.ZERO, frames, Instant.now()));
+        Counter.builder("cpm.diagnostics.blocking.calls").tag("method", method.toString())
+                .register(registry).increment();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        RecordedStackTrace stack = event.getStackTrace();
+        List<String> frames = stack == null ? List.of() : stack.getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(BlockingCallDetector::frame)
+                .toList();
+        pinned.record(event.getDuration());
+        String culprit = frames.stream() // Primeiro frame fora do JDK: quem segurou o monitor
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                .findFirst().orElse(frames.isEmpty() ? "?" : frames.get(0));
+        record(new Violation(Kind.PINNED_VIRTUAL_THREAD, culprit,
+                thread == null ? "?" : thread.getJavaName() + "#" + thread.getJavaThreadId(),
+                event.getDuration(), frames, event.getStartTime()));
+    }
+
+    private synchronized void record(Violation violation) {
+        if (recent.size() == keep) {
+            recent.removeFirst();
+        }
+        recent.addLast(violation);
+        System.err.println("[BlockingCallDetector] " + violation);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
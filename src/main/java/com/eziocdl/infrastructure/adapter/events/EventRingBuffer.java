@@ -0,0 +1,222 @@
+package com.eziocdl.infrastructure.adapter.events;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, single-consumer ring of preallocated slots, in the style of the LMAX Disruptor.
+ *
+ * A producer claims a sequence with one atomic increment, fills the slot and flags it with the
+ * sequence's lap number; no lock is taken. The consumer thread reads every published slot in one
+ * pass and hands each event to the {@link Handler} with {@code endOfBatch} on the last one, then
+ * releases the whole batch to producers with a single write. When the ring is full, {@link #publish}
+ * waits for the consumer (backpressure) instead of dropping; {@link #tryPublish} returns false
+ * instead, for callers that must not park (event loop threads). The caller's tracing context is
+ * captured with the event and restored around the handler.
+ *
+ * Metrics: {@code cpm.events.published{pipeline}}, {@code cpm.events.batch.size{pipeline}},
+ * {@code cpm.events.backlog{pipeline}}, {@code cpm.events.full{pipeline}} (publishes that found the
+ * ring full) and {@code cpm.events.failures{pipeline}}.
+ */
+public class EventRingBuffer<E> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Handler<E> {
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    private static final VarHandle LAPS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int SPINS = 200;
+
+    private final String name;
+    private final Handler<E> handler;
+    private final Slot<E>[] slots;
+    private final int[] laps; // Volta publicada em cada slot (sequence >>> shift)
+    private final int mask;
+    private final int shift;
+    private final ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+    private final Thread consumer;
+
+    private final Counter published;
+    private final Counter full;
+    private final Counter failures;
+    private final DistributionSummary batchSize;
+
+    @SuppressWarnings("unchecked")
+    public EventRingBuffer(String name, int size, Handler<E> handler, MeterRegistry registry) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        this.name = name;
+        this.handler = handler;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot<>();
+        }
+        this.laps = new int[size];
+        Arrays.fill(laps, -1);
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+
+        this.published = Counter.builder("cpm.events.published").tag("pipeline", name).register(registry);
+        this.full = Counter.builder("cpm.events.full").tag("pipeline", name).register(registry);
+        this.failures = Counter.builder("cpm.events.failures").tag("pipeline", name).register(registry);
+        this.batchSize = DistributionSummary.builder("cpm.events.batch.size").tag("pipeline", name).register(registry);
+        Gauge.builder("cpm.events.backlog", this, EventRingBuffer::backlog).tag("pipeline", name).register(registry);
+
+        this.consumer = Thread.ofPlatform().name("event-pipeline-" + name).daemon().start(this::consume);
+    }
+
+    /** Publishes one event; blocks only while the ring is full. Returns its sequence. */
+    public long publish(E event) {
+        ensureRunning();
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > consumed) {
+            awaitSpace(wrapPoint);
+        }
+        fill(sequence, event);
+        return sequence;
+    }
+
+    /** Publishes one event only if a slot is free right now; never waits. */
+    public boolean tryPublish(E event) {
+        ensureRunning();
+        while (true) {
+            long current = claimed.get();
+            if (current + 1 - slots.length > consumed) {
+                full.increment();
+                return false;
+            }
+            if (claimed.compareAndSet(current, current + 1)) {
+                fill(current + 1, event);
+                return true;
+            }
+        }
+    }
+
+    public long backlog() {
+        return claimed.get() - consumed;
+    }
+
+    /** Stops taking events, lets the consumer drain what was already published and waits for it. */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureRunning() {
+        if (!running) {
+            throw new IllegalStateException("Pipeline " + name + " encerrado");
+        }
+    }
+
+    private void fill(long sequence, E event) {
+        int index = (int) sequence & mask;
+        Slot<E> slot = slots[index];
+        slot.event = event;
+        slot.context = snapshots.captureAll();
+        LAPS.setVolatile(laps, index, (int) (sequence >>> shift));
+        published.increment();
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void awaitSpace(long wrapPoint) {
+        full.increment();
+        while (wrapPoint > consumed) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(1_000);
+        }
+    }
+
+    private void consume() {
+        long next = 0;
+        while (true) {
+            long last = lastPublished(next);
+            if (last < next) {
+                if (!running && claimed.get() < next) {
+                    return; // Encerrado e drenado
+                }
+                await(next);
+                continue;
+            }
+            batchSize.record(last - next + 1);
+            for (long sequence = next; sequence <= last; sequence++) {
+                dispatch(slots[(int) sequence & mask], sequence, sequence == last);
+            }
+            consumed = last; // Libera o lote inteiro de uma vez
+            next = last + 1;
+        }
+    }
+
+    private void dispatch(Slot<E> slot, long sequence, boolean endOfBatch) {
+        E event = slot.event;
+        ContextSnapshot context = slot.context;
+        slot.event = null;
+        slot.context = null;
+        try (ContextSnapshot.Scope scope = context.setThreadLocals()) {
+            handler.onEvent(event, sequence, endOfBatch);
+        } catch (RuntimeException e) {
+            failures.increment();
+            System.err.println("[EventPipeline] Handler de " + name + " falhou no evento " + sequence + ": " + e.getMessage());
+        }
+    }
+
+    /** Highest sequence from {@code next} on whose slot is already filled (claimed is not enough). */
+    private long lastPublished(long next) {
+        long upTo = claimed.get();
+        for (long sequence = next; sequence <= upTo; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return upTo;
+    }
+
+    private boolean isPublished(long sequence) {
+        return (int) LAPS.getVolatile(laps, (int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    private void await(long next) {
+        for (int i = 0; i < SPINS; i++) {
+            if (isPublished(next) || !running) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        sleeping = true;
+        if (!isPublished(next) && running) { // Re-checa depois de anunciar: o produtor ve sleeping e acorda
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        sleeping = false;
+    }
+
+    private static final class Slot<E> {
+        private E event;
+        private ContextSnapshot context;
+    }
+}
@@ -0,0 +1,72 @@
+package com.eziocdl.infrastructure.adapter.events;
+
+import com.eziocdl.application.port.in.ProvisioningEventHandlerPort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Delivers {@link ProvisioningRequestedEvent}s through an {@link EventRingBuffer} instead of the
+ * Spring event multicaster. Inside a transaction the event enters the ring from an after-commit
+ * callback, so a rolled-back request is never provisioned.
+ */
+public class RingBufferProvisioningEventPublisher implements ProvisioningEventPort, AutoCloseable {
+
+    private final EventRingBuffer<ProvisioningRequestedEvent> ring;
+
+    public RingBufferProvisioningEventPublisher(int ringSize, ProvisioningEventHandlerPort handler, MeterRegistry registry) {
+        this.ring = new EventRingBuffer<>("provisioning", ringSize,
+                (event, sequence, endOfBatch) -> handler.onProvisioningRequested(event), registry);
+    }
+
+    @Override
+    public void publish(ProvisioningRequestedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ring.publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ring.publish(event);
+            }
+        });
+    }
+
+    // Dentro de transacao nada bloqueia aqui: a publicacao fica para o afterCommit
+    @Override
+    public boolean tryPublish(ProvisioningRequestedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return true;
+        }
+        return ring.tryPublish(event);
+    }
+
+    // Um callback para o lote inteiro, em vez de um por evento
+    @Override
+    public void publishAll(List<ProvisioningRequestedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(ring::publish);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(ring::publish);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        ring.close();
+    }
+}
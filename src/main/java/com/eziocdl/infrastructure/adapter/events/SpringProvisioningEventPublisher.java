@@ -0,0 +1,23 @@
+package com.eziocdl.infrastructure.adapter.events;
+
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Previous path, kept behind {@code cpm.events.pipeline.enabled=false}: the event goes through the
+ * Spring multicaster to the listener's {@code @TransactionalEventListener}.
+ */
+public class SpringProvisioningEventPublisher implements ProvisioningEventPort {
+
+    private final ApplicationEventPublisher publisher;
+
+    public SpringProvisioningEventPublisher(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(ProvisioningRequestedEvent event) {
+        publisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,292 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.ProvisioningArchivePort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition DDL and archival moves on {@code provisioning_requests}, straight on JDBC: table names are
+ * computed per month and the moves must not go through the persistence context.
+ *
+ * Every step runs on one connection in autocommit, behind a session advisory lock so only one replica
+ * works at a time; each archive batch is a single DELETE ... RETURNING feeding the INSERT into the archive.
+ * A month whose rows already landed in the DEFAULT partition (the job was down) is split off it in one
+ * transaction: the rows move to a new table built with the parent's indexes and a bounds CHECK, which
+ * then attaches without being scanned or indexed again.
+ */
+@Repository
+public class JdbcProvisioningArchiveRepository implements ProvisioningArchivePort {
+
+    private static final String TABLE = "provisioning_requests";
+    private static final String ARCHIVE = "provisioning_requests_archive";
+    private static final long LOCK_KEY = 0x63706d5f61726368L; // "cpm_arch"
+    private static final String TERMINAL = "('FAILED', 'REJECTED', 'DELETED')"; // Mesmo predicado do indice parcial
+    private static final String COLUMNS = "id, requester_username, ram, cpu, status, created_at, updated_at, "
+            + "cloud_provider, cloud_region, instance_id";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final String OVERLAP = "42P17";
+    private static final String CHECK_VIOLATION = "23514";
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcProvisioningArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int createPartitions(YearMonth from, int monthsAhead) {
+        return locked(connection -> {
+            int created = 0;
+            for (int i = 0; i <= monthsAhead; i++) {
+                if (createPartition(connection, TABLE, from.plusMonths(i))) {
+                    created++;
+                }
+            }
+            return created;
+        });
+    }
+
+    @Override
+    public int archiveTerminal(LocalDateTime cutoff, int batchSize) {
+        return locked(connection -> {
+            int total = 0;
+            LocalDateTime from = oldestTerminal(connection, null, cutoff);
+            while (from != null) {
+                YearMonth month = YearMonth.from(from);
+                LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+                LocalDateTime until = monthEnd.isBefore(cutoff) ? monthEnd : cutoff;
+                createPartition(connection, ARCHIVE, month);
+
+                int moved;
+                do {
+                    moved = moveBatch(connection, from, until, batchSize);
+                    total += moved;
+                } while (moved == batchSize);
+                from = oldestTerminal(connection, until, cutoff);
+            }
+            return total;
+        });
+    }
+
+    @Override
+    public int dropEmptyPartitions(LocalDateTime cutoff) {
+        return locked(connection -> {
+            int dropped = 0;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET lock_timeout = '2s'"); // O DROP trava a tabela pai: nao enfileira atras do trafego
+                for (String partition : partitionsEndingBefore(connection, cutoff)) {
+                    try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + partition + ")")) {
+                        rs.next();
+                        if (rs.getBoolean(1)) {
+                            continue; // Ainda tem pedido em andamento
+                        }
+                    }
+                    statement.execute("DROP TABLE " + partition);
+                    System.out.println("[Archive] Particao vazia removida: " + partition);
+                    dropped++;
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+            return dropped;
+        });
+    }
+
+    private int moveBatch(Connection connection, LocalDateTime from, LocalDateTime until, int batchSize)
+            throws SQLException {
+        String sql = """
+                WITH moved AS (
+                    DELETE FROM %1$s
+                    WHERE (id, created_at) IN (
+                        SELECT id, created_at FROM %1$s
+                        WHERE status IN %3$s AND created_at >= ? AND created_at < ?
+                        ORDER BY created_at LIMIT ?)
+                    RETURNING %4$s
+                ), retries AS (
+                    DELETE FROM provisioning_retries q USING moved WHERE q.provisioning_id = moved.id
+                )
+                INSERT INTO %2$s (%4$s, archived_at)
+                SELECT %4$s, now() AT TIME ZONE 'UTC' FROM moved
+                """.formatted(TABLE, ARCHIVE, TERMINAL, COLUMNS);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(until));
+            statement.setInt(3, batchSize);
+            return statement.executeUpdate();
+        }
+    }
+
+    /** Oldest finished request in [from, cutoff), through the partial index; null when there is none. */
+    private LocalDateTime oldestTerminal(Connection connection, LocalDateTime from, LocalDateTime cutoff)
+            throws SQLException {
+        String sql = "SELECT min(created_at) FROM " + TABLE + " WHERE status IN " + TERMINAL
+                + " AND created_at < ?" + (from == null ? "" : " AND created_at >= ?");
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+            if (from != null) {
+                statement.setTimestamp(2, Timestamp.valueOf(from));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                Timestamp oldest = rs.getTimestamp(1);
+                return oldest == null ? null : oldest.toLocalDateTime();
+            }
+        }
+    }
+
+    private List<String> partitionsEndingBefore(Connection connection, LocalDateTime cutoff) throws SQLException {
+        String sql = """
+                SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = ?::regclass
+                """;
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, TABLE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Matcher bound = UPPER_BOUND.matcher(rs.getString(2)); // DEFAULT nao tem limite e fica
+                    if (bound.find() && !Timestamp.valueOf(bound.group(1)).toLocalDateTime().isAfter(cutoff)) {
+                        partitions.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * False when the partition exists, when another partition (the legacy one) already covers the month, or
+     * when the month could not be split off the DEFAULT partition right now (the next run tries again).
+     */
+    private static boolean createPartition(Connection connection, String table, YearMonth month) throws SQLException {
+        String name = table + "_p" + month.format(SUFFIX);
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = start.plusMonths(1);
+        if (exists(connection, name)) {
+            return false;
+        }
+        String defaultPartition = table + "_default";
+        try {
+            if (exists(connection, defaultPartition) && hasRows(connection, defaultPartition, start, end)) {
+                splitFromDefault(connection, table, defaultPartition, name, start, end);
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                            .formatted(name, table, Timestamp.valueOf(start), Timestamp.valueOf(end)));
+                }
+            }
+        } catch (SQLException e) {
+            if (OVERLAP.equals(e.getSQLState())) {
+                return false;
+            }
+            if (CHECK_VIOLATION.equals(e.getSQLState()) || LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+                // Nao derruba o arquivamento dos outros meses
+                System.err.println("[Archive] Particao " + name + " adiada para a proxima execucao: " + e.getMessage());
+                return false;
+            }
+            throw e;
+        }
+        System.out.println("[Archive] Particao criada: " + name);
+        return true;
+    }
+
+    private static void splitFromDefault(Connection connection, String table, String defaultPartition, String name,
+                                         LocalDateTime start, LocalDateTime end) throws SQLException {
+        String range = "created_at >= '%s' AND created_at < '%s'".formatted(Timestamp.valueOf(start), Timestamp.valueOf(end));
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = '2s'");
+            // Nenhum insert do mes cai na DEFAULT entre a copia e o ATTACH
+            statement.execute("LOCK TABLE " + defaultPartition + " IN ACCESS EXCLUSIVE MODE");
+            statement.execute("CREATE TABLE " + name + " (LIKE " + table + " INCLUDING ALL)"); // Ja com os indices
+            int moved = statement.executeUpdate("WITH moved AS (DELETE FROM %s WHERE %s RETURNING *) INSERT INTO %s SELECT * FROM moved"
+                    .formatted(defaultPartition, range, name));
+            statement.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_bounds CHECK (" + range + ")");
+            statement.execute("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')"
+                    .formatted(table, name, Timestamp.valueOf(start), Timestamp.valueOf(end)));
+            statement.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_bounds"); // O limite da particao ja garante
+            connection.commit();
+            System.out.println("[Archive] " + moved + " linha(s) de " + defaultPartition + " movida(s) para " + name);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static boolean hasRows(Connection connection, String partition, LocalDateTime start, LocalDateTime end)
+            throws SQLException {
+        String sql = "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE created_at >= ? AND created_at < ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(end));
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private int locked(Step step) {
+        Integer result = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!tryLock(connection)) {
+                return 0; // Outra replica esta nessa etapa
+            }
+            try {
+                return step.run(connection);
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, LOCK_KEY);
+                    unlock.execute();
+                }
+            }
+        });
+        return result == null ? 0 : result;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        int run(Connection connection) throws SQLException;
+    }
+}
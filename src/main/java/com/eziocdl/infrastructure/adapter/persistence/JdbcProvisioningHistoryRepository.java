@@ -0,0 +1,123 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.ProvisioningHistoryPort;
+import com.eziocdl.domain.model.ProvisioningHistoryEntry;
+import com.eziocdl.domain.model.ProvisioningHistoryQuery;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * History export straight on JDBC, over live and archived requests, without the persistence context.
+ *
+ * The PostgreSQL driver only uses a server-side cursor (reading {@code fetch-size} rows per round trip)
+ * with autocommit off and a forward-only statement; otherwise it loads the whole result before the
+ * first row. There is no ORDER BY: sorting the range would keep the first row back until the last
+ * one is read.
+ */
+@Repository
+public class JdbcProvisioningHistoryRepository implements ProvisioningHistoryPort {
+
+    private static final String COLUMNS = "id, requester_username, ram, cpu, status, created_at, updated_at, "
+            + "cloud_provider, cloud_region, instance_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public JdbcProvisioningHistoryRepository(JdbcTemplate jdbcTemplate,
+                                             @Value("${cpm.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long stream(ProvisioningHistoryQuery query, Consumer<ProvisioningHistoryEntry> sink) {
+        String where = where(query);
+        String sql = "SELECT " + COLUMNS + ", false AS archived FROM provisioning_requests" + where
+                + " UNION ALL SELECT " + COLUMNS + ", true FROM provisioning_requests_archive" + where;
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false); // Sem transacao o driver ignora o fetch size
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                int index = bind(connection, statement, query, 1);
+                bind(connection, statement, query, index);
+                long read = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        sink.accept(map(rs));
+                        read++;
+                    }
+                }
+                return read;
+            } finally {
+                if (autoCommit) {
+                    connection.rollback(); // So leitura: fecha o cursor e devolve a conexao como veio
+                    connection.setAutoCommit(true);
+                }
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private static String where(ProvisioningHistoryQuery query) {
+        List<String> conditions = new ArrayList<>();
+        if (query.from() != null) {
+            conditions.add("created_at >= ?");
+        }
+        if (query.to() != null) {
+            conditions.add("created_at < ?");
+        }
+        if (!query.statuses().isEmpty()) {
+            conditions.add("status = ANY (?)");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static int bind(Connection connection, PreparedStatement statement, ProvisioningHistoryQuery query,
+                            int index) throws SQLException {
+        if (query.from() != null) {
+            statement.setTimestamp(index++, Timestamp.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            statement.setTimestamp(index++, Timestamp.valueOf(query.to()));
+        }
+        if (!query.statuses().isEmpty()) {
+            Object[] statuses = query.statuses().stream().map(ProvisioningStatus::name).toArray();
+            statement.setArray(index++, connection.createArrayOf("varchar", statuses));
+        }
+        return index;
+    }
+
+    private static ProvisioningHistoryEntry map(ResultSet rs) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp(7);
+        return new ProvisioningHistoryEntry(
+                rs.getObject(1, UUID.class),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                ProvisioningStatus.valueOf(rs.getString(5)),
+                rs.getTimestamp(6).toLocalDateTime(),
+                updatedAt == null ? null : updatedAt.toLocalDateTime(),
+                rs.getString(8),
+                rs.getString(9),
+                rs.getString(10),
+                rs.getBoolean(11)
+        );
+    }
+}
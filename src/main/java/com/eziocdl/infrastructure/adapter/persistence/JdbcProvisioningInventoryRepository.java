@@ -0,0 +1,119 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciliation reads and writes straight on JDBC, joined to the surrounding transaction. Batches go as
+ * column arrays through {@code unnest}: one statement and one round trip for any number of requests,
+ * without the select-before-merge JPA does for entities with an assigned id.
+ *
+ * Lookups by owner use the partial index over live requests.
+ */
+@Repository
+public class JdbcProvisioningInventoryRepository implements ProvisioningInventoryPort {
+
+    private static final String LIVE = Arrays.stream(ProvisioningStatus.values())
+            .filter(ProvisioningStatus::isLive)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "(", ")")); // Mesmo predicado do indice parcial
+
+    private static final String SELECT_LIVE = """
+            SELECT id, requester_username, ram, cpu, status, created_at
+            FROM provisioning_requests
+            WHERE requester_username = ? AND status IN %s
+            """.formatted(LIVE);
+    private static final String INSERT = """
+            INSERT INTO provisioning_requests (id, requester_username, ram, cpu, status, created_at, expires_at)
+            SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[],
+                                 ?::timestamp[])
+            """;
+    // created_at no join leva cada linha direto a sua particao
+    private static final String MARK_DELETING = """
+            UPDATE provisioning_requests r
+            SET status = 'DELETING', updated_at = ?, expires_at = ?
+            FROM unnest(?::uuid[], ?::timestamp[]) AS d(id, created_at)
+            WHERE r.id = d.id AND r.created_at = d.created_at AND r.status IN %s
+            RETURNING r.id
+            """.formatted(LIVE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcProvisioningInventoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void lockOwner(String owner) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> null, "cpm_reconcile:" + owner);
+    }
+
+    @Override
+    public List<ProvisioningSnapshot> findLive(String owner) {
+        return jdbcTemplate.query(SELECT_LIVE, (rs, row) -> new ProvisioningSnapshot(
+                rs.getObject("id", UUID.class),
+                rs.getString("requester_username"),
+                rs.getString("ram"),
+                rs.getString("cpu"),
+                ProvisioningStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), owner);
+    }
+
+    @Override
+    public void insertAll(List<ProvisioningRequest> requests) {
+        int size = requests.size();
+        UUID[] ids = new UUID[size];
+        String[] owners = new String[size];
+        String[] ram = new String[size];
+        String[] cpu = new String[size];
+        String[] status = new String[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        Timestamp[] expiresAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            ProvisioningRequest request = requests.get(i);
+            ids[i] = request.getId();
+            owners[i] = request.getRequesterUsername();
+            ram[i] = request.getRam();
+            cpu[i] = request.getCpu();
+            status[i] = request.getStatus().name();
+            createdAt[i] = Timestamp.valueOf(request.getCreatedAt());
+            expiresAt[i] = request.getExpiresAt() == null ? null : Timestamp.valueOf(request.getExpiresAt());
+        }
+        jdbcTemplate.update(INSERT, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", owners));
+            statement.setArray(3, connection.createArrayOf("varchar", ram));
+            statement.setArray(4, connection.createArrayOf("varchar", cpu));
+            statement.setArray(5, connection.createArrayOf("varchar", status));
+            statement.setArray(6, connection.createArrayOf("timestamp", createdAt));
+            statement.setArray(7, connection.createArrayOf("timestamp", expiresAt));
+        });
+    }
+
+    @Override
+    public List<UUID> markDeleting(List<ProvisioningSnapshot> requests, LocalDateTime at) {
+        UUID[] ids = requests.stream().map(ProvisioningSnapshot::id).toArray(UUID[]::new);
+        Timestamp[] createdAt = requests.stream().map(r -> Timestamp.valueOf(r.createdAt())).toArray(Timestamp[]::new);
+        return jdbcTemplate.query(MARK_DELETING, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setTimestamp(1, Timestamp.valueOf(at));
+            statement.setTimestamp(2, Timestamp.valueOf(at)); // Vencido agora: a varredura de leases remove
+            statement.setArray(3, connection.createArrayOf("uuid", ids));
+            statement.setArray(4, connection.createArrayOf("timestamp", createdAt));
+        }, (rs, row) -> rs.getObject(1, UUID.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.ProvisioningLeasePort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.DeprovisionTarget;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Lease sweep on JDBC. A claim is one statement: the due rows come from the partial index on
+ * {@code expires_at} in expiry order ({@code LIMIT}, so each call reads only a small slice of it), are
+ * locked with {@code SKIP LOCKED} and updated in place.
+ */
+@Repository
+public class JdbcProvisioningLeaseRepository implements ProvisioningLeasePort {
+
+    private static final String DUE = Arrays.stream(ProvisioningStatus.values())
+            .filter(status -> status.isLive() || status == ProvisioningStatus.DELETING)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "(", ")")); // Mesmo predicado do indice parcial
+
+    private static final String CLAIM = """
+            WITH due AS (
+                SELECT id, created_at, status, expires_at
+                FROM provisioning_requests
+                WHERE expires_at <= ? AND status IN %s
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE provisioning_requests r
+            SET status = 'DELETING', expires_at = ?, updated_at = ?
+            FROM due
+            WHERE r.id = due.id AND r.created_at = due.created_at
+            RETURNING r.id, r.created_at, due.status AS previous_status, due.expires_at AS expired_at,
+                      r.cloud_provider, r.cloud_region, r.instance_id
+            """.formatted(DUE);
+    // Instancia diferente da reivindicada: um worker gravou outra VM e a linha volta na proxima varredura
+    private static final String MARK_DELETED = """
+            UPDATE provisioning_requests r
+            SET status = 'DELETED', updated_at = ?
+            FROM unnest(?::uuid[], ?::timestamp[], ?::varchar[]) AS d(id, created_at, instance_id)
+            WHERE r.id = d.id AND r.created_at = d.created_at AND r.status = 'DELETING'
+              AND r.instance_id IS NOT DISTINCT FROM d.instance_id
+            RETURNING r.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcProvisioningLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<DeprovisionTarget> claimDue(LocalDateTime now, int limit, Duration lease) {
+        Timestamp at = Timestamp.valueOf(now);
+        return jdbcTemplate.query(CLAIM, (rs, row) -> new DeprovisionTarget(
+                rs.getObject("id", UUID.class),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                ProvisioningStatus.valueOf(rs.getString("previous_status")),
+                rs.getTimestamp("expired_at").toLocalDateTime(),
+                new CloudInstance(rs.getString("cloud_provider"), rs.getString("cloud_region"), rs.getString("instance_id"))
+        ), at, limit, Timestamp.valueOf(now.plus(lease)), at);
+    }
+
+    @Override
+    public List<UUID> markDeleted(List<DeprovisionTarget> targets, LocalDateTime at) {
+        UUID[] ids = targets.stream().map(DeprovisionTarget::id).toArray(UUID[]::new);
+        Timestamp[] createdAt = targets.stream().map(t -> Timestamp.valueOf(t.createdAt())).toArray(Timestamp[]::new);
+        String[] instanceIds = targets.stream().map(t -> t.instance().instanceId()).toArray(String[]::new);
+        return jdbcTemplate.query(MARK_DELETED, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setTimestamp(1, Timestamp.valueOf(at));
+            statement.setArray(2, connection.createArrayOf("uuid", ids));
+            statement.setArray(3, connection.createArrayOf("timestamp", createdAt));
+            statement.setArray(4, connection.createArrayOf("varchar", instanceIds));
+        }, (rs, row) -> rs.getObject(1, UUID.class));
+    }
+}
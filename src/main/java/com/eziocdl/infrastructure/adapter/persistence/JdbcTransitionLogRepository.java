@@ -0,0 +1,76 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.StatusTransition;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Synchronous access to the append-only {@code provisioning_transitions} table. A batch of any size is one
+ * INSERT over {@code unnest} of column arrays: one round trip and one cached plan.
+ * Used behind the batching writer, which is the {@link TransitionLogPort} the application sees.
+ */
+public class JdbcTransitionLogRepository implements TransitionLogPort {
+
+    private static final String INSERT = """
+            INSERT INTO provisioning_transitions (provisioning_id, from_status, to_status, actor, occurred_at)
+            SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[])
+            """;
+    private static final String SELECT = """
+            SELECT provisioning_id, from_status, to_status, actor, occurred_at
+            FROM provisioning_transitions
+            WHERE provisioning_id = ?
+            ORDER BY occurred_at, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTransitionLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(List<StatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        int size = transitions.size();
+        UUID[] ids = new UUID[size];
+        String[] from = new String[size];
+        String[] to = new String[size];
+        String[] actors = new String[size];
+        Timestamp[] occurredAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            StatusTransition transition = transitions.get(i);
+            ids[i] = transition.provisioningId();
+            from[i] = transition.from() == null ? null : transition.from().name();
+            to[i] = transition.to().name();
+            actors[i] = transition.actor();
+            occurredAt[i] = Timestamp.valueOf(transition.occurredAt());
+        }
+        jdbcTemplate.update(INSERT, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", from));
+            statement.setArray(3, connection.createArrayOf("varchar", to));
+            statement.setArray(4, connection.createArrayOf("varchar", actors));
+            statement.setArray(5, connection.createArrayOf("timestamp", occurredAt));
+        });
+    }
+
+    @Override
+    public List<StatusTransition> findByProvisioningId(UUID provisioningId) {
+        return jdbcTemplate.query(SELECT, (rs, row) -> new StatusTransition(
+                rs.getObject("provisioning_id", UUID.class),
+                rs.getString("from_status") == null ? null : ProvisioningStatus.valueOf(rs.getString("from_status")),
+                ProvisioningStatus.valueOf(rs.getString("to_status")),
+                rs.getString("actor"),
+                rs.getTimestamp("occurred_at").toLocalDateTime()
+        ), provisioningId);
+    }
+}
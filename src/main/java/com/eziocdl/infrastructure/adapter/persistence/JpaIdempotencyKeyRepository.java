@@ -0,0 +1,39 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.domain.model.IdempotencyRecord;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class JpaIdempotencyKeyRepository implements IdempotencyKeyPort {
+
+    private final SpringDataIdempotencyRecordRepository repository;
+
+    public JpaIdempotencyKeyRepository(SpringDataIdempotencyRecordRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String owner, String idempotencyKey) {
+        return repository.findByOwnerAndIdempotencyKey(owner, idempotencyKey);
+    }
+
+    @Override
+    public boolean reserve(IdempotencyRecord record) {
+        return repository.reserve(record) > 0;
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int batchSize) {
+        int total = 0;
+        int removed;
+        do {
+            removed = repository.deleteExpiredBatch(now, batchSize); // Uma transacao por lote
+            total += removed;
+        } while (removed == batchSize);
+        return total;
+    }
+}
@@ -1,27 +1,97 @@
 package com.eziocdl.infrastructure.adapter.persistence;
 
 import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
 import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.StatusTransition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+
+/**
+ * Lookups try the partitions of the last {@code hot-window} first and only search the older ones on a
+ * miss, so the usual reads (requests just created or still in progress) never touch old months.
+ *
+ * Every write hands the status transitions of the request to the transition log. An update logs only
+ * what the database applied: a status it kept (a removal already under way) leaves no history.
+ */
 @Repository
 public class JpaProvisionRepository implements ProvisioningRepositoryPort {
 
 
     private final SpringDataProvisioningRepository repository;
+    private final TransitionLogPort transitionLog;
+    private final Clock clock;
+    private final Duration hotWindow;
 
-    public JpaProvisionRepository(SpringDataProvisioningRepository repository){
+    public JpaProvisionRepository(SpringDataProvisioningRepository repository, TransitionLogPort transitionLog,
+                                  Clock clock, @Value("${cpm.archive.hot-window:30d}") Duration hotWindow){
         this.repository = repository;
+        this.transitionLog = transitionLog;
+        this.clock = clock;
+        this.hotWindow = hotWindow;
     }
     @Override
     public ProvisioningRequest save(ProvisioningRequest request) {
-        return repository.save(request);
+        ProvisioningRequest saved = repository.save(request);
+        logTransitions(request);
+        return saved;
+    }
+
+    @Override
+    public void update(ProvisioningRequest request) {
+        SpringDataProvisioningRepository.AppliedStatus applied = repository.updateProgress(request.getId(),
+                        request.getCreatedAt(), request.getStatus().name(), request.getCloudProvider(),
+                        request.getCloudRegion(), request.getInstanceId(), request.getUpdatedAt())
+                .orElseThrow(() -> new IllegalStateException("Pedido sumiu do banco: " + request.getId()));
+        List<StatusTransition> transitions = request.pullTransitions();
+        ProvisioningStatus previous = ProvisioningStatus.valueOf(applied.getPrevious());
+        ProvisioningStatus current = ProvisioningStatus.valueOf(applied.getApplied());
+        if (previous == current) {
+            return; // Status recusado (ou ja gravado): nada mudou no banco
+        }
+        if (current == request.getStatus() && !transitions.isEmpty()) {
+            transitionLog.append(transitions);
+            return;
+        }
+        // O banco aplicou outro status que o do snapshot (DELETED -> DELETING): registra o que aconteceu
+        transitionLog.append(List.of(new StatusTransition(request.getId(), previous, current,
+                ProvisioningRequest.SYSTEM_ACTOR, LocalDateTime.now(clock))));
     }
 
     @Override
     public Optional<ProvisioningRequest> findById(UUID id) {
-        return repository.findById(id);
+        return repository.findRecentById(id, hotSince())
+                .or(() -> repository.findById(id));
+    }
+
+    @Override
+    public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+        return repository.findFirstByCloudProviderAndInstanceIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
+                        cloudProvider, instanceId, hotSince())
+                .or(() -> repository.findFirstByCloudProviderAndInstanceIdOrderByCreatedAtDesc(cloudProvider, instanceId));
+    }
+
+    @Override
+    public List<ProvisioningRequest> findAwaitingServer() {
+        return repository.findByStatusAndInstanceIdIsNotNull(ProvisioningStatus.PROVISIONING);
+    }
+
+    private void logTransitions(ProvisioningRequest request) {
+        List<StatusTransition> transitions = request.pullTransitions();
+        if (!transitions.isEmpty()) {
+            transitionLog.append(transitions);
+        }
+    }
+
+    private LocalDateTime hotSince() {
+        return LocalDateTime.now(clock).minus(hotWindow);
     }
 }
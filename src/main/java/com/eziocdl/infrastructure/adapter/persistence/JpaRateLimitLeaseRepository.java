@@ -0,0 +1,27 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.RateLimitLeasePort;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public class JpaRateLimitLeaseRepository implements RateLimitLeasePort {
+
+    private final SpringDataRateLimitWindowRepository repository;
+
+    public JpaRateLimitLeaseRepository(SpringDataRateLimitWindowRepository repository) {
+        this.repository = repository;
+    }
+
+    // Chamado antes da transacao do create abrir: o upsert commita sozinho e usa uma so conexao
+    @Override
+    public int lease(String username, LocalDateTime windowStart, int chunk, int limit) {
+        return repository.lease(username, windowStart, chunk, limit);
+    }
+
+    @Override
+    public void purgeBefore(LocalDateTime windowStart) {
+        repository.deleteWindowsBefore(windowStart);
+    }
+}
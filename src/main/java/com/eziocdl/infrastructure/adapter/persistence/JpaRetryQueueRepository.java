@@ -0,0 +1,45 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.RetryQueuePort;
+import com.eziocdl.domain.model.ProvisioningRetry;
+import com.eziocdl.domain.model.RetryState;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class JpaRetryQueueRepository implements RetryQueuePort {
+
+    private final SpringDataProvisioningRetryRepository repository;
+
+    public JpaRetryQueueRepository(SpringDataProvisioningRetryRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public ProvisioningRetry save(ProvisioningRetry retry) {
+        return repository.save(retry);
+    }
+
+    @Override
+    @Transactional
+    public List<ProvisioningRetry> claimDue(LocalDateTime now, int limit, Duration lease) {
+        List<ProvisioningRetry> due = repository.lockDue(now, limit);
+        due.forEach(retry -> retry.lease(now.plus(lease)));
+        return repository.saveAll(due);
+    }
+
+    @Override
+    public void remove(UUID provisioningId) {
+        repository.deleteById(provisioningId);
+    }
+
+    @Override
+    public long countPending() {
+        return repository.countByState(RetryState.PENDING);
+    }
+}
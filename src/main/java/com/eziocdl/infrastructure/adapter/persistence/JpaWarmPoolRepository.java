@@ -0,0 +1,55 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.WarmPoolPort;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.WarmInstance;
+import com.eziocdl.domain.model.WarmInstanceState;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class JpaWarmPoolRepository implements WarmPoolPort {
+
+    private final SpringDataWarmInstanceRepository repository;
+
+    public JpaWarmPoolRepository(SpringDataWarmInstanceRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public WarmInstance save(WarmInstance instance) {
+        return repository.save(instance);
+    }
+
+    @Override
+    public Optional<WarmInstance> findById(UUID id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Optional<WarmInstance> claimReady(ResourceSpec spec, String image) {
+        Optional<WarmInstance> claimed = repository.lockOldestReady(spec.ramGb(), spec.cpuCores(), image);
+        claimed.ifPresent(repository::delete);
+        return claimed;
+    }
+
+    @Override
+    public void remove(UUID id) {
+        repository.deleteById(id);
+    }
+
+    @Override
+    public long count(ResourceSpec spec, String image, WarmInstanceState state) {
+        return repository.countByRamGbAndCpuCoresAndImageAndState(spec.ramGb(), spec.cpuCores(), image, state);
+    }
+
+    @Override
+    public List<WarmInstance> findBooting() {
+        return repository.findByState(WarmInstanceState.BOOTING);
+    }
+}
@@ -0,0 +1,83 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.application.port.out.ReactiveProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.StatusTransition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * R2DBC access to {@code provisioning_requests}, mapping the same entity the JPA side uses (columns
+ * follow the snake_case naming of both). Only created by the reactive mode.
+ *
+ * Inserts list their columns: the entity also carries its pending status transitions, which go to
+ * the transition log off the event loop (the log may apply backpressure).
+ */
+public class R2dbcProvisioningRepository implements ReactiveProvisioningRepositoryPort {
+
+    private static final String TABLE = "provisioning_requests";
+
+    private static final String INSERT = """
+            INSERT INTO provisioning_requests (id, requester_username, ram, cpu, status, created_at, expires_at)
+            VALUES (:id, :requesterUsername, :ram, :cpu, :status, :createdAt, :expiresAt)
+            """;
+
+    private final R2dbcEntityTemplate template;
+    private final TransitionLogPort transitionLog;
+
+    public R2dbcProvisioningRepository(R2dbcEntityTemplate template, TransitionLogPort transitionLog) {
+        this.template = template;
+        this.transitionLog = transitionLog;
+    }
+
+    @Override
+    public Mono<ProvisioningRequest> save(ProvisioningRequest request) {
+        // Pedidos novos so; atualizacoes continuam no listener via JPA
+        DatabaseClient.GenericExecuteSpec insert = template.getDatabaseClient().sql(INSERT)
+                .bind("id", request.getId())
+                .bind("requesterUsername", request.getRequesterUsername())
+                .bind("ram", request.getRam())
+                .bind("cpu", request.getCpu())
+                .bind("status", request.getStatus().name())
+                .bind("createdAt", request.getCreatedAt());
+        insert = request.getExpiresAt() != null
+                ? insert.bind("expiresAt", request.getExpiresAt())
+                : insert.bindNull("expiresAt", LocalDateTime.class);
+        return insert.then()
+                .then(Mono.fromRunnable(() -> logTransitions(request)).subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(request);
+    }
+
+    private void logTransitions(ProvisioningRequest request) {
+        List<StatusTransition> transitions = request.pullTransitions();
+        if (!transitions.isEmpty()) {
+            transitionLog.append(transitions);
+        }
+    }
+
+    @Override
+    public Mono<ProvisioningRequest> findById(UUID id) {
+        return template.select(ProvisioningRequest.class).from(TABLE)
+                .matching(query(where("id").is(id)))
+                .one();
+    }
+
+    @Override
+    public Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+        return template.select(ProvisioningRequest.class).from(TABLE)
+                .matching(query(where("cloudProvider").is(cloudProvider).and("instanceId").is(instanceId))
+                        .sort(Sort.by(Sort.Direction.DESC, "createdAt")))
+                .first(); // Sem indice unico: o pedido mais novo da VM
+    }
+}
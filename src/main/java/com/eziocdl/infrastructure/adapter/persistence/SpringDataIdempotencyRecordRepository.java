@@ -0,0 +1,41 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.domain.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+interface SpringDataIdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByOwnerAndIdempotencyKey(String owner, String idempotencyKey);
+
+    // Conflito com um INSERT ainda nao commitado da mesma chave espera aquela transacao terminar.
+    // So sobrescreve registros ja expirados (a limpeza ainda nao passou); vivo = 0 linhas
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_keys (id, owner, idempotency_key, request_hash, provisioning_id, status, created_at, expires_at)
+            VALUES (:#{#r.id}, :#{#r.owner}, :#{#r.idempotencyKey}, :#{#r.requestHash}, :#{#r.provisioningId},
+                    :#{#r.status.name()}, :#{#r.createdAt}, :#{#r.expiresAt})
+            ON CONFLICT (owner, idempotency_key) DO UPDATE
+            SET id = EXCLUDED.id, request_hash = EXCLUDED.request_hash, provisioning_id = EXCLUDED.provisioning_id,
+                status = EXCLUDED.status, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= EXCLUDED.created_at
+            """, nativeQuery = true)
+    int reserve(@Param("r") IdempotencyRecord record);
+
+    // Lotes pequenos pelo indice de expires_at: transacoes curtas, sem varrer a tabela
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM idempotency_keys
+            WHERE id IN (SELECT id FROM idempotency_keys WHERE expires_at <= :now ORDER BY expires_at LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
@@ -1,10 +1,65 @@
 package com.eziocdl.infrastructure.adapter.persistence;
 
 import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 interface SpringDataProvisioningRepository extends JpaRepository<ProvisioningRequest, UUID> {
 
+    // Sem indice unico na tabela particionada: se a mesma VM aparecer em dois pedidos, vale o mais novo
+    Optional<ProvisioningRequest> findFirstByCloudProviderAndInstanceIdOrderByCreatedAtDesc(String cloudProvider,
+                                                                                         String instanceId);
+
+    List<ProvisioningRequest> findByStatusAndInstanceIdIsNotNull(ProvisioningStatus status);
+
+    // Com created_at no filtro o Postgres poda as particoes antigas
+    @Query("SELECT r FROM ProvisioningRequest r WHERE r.id = :id AND r.createdAt >= :since")
+    Optional<ProvisioningRequest> findRecentById(@Param("id") UUID id, @Param("since") LocalDateTime since);
+
+    Optional<ProvisioningRequest> findFirstByCloudProviderAndInstanceIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
+            String cloudProvider, String instanceId, LocalDateTime since);
+
+    // UPDATE direto: o merge de um save() faria um SELECT antes. created_at leva a uma particao so.
+    // O worker parte do snapshot e nao sabe de uma remocao pedida depois: DELETING nao e sobrescrito.
+    // Uma VM nova gravada num pedido ja DELETED volta para DELETING, e a varredura de leases a remove.
+    // Colunas de nuvem nulas (pedido vindo do snapshot) mantem as gravadas; expires_at nunca e tocado.
+    // O SELECT ... FOR UPDATE no FROM devolve o status de antes junto com o aplicado, na mesma ida ao banco
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE provisioning_requests r
+            SET status = CASE
+                    WHEN old.status = 'DELETING' THEN old.status
+                    WHEN old.status = 'DELETED'
+                         AND COALESCE(:instanceId, old.instance_id, '') = COALESCE(old.instance_id, '')
+                         THEN old.status
+                    WHEN old.status = 'DELETED' THEN 'DELETING'
+                    ELSE :status END,
+                cloud_provider = COALESCE(:cloudProvider, r.cloud_provider),
+                cloud_region = COALESCE(:cloudRegion, r.cloud_region),
+                instance_id = COALESCE(:instanceId, r.instance_id), updated_at = :updatedAt
+            FROM (SELECT id, created_at, status, instance_id FROM provisioning_requests
+                  WHERE id = :id AND created_at = :createdAt FOR UPDATE) old
+            WHERE r.id = old.id AND r.created_at = old.created_at
+            RETURNING old.status AS previous, r.status AS applied
+            """)
+    Optional<AppliedStatus> updateProgress(@Param("id") UUID id, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("status") String status, @Param("cloudProvider") String cloudProvider,
+                                           @Param("cloudRegion") String cloudRegion, @Param("instanceId") String instanceId,
+                                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /** Status of the row before and after {@link #updateProgress}. */
+    interface AppliedStatus {
+
+        String getPrevious();
+
+        String getApplied();
+    }
 }
@@ -0,0 +1,26 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.domain.model.ProvisioningRetry;
+import com.eziocdl.domain.model.RetryState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+interface SpringDataProvisioningRetryRepository extends JpaRepository<ProvisioningRetry, UUID> {
+
+    // SKIP LOCKED: replicas drenando ao mesmo tempo pegam lotes disjuntos sem esperar uma pela outra
+    @Query(value = """
+            SELECT * FROM provisioning_retries
+            WHERE state = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ProvisioningRetry> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByState(RetryState state);
+}
@@ -0,0 +1,32 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.domain.model.RateLimitWindow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+interface SpringDataRateLimitWindowRepository extends JpaRepository<RateLimitWindow, RateLimitWindow.Key> {
+
+    // Um unico upsert: a linha fica travada so durante o statement. No SET as colunas ainda
+    // tem o valor antigo, entao last_grant = o que este lease conseguiu de fato
+    @Transactional
+    @Query(value = """
+            INSERT INTO rate_limit_windows (username, window_start, consumed, last_grant)
+            VALUES (:username, :windowStart, LEAST(:chunk, :limit), LEAST(:chunk, :limit))
+            ON CONFLICT (username, window_start) DO UPDATE
+            SET consumed = LEAST(rate_limit_windows.consumed + :chunk, :limit),
+                last_grant = LEAST(rate_limit_windows.consumed + :chunk, :limit) - rate_limit_windows.consumed
+            RETURNING last_grant
+            """, nativeQuery = true)
+    int lease(@Param("username") String username, @Param("windowStart") LocalDateTime windowStart,
+              @Param("chunk") int chunk, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitWindow w WHERE w.windowStart < :windowStart")
+    int deleteWindowsBefore(@Param("windowStart") LocalDateTime windowStart);
+}
@@ -0,0 +1,29 @@
+package com.eziocdl.infrastructure.adapter.persistence;
+
+import com.eziocdl.domain.model.WarmInstance;
+import com.eziocdl.domain.model.WarmInstanceState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+interface SpringDataWarmInstanceRepository extends JpaRepository<WarmInstance, UUID> {
+
+    // SKIP LOCKED: dois pedidos simultaneos pegam instancias diferentes sem esperar um pelo outro
+    @Query(value = """
+            SELECT * FROM warm_pool_instances
+            WHERE state = 'READY' AND ram_gb = :ramGb AND cpu_cores = :cpuCores AND image = :image
+            ORDER BY ready_at
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<WarmInstance> lockOldestReady(@Param("ramGb") int ramGb, @Param("cpuCores") int cpuCores,
+                                           @Param("image") String image);
+
+    long countByRamGbAndCpuCoresAndImageAndState(int ramGb, int cpuCores, String image, WarmInstanceState state);
+
+    List<WarmInstance> findByState(WarmInstanceState state);
+}
@@ -0,0 +1,188 @@
+package com.eziocdl.infrastructure.adapter.ratelimit;
+
+import com.eziocdl.application.port.out.RateLimitLeasePort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user create limit shared by all replicas, without a database round trip on most checks.
+ *
+ * Each user has a local bucket for the current fixed window; taking a token is a CAS. When the
+ * bucket runs dry, the replica leases the next {@code chunk} of the user's global budget through
+ * {@link RateLimitLeasePort}, which never grants more than {@code limit} per window in total, so
+ * replicas together never admit more than the limit. Once the global budget is spent the bucket
+ * remembers it, and later denials stay local too. Tokens a replica leased but did not use are lost
+ * at the end of the window: a user spread over N replicas may get up to (N - 1) * chunk fewer.
+ *
+ * If the lease store fails the check fails open, since the create would hit the same database anyway.
+ * Metrics: {@code cpm.ratelimit.decisions{outcome=allowed|denied}} and {@code cpm.ratelimit.leases}.
+ */
+public class LeasedTokenBucketRateLimiter implements RateLimiterPort {
+
+    private final RateLimitLeasePort leases;
+    private final Clock clock;
+    private final int limit;
+    private final int chunk;
+    private final Duration window;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter allowed;
+    private final Counter denied;
+    private final Timer leaseTimer;
+
+    public LeasedTokenBucketRateLimiter(RateLimitLeasePort leases, Clock clock, int limit, int chunk,
+                                        Duration window, MeterRegistry registry) {
+        if (limit < 1 || chunk < 1 || window.toMillis() < 1) {
+            throw new IllegalArgumentException("limit, chunk and window must be positive");
+        }
+        this.leases = leases;
+        this.clock = clock;
+        this.limit = limit;
+        this.chunk = Math.min(chunk, limit);
+        this.window = window;
+        this.allowed = Counter.builder("cpm.ratelimit.decisions").tag("outcome", "allowed").register(registry);
+        this.denied = Counter.builder("cpm.ratelimit.decisions").tag("outcome", "denied").register(registry);
+        this.leaseTimer = Timer.builder("cpm.ratelimit.leases").register(registry);
+    }
+
+    @Override
+    public void acquire(String username) {
+        acquire(username, 1);
+    }
+
+    /** All or nothing: when the budget runs out halfway, the tokens already taken go back to the bucket. */
+    @Override
+    public void acquire(String username, int permits) {
+        long windowStart = windowStart(clock.millis());
+        int taken = 0;
+        while (taken < permits && tryAcquire(username, windowStart)) {
+            taken++;
+        }
+        if (taken == permits) {
+            allowed.increment();
+            return;
+        }
+        refund(username, windowStart, taken);
+        denied.increment();
+        Duration retryAfter = Duration.ofMillis(windowStart + window.toMillis() - clock.millis());
+        throw new RateLimitExceededException(username, limit, window, retryAfter);
+    }
+
+    @Scheduled(fixedDelayString = "${cpm.rate-limit.purge-interval:10m}")
+    public void purgeExpiredWindows() {
+        long current = windowStart(clock.millis());
+        buckets.values().removeIf(bucket -> bucket.budget.windowStart < current);
+        try {
+            leases.purgeBefore(toDateTime(current - window.toMillis())); // Mantem a janela anterior (clock skew)
+        } catch (RuntimeException e) {
+            System.err.println("[RateLimit] Falha ao limpar janelas antigas: " + e.getMessage());
+        }
+    }
+
+    private boolean tryAcquire(String username, long windowStart) {
+        Bucket bucket = buckets.computeIfAbsent(username, user -> new Bucket());
+        while (true) {
+            Budget budget = bucket.budget;
+            if (budget.windowStart == windowStart) {
+                if (budget.take()) {
+                    return true;
+                }
+                if (budget.exhausted) {
+                    return false;
+                }
+            }
+            switch (refill(username, bucket, windowStart)) {
+                case LEASED -> { } // Tenta o CAS de novo
+                case SPENT -> { return false; }
+                case FAILED -> { return true; }
+            }
+        }
+    }
+
+    private void refund(String username, long windowStart, int tokens) {
+        Bucket bucket = buckets.get(username);
+        if (tokens > 0 && bucket != null && bucket.budget.windowStart == windowStart) {
+            bucket.budget.tokens.addAndGet(tokens);
+        }
+    }
+
+    // Caminho lento: um lease por vez por usuario nesta replica; quem chega depois reaproveita
+    private Refill refill(String username, Bucket bucket, long windowStart) {
+        synchronized (bucket) {
+            Budget budget = bucket.budget;
+            if (budget.windowStart == windowStart) {
+                if (budget.tokens.get() > 0) {
+                    return Refill.LEASED;
+                }
+                if (budget.exhausted) {
+                    return Refill.SPENT;
+                }
+            } else {
+                budget = new Budget(windowStart);
+                bucket.budget = budget;
+            }
+
+            int granted;
+            try {
+                granted = leaseTimer.recordCallable(() -> leases.lease(username, toDateTime(windowStart), chunk, limit));
+            } catch (Exception e) {
+                System.err.println("[RateLimit] Falha no lease de " + username + ", liberando sem limite: " + e.getMessage());
+                return Refill.FAILED;
+            }
+            budget.tokens.addAndGet(granted);
+            if (granted < chunk) {
+                budget.exhausted = true; // O contador global acabou nesta janela
+            }
+            return granted > 0 ? Refill.LEASED : Refill.SPENT;
+        }
+    }
+
+    private long windowStart(long millis) {
+        return millis - Math.floorMod(millis, window.toMillis());
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private enum Refill { LEASED, SPENT, FAILED }
+
+    private static final class Bucket {
+        private volatile Budget budget = new Budget(Long.MIN_VALUE);
+    }
+
+    private static final class Budget {
+
+        private final long windowStart;
+        private final AtomicInteger tokens = new AtomicInteger();
+        private volatile boolean exhausted;
+
+        private Budget(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        private boolean take() {
+            int current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.eziocdl.infrastructure.adapter.scheduling;
+
+import com.eziocdl.application.port.out.ProvisioningSchedulerPort;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-level weighted fair queuing (stride scheduling) in front of the provisioning workers.
+ *
+ * Roles share the {@code maxConcurrent} worker slots in proportion to their weight; inside a role,
+ * users share equally. Each user has its own FIFO, so a user's tasks are handed out in submission
+ * order, and at most {@code maxPerUser} of them run at once (with 1, they run strictly in order).
+ * A flow that was idle re-enters at the current virtual time, so idle periods do not bank credit for
+ * a later burst.
+ *
+ * Queues are not bounded here: requests were already persisted and quota-checked. They live only in
+ * memory, so see {@link #close} for what a shutdown does to them.
+ * Metrics: {@code cpm.scheduler.queued{role}}, {@code cpm.scheduler.running} and
+ * {@code cpm.scheduler.wait{role}} (submit to start).
+ */
+public class WeightedFairScheduler implements ProvisioningSchedulerPort, AutoCloseable {
+
+    private static final long STRIDE = 1L << 20;
+
+    private final int maxConcurrent;
+    private final int maxPerUser;
+    private final Map<String, Integer> roleWeights;
+    private final ExecutorService workers;
+    private final ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+    private final MeterRegistry registry;
+
+    // Guarded by this
+    private final Map<String, RoleClass> roles = new HashMap<>();
+    private long roleVirtualTime;
+    private int running;
+    private boolean closed;
+
+    public WeightedFairScheduler(int maxConcurrent, int maxPerUser, Map<String, Integer> roleWeights,
+                                 MeterRegistry registry) {
+        if (maxConcurrent < 1 || maxPerUser < 1) {
+            throw new IllegalArgumentException("maxConcurrent and maxPerUser must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxPerUser = maxPerUser;
+        this.roleWeights = new HashMap<>();
+        roleWeights.forEach((role, weight) -> this.roleWeights.put(normalize(role), Math.max(weight, 1)));
+        this.registry = registry;
+        this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-provisioning-", 0).factory());
+        Gauge.builder("cpm.scheduler.running", this, WeightedFairScheduler::runningCount).register(registry);
+    }
+
+    @Override
+    public void submit(String username, String role, Runnable task) {
+        Runnable traced = snapshots.captureAll().wrap(task); // TraceId/SpanId seguem para o worker
+        synchronized (this) {
+            RoleClass roleClass = roles.computeIfAbsent(normalize(role), this::newRoleClass);
+            if (!roleClass.hasWork()) {
+                roleClass.pass = Math.max(roleClass.pass, roleVirtualTime);
+            }
+            UserFlow flow = roleClass.users.computeIfAbsent(username, UserFlow::new);
+            if (flow.queue.isEmpty() && flow.inFlight == 0) {
+                flow.pass = Math.max(flow.pass, roleClass.userVirtualTime);
+            }
+            flow.queue.add(new Task(traced, System.nanoTime()));
+            roleClass.queued++;
+            dispatch();
+        }
+    }
+
+    synchronized int runningCount() {
+        return running;
+    }
+
+    /**
+     * Stops dispatching and waits up to 10s for the running tasks. Tasks still queued are dropped:
+     * their requests keep the status the API gave them, with no instance, and nothing picks them up at
+     * startup ({@code resumeTracking} only resumes requests that already have a server). Resubmitting
+     * them at startup is not safe while another replica may still hold the same request in its queue,
+     * so the dropped count is logged for the operator to act on.
+     */
+    @Override
+    public void close() {
+        int dropped;
+        synchronized (this) {
+            closed = true;
+            dropped = roles.values().stream().mapToInt(roleClass -> roleClass.queued).sum();
+        }
+        if (dropped > 0) {
+            System.err.println("[Scheduler] Parando com " + dropped + " tarefa(s) na fila: os pedidos ficam sem VM");
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        while (!closed && running < maxConcurrent) {
+            RoleClass roleClass = pickRole();
+            if (roleClass == null) {
+                return; // Nada elegivel: filas vazias ou usuarios no limite
+            }
+            UserFlow flow = roleClass.pickUser(maxPerUser);
+            roleVirtualTime = roleClass.pass;
+            roleClass.userVirtualTime = flow.pass;
+            roleClass.pass += roleClass.stride;
+            flow.pass += STRIDE;
+
+            Task task = flow.queue.poll();
+            roleClass.queued--;
+            flow.inFlight++;
+            running++;
+            workers.execute(() -> run(roleClass, flow, task));
+        }
+    }
+
+    private RoleClass pickRole() {
+        RoleClass best = null;
+        for (RoleClass roleClass : roles.values()) {
+            if (roleClass.pickUser(maxPerUser) != null && (best == null || roleClass.pass < best.pass)) {
+                best = roleClass;
+            }
+        }
+        return best;
+    }
+
+    private void run(RoleClass roleClass, UserFlow flow, Task task) {
+        roleClass.wait.record(Duration.ofNanos(System.nanoTime() - task.submittedAt()));
+        try {
+            task.runnable().run();
+        } catch (RuntimeException e) {
+            System.err.println("[Scheduler] Tarefa de " + flow.username + " falhou: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                flow.inFlight--;
+                running--;
+                if (flow.queue.isEmpty() && flow.inFlight == 0) {
+                    roleClass.users.remove(flow.username);
+                }
+                dispatch();
+            }
+        }
+    }
+
+    private RoleClass newRoleClass(String role) {
+        RoleClass roleClass = new RoleClass(roleWeights.getOrDefault(role, 1),
+                Timer.builder("cpm.scheduler.wait").tag("role", role).register(registry));
+        Gauge.builder("cpm.scheduler.queued", this, scheduler -> scheduler.queuedCount(roleClass))
+                .tag("role", role).register(registry);
+        return roleClass;
+    }
+
+    private synchronized int queuedCount(RoleClass roleClass) {
+        return roleClass.queued;
+    }
+
+    private static String normalize(String role) {
+        return role == null ? "TRAINEE" : role.toUpperCase(Locale.ROOT); // Least privilege
+    }
+
+    private record Task(Runnable runnable, long submittedAt) {
+    }
+
+    private static final class RoleClass {
+
+        private final long stride;
+        private final Timer wait;
+        private final Map<String, UserFlow> users = new HashMap<>();
+        private long pass;
+        private long userVirtualTime;
+        private int queued;
+
+        private RoleClass(int weight, Timer wait) {
+            this.stride = STRIDE / weight;
+            this.wait = wait;
+        }
+
+        private boolean hasWork() {
+            return !users.isEmpty();
+        }
+
+        private UserFlow pickUser(int maxPerUser) {
+            UserFlow best = null;
+            for (UserFlow flow : users.values()) {
+                if (!flow.queue.isEmpty() && flow.inFlight < maxPerUser && (best == null || flow.pass < best.pass)) {
+                    best = flow;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class UserFlow {
+
+        private final String username;
+        private final Queue<Task> queue = new ArrayDeque<>();
+        private long pass;
+        private int inFlight;
+
+        private UserFlow(String username) {
+            this.username = username;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.eziocdl.infrastructure.adapter.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import zipkin2.reporter.ReporterMetrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer view of the span export pipeline.
+ *
+ * Exposes {@code cpm.tracing.spans{outcome=sent|spooled|replayed|dropped}} plus
+ * gauges for the in-memory reporter queue, so a slow or down collector is visible
+ * before it turns into memory pressure.
+ */
+public class SpanExportMetrics implements ReporterMetrics {
+
+    private static final String SPANS = "cpm.tracing.spans";
+
+    private final Counter sent;
+    private final Counter spooled;
+    private final Counter replayed;
+    private final Counter dropped;
+    private final AtomicInteger queuedSpans = new AtomicInteger();
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+
+    public SpanExportMetrics(MeterRegistry registry) {
+        this.sent = outcome(registry, "sent");
+        this.spooled = outcome(registry, "spooled");
+        this.replayed = outcome(registry, "replayed");
+        this.dropped = outcome(registry, "dropped");
+        Gauge.builder("cpm.tracing.queue.spans", queuedSpans, AtomicInteger::get)
+                .description("Spans buffered in memory waiting to be sent")
+                .register(registry);
+        Gauge.builder("cpm.tracing.queue.bytes", queuedBytes, AtomicInteger::get)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder(SPANS).tag("outcome", outcome).register(registry);
+    }
+
+    public void spansSent(int count) {
+        sent.increment(count);
+    }
+
+    public void spansSpooled(int count) {
+        spooled.increment(count);
+    }
+
+    public void spansReplayed(int count) {
+        replayed.increment(count);
+    }
+
+    @Override
+    public void incrementSpansDropped(int quantity) {
+        dropped.increment(quantity);
+    }
+
+    @Override
+    public void updateQueuedSpans(int update) {
+        queuedSpans.set(update);
+    }
+
+    @Override
+    public void updateQueuedBytes(int update) {
+        queuedBytes.set(update);
+    }
+
+    @Override
+    public void incrementMessages() {
+    }
+
+    @Override
+    public void incrementMessagesDropped(Throwable cause) {
+    }
+
+    @Override
+    public void incrementSpans(int quantity) {
+    }
+
+    @Override
+    public void incrementSpanBytes(int quantity) {
+    }
+
+    @Override
+    public void incrementMessageBytes(int quantity) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.eziocdl.infrastructure.adapter.tracing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bounded on-disk spool for encoded spans that could not be delivered to the collector.
+ *
+ * Spans are appended as length-prefixed records to fixed-size segment files
+ * ({@code spans-<seq>.seg}). Segments are replayed oldest first and deleted once
+ * delivered. When the spool is full, new spans are rejected so disk usage stays bounded.
+ */
+public class SpanSpool {
+
+    private static final String SEGMENT_PREFIX = "spans-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final int maxSegments;
+
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private FileChannel writeChannel;
+    private long writeSegmentBytes;
+    private long nextSequence;
+    private long totalBytes;
+
+    public SpanSpool(Path directory, long segmentMaxBytes, int maxSegments) {
+        if (segmentMaxBytes <= Integer.BYTES) {
+            throw new IllegalArgumentException("segmentMaxBytes must hold at least one record");
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive");
+        }
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.maxSegments = maxSegments;
+        recover();
+    }
+
+    /**
+     * Appends the spans to the current segment, rolling to a new one when it is full.
+     *
+     * @return the number of spans accepted; the rest were rejected because the spool is full
+     */
+    public synchronized int append(List<byte[]> spans) throws IOException {
+        int accepted = 0;
+        for (byte[] span : spans) {
+            long recordBytes = Integer.BYTES + (long) span.length;
+            if (recordBytes > segmentMaxBytes) {
+                continue; // A single span larger than a segment can never be spooled
+            }
+            if (writeChannel == null || writeSegmentBytes + recordBytes > segmentMaxBytes) {
+                if (!rollSegment()) {
+                    break;
+                }
+            }
+            ByteBuffer record = ByteBuffer.allocate((int) recordBytes);
+            record.putInt(span.length).put(span).flip();
+            while (record.hasRemaining()) {
+                writeChannel.write(record);
+            }
+            writeSegmentBytes += recordBytes;
+            totalBytes += recordBytes;
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Reads the oldest segment without removing it. The segment currently being
+     * written is sealed first so it can be replayed too.
+     */
+    public synchronized List<byte[]> peekOldest() throws IOException {
+        if (segments.isEmpty()) {
+            return List.of();
+        }
+        if (segments.size() == 1) {
+            sealWriteSegment();
+        }
+        return readSegment(segments.peekFirst());
+    }
+
+    /**
+     * Deletes the oldest segment after its spans have been delivered.
+     */
+    public synchronized void removeOldest() throws IOException {
+        Path oldest = segments.pollFirst();
+        if (oldest == null) {
+            return;
+        }
+        if (segments.isEmpty()) {
+            sealWriteSegment();
+        }
+        totalBytes -= Files.size(oldest);
+        Files.deleteIfExists(oldest);
+    }
+
+    public synchronized boolean isEmpty() {
+        return totalBytes == 0;
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized void close() throws IOException {
+        sealWriteSegment();
+    }
+
+    private boolean rollSegment() throws IOException {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        sealWriteSegment();
+        Path segment = directory.resolve(SEGMENT_PREFIX + String.format("%019d", nextSequence++) + SEGMENT_SUFFIX);
+        writeChannel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writeSegmentBytes = 0;
+        segments.addLast(segment);
+        return true;
+    }
+
+    private void sealWriteSegment() throws IOException {
+        if (writeChannel != null) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+    }
+
+    private List<byte[]> readSegment(Path segment) throws IOException {
+        List<byte[]> spans = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return spans;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break; // Torn write from a crash; keep what was complete
+                }
+                byte[] span = new byte[length];
+                buffer.get(span);
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                List<Path> existing = files
+                        .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .toList();
+                for (Path segment : existing) {
+                    segments.addLast(segment);
+                    totalBytes += Files.size(segment);
+                    nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open span spool at " + directory, e);
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
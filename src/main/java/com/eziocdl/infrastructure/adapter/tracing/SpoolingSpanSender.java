@@ -0,0 +1,149 @@
+package com.eziocdl.infrastructure.adapter.tracing;
+
+import zipkin2.reporter.BytesMessageSender;
+import zipkin2.reporter.Encoding;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sender decorator that spills span batches to a {@link SpanSpool} when the collector
+ * is unavailable and replays them in the background once it answers again.
+ *
+ * The in-memory side stays bounded by the {@code AsyncReporter} queue in front of this
+ * sender; this class only adds the disk fallback, so a Zipkin outage costs disk, not heap.
+ */
+public class SpoolingSpanSender implements BytesMessageSender {
+
+    private final BytesMessageSender delegate;
+    private final SpanSpool spool;
+    private final SpanExportMetrics metrics;
+    private final ScheduledExecutorService replayScheduler;
+
+    public SpoolingSpanSender(BytesMessageSender delegate, SpanSpool spool,
+                              SpanExportMetrics metrics, Duration replayInterval) {
+        this.delegate = delegate;
+        this.spool = spool;
+        this.metrics = metrics;
+        this.replayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "zipkin-spool-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = replayInterval.toMillis();
+        replayScheduler.scheduleWithFixedDelay(this::replaySafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Encoding encoding() {
+        return delegate.encoding();
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return delegate.messageMaxBytes();
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+        return delegate.messageSizeInBytes(encodedSpans);
+    }
+
+    @Override
+    public int messageSizeInBytes(int encodedSizeInBytes) {
+        return delegate.messageSizeInBytes(encodedSizeInBytes);
+    }
+
+    @Override
+    public void send(List<byte[]> encodedSpans) throws IOException {
+        if (encodedSpans.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.send(encodedSpans);
+            metrics.spansSent(encodedSpans.size());
+        } catch (IOException | RuntimeException e) {
+            spill(encodedSpans, e);
+        }
+    }
+
+    /**
+     * Sends spooled segments, oldest first, until the spool is empty or the collector fails again.
+     *
+     * @return the number of spans replayed
+     */
+    public int replayPending() throws IOException {
+        int replayed = 0;
+        while (!spool.isEmpty()) {
+            List<byte[]> spans = spool.peekOldest();
+            for (List<byte[]> batch : partition(spans)) {
+                delegate.send(batch); // Failure leaves the segment in place for the next round
+            }
+            spool.removeOldest();
+            replayed += spans.size();
+            metrics.spansReplayed(spans.size());
+            metrics.spansSent(spans.size());
+        }
+        return replayed;
+    }
+
+    public long spooledBytes() {
+        return spool.sizeInBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        replayScheduler.shutdownNow();
+        try {
+            delegate.close();
+        } finally {
+            spool.close();
+        }
+    }
+
+    private void spill(List<byte[]> encodedSpans, Exception cause) throws IOException {
+        int accepted = spool.append(encodedSpans);
+        metrics.spansSpooled(accepted);
+        int rejected = encodedSpans.size() - accepted;
+        if (rejected > 0) {
+            metrics.incrementSpansDropped(rejected);
+            System.err.println("[Tracing] Span spool full, dropped " + rejected + " spans. Causa: " + cause.getMessage());
+        }
+    }
+
+    private void replaySafely() {
+        try {
+            int replayed = replayPending();
+            if (replayed > 0) {
+                System.out.println("📡 [Tracing] Replayed " + replayed + " spooled spans to the collector");
+            }
+        } catch (IOException | RuntimeException e) {
+            // Collector still down; try again on the next tick
+        }
+    }
+
+    private List<List<byte[]>> partition(List<byte[]> spans) {
+        List<List<byte[]>> batches = new ArrayList<>();
+        List<byte[]> current = new ArrayList<>();
+        int currentBytes = 0;
+        for (byte[] span : spans) {
+            int nextBytes = delegate.messageSizeInBytes(currentBytes + span.length + 1);
+            if (!current.isEmpty() && nextBytes > delegate.messageMaxBytes()) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(span);
+            currentBytes += span.length + 1;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
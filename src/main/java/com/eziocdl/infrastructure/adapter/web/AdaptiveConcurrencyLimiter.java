@@ -0,0 +1,95 @@
+package com.eziocdl.infrastructure.adapter.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows measured latency (gradient algorithm).
+ *
+ * The minimum RTT seen over the last {@value #BASELINE_WINDOW} samples is the "no queueing"
+ * baseline (re-measured every window, so a backend that got slower for good is accepted after
+ * a while). Each sample moves the limit {@value #SMOOTHING} of the way towards
+ * {@code limit * gradient + sqrt(limit)}, where {@code gradient = tolerance * baseline / rtt} is
+ * clamped to [0.5, 1]. While the RTT stays within {@code tolerance} of the baseline that is a
+ * growth of {@code 0.2 * sqrt(limit)} per sample; at the worst gradient the limit drops by about
+ * 10% per sample (a little less, since the sqrt term still applies). Failed calls cut the limit
+ * by 10% straight away. Samples taken while less than half the limit was in use say nothing
+ * about the limit and only feed the baseline.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int BASELINE_WINDOW = 500;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this
+    private double limit;
+    private long baselineRttNanos;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private volatile int admitLimit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.admitLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= admitLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        update(rttNanos, dropped, inFlightAtRelease);
+    }
+
+    public int limit() {
+        return admitLimit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtRelease) {
+        if (dropped) {
+            setLimit(limit * 0.9);
+            return;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        baselineRttNanos = baselineRttNanos == 0 ? rttNanos : Math.min(baselineRttNanos, rttNanos);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            baselineRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        if (inFlightAtRelease < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        admitLimit = (int) limit;
+    }
+}
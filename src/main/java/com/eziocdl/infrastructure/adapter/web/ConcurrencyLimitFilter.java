@@ -0,0 +1,82 @@
+package com.eziocdl.infrastructure.adapter.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Load shedding in front of the API. Requests over the {@link AdaptiveConcurrencyLimiter} limit
+ * get an immediate 503 with {@code Retry-After} instead of waiting on a Tomcat thread; admitted
+ * requests feed their latency (and 5xx/exceptions as drops) back into the limit. Paths under
+ * {@code excludedPaths} bypass the limiter: a request that streams for minutes would read as overload.
+ *
+ * Metrics: {@code cpm.api.concurrency.limit}, {@code cpm.api.concurrency.in.flight} and
+ * {@code cpm.api.shed}.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String retryAfterSeconds;
+    private final List<String> excludedPaths;
+    private final Counter shed;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Duration retryAfter, MeterRegistry registry) {
+        this(limiter, retryAfter, List.of(), registry);
+    }
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Duration retryAfter, List<String> excludedPaths,
+                                  MeterRegistry registry) {
+        this.limiter = limiter;
+        this.excludedPaths = List.copyOf(excludedPaths);
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.shed = Counter.builder("cpm.api.shed").register(registry);
+        Gauge.builder("cpm.api.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit).register(registry);
+        Gauge.builder("cpm.api.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            shed.increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write("""
+                {"type":"https://cpm.org/errors/overloaded","title":"Service Overloaded","status":503,\
+                "detail":"Limite de requisicoes simultaneas atingido, tente novamente em %s s"}"""
+                .formatted(retryAfterSeconds));
+    }
+}
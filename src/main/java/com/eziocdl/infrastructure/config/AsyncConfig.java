@@ -1,30 +1,36 @@
 package com.eziocdl.infrastructure.config;
 
-import io.micrometer.context.ContextExecutorService;
-import io.micrometer.context.ContextSnapshotFactory;
+import com.eziocdl.application.port.in.ProvisioningEventHandlerPort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.infrastructure.adapter.events.RingBufferProvisioningEventPublisher;
+import com.eziocdl.infrastructure.adapter.events.SpringProvisioningEventPublisher;
+import com.eziocdl.infrastructure.adapter.scheduling.WeightedFairScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.TaskExecutor;
-import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
-@EnableAsync
+@EnableConfigurationProperties({FairSchedulingProperties.class, EventPipelineProperties.class})
 public class AsyncConfig {
 
+    // Provisionamento: fila justa por role (peso) e por usuario, workers "async-provisioning-"
     @Bean
-    public TaskExecutor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(25);
-        executor.setThreadNamePrefix("async-provisioning-");
-
-        // Propaga o contexto de tracing (TraceId, SpanId) para threads assíncronas
-        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    public WeightedFairScheduler provisioningScheduler(FairSchedulingProperties properties, MeterRegistry meterRegistry) {
+        return new WeightedFairScheduler(properties.maxConcurrent(), properties.maxPerUser(),
+                properties.roleWeights(), meterRegistry);
+    }
 
-        executor.initialize();
-        return executor;
+    // Pedido commitado -> ring buffer -> scheduler, sem multicaster do Spring nem findById no worker
+    @Bean
+    public ProvisioningEventPort provisioningEventPort(EventPipelineProperties properties,
+                                                       ProvisioningEventHandlerPort handler,
+                                                       ApplicationEventPublisher publisher,
+                                                       MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            return new SpringProvisioningEventPublisher(publisher);
+        }
+        return new RingBufferProvisioningEventPublisher(properties.ringSize(), handler, meterRegistry);
     }
 }
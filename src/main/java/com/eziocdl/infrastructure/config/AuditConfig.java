@@ -0,0 +1,28 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.infrastructure.adapter.audit.BatchingTransitionLog;
+import com.eziocdl.infrastructure.adapter.persistence.JdbcTransitionLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Log de transicoes de status: a aplicacao so enxerga o writer em lote; a tabela fica atras dele.
+ * O close (no shutdown) grava o que estiver na fila antes de o pool de conexoes fechar.
+ */
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    @Bean
+    public BatchingTransitionLog transitionLog(AuditProperties properties, JdbcTemplate jdbcTemplate,
+                                               MeterRegistry meterRegistry) {
+        BatchingTransitionLog log = new BatchingTransitionLog(new JdbcTransitionLogRepository(jdbcTemplate),
+                meterRegistry, properties.bufferSize(), properties.batchSize(), properties.linger(),
+                properties.offerTimeout(), properties.shutdownTimeout());
+        log.start();
+        return log;
+    }
+}
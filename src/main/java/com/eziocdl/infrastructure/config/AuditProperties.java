@@ -0,0 +1,20 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Batched writer of the status transition log ({@code cpm.audit}). {@code bufferSize} bounds the
+ * transitions waiting in memory; past it, callers wait {@code offerTimeout} and then write their own.
+ */
+@ConfigurationProperties(prefix = "cpm.audit")
+public record AuditProperties(
+        @DefaultValue("10000") int bufferSize,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("20ms") Duration linger,
+        @DefaultValue("1s") Duration offerTimeout,
+        @DefaultValue("10s") Duration shutdownTimeout
+) {
+}
@@ -0,0 +1,19 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Blocking-call detector ({@code cpm.diagnostics.blocking}). Off by default; staging turns it on.
+ * The JVM must run with {@code -XX:+AllowRedefinitionToAddDeleteMethods}.
+ */
+@ConfigurationProperties(prefix = "cpm.diagnostics.blocking")
+public record BlockingDetectionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("false") boolean failFast,
+        @DefaultValue("20ms") Duration pinnedThreshold,
+        @DefaultValue("100") int keep
+) {
+}
@@ -0,0 +1,45 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP client settings for each cloud endpoint ({@code cpm.cloud.endpoints.<name>}).
+ *
+ * Every endpoint gets its own connection pool, so a slow region cannot exhaust
+ * the connections used by another one.
+ */
+@ConfigurationProperties(prefix = "cpm.cloud")
+public record CloudEndpointProperties(
+        @DefaultValue Map<String, Endpoint> endpoints
+) {
+
+    public record Endpoint(
+            String baseUrl,
+            @DefaultValue("1s") Duration connectTimeout,
+            @DefaultValue("3s") Duration responseTimeout,
+            @DefaultValue("true") boolean compression,
+            @DefaultValue("false") boolean http2,
+            @DefaultValue Pool pool
+    ) {
+        public Endpoint {
+            if (baseUrl == null || baseUrl.isBlank()) {
+                throw new IllegalArgumentException("Cloud endpoint base-url required");
+            }
+        }
+    }
+
+    public record Pool(
+            @DefaultValue("50") int maxConnections,
+            @DefaultValue("200") int pendingAcquireMaxCount,
+            @DefaultValue("2s") Duration pendingAcquireTimeout,
+            @DefaultValue("30s") Duration maxIdleTime,
+            @DefaultValue("5m") Duration maxLifeTime,
+            @DefaultValue("30s") Duration evictInBackground,
+            @DefaultValue("true") boolean keepAlive
+    ) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.infrastructure.adapter.cloud.CloudEndpointClients;
+import com.eziocdl.infrastructure.adapter.cloud.CoalescingCloudProvider;
+import com.eziocdl.infrastructure.adapter.cloud.KeystoneTokenProvider;
+import com.eziocdl.infrastructure.adapter.cloud.NovaServerStatusTracker;
+import com.eziocdl.infrastructure.adapter.cloud.OpenStackAdapter;
+import com.eziocdl.infrastructure.adapter.cloud.OpenStackCatalogCache;
+import com.eziocdl.infrastructure.adapter.cloud.RegionRoutingStatusTracker;
+import com.eziocdl.infrastructure.adapter.cloud.RoutingCloudProvider;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta a cadeia de decorators na frente do provedor de nuvem.
+ * O listener injeta apenas {@link CloudProviderPort}; quem atende é definido aqui.
+ * Com {@code cpm.cloud.routing.backends} configurado, os pedidos são distribuídos entre regiões.
+ */
+@Configuration
+@EnableConfigurationProperties(CloudRoutingProperties.class)
+public class CloudProviderConfig {
+
+    @Value("${cpm.cloud.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${cpm.cloud.coalescing.window:50ms}")
+    private Duration coalescingWindow;
+
+    @Value("${cpm.cloud.coalescing.max-batch:25}")
+    private int coalescingMaxBatch;
+
+    @Value("${cpm.cloud.status.min-interval:2s}")
+    private Duration statusMinInterval;
+
+    @Value("${cpm.cloud.status.max-interval:30s}")
+    private Duration statusMaxInterval;
+
+    @Value("${cpm.cloud.status.build-timeout:10m}")
+    private Duration statusBuildTimeout;
+
+    @Value("${cpm.cloud.status.page-size:1000}")
+    private int statusPageSize;
+
+    @Value("${cpm.cloud.catalog.default-image:ubuntu-22.04}")
+    private String defaultImage;
+
+    @Value("${cpm.cloud.catalog.refresh-interval:5m}")
+    private Duration catalogRefreshInterval;
+
+    @Bean
+    @Primary
+    public CloudProviderPort cloudProviderPort(OpenStackAdapter openStackAdapter, CloudRoutingProperties routing,
+                                               CloudEndpointClients clients, KeystoneTokenProvider keystone,
+                                               CircuitBreakerRegistry circuitBreakers, TaskScheduler taskScheduler,
+                                               MeterRegistry meterRegistry) {
+        CloudProviderPort provider = routing.backends().isEmpty()
+                ? openStackAdapter
+                : routingProvider(routing, clients, keystone, circuitBreakers, taskScheduler, meterRegistry);
+        if (!coalescingEnabled) {
+            return provider;
+        }
+        return new CoalescingCloudProvider(provider, coalescingWindow, coalescingMaxBatch, meterRegistry);
+    }
+
+    @Bean
+    public ServerStatusTrackerPort serverStatusTracker(CloudRoutingProperties routing, CloudEndpointClients clients,
+                                                       KeystoneTokenProvider keystone,
+                                                       ApplicationEventPublisher eventPublisher,
+                                                       MeterRegistry meterRegistry) {
+        if (routing.backends().isEmpty()) {
+            NovaServerStatusTracker tracker = statusTracker("openstack", clients.forEndpoint("openstack"),
+                    keystone, eventPublisher, meterRegistry);
+            tracker.start();
+            return tracker;
+        }
+        Map<String, NovaServerStatusTracker> byRegion = new LinkedHashMap<>();
+        routing.backends().forEach((name, backend) -> byRegion.put(backend.region(),
+                statusTracker(name, clients.forEndpoint(backend.endpoint()), keystone, eventPublisher, meterRegistry)));
+        RegionRoutingStatusTracker tracker = new RegionRoutingStatusTracker(byRegion);
+        tracker.start();
+        return tracker;
+    }
+
+    private RoutingCloudProvider routingProvider(CloudRoutingProperties routing, CloudEndpointClients clients,
+                                                 KeystoneTokenProvider keystone, CircuitBreakerRegistry circuitBreakers,
+                                                 TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        List<RoutingCloudProvider.Backend> backends = new ArrayList<>();
+        routing.backends().forEach((name, backend) -> {
+            // Cada regiao tem seu catalogo (IDs de flavor/imagem diferem entre regioes)
+            OpenStackCatalogCache catalog = new OpenStackCatalogCache(clients.forEndpoint(backend.endpoint()),
+                    keystone, meterRegistry);
+            taskScheduler.scheduleWithFixedDelay(catalog::refresh, catalogRefreshInterval);
+            OpenStackAdapter adapter = new OpenStackAdapter(clients.forEndpoint(backend.endpoint()), keystone,
+                    catalog, circuitBreakers, defaultImage, backend.region());
+            backends.add(new RoutingCloudProvider.Backend(name, backend.region(), adapter, backend.weight(),
+                    RoutingCloudProvider.regionBreaker(circuitBreakers, name), backend.maxConcurrentCalls()));
+        });
+        System.out.println("🌐 [Router] Distribuindo pedidos entre " + routing.backends().keySet());
+        return new RoutingCloudProvider(OpenStackAdapter.PROVIDER, backends, meterRegistry);
+    }
+
+    private NovaServerStatusTracker statusTracker(String cloud, WebClient webClient,
+                                                  KeystoneTokenProvider keystone, ApplicationEventPublisher eventPublisher,
+                                                  MeterRegistry meterRegistry) {
+        return new NovaServerStatusTracker(cloud, webClient, keystone, eventPublisher, Clock.systemUTC(), meterRegistry,
+                statusMinInterval, statusMaxInterval, statusBuildTimeout, statusPageSize);
+    }
+}
@@ -0,0 +1,34 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * OpenStack regions to spread provisioning across ({@code cpm.cloud.routing.backends.<name>}).
+ *
+ * {@code endpoint} names an entry of {@code cpm.cloud.endpoints}. With no backends configured,
+ * requests go straight to the single {@code openstack} endpoint.
+ */
+@ConfigurationProperties(prefix = "cpm.cloud.routing")
+public record CloudRoutingProperties(
+        @DefaultValue Map<String, Backend> backends
+) {
+
+    public record Backend(
+            String endpoint,
+            String region,
+            @DefaultValue("1") int weight,
+            @DefaultValue("25") int maxConcurrentCalls
+    ) {
+        public Backend {
+            if (endpoint == null || endpoint.isBlank() || region == null || region.isBlank()) {
+                throw new IllegalArgumentException("Routing backend endpoint and region required");
+            }
+            if (weight < 1 || maxConcurrentCalls < 1) {
+                throw new IllegalArgumentException("Routing backend weight and max-concurrent-calls must be positive");
+            }
+        }
+    }
+}
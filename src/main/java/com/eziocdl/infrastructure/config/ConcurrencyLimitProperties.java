@@ -0,0 +1,24 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limit on the API ({@code cpm.api.concurrency}). {@code tolerance} is how
+ * much latency may rise over its recent minimum before the limit starts shrinking. Requests under
+ * {@code excludedPaths} (long streams such as the history export) neither count nor feed the limit.
+ */
+@ConfigurationProperties(prefix = "cpm.api.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("100") int maxLimit,
+        @DefaultValue("1.5") double tolerance,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("/api/v1/provisioning/export") List<String> excludedPaths
+) {
+}
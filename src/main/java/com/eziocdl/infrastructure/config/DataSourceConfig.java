@@ -0,0 +1,89 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.infrastructure.adapter.datasource.WorkloadRoutingAdvisor;
+import com.eziocdl.infrastructure.adapter.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Pools separados para API, workers e (opcional) replica de leitura, roteados por {@code @Workload}.
+ * Substitui o pool unico do auto-config; Flyway e o bootstrap do Hibernate usam o pool de workers.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourcePoolsProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    public WorkloadRoutingDataSource dataSource(DataSourcePoolsProperties pools, DataSourceProperties dataSourceProperties,
+                                                ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                                MeterRegistry meterRegistry) {
+        // Testcontainers (@ServiceConnection) publica JdbcConnectionDetails; senao vale spring.datasource
+        JdbcConnectionDetails primary = connectionDetails.getIfAvailable(() -> new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return dataSourceProperties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return dataSourceProperties.determinePassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return dataSourceProperties.determineUrl();
+            }
+
+            @Override
+            public String getDriverClassName() {
+                return dataSourceProperties.determineDriverClassName();
+            }
+        });
+
+        HikariDataSource api = pool("cpm-api", primary.getJdbcUrl(), primary.getUsername(), primary.getPassword(),
+                primary.getDriverClassName(), pools.api(), false, meterRegistry);
+        HikariDataSource worker = pool("cpm-worker", primary.getJdbcUrl(), primary.getUsername(), primary.getPassword(),
+                primary.getDriverClassName(), pools.worker(), false, meterRegistry);
+        HikariDataSource replica = null;
+        if (pools.replica().enabled()) {
+            DataSourcePoolsProperties.Replica settings = pools.replica();
+            replica = pool("cpm-replica", settings.url(),
+                    settings.username() != null ? settings.username() : primary.getUsername(),
+                    settings.password() != null ? settings.password() : primary.getPassword(),
+                    primary.getDriverClassName(), settings.pool(), true, meterRegistry);
+        }
+        return new WorkloadRoutingDataSource(api, worker, replica, meterRegistry);
+    }
+
+    @Bean
+    public WorkloadRoutingAdvisor workloadRoutingAdvisor() {
+        return new WorkloadRoutingAdvisor();
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password, String driverClassName,
+                                         DataSourcePoolsProperties.Pool settings, boolean readOnly,
+                                         MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setDriverClassName(driverClassName);
+        config.setMaximumPoolSize(settings.maximumPoolSize());
+        config.setMinimumIdle(Math.min(settings.minimumIdle(), settings.maximumPoolSize()));
+        config.setConnectionTimeout(settings.connectionTimeout().toMillis());
+        config.setReadOnly(readOnly);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,36 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection pools per workload ({@code cpm.datasource}). URL and credentials of the API and worker
+ * pools come from {@code spring.datasource}; the replica pool only exists when {@code replica.url} is set.
+ */
+@ConfigurationProperties(prefix = "cpm.datasource")
+public record DataSourcePoolsProperties(
+        @DefaultValue Pool api,
+        @DefaultValue Pool worker,
+        @DefaultValue Replica replica
+) {
+
+    public record Pool(
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("2") int minimumIdle,
+            @DefaultValue("30s") Duration connectionTimeout
+    ) {
+    }
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue Pool pool
+    ) {
+        public boolean enabled() {
+            return url != null && !url.isBlank();
+        }
+    }
+}
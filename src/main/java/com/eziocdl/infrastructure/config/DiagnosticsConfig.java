@@ -0,0 +1,23 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.infrastructure.adapter.diagnostics.BlockingCallDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cpm.diagnostics.blocking", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(BlockingDetectionProperties.class)
+public class DiagnosticsConfig {
+
+    // Chamadas bloqueantes em threads do Reactor/Netty e virtual threads presas ao carrier
+    @Bean
+    public BlockingCallDetector blockingCallDetector(BlockingDetectionProperties properties, MeterRegistry meterRegistry) {
+        BlockingCallDetector detector = new BlockingCallDetector(meterRegistry, properties.failFast(),
+                properties.pinnedThreshold(), properties.keep());
+        detector.start();
+        return detector;
+    }
+}
@@ -0,0 +1,15 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Ring buffer between the create transaction and the provisioning scheduler
+ * ({@code cpm.events.pipeline}). Disabled, events go through the Spring multicaster.
+ */
+@ConfigurationProperties(prefix = "cpm.events.pipeline")
+public record EventPipelineProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4096") int ringSize
+) {
+}
@@ -0,0 +1,18 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Worker slots for provisioning and how they are shared ({@code cpm.scheduler}).
+ * Roles without a weight get 1.
+ */
+@ConfigurationProperties(prefix = "cpm.scheduler")
+public record FairSchedulingProperties(
+        @DefaultValue("10") int maxConcurrent,
+        @DefaultValue("4") int maxPerUser,
+        @DefaultValue Map<String, Integer> roleWeights
+) {
+}
@@ -0,0 +1,30 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.application.port.in.CreateProvisioningUseCasePort;
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.usecase.IdempotentCreateProvisioningUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Monta o suporte a Idempotency-Key a partir de {@code cpm.idempotency}.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotentCreateProvisioningUseCase idempotentCreateProvisioningUseCase(
+            IdempotencyProperties properties, CreateProvisioningUseCasePort createProvisioningUseCasePort,
+            IdempotencyKeyPort idempotencyKeyPort, RateLimiterPort rateLimiterPort, MeterRegistry meterRegistry,
+            Clock clock) {
+        return new IdempotentCreateProvisioningUseCase(createProvisioningUseCasePort, idempotencyKeyPort,
+                rateLimiterPort, meterRegistry, clock, properties.ttl(), properties.cacheSize(),
+                properties.waitTimeout(), properties.purgeBatchSize());
+    }
+}
@@ -0,0 +1,20 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling on creates ({@code cpm.idempotency}). {@code cacheSize} bounds the
+ * in-memory records per replica; {@code waitTimeout} is how long a duplicate waits for the call in flight.
+ */
+@ConfigurationProperties(prefix = "cpm.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("10000") int cacheSize,
+        @DefaultValue("10s") Duration waitTimeout,
+        @DefaultValue("5m") Duration purgeInterval,
+        @DefaultValue("1000") int purgeBatchSize
+) {
+}
@@ -0,0 +1,36 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Keystone (OpenStack Identity v3) credentials used to obtain project-scoped tokens.
+ *
+ * {@code endpoint} names an entry of {@code cpm.cloud.endpoints}, so Keystone calls
+ * get their own connection pool and timeouts. When enabled, every credential field is required.
+ */
+@ConfigurationProperties(prefix = "cpm.cloud.keystone")
+public record KeystoneProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("keystone") String endpoint,
+        String username,
+        String password,
+        @DefaultValue("Default") String userDomain,
+        String project,
+        @DefaultValue("Default") String projectDomain,
+        @DefaultValue("5m") Duration refreshBefore
+) {
+    public KeystoneProperties {
+        if (enabled && (isBlank(username) || isBlank(password) || isBlank(userDomain)
+                || isBlank(project) || isBlank(projectDomain))) {
+            throw new IllegalArgumentException("Keystone enabled but cpm.cloud.keystone username, password, "
+                    + "user-domain, project and project-domain are not all set");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,31 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.infrastructure.adapter.web.AdaptiveConcurrencyLimiter;
+import com.eziocdl.infrastructure.adapter.web.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class LoadSheddingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.initialLimit(),
+                properties.minLimit(), properties.maxLimit(), properties.tolerance());
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, properties.retryAfter(), properties.excludedPaths(), meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // Antes do Spring Security: sob sobrecarga nem chega a consultar o LDAP
+        registration.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER - 1);
+        registration.setEnabled(properties.enabled());
+        return registration;
+    }
+}
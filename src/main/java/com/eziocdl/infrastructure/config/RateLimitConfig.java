@@ -0,0 +1,30 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.application.port.out.RateLimitLeasePort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.infrastructure.adapter.ratelimit.LeasedTokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Limite de creates por usuario a partir de {@code cpm.rate-limit}. Desligado, todo acquire passa.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiterPort rateLimiterPort(RateLimitProperties properties, RateLimitLeasePort rateLimitLeasePort,
+                                           Clock clock, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            return username -> { };
+        }
+        return new LeasedTokenBucketRateLimiter(rateLimitLeasePort, clock, properties.createsPerMinute(),
+                properties.leaseChunk(), Duration.ofMinutes(1), meterRegistry);
+    }
+}
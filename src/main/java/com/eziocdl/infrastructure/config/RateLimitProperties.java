@@ -0,0 +1,19 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Per-user create limit shared by all replicas ({@code cpm.rate-limit}). Each replica leases
+ * {@code leaseChunk} tokens at a time from the Postgres counter.
+ */
+@ConfigurationProperties(prefix = "cpm.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30") int createsPerMinute,
+        @DefaultValue("5") int leaseChunk,
+        @DefaultValue("10m") Duration purgeInterval
+) {
+}
@@ -0,0 +1,67 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.api.controller.ProvisioningHandler;
+import com.eziocdl.api.exception.GlobalExceptionHandler;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.port.out.ReactiveProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.application.usecase.ReactiveProvisioningUseCase;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import com.eziocdl.infrastructure.adapter.persistence.R2dbcProvisioningRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Modo reativo (perfil {@code reactive}, que liga {@code spring.main.web-application-type=reactive}):
+ * endpoints funcionais no Netty e gravação via R2DBC. O processamento assíncrono (listener, scheduler,
+ * retry, warm pool) continua igual, com JPA fora do event loop.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool r2dbcConnectionPool(ReactiveProperties properties,
+                                              @Value("${spring.datasource.username}") String username,
+                                              @Value("${spring.datasource.password}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.r2dbcUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(properties.poolMaxSize())
+                .build());
+    }
+
+    @Bean
+    public ReactiveProvisioningRepositoryPort reactiveProvisioningRepository(ConnectionPool r2dbcConnectionPool,
+                                                                             TransitionLogPort transitionLog) {
+        return new R2dbcProvisioningRepository(new R2dbcEntityTemplate(r2dbcConnectionPool), transitionLog);
+    }
+
+    @Bean
+    public ReactiveProvisioningUseCase reactiveProvisioningUseCase(ReactiveProvisioningRepositoryPort repository,
+                                                                   ProvisioningEventPort events,
+                                                                   PolicyEnforcementService policyEnforcementService,
+                                                                   RateLimiterPort rateLimiterPort) {
+        return new ReactiveProvisioningUseCase(repository, events, policyEnforcementService, rateLimiterPort);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> provisioningRoutes(ReactiveProvisioningUseCase reactiveProvisioningUseCase,
+                                                             GlobalExceptionHandler globalExceptionHandler) {
+        return new ProvisioningHandler(reactiveProvisioningUseCase, globalExceptionHandler).routes();
+    }
+}
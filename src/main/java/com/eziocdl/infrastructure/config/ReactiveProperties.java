@@ -0,0 +1,14 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * R2DBC pool of the reactive mode ({@code cpm.reactive}). Credentials come from {@code spring.datasource}.
+ */
+@ConfigurationProperties(prefix = "cpm.reactive")
+public record ReactiveProperties(
+        @DefaultValue("r2dbc:postgresql://localhost:5432/cpm_db") String r2dbcUrl,
+        @DefaultValue("20") int poolMaxSize
+) {
+}
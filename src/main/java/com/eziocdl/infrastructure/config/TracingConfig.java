@@ -6,6 +6,10 @@ import brave.propagation.B3Propagation;
 import brave.propagation.ThreadLocalCurrentTraceContext;
 import brave.sampler.Sampler;
 import brave.jakarta.servlet.TracingFilter;
+import com.eziocdl.infrastructure.adapter.tracing.SpanExportMetrics;
+import com.eziocdl.infrastructure.adapter.tracing.SpanSpool;
+import com.eziocdl.infrastructure.adapter.tracing.SpoolingSpanSender;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
 import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
 import io.micrometer.tracing.brave.bridge.BraveTracer;
@@ -17,6 +21,10 @@ import zipkin2.reporter.BytesMessageSender;
 import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
 import zipkin2.reporter.urlconnection.URLConnectionSender;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class TracingConfig {
 
@@ -26,14 +34,53 @@ public class TracingConfig {
     @Value("${spring.application.name:cloud-provisioning-manager}")
     private String serviceName;
 
+    // Limite de memoria para spans em fila (o pod tem 512Mi)
+    @Value("${cpm.tracing.export.queued-max-bytes:4194304}")
+    private int queuedMaxBytes;
+
+    @Value("${cpm.tracing.export.message-max-bytes:512000}")
+    private int messageMaxBytes;
+
+    @Value("${cpm.tracing.export.message-timeout:1s}")
+    private Duration messageTimeout;
+
+    @Value("${cpm.tracing.export.spool.directory:${java.io.tmpdir}/cpm-span-spool}")
+    private Path spoolDirectory;
+
+    @Value("${cpm.tracing.export.spool.segment-bytes:1048576}")
+    private long spoolSegmentBytes;
+
+    @Value("${cpm.tracing.export.spool.max-segments:16}")
+    private int spoolMaxSegments;
+
+    @Value("${cpm.tracing.export.spool.replay-interval:10s}")
+    private Duration replayInterval;
+
     @Bean
-    public BytesMessageSender sender() {
-        return URLConnectionSender.create(zipkinEndpoint);
+    public SpanExportMetrics spanExportMetrics(MeterRegistry meterRegistry) {
+        return new SpanExportMetrics(meterRegistry);
     }
 
     @Bean
-    public AsyncZipkinSpanHandler zipkinSpanHandler(BytesMessageSender sender) {
-        return AsyncZipkinSpanHandler.create(sender);
+    public BytesMessageSender sender(SpanExportMetrics spanExportMetrics) {
+        URLConnectionSender collector = URLConnectionSender.newBuilder()
+                .endpoint(zipkinEndpoint)
+                .compressionEnabled(true) // gzip no corpo do POST
+                .messageMaxBytes(messageMaxBytes)
+                .build();
+
+        SpanSpool spool = new SpanSpool(spoolDirectory, spoolSegmentBytes, spoolMaxSegments);
+        return new SpoolingSpanSender(collector, spool, spanExportMetrics, replayInterval);
+    }
+
+    @Bean
+    public AsyncZipkinSpanHandler zipkinSpanHandler(BytesMessageSender sender, SpanExportMetrics spanExportMetrics) {
+        return AsyncZipkinSpanHandler.newBuilder(sender)
+                .queuedMaxBytes(queuedMaxBytes)
+                .messageMaxBytes(messageMaxBytes)
+                .messageTimeout(messageTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .metrics(spanExportMetrics)
+                .build();
     }
 
     @Bean
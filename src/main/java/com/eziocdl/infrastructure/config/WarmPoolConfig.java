@@ -0,0 +1,37 @@
+package com.eziocdl.infrastructure.config;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ServerStatusTrackerPort;
+import com.eziocdl.application.port.out.WarmPoolPort;
+import com.eziocdl.application.usecase.WarmPoolUseCase;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.WarmPoolTarget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Monta o warm pool a partir de {@code cpm.warm-pool}. Desligado, o use case existe sem pools
+ * e todo claim é um miss silencioso.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmPoolProperties.class)
+public class WarmPoolConfig {
+
+    @Bean
+    public WarmPoolUseCase warmPoolUseCase(WarmPoolProperties properties, WarmPoolPort warmPoolPort,
+                                           CloudProviderPort cloudProviderPort, ServerStatusTrackerPort statusTracker,
+                                           MeterRegistry meterRegistry, Clock clock,
+                                           @Value("${cpm.cloud.catalog.default-image:ubuntu-22.04}") String image) {
+        List<WarmPoolTarget> targets = !properties.enabled() ? List.of() : properties.pools().stream()
+                .map(pool -> new WarmPoolTarget(ResourceSpec.of(pool.ram(), pool.cpu()), pool.minSize(), pool.maxSize()))
+                .toList();
+        return new WarmPoolUseCase(warmPoolPort, cloudProviderPort, statusTracker, meterRegistry, clock, targets,
+                image, properties.bootTime(), properties.demandHalfLife());
+    }
+}
@@ -0,0 +1,30 @@
+package com.eziocdl.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Warm pools of pre-booted servers ({@code cpm.warm-pool.pools[n]}), one per request size.
+ *
+ * {@code boot-time} is how long a replacement takes to become ACTIVE; the pool holds what the
+ * recent demand (decayed with {@code demand-half-life}) would consume in that time.
+ */
+@ConfigurationProperties(prefix = "cpm.warm-pool")
+public record WarmPoolProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("3m") Duration bootTime,
+        @DefaultValue("10m") Duration demandHalfLife,
+        @DefaultValue List<Pool> pools
+) {
+
+    public record Pool(
+            String ram,
+            String cpu,
+            @DefaultValue("0") int minSize,
+            @DefaultValue("10") int maxSize
+    ) {
+    }
+}
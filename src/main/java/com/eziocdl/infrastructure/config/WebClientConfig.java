@@ -2,13 +2,21 @@ package com.eziocdl.infrastructure.config;
 
 import brave.Tracing;
 import brave.http.HttpTracing;
+import com.eziocdl.infrastructure.adapter.cloud.CloudEndpointClients;
+import com.eziocdl.infrastructure.adapter.cloud.KeystoneTokenProvider;
+import com.eziocdl.infrastructure.adapter.cloud.OpenStackCatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Clock;
+
 @Configuration
+@EnableConfigurationProperties({CloudEndpointProperties.class, KeystoneProperties.class})
 public class WebClientConfig {
 
     @Bean
@@ -17,6 +25,27 @@ public class WebClientConfig {
                 .filter(tracingFilter(tracing));
     }
 
+    @Bean
+    public CloudEndpointClients cloudEndpointClients(WebClient.Builder webClientBuilder,
+                                                     CloudEndpointProperties properties) {
+        return new CloudEndpointClients(webClientBuilder, properties);
+    }
+
+    @Bean
+    public KeystoneTokenProvider keystoneTokenProvider(CloudEndpointClients clients, KeystoneProperties properties) {
+        if (!properties.enabled()) {
+            return KeystoneTokenProvider.disabled();
+        }
+        return new KeystoneTokenProvider(clients.forEndpoint(properties.endpoint()), properties, Clock.systemUTC());
+    }
+
+    @Bean
+    public OpenStackCatalogCache openStackCatalogCache(CloudEndpointClients clients,
+                                                       KeystoneTokenProvider keystone,
+                                                       MeterRegistry meterRegistry) {
+        return new OpenStackCatalogCache(clients.forEndpoint("openstack"), keystone, meterRegistry);
+    }
+
     private ExchangeFilterFunction tracingFilter(Tracing tracing) {
         return (request, next) -> {
             var span = tracing.tracer().currentSpan();
@@ -0,0 +1,19 @@
+-- Lease opcional: passado expires_at a VM e removida. Remocoes pedidas (DELETING) vencem na hora
+ALTER TABLE provisioning_requests ADD COLUMN expires_at TIMESTAMP;
+
+-- DELETING de antes desta migracao entra na fila de remocao
+UPDATE provisioning_requests
+SET expires_at = COALESCE(updated_at, created_at)
+WHERE status = 'DELETING';
+
+-- A varredura le so a ponta do indice (ORDER BY expires_at LIMIT n); pedidos sem lease ou ja
+-- finalizados ficam fora dele
+CREATE INDEX idx_provisioning_requests_expiry
+    ON provisioning_requests (expires_at)
+    WHERE status IN ('PENDING_APPROVAL', 'APPROVED', 'PROVISIONING', 'WAITING_ALLOCATION', 'ACTIVE', 'DELETING');
+
+-- VMs removidas (DELETED) sao arquivadas como os outros pedidos finalizados
+DROP INDEX idx_provisioning_requests_terminal;
+CREATE INDEX idx_provisioning_requests_terminal
+    ON provisioning_requests (created_at)
+    WHERE status IN ('FAILED', 'REJECTED', 'DELETED');
@@ -0,0 +1,8 @@
+ALTER TABLE provisioning_requests
+    ADD COLUMN cloud_provider VARCHAR(50),
+    ADD COLUMN cloud_region VARCHAR(100),
+    ADD COLUMN instance_id VARCHAR(255);
+
+-- Lookup por servidor da nuvem: uma unica sonda no indice (NULLs nao conflitam)
+CREATE UNIQUE INDEX uk_provisioning_requests_cloud_instance
+    ON provisioning_requests (cloud_provider, instance_id);
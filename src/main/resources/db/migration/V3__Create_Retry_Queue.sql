@@ -0,0 +1,14 @@
+CREATE TABLE provisioning_retries (
+                                      provisioning_id UUID PRIMARY KEY REFERENCES provisioning_requests (id),
+                                      attempts INT NOT NULL,
+                                      state VARCHAR(20) NOT NULL,
+                                      next_attempt_at TIMESTAMP NOT NULL,
+                                      last_error VARCHAR(1000),
+                                      enqueued_at TIMESTAMP NOT NULL,
+                                      updated_at TIMESTAMP
+);
+
+-- O drain so olha entradas PENDING vencidas; DEAD_LETTER fica fora do indice
+CREATE INDEX idx_provisioning_retries_due
+    ON provisioning_retries (next_attempt_at)
+    WHERE state = 'PENDING';
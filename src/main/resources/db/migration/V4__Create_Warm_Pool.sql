@@ -0,0 +1,18 @@
+CREATE TABLE warm_pool_instances (
+                                     id UUID PRIMARY KEY,
+                                     ram_gb INT NOT NULL,
+                                     cpu_cores INT NOT NULL,
+                                     image VARCHAR(255) NOT NULL,
+                                     cloud_provider VARCHAR(50) NOT NULL,
+                                     cloud_region VARCHAR(100),
+                                     instance_id VARCHAR(255) NOT NULL,
+                                     state VARCHAR(20) NOT NULL,
+                                     booted_at TIMESTAMP NOT NULL,
+                                     ready_at TIMESTAMP,
+                                     CONSTRAINT uk_warm_pool_instances_cloud_instance UNIQUE (cloud_provider, instance_id)
+);
+
+-- O claim so procura instancias READY do mesmo tamanho/imagem, a mais antiga primeiro
+CREATE INDEX idx_warm_pool_instances_ready
+    ON warm_pool_instances (ram_gb, cpu_cores, image, ready_at)
+    WHERE state = 'READY';
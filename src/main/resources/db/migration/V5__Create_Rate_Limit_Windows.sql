@@ -0,0 +1,10 @@
+CREATE TABLE rate_limit_windows (
+                                    username VARCHAR(255) NOT NULL,
+                                    window_start TIMESTAMP NOT NULL,
+                                    consumed INT NOT NULL,
+                                    last_grant INT NOT NULL,
+                                    PRIMARY KEY (username, window_start)
+);
+
+-- Limpeza periodica das janelas antigas
+CREATE INDEX idx_rate_limit_windows_window_start ON rate_limit_windows (window_start);
@@ -0,0 +1,14 @@
+CREATE TABLE idempotency_keys (
+                                  id UUID PRIMARY KEY,
+                                  owner VARCHAR(255) NOT NULL,
+                                  idempotency_key VARCHAR(255) NOT NULL,
+                                  request_hash VARCHAR(64) NOT NULL,
+                                  provisioning_id UUID NOT NULL,
+                                  status VARCHAR(50) NOT NULL,
+                                  created_at TIMESTAMP NOT NULL,
+                                  expires_at TIMESTAMP NOT NULL,
+                                  CONSTRAINT uk_idempotency_keys_owner_key UNIQUE (owner, idempotency_key)
+);
+
+-- A limpeza apaga por faixa de expires_at, em lotes
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
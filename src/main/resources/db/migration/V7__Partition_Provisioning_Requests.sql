@@ -0,0 +1,94 @@
+-- provisioning_requests passa a ser particionada por mes de created_at. A tabela atual vira a
+-- particao historica sem copiar linhas. Com a CHECK validada e os indices ja criados, o ATTACH so
+-- confere o catalogo em vez de varrer a tabela de novo e construir nela os indices do pai.
+--
+-- Indisponibilidade: o Flyway roda a migracao numa transacao so, e o RENAME abaixo ja pega ACCESS
+-- EXCLUSIVE em provisioning_requests ate o commit. Leituras e escritas de pedidos ficam paradas
+-- durante a migracao inteira, inclusive a varredura da CHECK e a criacao dos indices: planeje uma
+-- janela proporcional ao tamanho da tabela. Para encurta-la, crie os indices da particao historica
+-- antes, fora do Flyway, com CONCURRENTLY e os mesmos nomes; a migracao so os adota
+
+-- FK para tabela particionada exigiria created_at em provisioning_retries
+ALTER TABLE provisioning_retries DROP CONSTRAINT provisioning_retries_provisioning_id_fkey;
+
+ALTER TABLE provisioning_requests RENAME TO provisioning_requests_legacy;
+ALTER TABLE provisioning_requests_legacy DROP CONSTRAINT provisioning_requests_pkey;
+ALTER TABLE provisioning_requests_legacy ALTER COLUMN id SET NOT NULL;
+DROP INDEX uk_provisioning_requests_cloud_instance;
+
+-- Mesmos indices do pai, para o ATTACH adota-los em vez de construir
+CREATE UNIQUE INDEX IF NOT EXISTS provisioning_requests_legacy_id_created_at
+    ON provisioning_requests_legacy (id, created_at);
+CREATE INDEX IF NOT EXISTS provisioning_requests_legacy_cloud_instance
+    ON provisioning_requests_legacy (cloud_provider, instance_id);
+CREATE INDEX IF NOT EXISTS provisioning_requests_legacy_terminal
+    ON provisioning_requests_legacy (created_at)
+    WHERE status IN ('FAILED', 'REJECTED');
+
+CREATE TABLE provisioning_requests (
+                                       id UUID NOT NULL,
+                                       requester_username VARCHAR(255) NOT NULL,
+                                       ram VARCHAR(50) NOT NULL,
+                                       cpu VARCHAR(50) NOT NULL,
+                                       status VARCHAR(50) NOT NULL,
+                                       created_at TIMESTAMP NOT NULL,
+                                       updated_at TIMESTAMP,
+                                       cloud_provider VARCHAR(50),
+                                       cloud_region VARCHAR(100),
+                                       instance_id VARCHAR(255),
+                                       PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Indice unico em tabela particionada precisa da chave de particao; o id do Nova ja e um UUID
+CREATE INDEX idx_provisioning_requests_cloud_instance
+    ON provisioning_requests (cloud_provider, instance_id);
+
+-- O arquivamento acha as linhas terminais antigas sem passar pelas que ainda estao em andamento.
+-- ACTIVE fica fora: a VM ainda existe
+CREATE INDEX idx_provisioning_requests_terminal
+    ON provisioning_requests (created_at)
+    WHERE status IN ('FAILED', 'REJECTED');
+
+-- O resto do mes corrente (ou do mes da linha mais nova) cai na particao historica;
+-- os proximos meses ja nascem particionados (o job de arquivamento cria os seguintes)
+DO $$
+DECLARE
+    next_month TIMESTAMP;
+    month_start TIMESTAMP;
+BEGIN
+    SELECT date_trunc('month', GREATEST(localtimestamp, max(created_at))) + INTERVAL '1 month'
+    INTO next_month
+    FROM provisioning_requests_legacy;
+    -- Uma varredura para validar a CHECK; o ATTACH confia nela. Sob o mesmo lock do RENAME
+    EXECUTE format('ALTER TABLE provisioning_requests_legacy ADD CONSTRAINT provisioning_requests_legacy_bounds '
+                       || 'CHECK (created_at < %L)', next_month);
+    EXECUTE format('ALTER TABLE provisioning_requests ATTACH PARTITION provisioning_requests_legacy '
+                       || 'FOR VALUES FROM (MINVALUE) TO (%L)', next_month);
+    ALTER TABLE provisioning_requests_legacy DROP CONSTRAINT provisioning_requests_legacy_bounds;
+    FOR i IN 0..2 LOOP
+        month_start := next_month + make_interval(months => i);
+        EXECUTE format('CREATE TABLE provisioning_requests_p%s PARTITION OF provisioning_requests '
+                           || 'FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+-- Rede de seguranca se o job parar: o insert nunca falha por falta de particao
+CREATE TABLE provisioning_requests_default PARTITION OF provisioning_requests DEFAULT;
+
+-- Destino das linhas terminais antigas, com particoes mensais criadas pelo job conforme arquiva.
+-- So recebe append e leitura por periodo: nenhum indice alem da PK
+CREATE TABLE provisioning_requests_archive (
+                                               id UUID NOT NULL,
+                                               requester_username VARCHAR(255) NOT NULL,
+                                               ram VARCHAR(50) NOT NULL,
+                                               cpu VARCHAR(50) NOT NULL,
+                                               status VARCHAR(50) NOT NULL,
+                                               created_at TIMESTAMP NOT NULL,
+                                               updated_at TIMESTAMP,
+                                               cloud_provider VARCHAR(50),
+                                               cloud_region VARCHAR(100),
+                                               instance_id VARCHAR(255),
+                                               archived_at TIMESTAMP NOT NULL,
+                                               PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
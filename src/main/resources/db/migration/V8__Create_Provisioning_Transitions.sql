@@ -0,0 +1,23 @@
+CREATE TABLE provisioning_transitions (
+                                          id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                                          provisioning_id UUID NOT NULL,
+                                          from_status VARCHAR(50),
+                                          to_status VARCHAR(50) NOT NULL,
+                                          actor VARCHAR(255) NOT NULL,
+                                          occurred_at TIMESTAMP NOT NULL
+);
+
+-- Timeline de um pedido: uma faixa do indice, ja em ordem
+CREATE INDEX idx_provisioning_transitions_request
+    ON provisioning_transitions (provisioning_id, occurred_at);
+
+-- Append-only: historico para analise de SLO nao se corrige, se acrescenta
+CREATE FUNCTION provisioning_transitions_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'provisioning_transitions e append-only (% negado)', TG_OP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_provisioning_transitions_append_only
+    BEFORE UPDATE OR DELETE ON provisioning_transitions
+    FOR EACH ROW EXECUTE FUNCTION provisioning_transitions_append_only();
@@ -0,0 +1,14 @@
+-- Reconciliacao le os pedidos vivos de um dono; terminais e DELETING ficam fora do indice
+CREATE INDEX idx_provisioning_requests_owner_live
+    ON provisioning_requests (requester_username)
+    WHERE status IN ('PENDING_APPROVAL', 'APPROVED', 'PROVISIONING', 'WAITING_ALLOCATION', 'ACTIVE');
+
+-- VMs ativas ja arquivadas voltam para a tabela viva (particoes removidas caem na DEFAULT)
+WITH restored AS (
+    DELETE FROM provisioning_requests_archive WHERE status = 'ACTIVE'
+    RETURNING id, requester_username, ram, cpu, status, created_at, updated_at,
+              cloud_provider, cloud_region, instance_id
+)
+INSERT INTO provisioning_requests (id, requester_username, ram, cpu, status, created_at, updated_at,
+                                   cloud_provider, cloud_region, instance_id)
+SELECT * FROM restored;
@@ -0,0 +1,505 @@
+package com.eziocdl.api.controller;
+
+import com.eziocdl.api.dto.response.VmStatusResponse;
+import com.eziocdl.api.exception.GlobalExceptionHandler;
+import com.eziocdl.application.listener.ProvisioningAsyncListener;
+import com.eziocdl.application.port.in.RetryProvisioningUseCasePort;
+import com.eziocdl.application.port.in.WarmPoolUseCasePort;
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.port.out.ReactiveProvisioningRepositoryPort;
+import com.eziocdl.application.usecase.CreateProvisioningUseCase;
+import com.eziocdl.application.usecase.ReactiveProvisioningUseCase;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import com.eziocdl.infrastructure.adapter.events.RingBufferProvisioningEventPublisher;
+import com.eziocdl.infrastructure.adapter.events.SpringProvisioningEventPublisher;
+import com.eziocdl.infrastructure.adapter.scheduling.WeightedFairScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Reactive provisioning endpoints")
+class ProvisioningHandlerTest {
+
+    private static final String BODY = "{\"username\":\"dev\",\"ram\":\"8GB\",\"cpu\":\"4vCPU\"}";
+    private static final Duration DB_LATENCY = Duration.ofMillis(100);
+    private static final int CONCURRENCY = 5000;
+
+    private final List<ProvisioningRequestedEvent> events = new CopyOnWriteArrayList<>();
+    private final ProvisioningEventPort publisher = events::add;
+
+    @Nested
+    @DisplayName("Routes")
+    class Routes {
+
+        private RateLimiterPort rateLimiter = username -> { };
+
+        private WebTestClient client() {
+            ReactiveProvisioningUseCase useCase = new ReactiveProvisioningUseCase(new DelayedReactiveRepository(Duration.ZERO),
+                    publisher, new PolicyEnforcementService(), username -> rateLimiter.acquire(username));
+            return WebTestClient.bindToRouterFunction(new ProvisioningHandler(useCase, new GlobalExceptionHandler()).routes())
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should create with 201 and hand the request to the scheduler")
+        void shouldCreate() {
+            client().post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON).bodyValue(BODY)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody().jsonPath("$.status").isEqualTo("PENDING_APPROVAL");
+
+            assertThat(events).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should answer policy violations, rate limits and bad bodies like the servlet endpoint")
+        void shouldMapErrors() {
+            client().post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"username\":\"dev\",\"ram\":\"64GB\",\"cpu\":\"4vCPU\"}") // TRAINEE sem autenticacao
+                    .exchange()
+                    .expectStatus().isForbidden()
+                    .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+            client().post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"username\":\"dev\",\"ram\":\"8GB\"}")
+                    .exchange()
+                    .expectStatus().isBadRequest();
+
+            rateLimiter = username -> {
+                throw new RateLimitExceededException(username, 30, Duration.ofMinutes(1), Duration.ofSeconds(12));
+            };
+            client().post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON).bodyValue(BODY)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                    .expectHeader().valueEquals("Retry-After", "12");
+
+            assertThat(events).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should wait for a full event ring off the event loop")
+        void shouldNotBlockEventLoopOnFullRing() {
+            List<String> publishers = new CopyOnWriteArrayList<>();
+            ProvisioningEventPort fullRing = new ProvisioningEventPort() {
+                @Override
+                public void publish(ProvisioningRequestedEvent event) {
+                    publishers.add(Thread.currentThread().getName());
+                    events.add(event);
+                }
+
+                @Override
+                public boolean tryPublish(ProvisioningRequestedEvent event) {
+                    return false;
+                }
+            };
+            ReactiveProvisioningUseCase useCase = new ReactiveProvisioningUseCase(new DelayedReactiveRepository(Duration.ZERO),
+                    fullRing, new PolicyEnforcementService(), username -> { });
+
+            WebTestClient.bindToRouterFunction(new ProvisioningHandler(useCase, new GlobalExceptionHandler()).routes()).build()
+                    .post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON).bodyValue(BODY)
+                    .exchange()
+                    .expectStatus().isCreated();
+
+            assertThat(events).hasSize(1);
+            assertThat(publishers).singleElement().asString().startsWith("boundedElastic");
+        }
+
+        @Test
+        @DisplayName("Should answer 404 for an unknown instance")
+        void shouldReturnNotFound() {
+            client().get().uri("/api/v1/provisioning/instances/srv-unknown")
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+    }
+
+    @Nested
+    @DisplayName("Pipeline to the provisioning worker")
+    class Pipeline {
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final List<UUID> provisioned = new CopyOnWriteArrayList<>();
+        private final List<UUID> tracked = new CopyOnWriteArrayList<>();
+
+        @Test
+        @DisplayName("Should provision a reactive create through the event ring buffer")
+        void shouldReachWorkerThroughRing() {
+            try (WeightedFairScheduler scheduler = scheduler();
+                 RingBufferProvisioningEventPublisher ring = new RingBufferProvisioningEventPublisher(64, listener(scheduler),
+                         registry)) {
+                UUID id = post(ring);
+
+                await().atMost(Duration.ofSeconds(5)).until(() -> tracked.contains(id));
+                assertThat(provisioned).containsExactly(id);
+            }
+        }
+
+        @Test
+        @DisplayName("Should provision a reactive create through the Spring multicaster, with no transaction to wait for")
+        void shouldReachWorkerThroughMulticaster() {
+            try (WeightedFairScheduler scheduler = scheduler();
+                 AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+                context.registerBean(TransactionalEventListenerFactory.class); // O que @EnableTransactionManagement registra
+                context.registerBean(ProvisioningAsyncListener.class, () -> listener(scheduler));
+                context.refresh();
+
+                UUID id = post(new SpringProvisioningEventPublisher(context));
+
+                await().atMost(Duration.ofSeconds(5)).until(() -> tracked.contains(id));
+                assertThat(provisioned).containsExactly(id);
+            }
+        }
+
+        private UUID post(ProvisioningEventPort events) {
+            ReactiveProvisioningUseCase useCase = new ReactiveProvisioningUseCase(new DelayedReactiveRepository(Duration.ZERO),
+                    events, new PolicyEnforcementService(), username -> { });
+            return WebTestClient.bindToRouterFunction(new ProvisioningHandler(useCase, new GlobalExceptionHandler()).routes())
+                    .build()
+                    .post().uri("/api/v1/provisioning").contentType(MediaType.APPLICATION_JSON).bodyValue(BODY)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody(VmStatusResponse.class).returnResult().getResponseBody().id();
+        }
+
+        private WeightedFairScheduler scheduler() {
+            return new WeightedFairScheduler(4, 2, Map.of(), registry);
+        }
+
+        private ProvisioningAsyncListener listener(WeightedFairScheduler scheduler) {
+            CloudProviderPort cloud = new CloudProviderPort() {
+                @Override
+                public CloudInstance provisionInstance(ProvisioningRequest request) {
+                    provisioned.add(request.getId());
+                    return new CloudInstance("openstack", "RegionOne", "srv-" + request.getId());
+                }
+
+                @Override
+                public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+                    return requests.stream().map(this::provisionInstance).toList();
+                }
+
+                @Override
+                public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                    return instances.stream().map(CloudInstance::instanceId).toList();
+                }
+            };
+            RetryProvisioningUseCasePort noRetries = new RetryProvisioningUseCasePort() {
+                @Override
+                public void enqueue(ProvisioningRequest request, String reason) {
+                    throw new AssertionError("Nao deveria ir para a fila de retry");
+                }
+
+                @Override
+                public int drainDue() {
+                    return 0;
+                }
+            };
+            WarmPoolUseCasePort noWarmPool = new WarmPoolUseCasePort() {
+                @Override
+                public Optional<CloudInstance> claim(ProvisioningRequest request) {
+                    return Optional.empty();
+                }
+
+                @Override
+                public int refill() {
+                    return 0;
+                }
+            };
+            return new ProvisioningAsyncListener(cloud, new InMemoryRepository(),
+                    (provisioningId, instance) -> tracked.add(provisioningId), noRetries, noWarmPool, scheduler);
+        }
+    }
+
+    @Test
+    @Tag("perf") // 5k pedidos, RSS e contagem de threads da JVM inteira: ./mvnw -Pperf test
+    @DisplayName("Benchmark: threads and memory to hold 5k concurrent creates, servlet vs reactive")
+    void shouldHoldConcurrencyWithFewThreads() throws Exception {
+        LoopResources clientLoops = LoopResources.create("bench-client", 2, true);
+        ConnectionProvider connections = ConnectionProvider.builder("bench").maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1).build();
+        HttpClient client = HttpClient.create(connections).runOn(clientLoops)
+                .headers(headers -> headers.set("Content-Type", "application/json"));
+        try {
+            Run reactive = runReactive(client);
+            Run servlet = runServlet(client);
+
+            System.out.printf("[Benchmark] %d concurrent creates, %dms DB latency | servlet (thread per request): "
+                            + "+%d threads, +%d MB RSS, p99 %dms | reactive (WebFlux + R2DBC port): +%d threads, +%d MB RSS, p99 %dms%n",
+                    CONCURRENCY, DB_LATENCY.toMillis(), servlet.threads, servlet.rssMb, servlet.p99,
+                    reactive.threads, reactive.rssMb, reactive.p99);
+
+            assertThat(reactive.created).isEqualTo(CONCURRENCY);
+            assertThat(servlet.created).isEqualTo(CONCURRENCY);
+            // Com 1 CPU o accept do kernel serializa as conexoes, entao o servlet nao chega aos 5k threads
+            assertThat(reactive.threads).isLessThan(50);
+            assertThat(servlet.threads).isGreaterThan(20 * Math.max(reactive.threads, 1));
+            assertThat(servlet.rssMb).isGreaterThan(reactive.rssMb);
+        } finally {
+            connections.disposeLater().block();
+            clientLoops.disposeLater().block();
+        }
+    }
+
+    private Run runReactive(HttpClient client) throws InterruptedException {
+        ReactiveProvisioningUseCase useCase = new ReactiveProvisioningUseCase(new DelayedReactiveRepository(DB_LATENCY),
+                publisher, new PolicyEnforcementService(), username -> { });
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(
+                new ProvisioningHandler(useCase, new GlobalExceptionHandler()).routes()));
+        DisposableServer server = HttpServer.create().port(0).option(ChannelOption.SO_BACKLOG, CONCURRENCY)
+                .handle(adapter).bindNow();
+        try {
+            String url = "http://localhost:" + server.port() + "/api/v1/provisioning";
+            fire(client, url, 200); // Aquecimento
+            return measure(() -> fire(client, url, CONCURRENCY));
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    private Run runServlet(HttpClient client) throws Exception {
+        CreateProvisioningUseCase useCase = new CreateProvisioningUseCase(new SleepingRepository(), publisher,
+                new PolicyEnforcementService(), new NoIdempotencyKeys());
+        Path baseDir = Files.createTempDirectory("cpm-bench-tomcat");
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        Connector connector = tomcat.getConnector();
+        connector.setProperty("maxThreads", String.valueOf(CONCURRENCY)); // Um thread por requisicao em voo
+        connector.setProperty("maxConnections", String.valueOf(2 * CONCURRENCY));
+        connector.setProperty("acceptCount", String.valueOf(CONCURRENCY));
+        Context context = tomcat.addContext("", baseDir.toString());
+        Tomcat.addServlet(context, "provisioning", new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.getInputStream().readAllBytes();
+                ProvisioningRequest created = useCase.create("dev", "8GB", "4vCPU");
+                response.setStatus(201);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"id\":\"" + created.getId() + "\",\"status\":\"" + created.getStatus() + "\"}");
+            }
+        });
+        context.addServletMappingDecoded("/api/v1/provisioning", "provisioning");
+        tomcat.start();
+        try {
+            String url = "http://localhost:" + connector.getLocalPort() + "/api/v1/provisioning";
+            fire(client, url, 200);
+            return measure(() -> fire(client, url, CONCURRENCY));
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    /** Sends {@code count} creates at once; returns the latency of each 201, in ms. */
+    private static List<Long> fire(HttpClient client, String url, int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> {
+                    long sent = System.nanoTime();
+                    return client.post().uri(url).send(ByteBufFlux.fromString(Mono.just(BODY)))
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                            .filter(status -> status == 201)
+                            .map(status -> (System.nanoTime() - sent) / 1_000_000);
+                }, count)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+    }
+
+    private static Run measure(java.util.function.Supplier<List<Long>> load) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long baseRss = rssKb();
+        AtomicLong peakRss = new AtomicLong(baseRss);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakRss.accumulateAndGet(rssKb(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        int baseThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        List<Long> latencies = new ArrayList<>(load.get());
+
+        int extraThreads = threads.getPeakThreadCount() - baseThreads;
+        sampler.interrupt();
+        sampler.join();
+        Collections.sort(latencies);
+        long p99 = latencies.isEmpty() ? -1 : latencies.get(latencies.size() * 99 / 100);
+        return new Run(latencies.size(), extraThreads, (peakRss.get() - baseRss) / 1024, p99);
+    }
+
+    private static long rssKb() {
+        try {
+            return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst().orElse(0L);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private record Run(int created, int threads, long rssMb, long p99) {
+    }
+
+    private static final class DelayedReactiveRepository implements ReactiveProvisioningRepositoryPort {
+
+        private final Duration latency;
+
+        private DelayedReactiveRepository(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Mono<ProvisioningRequest> save(ProvisioningRequest request) {
+            return latency.isZero() ? Mono.just(request) : Mono.delay(latency).thenReturn(request);
+        }
+
+        @Override
+        public Mono<ProvisioningRequest> findById(UUID id) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Mono.empty();
+        }
+    }
+
+    private static final class SleepingRepository implements ProvisioningRepositoryPort {
+
+        @Override
+        public ProvisioningRequest save(ProvisioningRequest request) {
+            try {
+                Thread.sleep(DB_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return request;
+        }
+
+        @Override
+        public void update(ProvisioningRequest request) {
+            save(request);
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findById(UUID id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<ProvisioningRequest> findAwaitingServer() {
+            return List.of();
+        }
+    }
+
+    private static final class InMemoryRepository implements ProvisioningRepositoryPort {
+
+        private final Map<UUID, ProvisioningRequest> byId = new ConcurrentHashMap<>();
+
+        @Override
+        public ProvisioningRequest save(ProvisioningRequest request) {
+            byId.put(request.getId(), request);
+            return request;
+        }
+
+        @Override
+        public void update(ProvisioningRequest request) {
+            byId.put(request.getId(), request);
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findById(UUID id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<ProvisioningRequest> findAwaitingServer() {
+            return List.of();
+        }
+    }
+
+    private static final class NoIdempotencyKeys implements IdempotencyKeyPort {
+
+        @Override
+        public Optional<com.eziocdl.domain.model.IdempotencyRecord> find(String owner, String idempotencyKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean reserve(com.eziocdl.domain.model.IdempotencyRecord record) {
+            return true;
+        }
+
+        @Override
+        public int deleteExpired(java.time.LocalDateTime now, int batchSize) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.ProvisioningArchivePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Provisioning archival")
+class ArchiveProvisioningUseCaseTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-10-19T03:00:00Z"), ZoneOffset.UTC);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeArchive archive = new FakeArchive();
+
+    @Test
+    @DisplayName("Should create the coming partitions, archive before the retention cutoff and drop empty partitions")
+    void shouldArchiveBeforeCutoff() {
+        archive.toMove = 2500;
+        archive.toDrop = 1;
+
+        int moved = useCase(true).archive();
+
+        assertThat(moved).isEqualTo(2500);
+        assertThat(archive.calls).containsExactly(
+                "create 2026-10 +3",
+                "archive < 2026-07-21T03:00 by 1000",
+                "drop < 2026-07-21T03:00");
+        assertThat(registry.get("cpm.archive.rows").counter().count()).isEqualTo(2500);
+        assertThat(registry.get("cpm.archive.partitions").tag("action", "created").counter().count()).isEqualTo(3);
+        assertThat(registry.get("cpm.archive.partitions").tag("action", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep creating partitions with archiving disabled")
+    void shouldOnlyCreatePartitionsWhenDisabled() {
+        archive.toMove = 10;
+
+        assertThat(useCase(false).archive()).isZero();
+        assertThat(archive.calls).containsExactly("create 2026-10 +3");
+    }
+
+    @Test
+    @DisplayName("Should survive a failed run and work again on the next one")
+    void shouldSurviveFailure() {
+        ArchiveProvisioningUseCase useCase = useCase(true);
+        archive.failure = new IllegalStateException("lock timeout");
+        archive.toMove = 5;
+
+        assertThat(useCase.archive()).isZero();
+
+        archive.failure = null;
+        assertThat(useCase.archive()).isEqualTo(5);
+    }
+
+    private ArchiveProvisioningUseCase useCase(boolean enabled) {
+        return new ArchiveProvisioningUseCase(archive, registry, clock, enabled, Duration.ofDays(90), 1000, 3);
+    }
+
+    private static final class FakeArchive implements ProvisioningArchivePort {
+
+        private final List<String> calls = new ArrayList<>();
+        private int toMove;
+        private int toDrop;
+        private RuntimeException failure;
+
+        @Override
+        public int createPartitions(YearMonth from, int monthsAhead) {
+            calls.add("create " + from + " +" + monthsAhead);
+            return 3;
+        }
+
+        @Override
+        public int archiveTerminal(LocalDateTime cutoff, int batchSize) {
+            if (failure != null) {
+                throw failure;
+            }
+            calls.add("archive < " + cutoff + " by " + batchSize);
+            return toMove;
+        }
+
+        @Override
+        public int dropEmptyPartitions(LocalDateTime cutoff) {
+            calls.add("drop < " + cutoff);
+            return toDrop;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.application.port.out.ProvisioningLeasePort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.DeprovisionTarget;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.StatusTransition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VM deprovisioning")
+class DeprovisionProvisioningUseCaseTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+    private final FakeStore store = new FakeStore();
+    private final FakeCloud cloud = new FakeCloud();
+    private final List<StatusTransition> logged = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Nested
+    @DisplayName("Lease sweep")
+    class Sweep {
+
+        @Test
+        @DisplayName("Benchmark: 100k expired leases torn down in batches read from the head of the expiry index")
+        void shouldReclaimHundredThousandLeases() {
+            int total = 100_000;
+            for (int i = 0; i < total; i++) {
+                store.add(ProvisioningStatus.ACTIVE, NOW.minusSeconds(total - i), "srv-" + i);
+            }
+            Row notYet = store.add(ProvisioningStatus.ACTIVE, NOW.plusHours(1), "srv-later");
+            Row noLease = store.add(ProvisioningStatus.ACTIVE, null, "srv-forever");
+
+            long start = System.nanoTime();
+            int reclaimed = useCase(100).reclaimDue();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("[Benchmark] %,d expired leases: %,d deleted in %,d ms, %d provider calls of <= %d, "
+                            + "%,d index entries read (a full scan per batch would read %,d)%n", total, reclaimed,
+                    elapsedMs, cloud.batches.size(), cloud.maxBatch(), store.entriesRead,
+                    (long) cloud.batches.size() * store.rows.size());
+            assertThat(reclaimed).isEqualTo(total);
+            assertThat(cloud.batches).hasSize(total / 100).allMatch(batch -> batch == 100);
+            assertThat(store.entriesRead).isLessThanOrEqualTo(total + cloud.batches.size());
+            assertThat(store.count(ProvisioningStatus.DELETED)).isEqualTo(total);
+            assertThat(notYet.status).isEqualTo(ProvisioningStatus.ACTIVE);
+            assertThat(noLease.status).isEqualTo(ProvisioningStatus.ACTIVE);
+            assertThat(logged).hasSize(2 * total); // ACTIVE -> DELETING -> DELETED
+            assertThat(registry.get("cpm.deprovision.requests").tag("outcome", "deleted").counter().count()).isEqualTo(total);
+            assertThat(registry.get("cpm.deprovision.expired").counter().count()).isEqualTo(total);
+            assertThat(registry.get("cpm.deprovision.lag").timer().count()).isEqualTo(total);
+        }
+
+        @Test
+        @DisplayName("Should retry a batch the provider did not confirm once the claim lease is over")
+        void shouldRetryFailedBatch() {
+            Row row = store.add(ProvisioningStatus.ACTIVE, NOW.minusMinutes(1), "srv-1");
+            cloud.failures = 1;
+
+            assertThat(useCase(100).reclaimDue()).isZero();
+            assertThat(row.status).isEqualTo(ProvisioningStatus.DELETING);
+            assertThat(useCase(100).reclaimDue()).isZero(); // Ainda reivindicado: nem chega ao provedor
+            assertThat(cloud.batches).hasSize(1);
+
+            clock.advance(CLAIM_LEASE);
+
+            assertThat(useCase(100).reclaimDue()).isEqualTo(1);
+            assertThat(row.status).isEqualTo(ProvisioningStatus.DELETED);
+            assertThat(registry.get("cpm.deprovision.requests").tag("outcome", "retried").counter().count()).isEqualTo(1);
+            assertThat(logged).extracting(StatusTransition::to)
+                    .containsExactly(ProvisioningStatus.DELETING, ProvisioningStatus.DELETED);
+        }
+
+        @Test
+        @DisplayName("Should leave due leases alone while the provider is unavailable")
+        void shouldWaitForProvider() {
+            Row row = store.add(ProvisioningStatus.ACTIVE, NOW.minusMinutes(1), "srv-1");
+            cloud.available = false;
+
+            assertThat(useCase(100).reclaimDue()).isZero();
+
+            assertThat(row.status).isEqualTo(ProvisioningStatus.ACTIVE);
+            assertThat(store.claims).isZero();
+        }
+
+        @Test
+        @DisplayName("Should finish requests that never got a server, unless a worker recorded one after the claim")
+        void shouldFinishUnallocatedUnlessServerAppeared() {
+            Row never = store.add(ProvisioningStatus.WAITING_ALLOCATION, NOW.minusMinutes(2), null);
+            Row late = store.add(ProvisioningStatus.PROVISIONING, NOW.minusMinutes(1), null);
+            store.afterClaim = () -> late.instance = new CloudInstance("openstack", "RegionOne", "srv-late");
+
+            assertThat(useCase(100).reclaimDue()).isEqualTo(1);
+            assertThat(never.status).isEqualTo(ProvisioningStatus.DELETED);
+            assertThat(late.status).isEqualTo(ProvisioningStatus.DELETING);
+            assertThat(cloud.batches).isEmpty();
+
+            store.afterClaim = () -> { };
+            clock.advance(CLAIM_LEASE);
+
+            assertThat(useCase(100).reclaimDue()).isEqualTo(1);
+            assertThat(late.status).isEqualTo(ProvisioningStatus.DELETED);
+            assertThat(cloud.deleted).containsExactly("srv-late");
+        }
+    }
+
+    @Nested
+    @DisplayName("Explicit deletion")
+    class Explicit {
+
+        @Test
+        @DisplayName("Should make the request due right away and be a no-op when repeated")
+        void shouldDeleteOnRequest() {
+            Row row = store.add(ProvisioningStatus.ACTIVE, null, "srv-1");
+            DeprovisionProvisioningUseCase useCase = useCase(100);
+
+            assertThat(useCase.requestDeletion(row.id)).contains(ProvisioningStatus.DELETING);
+            assertThat(useCase.requestDeletion(row.id)).contains(ProvisioningStatus.DELETING);
+            assertThat(logged).singleElement()
+                    .extracting(StatusTransition::from, StatusTransition::to, StatusTransition::actor)
+                    .containsExactly(ProvisioningStatus.ACTIVE, ProvisioningStatus.DELETING, "dev");
+
+            assertThat(useCase.reclaimDue()).isEqualTo(1);
+            assertThat(row.status).isEqualTo(ProvisioningStatus.DELETED);
+            assertThat(cloud.deleted).containsExactly("srv-1");
+        }
+
+        @Test
+        @DisplayName("Should leave finished requests as they are and report unknown ones")
+        void shouldIgnoreFinished() {
+            Row failed = store.add(ProvisioningStatus.FAILED, null, null);
+
+            assertThat(useCase(100).requestDeletion(failed.id)).contains(ProvisioningStatus.FAILED);
+            assertThat(useCase(100).requestDeletion(UUID.randomUUID())).isEmpty();
+            assertThat(failed.status).isEqualTo(ProvisioningStatus.FAILED);
+            assertThat(logged).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should hide another user's request from a non-admin caller and let an admin delete it")
+        void shouldOnlyLetRequesterOrAdminDelete() {
+            Row row = store.add(ProvisioningStatus.ACTIVE, null, "srv-1");
+            DeprovisionProvisioningUseCase useCase = useCase(100);
+
+            authenticate("mallory", "ROLE_DEV");
+            assertThat(useCase.requestDeletion(row.id)).isEmpty();
+            assertThat(row.status).isEqualTo(ProvisioningStatus.ACTIVE);
+            assertThat(logged).isEmpty();
+
+            authenticate("ops", "ROLE_ADMIN");
+            assertThat(useCase.requestDeletion(row.id)).contains(ProvisioningStatus.DELETING);
+            assertThat(logged).singleElement().extracting(StatusTransition::actor).isEqualTo("ops");
+        }
+
+        @Test
+        @DisplayName("Should let the requester delete their own VM")
+        void shouldLetRequesterDelete() {
+            Row row = store.add(ProvisioningStatus.ACTIVE, null, "srv-1");
+            authenticate("dev", "ROLE_TRAINEE");
+
+            assertThat(useCase(100).requestDeletion(row.id)).contains(ProvisioningStatus.DELETING);
+        }
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private DeprovisionProvisioningUseCase useCase(int batchSize) {
+        TransitionLogPort transitionLog = new TransitionLogPort() {
+            @Override
+            public void append(List<StatusTransition> transitions) {
+                logged.addAll(transitions);
+            }
+
+            @Override
+            public List<StatusTransition> findByProvisioningId(UUID provisioningId) {
+                return List.of();
+            }
+        };
+        return new DeprovisionProvisioningUseCase(store, store, store, cloud, transitionLog, registry, clock,
+                batchSize, CLAIM_LEASE);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static final class Row {
+        private final UUID id = UUID.randomUUID();
+        private final LocalDateTime createdAt = NOW.minusDays(1);
+        private ProvisioningStatus status;
+        private LocalDateTime expiresAt;
+        private CloudInstance instance;
+    }
+
+    /**
+     * provisioning_requests in memory. The due index holds only rows with an expiry that are live or
+     * DELETING, ordered by expiry, like the partial index; claims read it from the head.
+     */
+    private final class FakeStore implements ProvisioningLeasePort, ProvisioningInventoryPort, ProvisioningRepositoryPort {
+
+        private final Map<UUID, Row> rows = new HashMap<>();
+        private final TreeSet<Row> dueIndex = new TreeSet<>(Comparator.comparing((Row row) -> row.expiresAt)
+                .thenComparing(row -> row.id));
+        private long entriesRead;
+        private int claims;
+        private Runnable afterClaim = () -> { };
+
+        Row add(ProvisioningStatus status, LocalDateTime expiresAt, String instanceId) {
+            Row row = new Row();
+            row.status = status;
+            row.expiresAt = expiresAt;
+            row.instance = new CloudInstance(instanceId == null ? null : "openstack", instanceId == null ? null : "RegionOne",
+                    instanceId);
+            rows.put(row.id, row);
+            reindex(row);
+            return row;
+        }
+
+        long count(ProvisioningStatus status) {
+            return rows.values().stream().filter(row -> row.status == status).count();
+        }
+
+        @Override
+        public List<DeprovisionTarget> claimDue(LocalDateTime now, int limit, Duration lease) {
+            claims++;
+            List<DeprovisionTarget> claimed = new ArrayList<>();
+            List<Row> touched = new ArrayList<>();
+            Iterator<Row> head = dueIndex.iterator();
+            while (head.hasNext() && claimed.size() < limit) {
+                Row row = head.next();
+                entriesRead++;
+                if (row.expiresAt.isAfter(now)) {
+                    break;
+                }
+                claimed.add(new DeprovisionTarget(row.id, row.createdAt, row.status, row.expiresAt, row.instance));
+                head.remove();
+                touched.add(row);
+            }
+            for (Row row : touched) {
+                row.status = ProvisioningStatus.DELETING;
+                row.expiresAt = now.plus(lease);
+                reindex(row);
+            }
+            afterClaim.run();
+            return claimed;
+        }
+
+        @Override
+        public List<UUID> markDeleted(List<DeprovisionTarget> targets, LocalDateTime at) {
+            List<UUID> moved = new ArrayList<>();
+            for (DeprovisionTarget target : targets) {
+                Row row = rows.get(target.id());
+                if (row.status == ProvisioningStatus.DELETING && row.instance.equals(target.instance())) {
+                    dueIndex.remove(row);
+                    row.status = ProvisioningStatus.DELETED;
+                    moved.add(row.id);
+                }
+            }
+            return moved;
+        }
+
+        @Override
+        public List<UUID> markDeleting(List<ProvisioningSnapshot> requests, LocalDateTime at) {
+            List<UUID> moved = new ArrayList<>();
+            for (ProvisioningSnapshot request : requests) {
+                Row row = rows.get(request.id());
+                if (row.status.isLive()) {
+                    dueIndex.remove(row);
+                    row.status = ProvisioningStatus.DELETING;
+                    row.expiresAt = at;
+                    reindex(row);
+                    moved.add(row.id);
+                }
+            }
+            return moved;
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findById(UUID id) {
+            return Optional.ofNullable(rows.get(id)).map(row -> ProvisioningRequest.restore(
+                    new ProvisioningSnapshot(row.id, "dev", "8GB", "2vCPU", row.status, row.createdAt)));
+        }
+
+        @Override
+        public void lockOwner(String owner) {
+        }
+
+        @Override
+        public List<ProvisioningSnapshot> findLive(String owner) {
+            return List.of();
+        }
+
+        @Override
+        public void insertAll(List<ProvisioningRequest> requests) {
+        }
+
+        @Override
+        public ProvisioningRequest save(ProvisioningRequest request) {
+            return request;
+        }
+
+        @Override
+        public void update(ProvisioningRequest request) {
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<ProvisioningRequest> findAwaitingServer() {
+            return List.of();
+        }
+
+        private void reindex(Row row) {
+            if (row.expiresAt != null && (row.status.isLive() || row.status == ProvisioningStatus.DELETING)) {
+                dueIndex.add(row);
+            }
+        }
+    }
+
+    private static final class FakeCloud implements CloudProviderPort {
+
+        private final List<Integer> batches = new ArrayList<>();
+        private final List<String> deleted = new ArrayList<>();
+        private boolean available = true;
+        private int failures;
+
+        int maxBatch() {
+            return batches.stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        @Override
+        public CloudInstance provisionInstance(ProvisioningRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> deprovisionInstances(List<CloudInstance> instances) {
+            batches.add(instances.size());
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Nova indisponivel");
+            }
+            List<String> gone = instances.stream().map(CloudInstance::instanceId).toList();
+            deleted.addAll(gone);
+            return gone;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Lookup by cloud instance")
+class FindProvisioningByInstanceUseCaseTest {
+
+    private final ProvisioningRequest owned = new ProvisioningRequest("trainee", "8GB", "4vCPU");
+    private FindProvisioningByInstanceUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        owned.approve();
+        owned.assignInstance(new CloudInstance("openstack", "RegionOne", "srv-1"));
+        useCase = new FindProvisioningByInstanceUseCase(new SingleRequest(owned));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should return the request to its requester")
+    void shouldReturnToRequester() {
+        authenticate("trainee", "TRAINEE");
+
+        assertThat(useCase.find("openstack", "srv-1")).contains(owned);
+    }
+
+    @Test
+    @DisplayName("Should return any user's request to an admin")
+    void shouldReturnToAdmin() {
+        authenticate("ops", "ADMIN");
+
+        assertThat(useCase.find("openstack", "srv-1")).contains(owned);
+    }
+
+    @Test
+    @DisplayName("Should hide another user's request, as if the instance were unknown")
+    void shouldHideFromOtherUsers() {
+        authenticate("intruder", "TRAINEE");
+
+        assertThat(useCase.find("openstack", "srv-1")).isEmpty();
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    private record SingleRequest(ProvisioningRequest request) implements ProvisioningRepositoryPort {
+
+        @Override
+        public ProvisioningRequest save(ProvisioningRequest saved) {
+            return saved;
+        }
+
+        @Override
+        public void update(ProvisioningRequest updated) {
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findById(UUID id) {
+            return Optional.of(request).filter(r -> r.getId().equals(id));
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Optional.of(request)
+                    .filter(r -> cloudProvider.equals(r.getCloudProvider()) && instanceId.equals(r.getInstanceId()));
+        }
+
+        @Override
+        public List<ProvisioningRequest> findAwaitingServer() {
+            return List.of();
+        }
+    }
+}
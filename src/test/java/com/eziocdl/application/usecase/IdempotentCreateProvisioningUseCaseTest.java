@@ -0,0 +1,335 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.in.CreateProvisioningUseCasePort;
+import com.eziocdl.application.port.out.IdempotencyKeyPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.domain.exception.DuplicateIdempotencyKeyException;
+import com.eziocdl.domain.exception.IdempotencyKeyInProgressException;
+import com.eziocdl.domain.exception.IdempotencyKeyMismatchException;
+import com.eziocdl.domain.exception.PolicyViolationException;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import com.eziocdl.domain.model.IdempotencyKey;
+import com.eziocdl.domain.model.IdempotencyRecord;
+import com.eziocdl.domain.model.ProvisioningReceipt;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Idempotency-Key on provisioning creates")
+class IdempotentCreateProvisioningUseCaseTest {
+
+    private final InMemoryIdempotencyKeys keys = new InMemoryIdempotencyKeys();
+    private final FakeCreateUseCase createUseCase = new FakeCreateUseCase();
+    private final CountingRateLimiter rateLimiter = new CountingRateLimiter();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Nested
+    @DisplayName("Replays")
+    class Replays {
+
+        @Test
+        @DisplayName("Should answer a retry with the original receipt from memory")
+        void shouldReplayFromMemory() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+
+            ProvisioningReceipt first = useCase.create("key-1", "dev", "8GB", "4vCPU");
+            int lookups = keys.finds.get();
+            ProvisioningReceipt retry = useCase.create("key-1", "dev", "8GB", "4vCPU");
+
+            assertThat(retry.provisioningId()).isEqualTo(first.provisioningId());
+            assertThat(first.replayed()).isFalse();
+            assertThat(retry.replayed()).isTrue();
+            assertThat(createUseCase.creates.get()).isEqualTo(1);
+            assertThat(keys.finds.get()).isEqualTo(lookups);
+        }
+
+        @Test
+        @DisplayName("Should replay from the table on another replica, or after the entry left the cache")
+        void shouldReplayFromTable() {
+            IdempotentCreateProvisioningUseCase replicaA = replica(1);
+            IdempotentCreateProvisioningUseCase replicaB = replica(1);
+
+            ProvisioningReceipt first = replicaA.create("key-1", "dev", "8GB", "4vCPU");
+            assertThat(replicaB.create("key-1", "dev", "8GB", "4vCPU").provisioningId()).isEqualTo(first.provisioningId());
+
+            replicaA.create("key-2", "dev", "8GB", "4vCPU"); // Tira key-1 do LRU de tamanho 1
+            assertThat(replicaA.create("key-1", "dev", "8GB", "4vCPU").provisioningId()).isEqualTo(first.provisioningId());
+
+            assertThat(createUseCase.creates.get()).isEqualTo(2);
+            assertThat(registry.get("cpm.idempotency.requests").tag("outcome", "stored").counter().count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("Should replay when another replica wins the race on the unique index")
+        void shouldReplayAfterLosingTheRace() {
+            IdempotentCreateProvisioningUseCase replicaA = replica(100);
+            IdempotentCreateProvisioningUseCase replicaB = replica(100);
+            ProvisioningReceipt first = replicaA.create("key-1", "dev", "8GB", "4vCPU");
+            keys.hideNextFind(); // B nao ve o registro no lookup, so no INSERT
+
+            ProvisioningReceipt second = replicaB.create("key-1", "dev", "8GB", "4vCPU");
+
+            assertThat(second.provisioningId()).isEqualTo(first.provisioningId());
+            assertThat(second.replayed()).isTrue();
+            assertThat(createUseCase.creates.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should let concurrent duplicates wait for the call in flight")
+        void shouldCoalesceConcurrentDuplicates() throws Exception {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+            createUseCase.latencyMillis = 50;
+
+            List<Future<ProvisioningReceipt>> calls = new ArrayList<>();
+            try (ExecutorService clients = Executors.newFixedThreadPool(20)) {
+                for (int i = 0; i < 20; i++) {
+                    calls.add(clients.submit(() -> useCase.create("key-1", "dev", "8GB", "4vCPU")));
+                }
+            }
+
+            List<ProvisioningReceipt> receipts = new ArrayList<>();
+            for (Future<ProvisioningReceipt> call : calls) {
+                receipts.add(call.get());
+            }
+            assertThat(receipts).extracting(ProvisioningReceipt::provisioningId).containsOnly(receipts.get(0).provisioningId());
+            assertThat(receipts).filteredOn(receipt -> !receipt.replayed()).hasSize(1);
+            assertThat(createUseCase.creates.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should give up with a conflict when the call in flight takes too long")
+        void shouldTimeOutWaiting() throws Exception {
+            IdempotentCreateProvisioningUseCase useCase = new IdempotentCreateProvisioningUseCase(createUseCase, keys,
+                    rateLimiter, registry, clock, Duration.ofHours(24), 100, Duration.ofMillis(20), 100);
+            createUseCase.latencyMillis = 300;
+
+            try (ExecutorService clients = Executors.newSingleThreadExecutor()) {
+                clients.submit(() -> useCase.create("key-1", "dev", "8GB", "4vCPU"));
+                Thread.sleep(50);
+                assertThatThrownBy(() -> useCase.create("key-1", "dev", "8GB", "4vCPU"))
+                        .isInstanceOf(IdempotencyKeyInProgressException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Guards")
+    class Guards {
+
+        @Test
+        @DisplayName("Should reject a key reused with a different body")
+        void shouldRejectDifferentBody() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+            useCase.create("key-1", "dev", "8GB", "4vCPU");
+
+            assertThatThrownBy(() -> useCase.create("key-1", "dev", "16GB", "4vCPU"))
+                    .isInstanceOf(IdempotencyKeyMismatchException.class);
+            assertThat(createUseCase.creates.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not remember failed creates, so the key can be retried")
+        void shouldNotRememberFailures() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+            createUseCase.failNext = new PolicyViolationException("TRAINEE", "RAM", "16GB", "8GB");
+
+            assertThatThrownBy(() -> useCase.create("key-1", "dev", "8GB", "4vCPU"))
+                    .isInstanceOf(PolicyViolationException.class);
+            assertThat(useCase.create("key-1", "dev", "8GB", "4vCPU").replayed()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should create again once the key expired")
+        void shouldCreateAfterExpiry() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+            ProvisioningReceipt first = useCase.create("key-1", "dev", "8GB", "4vCPU");
+
+            clock.advance(Duration.ofHours(25));
+
+            assertThat(useCase.create("key-1", "dev", "8GB", "4vCPU").provisioningId()).isNotEqualTo(first.provisioningId());
+            assertThat(useCase.purgeExpired()).isZero(); // O registro expirado foi sobrescrito
+        }
+
+        @Test
+        @DisplayName("Should charge the rate limit before each new create and never for a replay")
+        void shouldChargeNewCreatesOnly() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+
+            useCase.create("key-1", "dev", "8GB", "4vCPU");
+            useCase.create("key-1", "dev", "8GB", "4vCPU");
+            useCase.create(null, "dev", "8GB", "4vCPU");
+            assertThat(rateLimiter.charged).containsExactly("dev", "dev");
+            assertThat(createUseCase.chargedBeforeCreate).isTrue();
+
+            rateLimiter.deny = true;
+            assertThatThrownBy(() -> useCase.create("key-2", "dev", "8GB", "4vCPU"))
+                    .isInstanceOf(RateLimitExceededException.class);
+            assertThat(createUseCase.creates.get()).isEqualTo(2); // Negado antes de abrir a transacao do create
+            rateLimiter.deny = false;
+            assertThat(useCase.create("key-2", "dev", "8GB", "4vCPU").replayed()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should create every time without a key and refuse blank keys")
+        void shouldPassThroughWithoutKey() {
+            IdempotentCreateProvisioningUseCase useCase = replica(100);
+
+            useCase.create(null, "dev", "8GB", "4vCPU");
+            useCase.create(null, "dev", "8GB", "4vCPU");
+
+            assertThat(createUseCase.creates.get()).isEqualTo(2);
+            assertThatThrownBy(() -> useCase.create(" ", "dev", "8GB", "4vCPU")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private IdempotentCreateProvisioningUseCase replica(int cacheSize) {
+        return new IdempotentCreateProvisioningUseCase(createUseCase, keys, rateLimiter, registry, clock, Duration.ofHours(24),
+                cacheSize, Duration.ofSeconds(5), 100);
+    }
+
+    /** Does what CreateProvisioningUseCase does with the key: reserve it before creating. */
+    private final class FakeCreateUseCase implements CreateProvisioningUseCasePort {
+
+        private final AtomicInteger creates = new AtomicInteger();
+        private volatile long latencyMillis;
+        private volatile RuntimeException failNext;
+        private volatile boolean chargedBeforeCreate = true;
+
+        @Override
+        public ProvisioningRequest create(String username, String ram, String cpu) {
+            return create(username, ram, cpu, null, null);
+        }
+
+        @Override
+        public ProvisioningRequest create(String username, String ram, String cpu, Duration lease,
+                                          IdempotencyKey idempotencyKey) {
+            sleep(latencyMillis);
+            chargedBeforeCreate &= rateLimiter.charged.size() > creates.get();
+            RuntimeException failure = failNext;
+            if (failure != null) {
+                failNext = null;
+                throw failure;
+            }
+            ProvisioningRequest request = new ProvisioningRequest(username, ram, cpu);
+            if (idempotencyKey != null && !keys.reserve(new IdempotencyRecord(idempotencyKey, request))) {
+                throw new DuplicateIdempotencyKeyException(idempotencyKey.key());
+            }
+            creates.incrementAndGet();
+            return request;
+        }
+    }
+
+    private static final class CountingRateLimiter implements RateLimiterPort {
+
+        private final List<String> charged = new CopyOnWriteArrayList<>();
+        private volatile boolean deny;
+
+        @Override
+        public void acquire(String username) {
+            if (deny) {
+                throw new RateLimitExceededException(username, 10, Duration.ofMinutes(1), Duration.ofSeconds(30));
+            }
+            charged.add(username);
+        }
+    }
+
+    private static final class InMemoryIdempotencyKeys implements IdempotencyKeyPort {
+
+        private final Map<String, IdempotencyRecord> byKey = new HashMap<>();
+        private final AtomicInteger finds = new AtomicInteger();
+        private volatile boolean hideNextFind;
+
+        void hideNextFind() {
+            hideNextFind = true;
+        }
+
+        @Override
+        public synchronized Optional<IdempotencyRecord> find(String owner, String idempotencyKey) {
+            finds.incrementAndGet();
+            if (hideNextFind) {
+                hideNextFind = false;
+                return Optional.empty();
+            }
+            return Optional.ofNullable(byKey.get(owner + '\n' + idempotencyKey));
+        }
+
+        @Override
+        public synchronized boolean reserve(IdempotencyRecord record) {
+            String key = record.getOwner() + '\n' + record.getIdempotencyKey();
+            IdempotencyRecord existing = byKey.get(key);
+            if (existing != null && !existing.isExpired(record.getCreatedAt())) {
+                return false;
+            }
+            byKey.put(key, record);
+            return true;
+        }
+
+        @Override
+        public synchronized int deleteExpired(LocalDateTime now, int batchSize) {
+            int before = byKey.size();
+            byKey.values().removeIf(record -> record.isExpired(now));
+            return before - byKey.size();
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
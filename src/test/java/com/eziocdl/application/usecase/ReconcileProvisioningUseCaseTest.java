@@ -0,0 +1,334 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.ProvisioningEventPort;
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.application.port.out.RateLimiterPort;
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.exception.OwnershipViolationException;
+import com.eziocdl.domain.exception.PolicyViolationException;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.ReconcilePlan;
+import com.eziocdl.domain.model.ResourceQuota;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.StatusTransition;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Desired-state reconciliation")
+class ReconcileProvisioningUseCaseTest {
+
+    private static final String OWNER = "team-payments";
+    private static final ResourceSpec SMALL = new ResourceSpec(2, 1);
+    private static final ResourceSpec MEDIUM = new ResourceSpec(8, 2);
+    private static final Instant NOW = Instant.parse("2026-10-01T12:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeInventory inventory = new FakeInventory();
+    private final List<ProvisioningRequestedEvent> published = new ArrayList<>();
+    private final List<StatusTransition> logged = new ArrayList<>();
+    private final Map<String, Integer> charged = new HashMap<>();
+    private int createBudget = Integer.MAX_VALUE;
+    private final ReconcileProvisioningUseCase useCase = useCase(20_000);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should create the missing VMs and mark the surplus for deletion, pending ones first")
+    void shouldCreateAndDelete() {
+        ProvisioningSnapshot activeSmall = inventory.add("2GB", "1vCPU", ProvisioningStatus.ACTIVE);
+        ProvisioningSnapshot pendingSmall = inventory.add("2gb", "1 vcpu", ProvisioningStatus.APPROVED);
+        ProvisioningSnapshot activeMedium = inventory.add("8GB", "2vCPU", ProvisioningStatus.ACTIVE);
+
+        ReconcilePlan plan = useCase.reconcile(OWNER, desired(SMALL, 1, MEDIUM, 3), false);
+
+        assertThat(plan.toCreate()).containsExactly(MEDIUM, MEDIUM);
+        assertThat(plan.toDelete()).containsExactly(pendingSmall);
+        assertThat(plan.unchanged()).isEqualTo(2);
+        assertThat(inventory.statusOf(activeSmall)).isEqualTo(ProvisioningStatus.ACTIVE);
+        assertThat(inventory.statusOf(pendingSmall)).isEqualTo(ProvisioningStatus.DELETING);
+        assertThat(inventory.statusOf(activeMedium)).isEqualTo(ProvisioningStatus.ACTIVE);
+        assertThat(inventory.locks).isEqualTo(1);
+        assertThat(inventory.markedAt).isEqualTo(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+
+        assertThat(published).hasSize(2).allMatch(event -> event.request().ram().equals("8GB"));
+        assertThat(logged).extracting(StatusTransition::to).containsExactlyInAnyOrder(
+                ProvisioningStatus.PENDING_APPROVAL, ProvisioningStatus.PENDING_APPROVAL, ProvisioningStatus.DELETING);
+        assertThat(registry.get("cpm.reconcile.vms").tag("action", "created").counter().count()).isEqualTo(2);
+        assertThat(registry.get("cpm.reconcile.vms").tag("action", "deleted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give a TRAINEE's new VMs the role's lease, like a plain create")
+    void shouldLeaseForRole() {
+        authenticate(OWNER, "ROLE_TRAINEE");
+
+        useCase.reconcile(OWNER, desired(SMALL, 2, MEDIUM, 0), false);
+
+        assertThat(inventory.inserted).hasSize(2).allSatisfy(request -> assertThat(request.getExpiresAt())
+                .isEqualTo(request.getCreatedAt().plus(ResourceQuota.TRAINEE.defaultLease())));
+    }
+
+    @Test
+    @DisplayName("Should charge every VM it creates to the caller's rate limit, and create none when over it")
+    void shouldChargeRateLimit() {
+        authenticate(OWNER, "ROLE_DEV");
+        inventory.add("8GB", "2vCPU", ProvisioningStatus.ACTIVE);
+        createBudget = 5;
+
+        useCase.reconcile(OWNER, desired(SMALL, 3, MEDIUM, 1), false);
+        assertThat(charged).containsEntry(OWNER, 3);
+
+        published.clear();
+        assertThatThrownBy(() -> useCase.reconcile(OWNER, desired(SMALL, 6, MEDIUM, 1), false))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(inventory.rows).hasSize(4);
+        assertThat(published).isEmpty();
+
+        useCase.reconcile(OWNER, desired(SMALL, 3, MEDIUM, 1), true); // Dry run nao cobra
+        assertThat(charged).containsEntry(OWNER, 3);
+    }
+
+    @Test
+    @DisplayName("Should change nothing when the same desired state is sent again")
+    void shouldBeIdempotent() {
+        inventory.add("8GB", "2vCPU", ProvisioningStatus.ACTIVE);
+        useCase.reconcile(OWNER, desired(SMALL, 2, MEDIUM, 0), false);
+        published.clear();
+        logged.clear();
+
+        ReconcilePlan again = useCase.reconcile(OWNER, desired(SMALL, 2, MEDIUM, 0), false);
+
+        assertThat(again.isEmpty()).isTrue();
+        assertThat(again.unchanged()).isEqualTo(2);
+        assertThat(published).isEmpty();
+        assertThat(logged).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only plan on dry run")
+    void shouldNotApplyOnDryRun() {
+        ProvisioningSnapshot active = inventory.add("8GB", "2vCPU", ProvisioningStatus.ACTIVE);
+
+        ReconcilePlan plan = useCase.reconcile(OWNER, desired(SMALL, 1, MEDIUM, 0), true);
+
+        assertThat(plan.toCreate()).containsExactly(SMALL);
+        assertThat(plan.toDelete()).containsExactly(active);
+        assertThat(inventory.rows).hasSize(1);
+        assertThat(inventory.statusOf(active)).isEqualTo(ProvisioningStatus.ACTIVE);
+        assertThat(inventory.locks).isZero();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject the whole desired state when one size is over quota or too many VMs are asked")
+    void shouldValidateBeforeTouchingInventory() {
+        assertThatThrownBy(() -> useCase.reconcile(OWNER, desired(SMALL, 1, new ResourceSpec(64, 16), 1), false))
+                .isInstanceOf(PolicyViolationException.class);
+        assertThatThrownBy(() -> useCase(10).reconcile(OWNER, desired(SMALL, 6, MEDIUM, 5), false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 10");
+        assertThatThrownBy(() -> useCase.reconcile(OWNER, desired(SMALL, -1, MEDIUM, 0), false))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(inventory.rows).isEmpty();
+        assertThat(inventory.locks).isZero();
+    }
+
+    @Test
+    @DisplayName("Should only let the owner or an admin reconcile an owner's VMs")
+    void shouldRejectOtherCallers() {
+        ProvisioningSnapshot active = inventory.add("8GB", "2vCPU", ProvisioningStatus.ACTIVE);
+        authenticate("mallory", "ROLE_DEV");
+
+        assertThatThrownBy(() -> useCase.reconcile(OWNER, desired(SMALL, 0, MEDIUM, 0), false))
+                .isInstanceOf(OwnershipViolationException.class)
+                .hasMessageContaining("mallory");
+        assertThat(inventory.statusOf(active)).isEqualTo(ProvisioningStatus.ACTIVE);
+        assertThat(inventory.locks).isZero();
+
+        authenticate(OWNER, "ROLE_DEV");
+        assertThat(useCase.reconcile(OWNER, desired(SMALL, 0, MEDIUM, 1), true).isEmpty()).isTrue();
+
+        authenticate("ops", "ROLE_ADMIN");
+        useCase.reconcile(OWNER, desired(SMALL, 0, MEDIUM, 0), false);
+        assertThat(inventory.statusOf(active)).isEqualTo(ProvisioningStatus.DELETING);
+        assertThat(logged).extracting(StatusTransition::actor).containsExactly("ops");
+    }
+
+    @Test
+    @DisplayName("Benchmark: hashed diff of 10k VMs vs pairwise matching")
+    void benchmarkDiff() {
+        int total = 10_000;
+        List<ResourceSpec> sizes = List.of(SMALL, MEDIUM, new ResourceSpec(4, 2), new ResourceSpec(8, 4));
+        List<ProvisioningSnapshot> current = new ArrayList<>(total);
+        Map<ResourceSpec, Integer> desired = new LinkedHashMap<>();
+        for (int i = 0; i < total; i++) {
+            ResourceSpec spec = sizes.get(i % sizes.size());
+            current.add(new ProvisioningSnapshot(new UUID(0, i), OWNER, spec.ramFormatted(), spec.cpuFormatted(),
+                    ProvisioningStatus.ACTIVE, LocalDateTime.now()));
+            desired.merge(sizes.get((i + 1) % 3), 1, Integer::sum); // Distribuicao diferente da atual
+        }
+
+        long start = System.nanoTime();
+        ReconcilePlan plan = ReconcilePlan.diff(desired, current);
+        long hashed = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int pairwiseUnchanged = pairwise(desired, current);
+        long pairwise = System.nanoTime() - start;
+
+        System.out.printf("[Benchmark] diff of %,d VMs: hashed %.2f ms, pairwise %.2f ms (%d to create, %d to delete)%n",
+                total, hashed / 1e6, pairwise / 1e6, plan.toCreate().size(), plan.toDelete().size());
+        assertThat(plan.unchanged()).isEqualTo(pairwiseUnchanged);
+        assertThat(plan.unchanged() + plan.toCreate().size()).isEqualTo(total);
+        assertThat(plan.unchanged() + plan.toDelete().size()).isEqualTo(total);
+        assertThat(hashed).isLessThan(pairwise);
+    }
+
+    /** Naive matching: each desired VM scans the current list for a free VM of the same size. */
+    private static int pairwise(Map<ResourceSpec, Integer> desired, List<ProvisioningSnapshot> current) {
+        List<ResourceSpec> specs = current.stream().map(vm -> ResourceSpec.of(vm.ram(), vm.cpu())).toList();
+        boolean[] taken = new boolean[specs.size()];
+        int unchanged = 0;
+        for (Map.Entry<ResourceSpec, Integer> entry : desired.entrySet()) {
+            ResourceSpec wanted = entry.getKey();
+            for (int n = 0; n < entry.getValue(); n++) {
+                for (int i = 0; i < specs.size(); i++) {
+                    ResourceSpec spec = specs.get(i);
+                    if (!taken[i] && spec.ramGb() == wanted.ramGb() && spec.cpuCores() == wanted.cpuCores()) {
+                        taken[i] = true;
+                        unchanged++;
+                        break;
+                    }
+                }
+            }
+        }
+        return unchanged;
+    }
+
+    private ReconcileProvisioningUseCase useCase(int maxVms) {
+        ProvisioningEventPort events = published::add;
+        TransitionLogPort transitionLog = new TransitionLogPort() {
+            @Override
+            public void append(List<StatusTransition> transitions) {
+                logged.addAll(transitions);
+            }
+
+            @Override
+            public List<StatusTransition> findByProvisioningId(UUID provisioningId) {
+                return List.of();
+            }
+        };
+        RateLimiterPort rateLimiter = new RateLimiterPort() {
+            @Override
+            public void acquire(String username) {
+                acquire(username, 1);
+            }
+
+            @Override
+            public void acquire(String username, int permits) {
+                if (charged.getOrDefault(username, 0) + permits > createBudget) {
+                    throw new RateLimitExceededException(username, createBudget, Duration.ofMinutes(1),
+                            Duration.ofSeconds(30));
+                }
+                charged.merge(username, permits, Integer::sum);
+            }
+        };
+        return new ReconcileProvisioningUseCase(inventory, events, transitionLog, new PolicyEnforcementService(),
+                rateLimiter, Clock.fixed(NOW, ZoneOffset.UTC), registry, maxVms);
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private static Map<ResourceSpec, Integer> desired(ResourceSpec a, int countA, ResourceSpec b, int countB) {
+        Map<ResourceSpec, Integer> desired = new LinkedHashMap<>();
+        desired.put(a, countA);
+        desired.put(b, countB);
+        return desired;
+    }
+
+    private static final class FakeInventory implements ProvisioningInventoryPort {
+
+        private final Map<UUID, ProvisioningSnapshot> rows = new LinkedHashMap<>();
+        private final List<ProvisioningRequest> inserted = new ArrayList<>();
+        private int locks;
+        private LocalDateTime markedAt;
+
+        ProvisioningSnapshot add(String ram, String cpu, ProvisioningStatus status) {
+            ProvisioningSnapshot snapshot = new ProvisioningSnapshot(UUID.randomUUID(), OWNER, ram, cpu, status,
+                    LocalDateTime.now());
+            rows.put(snapshot.id(), snapshot);
+            return snapshot;
+        }
+
+        ProvisioningStatus statusOf(ProvisioningSnapshot snapshot) {
+            return rows.get(snapshot.id()).status();
+        }
+
+        @Override
+        public void lockOwner(String owner) {
+            locks++;
+        }
+
+        @Override
+        public List<ProvisioningSnapshot> findLive(String owner) {
+            return rows.values().stream()
+                    .filter(row -> row.requesterUsername().equals(owner) && row.status().isLive())
+                    .toList();
+        }
+
+        @Override
+        public void insertAll(List<ProvisioningRequest> requests) {
+            inserted.addAll(requests);
+            requests.forEach(request -> rows.put(request.getId(), request.snapshot()));
+        }
+
+        @Override
+        public List<UUID> markDeleting(List<ProvisioningSnapshot> requests, LocalDateTime at) {
+            markedAt = at;
+            Set<UUID> moved = new HashSet<>();
+            for (ProvisioningSnapshot request : requests) {
+                ProvisioningSnapshot row = rows.get(request.id());
+                if (row != null && row.status().isLive()) {
+                    rows.put(row.id(), new ProvisioningSnapshot(row.id(), row.requesterUsername(), row.ram(),
+                            row.cpu(), ProvisioningStatus.DELETING, row.createdAt()));
+                    moved.add(row.id());
+                }
+            }
+            return List.copyOf(moved);
+        }
+    }
+}
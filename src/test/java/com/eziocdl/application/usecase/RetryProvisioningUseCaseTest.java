@@ -0,0 +1,393 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.application.port.out.RetryQueuePort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningRetry;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.RetryState;
+import com.eziocdl.infrastructure.adapter.cloud.CloudEndpointClients;
+import com.eziocdl.infrastructure.adapter.cloud.KeystoneTokenProvider;
+import com.eziocdl.infrastructure.adapter.cloud.OpenStackAdapter;
+import com.eziocdl.infrastructure.adapter.cloud.OpenStackCatalogCache;
+import com.eziocdl.infrastructure.config.CloudEndpointProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Durable retry queue against a flaky Nova")
+class RetryProvisioningUseCaseTest {
+
+    private static final Pattern NAME = Pattern.compile("\"name\":\\s*\"([^\"]+)\"");
+    private static final Pattern MIN_COUNT = Pattern.compile("\"min_count\":\\s*(\\d+)");
+
+    private final AtomicBoolean novaUp = new AtomicBoolean(false);
+    private final AtomicInteger createCalls = new AtomicInteger();
+    private final AtomicInteger serverSeq = new AtomicInteger();
+    private final Map<String, List<String>> reservations = new ConcurrentHashMap<>();
+
+    private final InMemoryRequests requests = new InMemoryRequests();
+    private final InMemoryRetryQueue queue = new InMemoryRetryQueue();
+    private final List<String> tracked = new CopyOnWriteArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private DisposableServer nova;
+    private CloudEndpointClients clients;
+
+    @BeforeEach
+    void setUp() {
+        nova = HttpServer.create().host("127.0.0.1").port(0)
+                .route(routes -> routes
+                        .get("/flavors/detail", (req, res) -> json(res,
+                                "{\"flavors\":[{\"id\":\"4\",\"name\":\"m1.large\",\"vcpus\":4,\"ram\":8192}]}"))
+                        .get("/images", (req, res) -> json(res, "{\"images\":[]}"))
+                        .post("/servers", (req, res) -> req.receive().aggregate().asString().flatMap(body -> {
+                            createCalls.incrementAndGet();
+                            if (!novaUp.get()) {
+                                return res.status(503).send().then();
+                            }
+                            Matcher count = MIN_COUNT.matcher(body);
+                            if (!count.find()) {
+                                return json(res, "{\"server\":{\"id\":\"srv-" + serverSeq.incrementAndGet() + "\"}}");
+                            }
+                            Matcher name = NAME.matcher(body);
+                            name.find();
+                            String reservationId = "r-" + serverSeq.incrementAndGet();
+                            reservations.put(reservationId, IntStream.rangeClosed(1, Integer.parseInt(count.group(1)))
+                                    .mapToObj(i -> "{\"id\":\"srv-" + serverSeq.incrementAndGet()
+                                            + "\",\"name\":\"" + name.group(1) + "-" + i + "\",\"status\":\"BUILD\"}")
+                                    .toList());
+                            return json(res, "{\"reservation_id\":\"" + reservationId + "\"}");
+                        }))
+                        .get("/servers/detail", (req, res) -> {
+                            String reservationId = req.uri().substring(req.uri().indexOf("reservation_id=") + 15);
+                            return json(res, "{\"servers\":[" + String.join(",", reservations.get(reservationId)) + "]}");
+                        }))
+                .bindNow();
+
+        var pool = new CloudEndpointProperties.Pool(10, 100, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+        clients = new CloudEndpointClients(WebClient.builder(), new CloudEndpointProperties(Map.of("openstack",
+                new CloudEndpointProperties.Endpoint("http://127.0.0.1:" + nova.port(), Duration.ofSeconds(1),
+                        Duration.ofSeconds(3), true, false, pool))));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clients.destroy();
+        nova.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should hold retries while the circuit is open and recover everything once Nova is back")
+    void shouldRecoverAfterOutage() {
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(300))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        RetryProvisioningUseCase useCase = useCase(breakers, 5);
+        List<ProvisioningRequest> pending = enqueue(useCase, 20);
+
+        // Outage: the first drains fail and open the circuit; while open nothing reaches Nova
+        for (int i = 0; i < 3; i++) {
+            clock.advance(Duration.ofSeconds(10));
+            assertThat(useCase.drainDue()).isZero();
+        }
+        assertThat(breakers.circuitBreaker("openstack").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        int callsWhileOpen = createCalls.get();
+        clock.advance(Duration.ofSeconds(10));
+        useCase.drainDue();
+        assertThat(createCalls).hasValue(callsWhileOpen);
+
+        novaUp.set(true);
+        await().atMost(Duration.ofSeconds(2))
+                .until(() -> breakers.circuitBreaker("openstack").getState() != CircuitBreaker.State.OPEN);
+        for (int i = 0; i < 5 && queue.countPending() > 0; i++) {
+            clock.advance(Duration.ofSeconds(10));
+            useCase.drainDue();
+        }
+
+        assertThat(queue.countPending()).isZero();
+        assertThat(pending).allSatisfy(request -> {
+            assertThat(request.getStatus()).isEqualTo(ProvisioningStatus.PROVISIONING);
+            assertThat(request.getInstanceId()).startsWith("srv-");
+        });
+        assertThat(tracked).hasSize(20);
+        assertThat(registry.get("cpm.retry.attempts").tag("outcome", "recovered").counter().count()).isEqualTo(20);
+        assertThat(registry.get("cpm.retry.recovery").timer().count()).isEqualTo(20);
+        assertThat(registry.get("cpm.retry.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should dead-letter and fail requests once attempts run out")
+    void shouldDeadLetterAfterMaxAttempts() {
+        CircuitBreakerRegistry neverOpens = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(100)
+                .minimumNumberOfCalls(1_000)
+                .build());
+        RetryProvisioningUseCase useCase = useCase(neverOpens, 3);
+        ProvisioningRequest request = enqueue(useCase, 1).get(0);
+
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            useCase.drainDue();
+        }
+
+        assertThat(request.getStatus()).isEqualTo(ProvisioningStatus.FAILED);
+        assertThat(queue.entries.get(request.getId()).getState()).isEqualTo(RetryState.DEAD_LETTER);
+        assertThat(queue.entries.get(request.getId()).getAttempts()).isEqualTo(3);
+        assertThat(createCalls).hasValue(2); // Attempt 1 was the original call that fell back
+        assertThat(registry.get("cpm.retry.attempts").tag("outcome", "dead_letter").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail the request right away when max-attempts is 1")
+    void shouldDeadLetterOnEnqueueWithSingleAttempt() {
+        RetryProvisioningUseCase useCase = useCase(CircuitBreakerRegistry.ofDefaults(), 1);
+        ProvisioningRequest request = enqueue(useCase, 1).get(0);
+
+        ProvisioningRetry retry = queue.entries.get(request.getId());
+        assertThat(retry.getState()).isEqualTo(RetryState.DEAD_LETTER);
+        assertThat(retry.getNextAttemptAt()).isNotNull(); // NOT NULL na tabela
+        assertThat(request.getStatus()).isEqualTo(ProvisioningStatus.FAILED);
+        assertThat(registry.get("cpm.retry.attempts").tag("outcome", "dead_letter").counter().count()).isEqualTo(1);
+
+        novaUp.set(true);
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(useCase.drainDue()).isZero();
+        assertThat(createCalls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should not retry before the backoff expires")
+    void shouldRespectBackoff() {
+        RetryProvisioningUseCase useCase = useCase(CircuitBreakerRegistry.ofDefaults(), 5);
+        novaUp.set(true);
+        enqueue(useCase, 3);
+
+        assertThat(useCase.drainDue()).isZero();
+        assertThat(createCalls).hasValue(0);
+
+        clock.advance(Duration.ofSeconds(2)); // base-delay 1s: the first backoff is at most 1s
+        assertThat(useCase.drainDue()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should keep a deletion asked while the request waited in the queue, with its lease")
+    void shouldNotOverwriteDeletion() {
+        RetryProvisioningUseCase useCase = useCase(CircuitBreakerRegistry.ofDefaults(), 5);
+        ProvisioningRequest stored = new ProvisioningRequest("trainee", "8GB", "4vCPU");
+        stored.lease(Duration.ofDays(7));
+        requests.save(stored);
+        // O evento chega com o snapshot de antes da remocao, sem lease nem colunas de nuvem
+        ProvisioningRequest fromEvent = ProvisioningRequest.restore(stored.snapshot());
+        stored.requestDeletion("trainee");
+
+        useCase.enqueue(fromEvent, "Provedor indisponivel (fallback)");
+        novaUp.set(true);
+        clock.advance(Duration.ofSeconds(2));
+        useCase.drainDue();
+
+        ProvisioningRequest row = requests.findById(stored.getId()).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(ProvisioningStatus.DELETING);
+        assertThat(row.getExpiresAt()).isNotNull();
+        assertThat(createCalls).hasValue(0);
+        assertThat(queue.countPending()).isZero();
+    }
+
+    private RetryProvisioningUseCase useCase(CircuitBreakerRegistry breakers, int maxAttempts) {
+        OpenStackCatalogCache catalog = new OpenStackCatalogCache(clients.forEndpoint("openstack"),
+                KeystoneTokenProvider.disabled(), registry);
+        catalog.refresh();
+        OpenStackAdapter adapter = new OpenStackAdapter(clients, KeystoneTokenProvider.disabled(), catalog,
+                breakers, "ubuntu-22.04", "RegionOne");
+        return new RetryProvisioningUseCase(queue, requests, guarded(adapter, breakers.circuitBreaker("openstack")),
+                (provisioningId, instance) -> tracked.add(instance.instanceId()), registry, clock,
+                maxAttempts, Duration.ofSeconds(1), Duration.ofSeconds(10), 50, Duration.ofMinutes(2));
+    }
+
+    /** Stands in for the Spring proxy behind {@code @CircuitBreaker(fallbackMethod = ...)}. */
+    private static CloudProviderPort guarded(OpenStackAdapter adapter, CircuitBreaker breaker) {
+        return new CloudProviderPort() {
+            @Override
+            public CloudInstance provisionInstance(ProvisioningRequest request) {
+                return provisionInstances(List.of(request)).get(0);
+            }
+
+            @Override
+            public List<CloudInstance> provisionInstances(List<ProvisioningRequest> batch) {
+                try {
+                    return breaker.executeSupplier(() -> adapter.provisionInstances(batch));
+                } catch (RuntimeException e) {
+                    return adapter.fallbackProvisionBatch(batch, e);
+                }
+            }
+
+            @Override
+            public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                try {
+                    return breaker.executeSupplier(() -> adapter.deprovisionInstances(instances));
+                } catch (RuntimeException e) {
+                    return adapter.fallbackDeprovision(instances, e);
+                }
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return adapter.isAvailable();
+            }
+        };
+    }
+
+    private List<ProvisioningRequest> enqueue(RetryProvisioningUseCase useCase, int count) {
+        List<ProvisioningRequest> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProvisioningRequest request = requests.save(new ProvisioningRequest("trainee", "8GB", "4vCPU"));
+            useCase.enqueue(request, "Provedor indisponivel (fallback)");
+            created.add(request);
+        }
+        return created;
+    }
+
+    private static Mono<Void> json(HttpServerResponse res, String body) {
+        return res.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+    }
+
+    private static final class InMemoryRequests implements ProvisioningRepositoryPort {
+
+        private final Map<UUID, ProvisioningRequest> byId = new ConcurrentHashMap<>();
+
+        @Override
+        public ProvisioningRequest save(ProvisioningRequest request) {
+            byId.put(request.getId(), request);
+            return request;
+        }
+
+        @Override
+        public void update(ProvisioningRequest request) {
+            // Como o UPDATE guardado: uma remocao ja gravada vence o progresso do worker
+            byId.compute(request.getId(), (id, stored) -> stored != null
+                    && (stored.getStatus() == ProvisioningStatus.DELETING || stored.getStatus() == ProvisioningStatus.DELETED)
+                    ? stored : request);
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findById(UUID id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        @Override
+        public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return byId.values().stream()
+                    .filter(r -> cloudProvider.equals(r.getCloudProvider()) && instanceId.equals(r.getInstanceId()))
+                    .findFirst();
+        }
+
+        @Override
+        public List<ProvisioningRequest> findAwaitingServer() {
+            return byId.values().stream()
+                    .filter(r -> r.getStatus() == ProvisioningStatus.PROVISIONING && r.getInstanceId() != null)
+                    .toList();
+        }
+    }
+
+    private static final class InMemoryRetryQueue implements RetryQueuePort {
+
+        private final Map<UUID, ProvisioningRetry> entries = Collections.synchronizedMap(new java.util.LinkedHashMap<>());
+
+        @Override
+        public ProvisioningRetry save(ProvisioningRetry retry) {
+            entries.put(retry.getProvisioningId(), retry);
+            return retry;
+        }
+
+        @Override
+        public synchronized List<ProvisioningRetry> claimDue(LocalDateTime now, int limit, Duration lease) {
+            List<ProvisioningRetry> due = entries.values().stream()
+                    .filter(r -> r.getState() == RetryState.PENDING && !r.getNextAttemptAt().isAfter(now))
+                    .sorted(Comparator.comparing(ProvisioningRetry::getNextAttemptAt))
+                    .limit(limit)
+                    .toList();
+            due.forEach(r -> r.lease(now.plus(lease)));
+            return due;
+        }
+
+        @Override
+        public void remove(UUID provisioningId) {
+            entries.remove(provisioningId);
+        }
+
+        @Override
+        public long countPending() {
+            return entries.values().stream().filter(r -> r.getState() == RetryState.PENDING).count();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.eziocdl.application.usecase;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.WarmPoolPort;
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.ResourceSpec;
+import com.eziocdl.domain.model.WarmInstance;
+import com.eziocdl.domain.model.WarmInstanceState;
+import com.eziocdl.domain.model.WarmPoolTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Warm pool of pre-booted servers")
+class WarmPoolUseCaseTest {
+
+    private static final ResourceSpec TRAINEE = new ResourceSpec(8, 4);
+
+    private final InMemoryWarmPool pool = new InMemoryWarmPool();
+    private final List<UUID> tracked = new CopyOnWriteArrayList<>();
+    private final AtomicInteger serverSeq = new AtomicInteger();
+    private final AtomicBoolean cloudUp = new AtomicBoolean(true);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final CloudProviderPort cloud = new CloudProviderPort() {
+        @Override
+        public CloudInstance provisionInstance(ProvisioningRequest request) {
+            return provisionInstances(List.of(request)).get(0);
+        }
+
+        @Override
+        public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+            return requests.stream()
+                    .map(r -> new CloudInstance("openstack", "RegionOne", "srv-" + serverSeq.incrementAndGet()))
+                    .toList();
+        }
+
+        @Override
+        public List<String> deprovisionInstances(List<CloudInstance> instances) {
+            return instances.stream().map(CloudInstance::instanceId).toList();
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return cloudUp.get();
+        }
+    };
+
+    @Nested
+    @DisplayName("Claiming")
+    class Claiming {
+
+        @Test
+        @DisplayName("Should serve a matching request from a READY server and count the hit")
+        void shouldServeFromReadyServer() {
+            WarmPoolUseCase warmPool = warmPool(2, 10);
+            warmPool.refill();
+            activateAll(warmPool);
+
+            Optional<CloudInstance> claimed = warmPool.claim(trainee());
+
+            assertThat(claimed).hasValueSatisfying(instance -> assertThat(instance.instanceId()).startsWith("srv-"));
+            assertThat(pool.count(TRAINEE, "ubuntu-22.04", WarmInstanceState.READY)).isEqualTo(1);
+            assertThat(claims("hit")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should miss while servers are still booting")
+        void shouldMissWhileBooting() {
+            WarmPoolUseCase warmPool = warmPool(2, 10);
+            warmPool.refill();
+
+            assertThat(warmPool.claim(trainee())).isEmpty();
+            assertThat(claims("miss")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should ignore sizes without a pool")
+        void shouldIgnoreUnpooledSizes() {
+            WarmPoolUseCase warmPool = warmPool(2, 10);
+
+            assertThat(warmPool.claim(new ProvisioningRequest("dev", "32GB", "8vCPU"))).isEmpty();
+            assertThat(claims("hit") + claims("miss")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should never hand out servers built from a previous default image")
+        void shouldMatchImage() {
+            WarmPoolUseCase oldImage = warmPool(1, 1);
+            oldImage.refill();
+            activateAll(oldImage);
+            WarmPoolUseCase newImage = new WarmPoolUseCase(pool, cloud, (id, instance) -> tracked.add(id), registry, clock,
+                    List.of(new WarmPoolTarget(TRAINEE, 1, 1)), "ubuntu-24.04", Duration.ofMinutes(3), Duration.ofMinutes(10));
+
+            assertThat(newImage.claim(trainee())).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Refilling")
+    class Refilling {
+
+        @Test
+        @DisplayName("Should keep the minimum size and track every new server")
+        void shouldBootMinimum() {
+            WarmPoolUseCase warmPool = warmPool(3, 10);
+
+            assertThat(warmPool.refill()).isEqualTo(3);
+            assertThat(warmPool.refill()).isZero(); // BOOTING ones count toward the target
+
+            assertThat(tracked).hasSize(3);
+            assertThat(pool.count(TRAINEE, "ubuntu-22.04", WarmInstanceState.BOOTING)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should grow with recent demand and shrink back once it fades")
+        void shouldFollowDecayedDemand() {
+            WarmPoolUseCase warmPool = warmPool(1, 50);
+            for (int i = 0; i < 1800; i++) { // 1 request/s for 30 minutes, boot time 30s
+                warmPool.claim(trainee());
+                clock.advance(Duration.ofSeconds(1));
+            }
+            warmPool.refill();
+            double grown = registry.get("cpm.warmpool.target").gauge().value();
+
+            clock.advance(Duration.ofHours(2));
+            warmPool.refill();
+            double faded = registry.get("cpm.warmpool.target").gauge().value();
+
+            System.out.printf("[Benchmark] warm pool target at 1 req/s with 30s boot: %.0f | after 2h idle: %.0f%n", grown, faded);
+            assertThat(grown).isBetween(25.0, 35.0);
+            assertThat(faded).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should not boot while the cloud is unavailable")
+        void shouldWaitForCloud() {
+            cloudUp.set(false);
+
+            assertThat(warmPool(3, 10).refill()).isZero();
+            assertThat(tracked).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should drop servers that fail to boot and replace them on the next refill")
+        void shouldReplaceFailedBoots() {
+            WarmPoolUseCase warmPool = warmPool(2, 10);
+            warmPool.refill();
+
+            warmPool.handleInstanceStatusChanged(new InstanceStatusChangedEvent(tracked.get(0), "srv-1",
+                    ProvisioningStatus.FAILED, "ERROR"));
+
+            assertThat(pool.byId).hasSize(1);
+            assertThat(warmPool.refill()).isEqualTo(1);
+            assertThat(registry.get("cpm.warmpool.boots").tag("outcome", "failed").counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should hand BOOTING servers back to the tracker after a restart and settle them once")
+        void shouldResumeBootingAfterRestart() {
+            warmPool(2, 10).refill();
+            tracked.clear();
+
+            WarmPoolUseCase restarted = warmPool(2, 10);
+            assertThat(restarted.resumeBooting()).isEqualTo(2);
+            assertThat(tracked).containsExactlyInAnyOrderElementsOf(pool.byId.keySet());
+
+            activateAll(restarted);
+            WarmInstance first = pool.byId.get(tracked.get(0));
+            restarted.handleInstanceStatusChanged(new InstanceStatusChangedEvent(first.getId(),
+                    first.getInstanceId(), ProvisioningStatus.ACTIVE, "ACTIVE")); // Segunda replica
+
+            assertThat(pool.byId.values()).allMatch(WarmInstance::isReady);
+            assertThat(restarted.refill()).isZero();
+        }
+    }
+
+    private WarmPoolUseCase warmPool(int minSize, int maxSize) {
+        return new WarmPoolUseCase(pool, cloud, (id, instance) -> tracked.add(id), registry, clock,
+                List.of(new WarmPoolTarget(TRAINEE, minSize, maxSize)), "ubuntu-22.04",
+                Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    private void activateAll(WarmPoolUseCase warmPool) {
+        pool.byId.values().stream()
+                .filter(instance -> instance.getState() == WarmInstanceState.BOOTING)
+                .toList()
+                .forEach(instance -> warmPool.handleInstanceStatusChanged(new InstanceStatusChangedEvent(
+                        instance.getId(), instance.getInstanceId(), ProvisioningStatus.ACTIVE, "ACTIVE")));
+    }
+
+    private double claims(String outcome) {
+        return registry.get("cpm.warmpool.claims").tag("outcome", outcome).counter().count();
+    }
+
+    private static ProvisioningRequest trainee() {
+        return new ProvisioningRequest("trainee", "8GB", "4vCPU");
+    }
+
+    private static final class InMemoryWarmPool implements WarmPoolPort {
+
+        private final Map<UUID, WarmInstance> byId = new ConcurrentHashMap<>();
+
+        @Override
+        public WarmInstance save(WarmInstance instance) {
+            byId.put(instance.getId(), instance);
+            return instance;
+        }
+
+        @Override
+        public Optional<WarmInstance> findById(UUID id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        @Override
+        public synchronized Optional<WarmInstance> claimReady(ResourceSpec spec, String image) {
+            Optional<WarmInstance> oldest = byId.values().stream()
+                    .filter(i -> i.isReady() && i.resourceSpec().equals(spec) && i.getImage().equals(image))
+                    .min(Comparator.comparing(WarmInstance::getReadyAt));
+            oldest.ifPresent(i -> byId.remove(i.getId()));
+            return oldest;
+        }
+
+        @Override
+        public void remove(UUID id) {
+            byId.remove(id);
+        }
+
+        @Override
+        public long count(ResourceSpec spec, String image, WarmInstanceState state) {
+            return byId.values().stream()
+                    .filter(i -> i.getState() == state && i.resourceSpec().equals(spec) && i.getImage().equals(image))
+                    .count();
+        }
+
+        @Override
+        public List<WarmInstance> findBooting() {
+            return byId.values().stream().filter(i -> i.getState() == WarmInstanceState.BOOTING).toList();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.eziocdl.architecture;
+
+import com.eziocdl.api.controller.ProvisioningHandler;
+import com.eziocdl.api.exception.GlobalExceptionHandler;
+import com.eziocdl.application.port.in.ReactiveProvisioningUseCasePort;
+import com.eziocdl.application.port.out.ReactiveProvisioningRepositoryPort;
+import com.eziocdl.application.usecase.ReactiveProvisioningUseCase;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.service.PolicyEnforcementService;
+import com.eziocdl.infrastructure.adapter.diagnostics.BlockingCallDetector;
+import com.eziocdl.infrastructure.adapter.diagnostics.BlockingCallDetector.Kind;
+import com.eziocdl.infrastructure.adapter.events.RingBufferProvisioningEventPublisher;
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.library.freeze.FreezingArchRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keeps blocking work off the event loop.
+ *
+ * Static rules: the reactive stack may not depend on JDBC, JPA or LDAP, and {@code block()} calls are
+ * frozen (archunit_store): the existing ones, made from provisioning workers, are recorded, any new
+ * one fails the build. Runtime check: the reactive endpoints run on Reactor Netty under the
+ * {@link BlockingCallDetector} and must not block a non-blocking thread nor pin a virtual thread.
+ */
+@DisplayName("Non-blocking Rules")
+class NonBlockingArchitectureTest {
+
+    private static JavaClasses classes;
+
+    @BeforeAll
+    static void setup() {
+        classes = new ClassFileImporter()
+                .withImportOption(ImportOption.Predefined.DO_NOT_INCLUDE_TESTS)
+                .importPackages("com.eziocdl");
+    }
+
+    @Nested
+    @DisplayName("Static Rules")
+    class StaticRules {
+
+        @Test
+        @DisplayName("Reactive stack should NOT depend on blocking JDBC, JPA or LDAP APIs")
+        void reactiveStackShouldNotUseBlockingApis() {
+            ArchRule rule = noClasses()
+                    .that(reactiveStack())
+                    .should().dependOnClassesThat().resideInAnyPackage(
+                            "java.sql..",
+                            "javax.sql..",
+                            "jakarta.persistence..",
+                            "org.hibernate..",
+                            "org.springframework.jdbc..",
+                            "org.springframework.data.jpa..",
+                            "org.springframework.ldap..",
+                            "org.springframework.security.ldap.."
+                    );
+
+            rule.check(classes);
+        }
+
+        @Test
+        @DisplayName("No new block() calls on Mono or Flux")
+        void noNewBlockCalls() {
+            ArchRule rule = noClasses()
+                    .should().callMethodWhere(blockCall())
+                    .because("block() prende a thread; fora dos workers de provisionamento use o fluxo reativo");
+
+            FreezingArchRule.freeze(rule).check(classes);
+        }
+
+        private static DescribedPredicate<JavaClass> reactiveStack() {
+            return DescribedPredicate.describe("are on the reactive request path", javaClass ->
+                    javaClass.isAssignableTo(ReactiveProvisioningUseCasePort.class)
+                            || javaClass.isAssignableTo(ReactiveProvisioningRepositoryPort.class)
+                            || javaClass.isEquivalentTo(ProvisioningHandler.class));
+        }
+
+        private static DescribedPredicate<JavaMethodCall> blockCall() {
+            // toFuture() so serve para esperar fora do Reactor: conta como block
+            return DescribedPredicate.describe("target is Mono/Flux block* or toFuture", call ->
+                    (call.getTargetOwner().isAssignableTo(Mono.class) || call.getTargetOwner().isAssignableTo(Flux.class))
+                            && (call.getName().startsWith("block") || call.getName().equals("toFuture")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Runtime Detection")
+    class RuntimeDetection {
+
+        private static final String BODY = "{\"username\":\"dev\",\"ram\":\"8GB\",\"cpu\":\"4vCPU\"}";
+
+        @Test
+        @DisplayName("Reactive endpoints should not block the event loop")
+        void reactiveEndpointsShouldNotBlock() throws Exception {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (BlockingCallDetector detector = new BlockingCallDetector(registry, false, Duration.ofMillis(20), 50);
+                 RingBufferProvisioningEventPublisher events = new RingBufferProvisioningEventPublisher(1024,
+                         event -> { }, registry)) {
+                detector.start();
+                ReactiveProvisioningUseCase useCase = new ReactiveProvisioningUseCase(new EventLoopRepository(), events,
+                        new PolicyEnforcementService(), username -> { });
+                DisposableServer server = HttpServer.create().port(0)
+                        .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(
+                                new ProvisioningHandler(useCase, new GlobalExceptionHandler()).routes())))
+                        .bindNow();
+                try {
+                    String url = "http://localhost:" + server.port() + "/api/v1/provisioning";
+                    HttpClient client = HttpClient.create()
+                            .headers(headers -> headers.set("Content-Type", "application/json"));
+                    List<Integer> statuses = Flux.range(0, 200)
+                            .flatMap(i -> client.post().uri(url)
+                                    .send(ByteBufFlux.fromString(Mono.just(BODY)))
+                                    .responseSingle((response, body) -> body.then(Mono.just(response.status().code()))), 50)
+                            .collectList()
+                            .block(Duration.ofSeconds(30));
+                    client.get().uri(url + "/instances/srv-unknown")
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                            .block(Duration.ofSeconds(5));
+
+                    assertThat(statuses).hasSize(200).containsOnly(201);
+                } finally {
+                    server.disposeNow();
+                }
+
+                Thread.sleep(1500); // Flush do stream JFR (pinned)
+                assertThat(detector.violations())
+                        .as("chamadas bloqueantes no event loop / virtual threads presas")
+                        .noneMatch(violation -> violation.kind() == Kind.BLOCKING_CALL
+                                || violation.stackTrace().stream().anyMatch(frame -> frame.startsWith("com.eziocdl.")));
+            }
+        }
+    }
+
+    /** Completes on a Reactor non-blocking thread, like the R2DBC driver does on its Netty loop. */
+    private static final class EventLoopRepository implements ReactiveProvisioningRepositoryPort {
+
+        @Override
+        public Mono<ProvisioningRequest> save(ProvisioningRequest request) {
+            return Mono.delay(Duration.ofMillis(1)).thenReturn(request);
+        }
+
+        @Override
+        public Mono<ProvisioningRequest> findById(UUID id) {
+            return Mono.delay(Duration.ofMillis(1)).then(Mono.empty());
+        }
+
+        @Override
+        public Mono<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+            return Mono.delay(Duration.ofMillis(1)).then(Mono.empty());
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.eziocdl.domain.model;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 class ProvisioningRequestTest {
 
@@ -97,4 +100,151 @@ class ProvisioningRequestTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Apenas os pedidos pendentes podem ser aprovados");
     }
-}
\ No newline at end of file
+
+    // --- 4. Instância na Nuvem ---
+
+    @Test
+    @DisplayName("Deve registrar provedor, região e ID da instância criada")
+    void shouldAssignCloudInstance() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+
+        request.assignInstance(new CloudInstance("openstack", "RegionOne", "5d3f6c1e"));
+
+        assertThat(request.getCloudProvider()).isEqualTo("openstack");
+        assertThat(request.getCloudRegion()).isEqualTo("RegionOne");
+        assertThat(request.getInstanceId()).isEqualTo("5d3f6c1e");
+    }
+
+    @Test
+    @DisplayName("Erro: Não pode registrar instância sem ID (nuvem indisponível)")
+    void shouldRejectUnallocatedInstance() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+
+        assertThatThrownBy(() -> request.assignInstance(CloudInstance.unallocated("openstack", "RegionOne")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Instance ID is required");
+    }
+
+    // --- 5. Historico de Transicoes ---
+
+    @Test
+    @DisplayName("Deve registrar a criação e cada mudança de status com o ator")
+    void shouldRecordTransitions() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.approve("admin");
+        request.markProvisioning();
+        request.complete();
+
+        var transitions = request.pullTransitions();
+
+        assertThat(transitions).extracting(StatusTransition::from, StatusTransition::to, StatusTransition::actor)
+                .containsExactly(
+                        tuple(null, ProvisioningStatus.PENDING_APPROVAL, "ezio"),
+                        tuple(ProvisioningStatus.PENDING_APPROVAL, ProvisioningStatus.APPROVED, "admin"),
+                        tuple(ProvisioningStatus.APPROVED, ProvisioningStatus.PROVISIONING, ProvisioningRequest.SYSTEM_ACTOR),
+                        tuple(ProvisioningStatus.PROVISIONING, ProvisioningStatus.ACTIVE, ProvisioningRequest.SYSTEM_ACTOR));
+        assertThat(transitions).allMatch(t -> t.provisioningId().equals(request.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve entregar cada transição uma única vez")
+    void shouldPullTransitionsOnce() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.pullTransitions();
+
+        request.reject("admin");
+
+        assertThat(request.pullTransitions()).singleElement()
+                .extracting(StatusTransition::to).isEqualTo(ProvisioningStatus.REJECTED);
+        assertThat(request.pullTransitions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Não deve registrar transição quando o status não muda")
+    void shouldSkipSameStatus() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.awaitAllocation();
+        request.pullTransitions();
+
+        request.awaitAllocation();
+
+        assertThat(request.pullTransitions()).isEmpty();
+    }
+
+    // --- 6. Remocao ---
+
+    @Test
+    @DisplayName("Deve marcar para remoção e manter DELETING mesmo com progresso do worker")
+    void shouldKeepDeletingOverProgress() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.approve("admin");
+        request.markProvisioning();
+        request.pullTransitions();
+
+        request.requestDeletion("ezio");
+        request.assignInstance(new CloudInstance("openstack", "RegionOne", "vm-123"));
+        request.complete();
+
+        assertThat(request.getStatus()).isEqualTo(ProvisioningStatus.DELETING);
+        assertThat(request.getInstanceId()).isEqualTo("vm-123");
+        assertThat(request.pullTransitions())
+                .extracting(StatusTransition::from, StatusTransition::to, StatusTransition::actor)
+                .containsExactly(tuple(ProvisioningStatus.PROVISIONING, ProvisioningStatus.DELETING, "ezio"));
+    }
+
+    @Test
+    @DisplayName("Erro: Não pode remover um pedido rejeitado")
+    void shouldNotDeleteRejected() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.reject("admin");
+
+        assertThatThrownBy(() -> request.requestDeletion("ezio"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("REJECTED");
+    }
+
+    @Test
+    @DisplayName("Deve expirar o lease contado a partir da criação")
+    void shouldExpireLeaseFromCreation() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+
+        request.lease(Duration.ofDays(7));
+
+        assertThat(request.getExpiresAt()).isEqualTo(request.getCreatedAt().plusDays(7));
+        assertThatThrownBy(() -> request.lease(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Deve usar o lease padrão do papel quando nenhum for pedido")
+    void shouldLeaseForRole() {
+        var trainee = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        var dev = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        var asked = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+
+        trainee.leaseFor("TRAINEE", null);
+        dev.leaseFor("DEV", null);
+        asked.leaseFor("DEV", Duration.ofHours(4));
+
+        assertThat(trainee.getExpiresAt()).isEqualTo(trainee.getCreatedAt().plus(ResourceQuota.TRAINEE.defaultLease()));
+        assertThat(dev.getExpiresAt()).isNull();
+        assertThat(asked.getExpiresAt()).isEqualTo(asked.getCreatedAt().plusHours(4));
+    }
+
+    @Test
+    @DisplayName("Deve concluir a remoção só a partir de DELETING e ignorar o worker depois")
+    void shouldMarkDeletedOnlyFromDeleting() {
+        var request = new ProvisioningRequest("ezio", "8GB", "2vCPU");
+        request.approve("admin");
+        assertThatThrownBy(request::markDeleted).isInstanceOf(IllegalStateException.class);
+
+        request.requestDeletion("ezio");
+        request.markDeleted();
+        request.assignInstance(new CloudInstance("openstack", "RegionOne", "vm-123"));
+        request.complete();
+
+        assertThat(request.getStatus()).isEqualTo(ProvisioningStatus.DELETED);
+        assertThat(request.pullTransitions()).extracting(StatusTransition::to).containsExactly(
+                ProvisioningStatus.PENDING_APPROVAL, ProvisioningStatus.APPROVED,
+                ProvisioningStatus.DELETING, ProvisioningStatus.DELETED);
+    }
+}
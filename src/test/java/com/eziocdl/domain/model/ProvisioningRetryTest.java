@@ -0,0 +1,59 @@
+package com.eziocdl.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProvisioningRetryTest {
+
+    private static final RetryPolicy POLICY = new RetryPolicy(4, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Backoff deve dobrar por tentativa, com jitter na metade superior e teto em maxDelay")
+    void shouldBackOffExponentiallyWithJitter() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(POLICY.backoff(1, random)).isBetween(Duration.ofMillis(2_500), Duration.ofSeconds(5));
+            assertThat(POLICY.backoff(3, random)).isBetween(Duration.ofSeconds(10), Duration.ofSeconds(20));
+            assertThat(POLICY.backoff(40, random)).isBetween(Duration.ofSeconds(30), Duration.ofMinutes(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve nascer PENDING com a primeira falha contada e proxima tentativa no futuro")
+    void shouldEnqueueWithFirstAttempt() {
+        var retry = new ProvisioningRetry(UUID.randomUUID(), "circuito aberto", POLICY, NOW, new Random(1));
+
+        assertThat(retry.getState()).isEqualTo(RetryState.PENDING);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getNextAttemptAt()).isAfter(NOW);
+        assertThat(retry.getLastError()).isEqualTo("circuito aberto");
+    }
+
+    @Test
+    @DisplayName("Deve ir para DEAD_LETTER ao esgotar as tentativas")
+    void shouldDeadLetterWhenExhausted() {
+        var retry = new ProvisioningRetry(UUID.randomUUID(), "503", POLICY, NOW, new Random(1));
+
+        retry.recordFailure("503", POLICY, NOW, new Random(1));
+        retry.recordFailure("503", POLICY, NOW, new Random(1));
+        assertThat(retry.isDeadLetter()).isFalse();
+
+        retry.recordFailure("503", POLICY, NOW, new Random(1));
+
+        assertThat(retry.isDeadLetter()).isTrue();
+        assertThat(retry.getAttempts()).isEqualTo(4);
+        assertThat(retry.getNextAttemptAt()).isEqualTo(NOW);
+        assertThatThrownBy(() -> retry.recordFailure("503", POLICY, NOW, new Random(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
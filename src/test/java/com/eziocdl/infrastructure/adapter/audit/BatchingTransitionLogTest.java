@@ -0,0 +1,307 @@
+package com.eziocdl.infrastructure.adapter.audit;
+
+import com.eziocdl.application.port.out.TransitionLogPort;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.domain.model.StatusTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Batching transition log")
+class BatchingTransitionLogTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeStore store = new FakeStore();
+    private final List<BatchingTransitionLog> logs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        logs.forEach(BatchingTransitionLog::close);
+    }
+
+    @Nested
+    @DisplayName("Batching")
+    class Batching {
+
+        @Test
+        @DisplayName("Should write many transitions per insert, in order, from the writer thread")
+        void shouldBatch() {
+            BatchingTransitionLog log = log(10_000, 500, Duration.ofMillis(50));
+
+            List<StatusTransition> sent = transitions(2_000);
+            for (StatusTransition transition : sent) {
+                log.append(List.of(transition));
+            }
+            log.close();
+
+            assertThat(store.rows).containsExactlyElementsOf(sent);
+            assertThat(store.inserts.get()).isLessThanOrEqualTo(20);
+            assertThat(store.threads).containsOnly("cpm-audit-writer");
+            assertThat(registry.get("cpm.audit.transitions").tag("outcome", "batched").counter().count())
+                    .isEqualTo(2_000);
+        }
+
+        @Test
+        @DisplayName("Should not lose what is still queued when closed")
+        void shouldFlushOnClose() {
+            BatchingTransitionLog log = log(10_000, 100, Duration.ofMillis(200));
+
+            log.append(transitions(250));
+            log.close();
+
+            assertThat(store.rows).hasSize(250);
+        }
+
+        @Test
+        @DisplayName("Should only queue a transaction's transitions after it commits")
+        void shouldWaitForCommit() {
+            BatchingTransitionLog log = log(10_000, 100, Duration.ZERO);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                log.append(transitions(2));
+                log.append(transitions(1));
+                List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+                assertThat(synchronizations).hasSize(2);
+                synchronizations.getFirst().afterCommit(); // O segundo simula um rollback
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            log.close();
+
+            assertThat(store.rows).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should write directly once closed")
+        void shouldWriteDirectlyAfterClose() {
+            BatchingTransitionLog log = log(10_000, 100, Duration.ZERO);
+            log.close();
+
+            log.append(transitions(3));
+
+            assertThat(store.rows).hasSize(3);
+            assertThat(store.threads).containsOnly(Thread.currentThread().getName());
+        }
+    }
+
+    @Nested
+    @DisplayName("Backpressure and failures")
+    class Failures {
+
+        @Test
+        @DisplayName("Should make the caller write its own transitions while the queue is full")
+        void shouldRunOnCallerWhenFull() {
+            store.delay = Duration.ofMillis(300);
+            BatchingTransitionLog log = log(2, 2, Duration.ZERO, Duration.ofMillis(10));
+
+            for (int i = 0; i < 10; i++) {
+                log.append(transitions(1));
+            }
+            log.close();
+
+            assertThat(store.rows).hasSize(10);
+            assertThat(store.threads).contains(Thread.currentThread().getName());
+            assertThat(registry.get("cpm.audit.transitions").tag("outcome", "direct").counter().count()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Should wait for room once per append, not once per transition")
+        void shouldWaitOncePerAppend() {
+            store.writerDelay = Duration.ofSeconds(2); // Writer preso num INSERT lento
+            BatchingTransitionLog log = log(2, 2, Duration.ZERO, Duration.ofMillis(100));
+            log.append(transitions(4)); // O writer pega no maximo 2: a fila enche com o resto
+            Counter direct = registry.get("cpm.audit.transitions").tag("outcome", "direct").counter();
+            double directBefore = direct.count();
+
+            long start = System.nanoTime();
+            log.append(transitions(30));
+            Duration blocked = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(blocked).isLessThan(Duration.ofMillis(1000)); // Por item seriam 30 x 100ms
+            assertThat(direct.count() - directBefore).isEqualTo(30);
+            log.close();
+            assertThat(store.rows).hasSize(34);
+        }
+
+        @Test
+        @DisplayName("Should retry a failed batch until the store is back")
+        void shouldRetryFailedBatch() throws InterruptedException {
+            store.failures.set(2);
+            BatchingTransitionLog log = log(10_000, 100, Duration.ZERO);
+
+            log.append(transitions(5));
+            waitFor(() -> store.rows.size() == 5);
+
+            assertThat(store.rows).hasSize(5);
+            assertThat(store.inserts.get()).isEqualTo(1);
+            assertThat(registry.get("cpm.audit.transitions").tag("outcome", "dropped").counter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should write the rest of a batch the database rejects and drop only the bad rows, without retrying")
+        void shouldDropOnlyRejectedRows() throws InterruptedException {
+            List<StatusTransition> sent = transitions(20);
+            store.rejected.add(sent.get(3));
+            store.rejected.add(sent.get(17));
+            BatchingTransitionLog log = log(10_000, 100, Duration.ofMillis(50));
+
+            log.append(sent);
+            waitFor(() -> store.rows.size() == 18);
+            log.close();
+
+            List<StatusTransition> expected = new ArrayList<>(sent);
+            expected.removeAll(store.rejected);
+            assertThat(store.rows).containsExactlyElementsOf(expected);
+            assertThat(store.attempts.get()).isLessThan(20); // Bisseccao, nao linha a linha nem retry infinito
+            assertThat(registry.get("cpm.audit.transitions").tag("outcome", "dropped").counter().count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should not lose transitions appended concurrently with close")
+        void shouldNotLoseOnConcurrentClose() throws Exception {
+            BatchingTransitionLog log = log(64, 16, Duration.ofMillis(1));
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> producers = new ArrayList<>();
+                for (int p = 0; p < 4; p++) {
+                    producers.add(pool.submit(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            log.append(transitions(1));
+                        }
+                    }));
+                }
+                Thread.sleep(5);
+                log.close();
+                for (Future<?> producer : producers) {
+                    producer.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            assertThat(store.rows).hasSize(2_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark: batched writer vs one insert per transition with 1ms per round trip")
+    void benchmarkBatchedVsPerRow() {
+        int total = 2_000;
+        store.delay = Duration.ofMillis(1);
+
+        long start = System.nanoTime();
+        for (StatusTransition transition : transitions(total)) {
+            store.append(List.of(transition));
+        }
+        long perRow = System.nanoTime() - start;
+        store.rows.clear();
+        store.inserts.set(0);
+
+        BatchingTransitionLog log = log(10_000, 500, Duration.ofMillis(20));
+        start = System.nanoTime();
+        for (StatusTransition transition : transitions(total)) {
+            log.append(List.of(transition));
+        }
+        long appended = System.nanoTime() - start;
+        log.close();
+        long batched = System.nanoTime() - start;
+
+        System.out.printf("[Benchmark] %d transitions: per-row %d ms (%d inserts), batched %d ms (%d inserts), "
+                        + "caller blocked %.2f ms%n", total, perRow / 1_000_000, total, batched / 1_000_000,
+                store.inserts.get(), appended / 1e6);
+        assertThat(store.rows).hasSize(total);
+        assertThat(batched).isLessThan(perRow);
+    }
+
+    private BatchingTransitionLog log(int capacity, int batchSize, Duration linger) {
+        return log(capacity, batchSize, linger, Duration.ofSeconds(1));
+    }
+
+    private BatchingTransitionLog log(int capacity, int batchSize, Duration linger, Duration offerTimeout) {
+        BatchingTransitionLog log = new BatchingTransitionLog(store, registry, capacity, batchSize, linger,
+                offerTimeout, Duration.ofSeconds(10));
+        log.start();
+        logs.add(log);
+        return log;
+    }
+
+    private static List<StatusTransition> transitions(int count) {
+        List<StatusTransition> transitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transitions.add(new StatusTransition(UUID.randomUUID(), ProvisioningStatus.APPROVED,
+                    ProvisioningStatus.PROVISIONING, "system", LocalDateTime.now()));
+        }
+        return transitions;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class FakeStore implements TransitionLogPort {
+
+        private final List<StatusTransition> rows = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inserts = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final Set<StatusTransition> rejected = ConcurrentHashMap.newKeySet();
+        private volatile Duration delay = Duration.ZERO;
+        private volatile Duration writerDelay = Duration.ZERO;
+
+        @Override
+        public void append(List<StatusTransition> transitions) {
+            attempts.incrementAndGet();
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new TransientDataAccessResourceException("connection refused");
+            }
+            if (transitions.stream().anyMatch(rejected::contains)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+                if (Thread.currentThread().getName().equals("cpm-audit-writer")) {
+                    Thread.sleep(writerDelay.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            threads.add(Thread.currentThread().getName());
+            inserts.incrementAndGet();
+            rows.addAll(transitions);
+        }
+
+        @Override
+        public List<StatusTransition> findByProvisioningId(UUID provisioningId) {
+            return rows.stream().filter(t -> t.provisioningId().equals(provisioningId)).toList();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.infrastructure.config.CloudEndpointProperties;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Cloud endpoint connection pools against a stub Nova server")
+class CloudEndpointClientsTest {
+
+    private DisposableServer stub;
+    private volatile long stubLatencyMs = 2;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger gzipRequests = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private CloudEndpointClients clients;
+
+    @BeforeEach
+    void setUp() {
+        stub = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.post("/servers", (request, response) -> {
+                    clientPorts.add(request.remoteAddress().getPort());
+                    if ("gzip".equalsIgnoreCase(request.requestHeaders().get("Accept-Encoding"))) {
+                        gzipRequests.incrementAndGet();
+                    }
+                    return request.receive().then()
+                            .then(Mono.delay(Duration.ofMillis(stubLatencyMs)))
+                            .then(response.status(202).sendString(Mono.just("{\"server\":{\"id\":\"abc\"}}")).then());
+                }))
+                .bindNow();
+
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (clients != null) {
+            clients.destroy();
+        }
+        Metrics.removeRegistry(registry);
+        stub.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should never open more connections than the pool allows and reuse them")
+    void shouldCapAndReuseConnections() {
+        clients = clientsWith(pool(4, 1_000));
+
+        Flux.range(0, 200)
+                .flatMap(i -> post(clients.forEndpoint("stub")), 32)
+                .blockLast(Duration.ofSeconds(30));
+
+        assertThat(clientPorts).hasSizeLessThanOrEqualTo(4);
+        assertThat(gzipRequests.get()).isEqualTo(200);
+        assertThat(registry.find("reactor.netty.connection.provider.total.connections")
+                .tag("name", "cloud-stub").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should fail fast once the pending-acquire queue is full")
+    void shouldRejectBeyondPendingAcquireLimit() {
+        stubLatencyMs = 300;
+        clients = clientsWith(pool(1, 2));
+
+        assertThatThrownBy(() -> Flux.range(0, 10)
+                .flatMap(i -> post(clients.forEndpoint("stub")), 10)
+                .blockLast(Duration.ofSeconds(30)))
+                .hasMessageContaining("Pending acquire queue has reached its maximum size");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown endpoints")
+    void shouldRejectUnknownEndpoint() {
+        clients = clientsWith(pool(1, 1));
+
+        assertThatThrownBy(() -> clients.forEndpoint("aws"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cpm.cloud.endpoints.aws");
+    }
+
+    @Test
+    @Tag("perf") // ~6k requisicoes HTTP e vazao contra o relogio: ./mvnw -Pperf test
+    @DisplayName("Benchmark: pooled keep-alive throughput vs. pool of one")
+    void benchmarkThroughput() {
+        int requests = 2_000;
+        Map<Integer, Double> throughput = new HashMap<>();
+        for (int maxConnections : new int[]{1, 8, 32}) {
+            clients = clientsWith(pool(maxConnections, requests));
+            WebClient client = clients.forEndpoint("stub");
+            Flux.range(0, 100).flatMap(i -> post(client), 32).blockLast(); // warm-up
+            clientPorts.clear();
+
+            long start = System.nanoTime();
+            Long answered = Flux.range(0, requests).flatMap(i -> post(client), 64).count().block(Duration.ofMinutes(1));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            throughput.put(maxConnections, requests / seconds);
+
+            System.out.printf("[Benchmark] maxConnections=%d -> %.0f req/s (%d requests, %dms stub latency)%n",
+                    maxConnections, requests / seconds, requests, stubLatencyMs);
+            assertThat(answered).isEqualTo(requests);
+            assertThat(clientPorts).hasSizeLessThanOrEqualTo(maxConnections);
+            clients.destroy();
+        }
+        clients = null;
+
+        // Com 2ms de latencia no stub, uma conexao so serializa as chamadas
+        assertThat(throughput.get(8)).isGreaterThan(throughput.get(1) * 2);
+    }
+
+    private Mono<String> post(WebClient client) {
+        return client.post().uri("/servers").bodyValue("{}").retrieve().bodyToMono(String.class);
+    }
+
+    private CloudEndpointClients clientsWith(CloudEndpointProperties.Pool pool) {
+        var endpoint = new CloudEndpointProperties.Endpoint(
+                "http://127.0.0.1:" + stub.port(),
+                Duration.ofSeconds(1), Duration.ofSeconds(5), true, false, pool);
+        return new CloudEndpointClients(WebClient.builder(), new CloudEndpointProperties(Map.of("stub", endpoint)));
+    }
+
+    private static CloudEndpointProperties.Pool pool(int maxConnections, int pendingAcquireMaxCount) {
+        return new CloudEndpointProperties.Pool(maxConnections, pendingAcquireMaxCount, Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+    }
+}
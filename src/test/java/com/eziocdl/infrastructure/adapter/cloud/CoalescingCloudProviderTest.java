@@ -0,0 +1,432 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.listener.ProvisioningAsyncListener;
+import com.eziocdl.application.port.in.RetryProvisioningUseCasePort;
+import com.eziocdl.application.port.in.WarmPoolUseCasePort;
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import com.eziocdl.infrastructure.config.CloudEndpointProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.CompositeCustomizer;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Request coalescing into Nova multi-create")
+class CoalescingCloudProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CoalescingCloudProvider coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Grouping")
+    class Grouping {
+
+        private final List<List<ProvisioningRequest>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        private final CloudProviderPort recordingProvider = new CloudProviderPort() {
+            @Override
+            public CloudInstance provisionInstance(ProvisioningRequest request) {
+                return provisionInstances(List.of(request)).get(0);
+            }
+
+            @Override
+            public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+                batches.add(requests);
+                return requests.stream().map(r -> new CloudInstance("openstack", "RegionOne", "srv-" + r.getId())).toList();
+            }
+
+            @Override
+            public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                return instances.stream().map(CloudInstance::instanceId).toList();
+            }
+        };
+
+        @Test
+        @DisplayName("Should merge identical requests and hand every caller its own server")
+        void shouldMergeIdenticalRequests() throws Exception {
+            coalescer = new CoalescingCloudProvider(recordingProvider, Duration.ofMillis(100), 25, registry);
+            List<ProvisioningRequest> requests = requests(100, "8GB", "4vCPU");
+
+            List<CloudInstance> instances = provisionConcurrently(coalescer, requests);
+
+            for (int i = 0; i < requests.size(); i++) {
+                assertThat(instances.get(i).instanceId()).isEqualTo("srv-" + requests.get(i).getId());
+            }
+            assertThat(batches).hasSizeLessThanOrEqualTo(8);
+            assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(25));
+        }
+
+        @Test
+        @DisplayName("Should never mix different specs in one batch")
+        void shouldNotMixSpecs() throws Exception {
+            coalescer = new CoalescingCloudProvider(recordingProvider, Duration.ofMillis(50), 25, registry);
+            List<ProvisioningRequest> requests = new ArrayList<>(requests(10, "8GB", "4vCPU"));
+            requests.addAll(requests(10, "16GB", "4vCPU"));
+
+            provisionConcurrently(coalescer, requests);
+
+            assertThat(batches).allSatisfy(batch ->
+                    assertThat(batch).extracting(ProvisioningRequest::resourceSpec).containsOnly(batch.get(0).resourceSpec()));
+        }
+
+        @Test
+        @DisplayName("Should propagate a failed batch to each caller")
+        void shouldPropagateFailures() {
+            coalescer = new CoalescingCloudProvider(new CloudProviderPort() {
+                @Override
+                public CloudInstance provisionInstance(ProvisioningRequest request) {
+                    throw new IllegalStateException("Nova indisponivel");
+                }
+
+                @Override
+                public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+                    throw new IllegalStateException("Nova indisponivel");
+                }
+
+                @Override
+                public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                    throw new IllegalStateException("Nova indisponivel");
+                }
+            }, Duration.ofMillis(10), 25, registry);
+
+            assertThatThrownBy(() -> coalescer.provisionInstance(requests(1, "8GB", "4vCPU").get(0)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Nova indisponivel");
+        }
+    }
+
+    @Nested
+    @DisplayName("Against a stub Nova")
+    class AgainstNovaStub {
+
+        private static final Pattern NAME = Pattern.compile("\"name\":\\s*\"([^\"]+)\"");
+        private static final Pattern MIN_COUNT = Pattern.compile("\"min_count\":\\s*(\\d+)");
+
+        private final AtomicInteger createCalls = new AtomicInteger();
+        private final AtomicInteger serverSeq = new AtomicInteger();
+        private final Map<String, List<String>> reservations = new ConcurrentHashMap<>();
+        private final List<String> deleted = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failedListings = new AtomicInteger();
+        private volatile String lastReservation;
+        private volatile String serverNameFormat = "%s-%d"; // multi_instance_name_template padrao do Nova
+        private volatile int missingServers;
+        private DisposableServer nova;
+
+        @Test
+        @DisplayName("Benchmark: 100 identical VMs, direct vs. coalesced")
+        void benchmarkAgainstStub() throws Exception {
+            startNova(Duration.ofMillis(20));
+            OpenStackAdapter adapter = adapterFor(nova);
+            try {
+                List<ProvisioningRequest> requests = requests(100, "8GB", "4vCPU");
+
+                long start = System.nanoTime();
+                List<CloudInstance> direct = provisionConcurrently(adapter, requests);
+                long directMs = (System.nanoTime() - start) / 1_000_000;
+                int directCalls = createCalls.getAndSet(0);
+
+                coalescer = new CoalescingCloudProvider(adapter, Duration.ofMillis(50), 25, registry);
+                start = System.nanoTime();
+                List<CloudInstance> coalesced = provisionConcurrently(coalescer, requests);
+                long coalescedMs = (System.nanoTime() - start) / 1_000_000;
+                int coalescedCalls = createCalls.get();
+
+                System.out.printf("[Benchmark] direct: %d POST /servers in %dms | coalesced: %d POST /servers in %dms%n",
+                        directCalls, directMs, coalescedCalls, coalescedMs);
+
+                assertThat(direct).hasSize(100);
+                assertThat(coalesced).extracting(CloudInstance::instanceId)
+                        .doesNotHaveDuplicates().allMatch(id -> id.startsWith("srv-"));
+                assertThat(coalescedCalls).isLessThanOrEqualTo(8);
+            } finally {
+                nova.disposeNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should not depend on Nova's server name template, and fail a short reservation")
+        void shouldIgnoreServerNames() {
+            startNova(Duration.ZERO);
+            OpenStackAdapter adapter = adapterFor(nova);
+            try {
+                serverNameFormat = "%s.host%d.example"; // Template customizado pelo operador
+                assertThat(adapter.provisionInstances(requests(3, "8GB", "4vCPU")))
+                        .extracting(CloudInstance::instanceId)
+                        .hasSize(3).doesNotHaveDuplicates().allMatch(id -> id.startsWith("srv-"));
+
+                missingServers = 1;
+                assertThatThrownBy(() -> adapter.provisionInstances(requests(3, "8GB", "4vCPU")))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("esperados 3");
+                // Os servidores que a reserva curta criou nao ficam orfaos
+                assertThat(deleted).containsExactlyInAnyOrderElementsOf(serversOf(lastReservation));
+            } finally {
+                nova.disposeNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should delete a reservation's servers when listing them fails")
+        void shouldDiscardUnlistedReservation() {
+            startNova(Duration.ZERO);
+            OpenStackAdapter adapter = adapterFor(nova);
+            try {
+                failedListings.set(1);
+                assertThatThrownBy(() -> adapter.provisionInstances(requests(3, "8GB", "4vCPU")))
+                        .isInstanceOf(WebClientResponseException.class);
+
+                assertThat(deleted).hasSize(3).containsExactlyInAnyOrderElementsOf(serversOf(lastReservation));
+            } finally {
+                nova.disposeNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail a request no flavor fits right away, without retrying it or tripping the breaker")
+        void shouldFailUnmatchedSizeRightAway() {
+            startNova(Duration.ZERO);
+            OpenStackAdapter adapter = adapterFor(nova);
+            try {
+                CircuitBreaker breaker = CircuitBreaker.of("openstack", configuredBreaker("openstack"));
+                Map<UUID, ProvisioningRequest> stored = new ConcurrentHashMap<>();
+                List<UUID> retried = new CopyOnWriteArrayList<>();
+                ProvisioningAsyncListener listener = listener(guarded(adapter, breaker), stored, retried);
+
+                List<ProvisioningRequest> requests = requests(100, "64GB", "16vCPU"); // Janela padrao do breaker: 100 chamadas
+                requests.forEach(request -> listener.onProvisioningRequested(
+                        new ProvisioningRequestedEvent(request.snapshot(), "DEV")));
+
+                assertThat(stored.values()).hasSize(100)
+                        .allMatch(request -> request.getStatus() == ProvisioningStatus.FAILED);
+                assertThat(retried).isEmpty();
+                assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+                assertThat(createCalls).hasValue(0);
+            } finally {
+                nova.disposeNow();
+            }
+        }
+
+        /** Builds a breaker from application.yaml the way resilience4j-spring-boot3 does. */
+        private CircuitBreakerConfig configuredBreaker(String instance) {
+            var yaml = new YamlPropertiesFactoryBean();
+            yaml.setResources(new ClassPathResource("application.yaml"));
+            CircuitBreakerProperties properties = new Binder(new MapConfigurationPropertySource(yaml.getObject()))
+                    .bind("resilience4j.circuitbreaker", CircuitBreakerProperties.class)
+                    .get();
+            return properties.createCircuitBreakerConfig(instance, properties.getInstances().get(instance),
+                    new CompositeCustomizer<>(List.of()));
+        }
+
+        /** Stands in for the Spring proxy behind {@code @CircuitBreaker(fallbackMethod = ...)}. */
+        private CloudProviderPort guarded(OpenStackAdapter adapter, CircuitBreaker breaker) {
+            return new CloudProviderPort() {
+                @Override
+                public CloudInstance provisionInstance(ProvisioningRequest request) {
+                    try {
+                        return breaker.executeSupplier(() -> adapter.provisionInstance(request));
+                    } catch (RuntimeException e) {
+                        return adapter.fallbackProvision(request, e);
+                    }
+                }
+
+                @Override
+                public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+                    try {
+                        return breaker.executeSupplier(() -> adapter.provisionInstances(requests));
+                    } catch (RuntimeException e) {
+                        return adapter.fallbackProvisionBatch(requests, e);
+                    }
+                }
+
+                @Override
+                public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                    return adapter.deprovisionInstances(instances);
+                }
+
+                @Override
+                public boolean isAvailable() {
+                    return breaker.tryAcquirePermission();
+                }
+            };
+        }
+
+        private ProvisioningAsyncListener listener(CloudProviderPort cloud, Map<UUID, ProvisioningRequest> stored,
+                                                   List<UUID> retried) {
+            ProvisioningRepositoryPort repository = new ProvisioningRepositoryPort() {
+                @Override
+                public ProvisioningRequest save(ProvisioningRequest request) {
+                    stored.put(request.getId(), request);
+                    return request;
+                }
+
+                @Override
+                public void update(ProvisioningRequest request) {
+                    stored.put(request.getId(), request);
+                }
+
+                @Override
+                public Optional<ProvisioningRequest> findById(UUID id) {
+                    return Optional.ofNullable(stored.get(id));
+                }
+
+                @Override
+                public Optional<ProvisioningRequest> findByInstance(String cloudProvider, String instanceId) {
+                    return Optional.empty();
+                }
+
+                @Override
+                public List<ProvisioningRequest> findAwaitingServer() {
+                    return List.of();
+                }
+            };
+            RetryProvisioningUseCasePort retries = new RetryProvisioningUseCasePort() {
+                @Override
+                public void enqueue(ProvisioningRequest request, String reason) {
+                    retried.add(request.getId());
+                }
+
+                @Override
+                public int drainDue() {
+                    return 0;
+                }
+            };
+            WarmPoolUseCasePort noWarmPool = new WarmPoolUseCasePort() {
+                @Override
+                public Optional<CloudInstance> claim(ProvisioningRequest request) {
+                    return Optional.empty();
+                }
+
+                @Override
+                public int refill() {
+                    return 0;
+                }
+            };
+            return new ProvisioningAsyncListener(cloud, repository, (provisioningId, instance) -> { },
+                    retries, noWarmPool, (username, role, task) -> task.run());
+        }
+
+        private void startNova(Duration latency) {
+            nova = HttpServer.create().host("127.0.0.1").port(0)
+                    .route(routes -> routes
+                            .get("/flavors/detail", (req, res) -> json(res,
+                                    "{\"flavors\":[{\"id\":\"4\",\"name\":\"m1.large\",\"vcpus\":4,\"ram\":8192}]}"))
+                            .get("/images", (req, res) -> json(res, "{\"images\":[]}"))
+                            .post("/servers", (req, res) -> req.receive().aggregate().asString()
+                                    .delayElement(latency)
+                                    .flatMap(body -> {
+                                        createCalls.incrementAndGet();
+                                        Matcher count = MIN_COUNT.matcher(body);
+                                        if (!count.find()) {
+                                            return json(res, "{\"server\":{\"id\":\"srv-" + serverSeq.incrementAndGet() + "\"}}");
+                                        }
+                                        Matcher name = NAME.matcher(body);
+                                        name.find();
+                                        String reservationId = "r-" + serverSeq.incrementAndGet();
+                                        reservations.put(reservationId, IntStream.rangeClosed(1, Integer.parseInt(count.group(1)) - missingServers)
+                                                .mapToObj(i -> "{\"id\":\"srv-" + serverSeq.incrementAndGet() + "\",\"name\":\""
+                                                        + serverNameFormat.formatted(name.group(1), i) + "\",\"status\":\"BUILD\"}")
+                                                .toList());
+                                        lastReservation = reservationId;
+                                        return json(res, "{\"reservation_id\":\"" + reservationId + "\"}");
+                                    }))
+                            .get("/servers/detail", (req, res) -> {
+                                if (failedListings.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                    return res.status(500).send();
+                                }
+                                String reservationId = req.uri().substring(req.uri().indexOf("reservation_id=") + 15);
+                                return json(res, "{\"servers\":[" + String.join(",", reservations.get(reservationId)) + "]}");
+                            })
+                            .delete("/servers/{id}", (req, res) -> {
+                                deleted.add(req.param("id"));
+                                return res.status(204).send();
+                            }))
+                    .bindNow();
+        }
+
+        private OpenStackAdapter adapterFor(DisposableServer server) {
+            String baseUrl = "http://127.0.0.1:" + server.port();
+            var pool = new CloudEndpointProperties.Pool(100, 1000, Duration.ofSeconds(10),
+                    Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+            var clients = new CloudEndpointClients(WebClient.builder(), new CloudEndpointProperties(Map.of("openstack",
+                    new CloudEndpointProperties.Endpoint(baseUrl, Duration.ofSeconds(1), Duration.ofSeconds(5), true, false, pool))));
+            var catalog = new OpenStackCatalogCache(clients.forEndpoint("openstack"), KeystoneTokenProvider.disabled(), registry);
+            catalog.refresh();
+            return new OpenStackAdapter(clients, KeystoneTokenProvider.disabled(), catalog,
+                    CircuitBreakerRegistry.ofDefaults(), "ubuntu-22.04", "RegionOne");
+        }
+
+        private List<String> serversOf(String reservationId) {
+            return reservations.get(reservationId).stream()
+                    .map(server -> server.substring(7, server.indexOf('"', 7))) // {"id":"srv-N",...
+                    .toList();
+        }
+
+        private Mono<Void> json(reactor.netty.http.server.HttpServerResponse res, String body) {
+            return res.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+        }
+    }
+
+    private static List<ProvisioningRequest> requests(int count, String ram, String cpu) {
+        return IntStream.range(0, count).mapToObj(i -> new ProvisioningRequest("trainee", ram, cpu)).toList();
+    }
+
+    private static List<CloudInstance> provisionConcurrently(CloudProviderPort provider, List<ProvisioningRequest> requests)
+            throws Exception {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<CloudInstance>> futures = requests.stream()
+                    .map(r -> callers.submit(() -> provider.provisionInstance(r)))
+                    .toList();
+            List<CloudInstance> instances = new ArrayList<>();
+            for (Future<CloudInstance> future : futures) {
+                instances.add(future.get());
+            }
+            return instances;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Hashed timing wheel for build deadlines")
+class DeadlineWheelTest {
+
+    @Test
+    @DisplayName("Should fire entries on their tick, including ones several revolutions away")
+    void shouldFireOnDeadline() {
+        DeadlineWheel<String> wheel = new DeadlineWheel<>(Duration.ofSeconds(1), 8, 0);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("3s", 3_000);
+        wheel.schedule("20s", 20_000);
+
+        wheel.advance(2_999, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(3_000, fired::add);
+        assertThat(fired).containsExactly("3s");
+
+        wheel.advance(19_999, fired::add);
+        assertThat(fired).containsExactly("3s");
+
+        wheel.advance(20_000, fired::add);
+        assertThat(fired).containsExactly("3s", "20s");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fire past deadlines on the next advance")
+    void shouldFireLateEntries() {
+        DeadlineWheel<String> wheel = new DeadlineWheel<>(Duration.ofSeconds(1), 8, 10_000);
+        List<String> fired = new ArrayList<>();
+        wheel.advance(12_000, fired::add);
+
+        wheel.schedule("late", 5_000);
+        wheel.advance(13_000, fired::add);
+
+        assertThat(fired).containsExactly("late");
+    }
+}
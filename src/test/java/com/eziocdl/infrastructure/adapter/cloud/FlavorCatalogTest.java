@@ -0,0 +1,72 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.infrastructure.adapter.cloud.FlavorCatalog.Flavor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Flavor best-fit index")
+class FlavorCatalogTest {
+
+    private static final List<Flavor> OPENSTACK_DEFAULTS = List.of(
+            new Flavor("1", "m1.tiny", 1, 512),
+            new Flavor("2", "m1.small", 1, 2048),
+            new Flavor("3", "m1.medium", 2, 4096),
+            new Flavor("4", "m1.large", 4, 8192),
+            new Flavor("5", "m1.xlarge", 8, 16384),
+            new Flavor("c1", "c1.large", 8, 8192));
+
+    @Test
+    @DisplayName("Should pick the smallest flavor covering both vCPU and RAM")
+    void shouldPickSmallestFit() {
+        FlavorCatalog catalog = FlavorCatalog.of(OPENSTACK_DEFAULTS);
+
+        assertThat(catalog.bestFit(4, 8192)).map(Flavor::name).contains("m1.large");
+        assertThat(catalog.bestFit(2, 2048)).map(Flavor::name).contains("m1.medium");
+        assertThat(catalog.bestFit(8, 4096)).map(Flavor::name).contains("c1.large");
+        assertThat(catalog.bestFit(1, 100)).map(Flavor::name).contains("m1.tiny");
+    }
+
+    @Test
+    @DisplayName("Should miss when nothing is large enough")
+    void shouldMissWhenTooLarge() {
+        FlavorCatalog catalog = FlavorCatalog.of(OPENSTACK_DEFAULTS);
+
+        assertThat(catalog.bestFit(16, 1024)).isEmpty();
+        assertThat(catalog.bestFit(1, 32768)).isEmpty();
+        assertThat(FlavorCatalog.EMPTY.bestFit(1, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should agree with a linear scan on random catalogs")
+    void shouldMatchBruteForce() {
+        Random random = new Random(42);
+        Comparator<Flavor> smallestFirst = Comparator.comparingInt(Flavor::ramMb)
+                .thenComparingInt(Flavor::vcpus).thenComparing(Flavor::name);
+
+        for (int round = 0; round < 200; round++) {
+            List<Flavor> flavors = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(60); i++) {
+                flavors.add(new Flavor("id" + i, "f" + i, 1 << random.nextInt(7), 512 * (1 + random.nextInt(128))));
+            }
+            FlavorCatalog catalog = FlavorCatalog.of(flavors);
+
+            for (int q = 0; q < 50; q++) {
+                int vcpus = 1 + random.nextInt(70);
+                int ramMb = random.nextInt(70_000);
+                Optional<Flavor> expected = flavors.stream()
+                        .filter(f -> f.vcpus() >= vcpus && f.ramMb() >= ramMb)
+                        .min(smallestFirst);
+
+                assertThat(catalog.bestFit(vcpus, ramMb)).isEqualTo(expected);
+            }
+        }
+    }
+}
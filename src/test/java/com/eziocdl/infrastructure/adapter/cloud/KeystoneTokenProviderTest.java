@@ -0,0 +1,223 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.infrastructure.config.KeystoneProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Keystone token cache against a stub Keystone")
+class KeystoneTokenProviderTest {
+
+    private static final Duration TOKEN_TTL = Duration.ofHours(1);
+
+    private DisposableServer keystoneStub;
+    private final AtomicInteger issuedTokens = new AtomicInteger();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private KeystoneTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        keystoneStub = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.post("/v3/auth/tokens", (request, response) -> request.receive().then()
+                        .then(Mono.delay(Duration.ofMillis(50))) // Keystone lento de proposito
+                        .then(Mono.defer(() -> {
+                            int n = issuedTokens.incrementAndGet();
+                            String body = "{\"token\":{\"expires_at\":\"%s\"}}".formatted(clock.instant().plus(TOKEN_TTL));
+                            return response.status(201)
+                                    .header("X-Subject-Token", "tok-" + n)
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just(body))
+                                    .then();
+                        }))))
+                .bindNow();
+
+        var properties = new KeystoneProperties(true, "keystone", "cpm", "secret", "Default",
+                "project-a", "Default", Duration.ofMinutes(5));
+        WebClient client = WebClient.builder().baseUrl("http://127.0.0.1:" + keystoneStub.port()).build();
+        provider = new KeystoneTokenProvider(client, properties, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keystoneStub.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Thundering herd: 1000 concurrent callers share a single token request")
+    void shouldSingleFlightUnderThunderingHerd() {
+        List<String> tokens = Flux.range(0, 1000)
+                .parallel(16)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> provider.token("project-a"))
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(tokens).hasSize(1000).containsOnly("tok-1");
+        assertThat(issuedTokens.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cache tokens per project")
+    void shouldCachePerProject() {
+        String a = provider.token("project-a").block();
+        String b = provider.token("project-b").block();
+
+        assertThat(a).isNotEqualTo(b);
+        assertThat(provider.token("project-a").block()).isEqualTo(a);
+        assertThat(issuedTokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should refresh proactively while still serving the current token")
+    void shouldRefreshBeforeExpiry() {
+        assertThat(provider.token("project-a").block()).isEqualTo("tok-1");
+
+        clock.advance(TOKEN_TTL.minusMinutes(2)); // Dentro da janela de refresh (5m)
+
+        assertThat(provider.token("project-a").block()).isEqualTo("tok-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> "tok-2".equals(provider.token("project-a").block()));
+        assertThat(issuedTokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should wait for a new token once the cached one has expired")
+    void shouldReacquireAfterExpiry() {
+        provider.token("project-a").block();
+        clock.advance(TOKEN_TTL.plusSeconds(1));
+
+        assertThat(provider.token("project-a").block()).isEqualTo("tok-2");
+    }
+
+    @Test
+    @DisplayName("Should not call Keystone until subscribed, and re-read the cache on each subscription")
+    void shouldBeLazy() throws InterruptedException {
+        Mono<String> token = provider.token("project-a");
+        Thread.sleep(200);
+        assertThat(issuedTokens.get()).isZero();
+
+        assertThat(token.block()).isEqualTo("tok-1");
+        clock.advance(TOKEN_TTL.plusSeconds(1));
+        assertThat(token.block()).isEqualTo("tok-2");
+    }
+
+    @Test
+    @DisplayName("Should refuse an enabled configuration with missing credentials")
+    void shouldRequireCredentials() {
+        assertThatThrownBy(() -> new KeystoneProperties(true, "keystone", "cpm", null, "Default",
+                "project-a", "Default", Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+        assertThat(new KeystoneProperties(false, "keystone", null, null, null, null, null, Duration.ofMinutes(5))
+                .enabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should re-authenticate once on 401 and retry the call")
+    void shouldRetryOnceOnUnauthorized() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = provider.withToken("project-a", token -> {
+            calls.incrementAndGet();
+            return "tok-1".equals(token) ? Mono.error(unauthorized()) : Mono.just("ok with " + token);
+        }).block();
+
+        assertThat(result).isEqualTo("ok with tok-2");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(issuedTokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should give up after a single retry when the cloud keeps answering 401")
+    void shouldNotRetryForever() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> provider.withToken("project-a", token -> {
+            calls.incrementAndGet();
+            return Mono.<String>error(unauthorized());
+        }).block()).isInstanceOf(WebClientResponseException.Unauthorized.class);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A burst of 401s for the same token triggers one re-authentication")
+    void shouldCoalesceInvalidations() {
+        provider.token("project-a").block();
+
+        List<String> results = Flux.range(0, 200)
+                .flatMap(i -> provider.withToken("project-a", token ->
+                        "tok-1".equals(token) ? Mono.<String>error(unauthorized()) : Mono.just(token)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).containsOnly("tok-2");
+        assertThat(issuedTokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Disabled provider runs calls without a token")
+    void disabledProviderSkipsAuthentication() {
+        String result = KeystoneTokenProvider.disabled()
+                .withToken(token -> Mono.just(String.valueOf(token)))
+                .block();
+
+        assertThat(result).isEqualTo("null");
+    }
+
+    private static WebClientResponseException unauthorized() {
+        return WebClientResponseException.create(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", null, null, null);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
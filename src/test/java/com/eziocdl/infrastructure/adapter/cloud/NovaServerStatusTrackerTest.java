@@ -0,0 +1,229 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Batched server status tracking against a stub Nova")
+class NovaServerStatusTrackerTest {
+
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(2);
+    private static final Duration MAX_INTERVAL = Duration.ofSeconds(30);
+
+    private final NavigableMap<String, Server> servers = new ConcurrentSkipListMap<>();
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private final List<InstanceStatusChangedEvent> events = new CopyOnWriteArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+    private DisposableServer nova;
+    private NovaServerStatusTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        nova = HttpServer.create().host("127.0.0.1").port(0)
+                .route(routes -> routes.get("/servers/detail", (req, res) -> {
+                    listCalls.incrementAndGet();
+                    return res.header("Content-Type", "application/json")
+                            .sendString(Mono.just(listServers(new QueryStringDecoder(req.uri()).parameters())))
+                            .then();
+                }))
+                .bindNow();
+        tracker = new NovaServerStatusTracker("openstack", WebClient.create("http://127.0.0.1:" + nova.port()),
+                KeystoneTokenProvider.disabled(), event -> events.add((InstanceStatusChangedEvent) event),
+                clock, new SimpleMeterRegistry(), MIN_INTERVAL, MAX_INTERVAL, Duration.ofMinutes(10), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.close();
+        nova.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should settle servers only when Nova reports ACTIVE or ERROR")
+    void shouldSettleOnRealStatus() {
+        UUID building = track("srv-build", "BUILD");
+        UUID active = track("srv-ok", "BUILD");
+        UUID broken = track("srv-broken", "BUILD");
+        tracker.pollOnce();
+        assertThat(events).isEmpty();
+
+        update("srv-ok", "ACTIVE");
+        update("srv-broken", "ERROR");
+        tracker.pollOnce();
+
+        assertThat(events).extracting(InstanceStatusChangedEvent::provisioningId, InstanceStatusChangedEvent::status)
+                .containsExactlyInAnyOrder(
+                        tuple(active, ProvisioningStatus.ACTIVE),
+                        tuple(broken, ProvisioningStatus.FAILED));
+        assertThat(events).extracting(InstanceStatusChangedEvent::provisioningId).doesNotContain(building);
+        assertThat(tracker.inFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail servers still building after the build timeout")
+    void shouldFailOnBuildTimeout() {
+        UUID stuck = track("srv-stuck", "BUILD");
+        tracker.pollOnce();
+
+        clock.advance(Duration.ofMinutes(10).plusSeconds(1));
+        tracker.pollOnce();
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.provisioningId()).isEqualTo(stuck);
+            assertThat(event.status()).isEqualTo(ProvisioningStatus.FAILED);
+            assertThat(event.detail()).isEqualTo("BUILD_TIMEOUT");
+        });
+    }
+
+    @Test
+    @DisplayName("Should back off while nothing changes and speed up once something settles")
+    void shouldAdaptInterval() {
+        track("srv-1", "BUILD");
+
+        assertThat(tracker.pollOnce()).isEqualTo(Duration.ofSeconds(4));
+        assertThat(tracker.pollOnce()).isEqualTo(Duration.ofSeconds(8));
+        assertThat(tracker.pollOnce()).isEqualTo(Duration.ofSeconds(16));
+        assertThat(tracker.pollOnce()).isEqualTo(MAX_INTERVAL);
+
+        update("srv-1", "ACTIVE");
+        assertThat(tracker.pollOnce()).isEqualTo(MIN_INTERVAL);
+    }
+
+    @Test
+    @DisplayName("Should settle a resumed server that went ACTIVE while the service was down")
+    void shouldSeeChangesMadeBeforeRestart() {
+        Instant lastProgress = clock.instant().minus(Duration.ofMinutes(3));
+        servers.put("srv-old", new Server("srv-old", "ACTIVE", lastProgress.plusSeconds(30)));
+        UUID provisioningId = UUID.randomUUID();
+
+        tracker.resume(provisioningId, new CloudInstance("openstack", "RegionOne", "srv-old"), lastProgress);
+        tracker.pollOnce();
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.provisioningId()).isEqualTo(provisioningId);
+            assertThat(event.status()).isEqualTo(ProvisioningStatus.ACTIVE);
+        });
+        assertThat(tracker.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not call Nova while nothing is in flight")
+    void shouldStayIdle() {
+        tracker.pollOnce();
+
+        assertThat(listCalls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Benchmark: 50k servers in flight are followed with one paged listing per cycle")
+    void shouldScaleToFiftyThousandServers() {
+        int total = 50_000;
+        for (int i = 0; i < total; i++) {
+            track("srv-%06d".formatted(i), "BUILD");
+        }
+
+        // Only 500 change per cycle: the listing stays small no matter how many are tracked
+        long start = System.nanoTime();
+        for (int cycle = 0; cycle < 100; cycle++) {
+            clock.advance(MIN_INTERVAL);
+            for (int i = cycle * 500; i < (cycle + 1) * 500; i++) {
+                update("srv-%06d".formatted(i), i % 50 == 0 ? "ERROR" : "ACTIVE");
+            }
+            tracker.pollOnce();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[Benchmark] %d servers settled with %d GET /servers/detail in %dms%n",
+                events.size(), listCalls.get(), elapsedMs);
+
+        assertThat(events).hasSize(total);
+        assertThat(tracker.inFlightCount()).isZero();
+        // changes-since is inclusive, so each cycle re-reads the previous second: at most 3 pages per cycle
+        assertThat(listCalls.get()).isLessThanOrEqualTo(300);
+    }
+
+    private UUID track(String instanceId, String status) {
+        servers.put(instanceId, new Server(instanceId, status, clock.instant()));
+        UUID provisioningId = UUID.randomUUID();
+        tracker.track(provisioningId, new CloudInstance("openstack", "RegionOne", instanceId));
+        return provisioningId;
+    }
+
+    private void update(String instanceId, String status) {
+        servers.put(instanceId, new Server(instanceId, status, clock.instant()));
+    }
+
+    private String listServers(Map<String, List<String>> params) {
+        Instant since = Instant.parse(params.get("changes-since").get(0));
+        int limit = Integer.parseInt(params.get("limit").get(0));
+        NavigableMap<String, Server> range = params.containsKey("marker")
+                ? servers.tailMap(params.get("marker").get(0), false)
+                : servers;
+        return range.values().stream()
+                .filter(server -> !server.updated().isBefore(since))
+                .limit(limit)
+                .map(server -> "{\"id\":\"%s\",\"name\":\"%s\",\"status\":\"%s\",\"updated\":\"%s\"}"
+                        .formatted(server.id(), server.id(), server.status(), server.updated()))
+                .collect(Collectors.joining(",", "{\"servers\":[", "]}"));
+    }
+
+    private record Server(String id, String status, Instant updated) {
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
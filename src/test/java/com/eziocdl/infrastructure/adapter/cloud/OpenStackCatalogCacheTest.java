@@ -0,0 +1,94 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OpenStack catalog cache against a stub Nova")
+class OpenStackCatalogCacheTest {
+
+    private static final String FLAVORS = """
+            {"flavors":[
+              {"id":"2","name":"m1.small","vcpus":1,"ram":2048,"disk":20},
+              {"id":"4","name":"m1.large","vcpus":4,"ram":8192,"disk":80}
+            ]}""";
+    private static final String IMAGES = """
+            {"images":[{"id":"img-123","name":"ubuntu-22.04"}]}""";
+
+    private DisposableServer nova;
+    private final AtomicBoolean novaUp = new AtomicBoolean(true);
+    private SimpleMeterRegistry registry;
+    private OpenStackCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nova = HttpServer.create().host("127.0.0.1").port(0)
+                .route(routes -> routes
+                        .get("/flavors/detail", (req, res) -> reply(res, FLAVORS))
+                        .get("/images", (req, res) -> reply(res, IMAGES)))
+                .bindNow();
+        registry = new SimpleMeterRegistry();
+        cache = new OpenStackCatalogCache(WebClient.create("http://127.0.0.1:" + nova.port()),
+                KeystoneTokenProvider.disabled(), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nova.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should resolve flavors and images after a refresh")
+    void shouldResolveAfterRefresh() {
+        cache.refresh();
+
+        assertThat(cache.resolveFlavor(4, 8 * 1024)).map(FlavorCatalog.Flavor::id).contains("4");
+        assertThat(cache.resolveFlavor(2, 4 * 1024)).map(FlavorCatalog.Flavor::id).contains("4");
+        assertThat(cache.resolveImage("ubuntu-22.04")).contains("img-123");
+        assertThat(count("cpm.cloud.catalog.refresh", "result", "success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count misses for unknown sizes and images")
+    void shouldCountMisses() {
+        cache.refresh();
+
+        assertThat(cache.resolveFlavor(64, 1024)).isEmpty();
+        assertThat(cache.resolveImage("windows-2022")).isEmpty();
+        assertThat(count("cpm.cloud.catalog.miss", "kind", "flavor")).isEqualTo(1);
+        assertThat(count("cpm.cloud.catalog.miss", "kind", "image")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot when a refresh fails")
+    void shouldKeepSnapshotOnFailure() {
+        cache.refresh();
+        novaUp.set(false);
+
+        cache.refresh();
+
+        assertThat(cache.resolveFlavor(1, 1024)).map(FlavorCatalog.Flavor::id).contains("2");
+        assertThat(count("cpm.cloud.catalog.refresh", "result", "failure")).isEqualTo(1);
+    }
+
+    private Mono<Void> reply(reactor.netty.http.server.HttpServerResponse res, String body) {
+        if (!novaUp.get()) {
+            return res.status(503).send();
+        }
+        return res.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+    }
+
+    private double count(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).counter().count();
+    }
+}
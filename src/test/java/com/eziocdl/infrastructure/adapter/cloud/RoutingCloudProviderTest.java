@@ -0,0 +1,376 @@
+package com.eziocdl.infrastructure.adapter.cloud;
+
+import com.eziocdl.application.port.out.CloudProviderPort;
+import com.eziocdl.domain.model.CloudInstance;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.infrastructure.config.CloudEndpointProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Multi-region routing")
+class RoutingCloudProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<NovaStub> stubs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stubs.forEach(stub -> stub.server.disposeNow());
+    }
+
+    @Nested
+    @DisplayName("Simulation against stub regions")
+    class Simulation {
+
+        @Test
+        @DisplayName("Benchmark: the fastest region serves the most and every server keeps its region")
+        void shouldFavourTheFastestRegion() throws Exception {
+            RoutingCloudProvider router = router(
+                    backend(stub("RegionFast", Duration.ofMillis(10)), 1, 25),
+                    backend(stub("RegionMid", Duration.ofMillis(40)), 1, 25),
+                    backend(stub("RegionSlow", Duration.ofMillis(120)), 1, 25));
+            List<ProvisioningRequest> requests = requests(600);
+
+            long start = System.nanoTime();
+            List<CloudInstance> instances = provision(router, requests, 30);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            Map<String, Long> byRegion = distribution(instances);
+            System.out.printf("[Benchmark] %d requests over 3 regions in %dms | served: %s | ewma(ms): %s%n",
+                    requests.size(), elapsedMs, byRegion, ewma(router));
+
+            assertThat(instances).allMatch(CloudInstance::isAllocated);
+            assertThat(instances).allSatisfy(instance ->
+                    assertThat(instance.instanceId()).startsWith(instance.region() + "-"));
+            assertThat(byRegion.get("RegionFast")).isGreaterThan(byRegion.get("RegionMid"));
+            assertThat(byRegion.get("RegionMid")).isGreaterThan(byRegion.getOrDefault("RegionSlow", 0L));
+        }
+
+        @Test
+        @DisplayName("Should respect weights between regions with equal latency")
+        void shouldRespectWeights() throws Exception {
+            RoutingCloudProvider router = router(
+                    backend(stub("RegionHeavy", Duration.ofMillis(20)), 3, 25),
+                    backend(stub("RegionLight", Duration.ofMillis(20)), 1, 25));
+
+            Map<String, Long> byRegion = distribution(provision(router, requests(400), 16));
+
+            assertThat(byRegion.get("RegionHeavy")).isGreaterThan(2 * byRegion.get("RegionLight"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Guards")
+    class Guards {
+
+        @Test
+        @DisplayName("Should open the breaker of a failing region and fail over to the others")
+        void shouldFailOverWhenRegionFails() throws Exception {
+            NovaStub broken = stub("RegionBroken", Duration.ofMillis(5));
+            broken.failing.set(true);
+            RoutingCloudProvider router = router(
+                    backend(broken, 1, 25),
+                    backend(stub("RegionOk", Duration.ofMillis(30)), 1, 25));
+
+            List<CloudInstance> instances = provision(router, requests(200), 10);
+
+            assertThat(instances).allMatch(CloudInstance::isAllocated);
+            assertThat(instances).extracting(CloudInstance::region).containsOnly("RegionOk");
+            assertThat(router.backends().get(0).isAvailable()).isFalse();
+            assertThat(broken.creates.get()).isLessThan(40); // breaker stops the calls after the window
+        }
+
+        @Test
+        @DisplayName("Should take an open region back once its breaker half-opens on its own")
+        void shouldRecoverOpenRegion() throws Exception {
+            CircuitBreakerRegistry breakers = CircuitBreakerRegistry.ofDefaults();
+            breakers.addConfiguration(RoutingCloudProvider.BREAKER_CONFIG, CircuitBreakerConfig.custom()
+                    .slidingWindowSize(10)
+                    .minimumNumberOfCalls(5)
+                    .failureRateThreshold(50)
+                    .waitDurationInOpenState(Duration.ofMillis(300))
+                    .build()); // Sem transicao automatica: regionBreaker liga sozinho
+            NovaStub flaky = stub("RegionFlaky", Duration.ofMillis(5));
+            flaky.failing.set(true);
+            CircuitBreaker breaker = RoutingCloudProvider.regionBreaker(breakers, flaky.region);
+            List<CircuitBreaker.State> states = new CopyOnWriteArrayList<>();
+            breaker.getEventPublisher().onStateTransition(event -> states.add(event.getStateTransition().getToState()));
+            RoutingCloudProvider.Backend region = new RoutingCloudProvider.Backend(flaky.region, flaky.region,
+                    adapterFor(flaky), 1, breaker, 25);
+            RoutingCloudProvider router = router(region, backend(stub("RegionOk", Duration.ofMillis(5)), 1, 25));
+
+            provision(router, requests(50), 5);
+            assertThat(states).contains(CircuitBreaker.State.OPEN); // Pode ja ter meio-aberto se a maquina for lenta
+
+            flaky.failing.set(false);
+            await().atMost(Duration.ofSeconds(5)).until(region::isAvailable);
+
+            List<CloudInstance> instances = provision(router, requests(100), 5);
+            assertThat(instances).allMatch(CloudInstance::isAllocated);
+            assertThat(distribution(instances)).containsKey("RegionFlaky");
+            assertThat(breakers.circuitBreaker(flaky.region).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        @DisplayName("Should fail a size no region has a flavor for, instead of handing it back for retry")
+        void shouldThrowWhenNoRegionFitsSize() {
+            NovaStub first = stub("RegionA", Duration.ZERO);
+            NovaStub second = stub("RegionB", Duration.ZERO);
+            RoutingCloudProvider router = router(backend(first, 1, 25), backend(second, 1, 25));
+
+            assertThatThrownBy(() -> router.provisionInstance(new ProvisioningRequest("dev", "64GB", "16vCPU")))
+                    .isInstanceOf(NoMatchingFlavorException.class);
+            assertThat(router.backends()).allMatch(RoutingCloudProvider.Backend::isAvailable);
+            assertThat(first.creates.get() + second.creates.get()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should never exceed a region's bulkhead and spill the rest to other regions")
+        void shouldSpillOverFullBulkhead() throws Exception {
+            NovaStub small = stub("RegionSmall", Duration.ofMillis(10));
+            RoutingCloudProvider router = router(
+                    backend(small, 1, 2),
+                    backend(stub("RegionBig", Duration.ofMillis(60)), 1, 50));
+
+            List<CloudInstance> instances = provision(router, requests(300), 40);
+
+            assertThat(instances).allMatch(CloudInstance::isAllocated);
+            assertThat(small.maxConcurrent.get()).isLessThanOrEqualTo(2);
+            assertThat(distribution(instances)).containsKeys("RegionSmall", "RegionBig");
+        }
+
+        @Test
+        @DisplayName("Should return unallocated instances when every region is down")
+        void shouldReturnUnallocatedWhenAllFail() {
+            RoutingCloudProvider router = new RoutingCloudProvider("openstack", List.of(
+                    new RoutingCloudProvider.Backend("a", "RegionA", failing(), 1, breaker("a"), 5),
+                    new RoutingCloudProvider.Backend("b", "RegionB", failing(), 1, breaker("b"), 5)), registry);
+
+            List<CloudInstance> instances = router.provisionInstances(requests(3));
+
+            assertThat(instances).hasSize(3).noneMatch(CloudInstance::isAllocated);
+            assertThat(registry.get("cpm.cloud.route").tag("backend", "a").tag("outcome", "failed").counter().count())
+                    .isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("Should delete each server in its own region, count 404 as gone and leave a failing region's for later")
+        void shouldDeleteInOwnRegion() {
+            NovaStub one = stub("RegionOne", Duration.ofMillis(5));
+            NovaStub broken = stub("RegionBroken", Duration.ofMillis(5));
+            broken.failing.set(true);
+            RoutingCloudProvider router = router(backend(one, 1, 25), backend(broken, 1, 25));
+
+            List<String> gone = router.deprovisionInstances(List.of(
+                    new CloudInstance("openstack", "RegionOne", "RegionOne-srv-1"),
+                    new CloudInstance("openstack", "RegionBroken", "RegionBroken-srv-1"),
+                    new CloudInstance("openstack", "RegionOne", "missing-srv-2"),
+                    new CloudInstance("openstack", "RegionUnknown", "srv-3")));
+
+            assertThat(gone).containsExactlyInAnyOrder("RegionOne-srv-1", "missing-srv-2");
+            assertThat(one.deletes).containsExactlyInAnyOrder("RegionOne-srv-1", "missing-srv-2");
+            assertThat(broken.deletes).containsExactly("RegionBroken-srv-1");
+            assertThat(registry.get("cpm.cloud.route").tag("backend", "RegionOne").tag("outcome", "deleted").counter().count())
+                    .isEqualTo(2.0);
+            assertThat(registry.get("cpm.cloud.route").tag("backend", "RegionBroken").tag("outcome", "failed").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should return the servers deleted when Nova refuses some, without failing the breaker call")
+        void shouldDeleteEachServerOnItsOwn() {
+            NovaStub one = stub("RegionOne", Duration.ofMillis(5));
+            CircuitBreaker breaker = breaker("RegionOne");
+            RoutingCloudProvider router = router(new RoutingCloudProvider.Backend("RegionOne", "RegionOne",
+                    adapterFor(one), 1, breaker, 25));
+
+            List<String> gone = router.deprovisionInstances(List.of(
+                    new CloudInstance("openstack", "RegionOne", "RegionOne-srv-1"),
+                    new CloudInstance("openstack", "RegionOne", "locked-srv-2"),
+                    new CloudInstance("openstack", "RegionOne", "missing-srv-3")));
+
+            assertThat(gone).containsExactlyInAnyOrder("RegionOne-srv-1", "missing-srv-3");
+            assertThat(breaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+
+            assertThat(router.deprovisionInstances(List.of(
+                    new CloudInstance("openstack", "RegionOne", "locked-srv-2")))).isEmpty();
+            assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject two backends in the same region")
+        void shouldRejectDuplicateRegions() {
+            assertThatThrownBy(() -> new RoutingCloudProvider("openstack", List.of(
+                    new RoutingCloudProvider.Backend("a", "RegionOne", failing(), 1, breaker("a"), 5),
+                    new RoutingCloudProvider.Backend("b", "RegionOne", failing(), 1, breaker("b"), 5)), registry))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private RoutingCloudProvider router(RoutingCloudProvider.Backend... backends) {
+        return new RoutingCloudProvider("openstack", List.of(backends), registry);
+    }
+
+    private RoutingCloudProvider.Backend backend(NovaStub stub, int weight, int maxConcurrentCalls) {
+        return new RoutingCloudProvider.Backend(stub.region, stub.region, adapterFor(stub), weight,
+                breaker(stub.region), maxConcurrentCalls);
+    }
+
+    private OpenStackAdapter adapterFor(NovaStub stub) {
+        String baseUrl = "http://127.0.0.1:" + stub.server.port();
+        var pool = new CloudEndpointProperties.Pool(100, 1000, Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+        var clients = new CloudEndpointClients(WebClient.builder(), new CloudEndpointProperties(Map.of(stub.region,
+                new CloudEndpointProperties.Endpoint(baseUrl, Duration.ofSeconds(1), Duration.ofSeconds(5), true, false, pool))));
+        WebClient webClient = clients.forEndpoint(stub.region);
+        var catalog = new OpenStackCatalogCache(webClient, KeystoneTokenProvider.disabled(), registry);
+        catalog.refresh();
+        return new OpenStackAdapter(webClient, KeystoneTokenProvider.disabled(), catalog,
+                CircuitBreakerRegistry.ofDefaults(), "ubuntu-22.04", stub.region);
+    }
+
+    private static CircuitBreaker breaker(String name) {
+        return CircuitBreaker.of(name, CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+    }
+
+    private static CloudProviderPort failing() {
+        return new CloudProviderPort() {
+            @Override
+            public CloudInstance provisionInstance(ProvisioningRequest request) {
+                throw new IllegalStateException("Nova indisponivel");
+            }
+
+            @Override
+            public List<CloudInstance> provisionInstances(List<ProvisioningRequest> requests) {
+                throw new IllegalStateException("Nova indisponivel");
+            }
+
+            @Override
+            public List<String> deprovisionInstances(List<CloudInstance> instances) {
+                throw new IllegalStateException("Nova indisponivel");
+            }
+        };
+    }
+
+    private NovaStub stub(String region, Duration latency) {
+        NovaStub stub = new NovaStub(region, latency);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private static List<ProvisioningRequest> requests(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new ProvisioningRequest("trainee", "8GB", "4vCPU")).toList();
+    }
+
+    /** Runs the requests with a fixed number of concurrent callers, like the listener's executor would. */
+    private static List<CloudInstance> provision(CloudProviderPort provider, List<ProvisioningRequest> requests,
+                                                 int callers) throws Exception {
+        try (ExecutorService pool = Executors.newFixedThreadPool(callers)) {
+            List<Future<CloudInstance>> futures = requests.stream()
+                    .map(r -> pool.submit(() -> provider.provisionInstance(r)))
+                    .toList();
+            List<CloudInstance> instances = new ArrayList<>();
+            for (Future<CloudInstance> future : futures) {
+                instances.add(future.get());
+            }
+            return instances;
+        }
+    }
+
+    private static Map<String, Long> distribution(List<CloudInstance> instances) {
+        return instances.stream()
+                .filter(CloudInstance::isAllocated)
+                .collect(Collectors.groupingBy(CloudInstance::region, LinkedHashMap::new, Collectors.counting()));
+    }
+
+    private static Map<String, Long> ewma(RoutingCloudProvider router) {
+        Map<String, Long> ewma = new LinkedHashMap<>();
+        router.backends().forEach(backend -> ewma.put(backend.region(), Math.round(backend.latencyEwmaMillis())));
+        return ewma;
+    }
+
+    /**
+     * A Nova region answering single creates after a fixed latency and deletes (404 for "missing-*", 409 for
+     * "locked-*"), or with 503 while failing.
+     */
+    private static final class NovaStub {
+
+        private final String region;
+        private final AtomicInteger creates = new AtomicInteger();
+        private final List<String> deletes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private final DisposableServer server;
+
+        private NovaStub(String region, Duration latency) {
+            this.region = region;
+            this.server = HttpServer.create().host("127.0.0.1").port(0)
+                    .route(routes -> routes
+                            .get("/flavors/detail", (req, res) -> json(res,
+                                    "{\"flavors\":[{\"id\":\"4\",\"name\":\"m1.large\",\"vcpus\":4,\"ram\":8192}]}"))
+                            .get("/images", (req, res) -> json(res, "{\"images\":[]}"))
+                            .post("/servers", (req, res) -> req.receive().aggregate().asString()
+                                    .doOnNext(body -> maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max))
+                                    .delayElement(latency)
+                                    .flatMap(body -> {
+                                        concurrent.decrementAndGet();
+                                        int seq = creates.incrementAndGet();
+                                        if (failing.get()) {
+                                            return res.status(503).send();
+                                        }
+                                        return json(res, "{\"server\":{\"id\":\"" + region + "-srv-" + seq + "\"}}");
+                                    }))
+                            .delete("/servers/{id}", (req, res) -> {
+                                String id = req.param("id");
+                                deletes.add(id);
+                                if (failing.get()) {
+                                    return res.status(503).send();
+                                }
+                                if (id.startsWith("locked-")) {
+                                    return res.status(409).send();
+                                }
+                                return res.status(id.startsWith("missing-") ? 404 : 204).send();
+                            }))
+                    .bindNow();
+        }
+
+        private static Mono<Void> json(HttpServerResponse res, String body) {
+            return res.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+        }
+    }
+}
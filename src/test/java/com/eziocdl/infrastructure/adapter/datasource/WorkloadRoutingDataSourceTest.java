@@ -0,0 +1,296 @@
+package com.eziocdl.infrastructure.adapter.datasource;
+
+import com.eziocdl.application.workload.Workload;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Workload routing data source")
+class WorkloadRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : closeables) {
+            closeable.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Routing")
+    class Routing {
+
+        @Test
+        @DisplayName("Should route API and worker calls to their own pools, and unannotated code to the worker pool")
+        void shouldRouteByWorkload() {
+            WorkloadRoutingDataSource routing = routing(null);
+            Probe probe = advised(new ProbeService(routing));
+
+            assertThat(probe.api()).isEqualTo("cpm-api");
+            assertThat(probe.worker()).isEqualTo("cpm-worker");
+            assertThat(poolName(routing)).isEqualTo("cpm-worker");
+            assertThat(WorkloadContext.current()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep the outer workload on nested calls")
+        void shouldKeepOuterWorkload() {
+            WorkloadRoutingDataSource routing = routing(null);
+            Probe worker = advised(new ProbeService(routing));
+            Probe api = advised(new NestedService(worker));
+
+            assertThat(api.api()).isEqualTo("cpm-api");
+        }
+
+        @Test
+        @DisplayName("Should send read-only work to the replica, or to the API pool without one")
+        void shouldRouteReadOnly() {
+            assertThat(advised(new ProbeService(routing(null))).readOnly()).isEqualTo("cpm-api");
+            assertThat(advised(new ProbeService(routing(pool("cpm-replica", 2, 1000, stub())))).readOnly())
+                    .isEqualTo("cpm-replica");
+        }
+
+        @Test
+        @DisplayName("Should still hand API callers a connection while workers hold every worker connection")
+        void shouldIsolateApiFromWorkers() throws Exception {
+            WorkloadRoutingDataSource routing = routing(null);
+
+            WorkloadContext.set(Workload.Pool.WORKER);
+            try (Connection first = routing.getConnection(); Connection second = routing.getConnection()) {
+                assertThat(registry.get("cpm.datasource.utilization").tag("pool", "cpm-worker").gauge().value()).isEqualTo(1.0);
+
+                WorkloadContext.set(Workload.Pool.API);
+                try (Connection api = routing.getConnection()) {
+                    assertThat(poolName(routing)).isEqualTo("cpm-api");
+                    assertThat(registry.get("cpm.datasource.utilization").tag("pool", "cpm-api").gauge().value()).isEqualTo(0.5);
+                }
+            } finally {
+                WorkloadContext.clear();
+            }
+        }
+
+        @Test
+        @DisplayName("Should publish per-pool wait time and utilization")
+        void shouldPublishMetrics() throws Exception {
+            WorkloadRoutingDataSource routing = routing(null);
+
+            WorkloadContext.set(Workload.Pool.API);
+            try (Connection ignored = routing.getConnection()) {
+                assertThat(registry.get("cpm.datasource.utilization").tag("pool", "cpm-api").gauge().value()).isEqualTo(0.5);
+            } finally {
+                WorkloadContext.clear();
+            }
+
+            assertThat(registry.get("hikaricp.connections.acquire").tag("pool", "cpm-api").timer().count()).isPositive();
+            assertThat(registry.get("cpm.datasource.utilization").tag("pool", "cpm-worker").gauge().value()).isZero();
+        }
+    }
+
+    @Test
+    @Tag("perf") // Percentis de latencia contra o relogio: ./mvnw -Pperf test
+    @DisplayName("Benchmark: API latency stays flat while workers hold their connections on a slow Nova")
+    void benchmarkIsolation() throws Exception {
+        HikariDataSource shared = pool("cpm-shared", 15, 5000, stub());
+        long[] sharedLatencies = apiLatencies(shared, shared);
+
+        HikariDataSource api = pool("cpm-api", 5, 5000, stub());
+        HikariDataSource worker = pool("cpm-worker", 10, 5000, stub());
+        long[] isolatedLatencies = apiLatencies(api, worker);
+
+        long sharedP99 = percentile(sharedLatencies, 0.99);
+        long isolatedP99 = percentile(isolatedLatencies, 0.99);
+        System.out.printf("[Benchmark] 20 workers holding a connection 200ms (slow Nova), 50 API inserts | "
+                        + "shared pool(15): p50 %.2fms p99 %.2fms | isolated api(5)+worker(10): p50 %.2fms p99 %.2fms%n",
+                percentile(sharedLatencies, 0.50) / 1e6, sharedP99 / 1e6,
+                percentile(isolatedLatencies, 0.50) / 1e6, isolatedP99 / 1e6);
+
+        assertThat(isolatedP99).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(sharedP99).isGreaterThan(isolatedP99 * 5);
+    }
+
+    /** 20 workers keep taking a connection for 200ms while one API client takes 50 short ones. */
+    private long[] apiLatencies(DataSource apiPool, DataSource workerPool) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(20);
+        ExecutorService workers = Executors.newFixedThreadPool(20);
+        try {
+            for (int i = 0; i < 20; i++) {
+                workers.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        try (Connection ignored = workerPool.getConnection()) {
+                            Thread.sleep(200);
+                        }
+                    }
+                    return null;
+                });
+            }
+            started.await();
+            Thread.sleep(100); // Workers com a conexao na mao
+
+            long[] latencies = new long[50];
+            for (int i = 0; i < latencies.length; i++) {
+                long start = System.nanoTime();
+                try (Connection ignored = apiPool.getConnection()) {
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Thread.sleep(2);
+            }
+            return latencies;
+        } finally {
+            running.set(false);
+            workers.shutdown();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private WorkloadRoutingDataSource routing(HikariDataSource replica) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(pool("cpm-api", 2, 1000, stub()),
+                pool("cpm-worker", 2, 1000, stub()), replica, registry);
+        closeables.add(routing);
+        return routing;
+    }
+
+    private HikariDataSource pool(String name, int size, long connectionTimeoutMillis, DataSource driver) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDataSource(driver);
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(size);
+        config.setConnectionTimeout(connectionTimeoutMillis);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        HikariDataSource pool = new HikariDataSource(config);
+        closeables.add(pool);
+        return pool;
+    }
+
+    private static Probe advised(Probe target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(new WorkloadRoutingAdvisor());
+        return (Probe) factory.getProxy();
+    }
+
+    private static String poolName(WorkloadRoutingDataSource routing) {
+        Workload.Pool current = WorkloadContext.current();
+        DataSource target = current == null ? routing.getResolvedDefaultDataSource()
+                : routing.getResolvedDataSources().get(current);
+        return ((HikariDataSource) target).getPoolName();
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    /** Driver stand-in: connections answer every call with a default value. */
+    private static DataSource stub() {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() {
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, method, args) -> switch (method.getName()) {
+                            case "isValid" -> true;
+                            case "getAutoCommit" -> true;
+                            case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+                            case "getNetworkTimeout" -> 0;
+                            case "isReadOnly", "isClosed", "isWrapperFor" -> false;
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            case "toString" -> "StubConnection";
+                            default -> null;
+                        });
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) {
+                return getConnection();
+            }
+        };
+    }
+
+    interface Probe {
+
+        @Workload(Workload.Pool.API)
+        String api();
+
+        String worker();
+
+        @Workload(Workload.Pool.READ_ONLY)
+        String readOnly();
+    }
+
+    @Workload(Workload.Pool.WORKER)
+    static class ProbeService implements Probe {
+
+        private final WorkloadRoutingDataSource routing;
+
+        ProbeService(WorkloadRoutingDataSource routing) {
+            this.routing = routing;
+        }
+
+        @Override
+        public String api() {
+            return poolName(routing);
+        }
+
+        @Override
+        public String worker() {
+            return poolName(routing);
+        }
+
+        @Override
+        public String readOnly() {
+            return poolName(routing);
+        }
+    }
+
+    /** Annotated API entry point that calls a worker-annotated bean. */
+    static class NestedService implements Probe {
+
+        private final Probe worker;
+
+        NestedService(Probe worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public String api() {
+            return worker.worker();
+        }
+
+        @Override
+        public String worker() {
+            return worker.worker();
+        }
+
+        @Override
+        public String readOnly() {
+            return worker.readOnly();
+        }
+    }
+}
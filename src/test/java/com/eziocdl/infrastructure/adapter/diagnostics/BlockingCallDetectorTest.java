@@ -0,0 +1,127 @@
+package com.eziocdl.infrastructure.adapter.diagnostics;
+
+import com.eziocdl.infrastructure.adapter.diagnostics.BlockingCallDetector.Kind;
+import com.eziocdl.infrastructure.adapter.diagnostics.BlockingCallDetector.Violation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Blocking-call detector")
+class BlockingCallDetectorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BlockingCallDetector detector;
+
+    @AfterEach
+    void tearDown() {
+        if (detector != null) {
+            detector.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a sleep on a Reactor non-blocking thread with its stack trace")
+    void shouldReportBlockingCall() {
+        detector = start(false);
+
+        Mono.fromRunnable(() -> sleep(5)).subscribeOn(Schedulers.parallel()).block(Duration.ofSeconds(5));
+
+        assertThat(detector.violations()).singleElement().satisfies(violation -> {
+            assertThat(violation.kind()).isEqualTo(Kind.BLOCKING_CALL);
+            assertThat(violation.operation()).startsWith("java.lang.Thread.sleep");
+            assertThat(violation.thread()).startsWith("parallel-");
+            assertThat(violation.stackTrace()).anyMatch(frame -> frame.contains(BlockingCallDetectorTest.class.getName()));
+        });
+        assertThat(registry.get("cpm.diagnostics.blocking.calls").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should leave blocking calls alone on bounded elastic and virtual threads")
+    void shouldIgnoreBlockingFriendlyThreads() throws Exception {
+        detector = start(false);
+
+        Mono.fromRunnable(() -> sleep(5)).subscribeOn(Schedulers.boundedElastic()).block(Duration.ofSeconds(5));
+        Thread.ofVirtual().start(() -> sleep(5)).join();
+
+        assertThat(detector.violations()).noneMatch(violation -> violation.kind() == Kind.BLOCKING_CALL);
+    }
+
+    @Test
+    @DisplayName("Should fail the blocking call in fail-fast mode")
+    void shouldFailFast() {
+        detector = start(true);
+
+        Mono<Object> blocking = Mono.fromRunnable(() -> sleep(5)).subscribeOn(Schedulers.parallel());
+
+        assertThatThrownBy(() -> blocking.block(Duration.ofSeconds(5))).hasCauseInstanceOf(BlockingOperationError.class);
+    }
+
+    @Test
+    @DisplayName("Should report nothing once closed")
+    void shouldStopWhenClosed() {
+        detector = start(false);
+        detector.close();
+
+        Mono.fromRunnable(() -> sleep(5)).subscribeOn(Schedulers.parallel()).block(Duration.ofSeconds(5));
+
+        assertThat(detector.violations()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report a virtual thread pinned by a monitor, with the culprit frame")
+    void shouldReportPinnedVirtualThread() throws Exception {
+        detector = start(false);
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50); // Park dentro de synchronized prende o carrier (JDK 21)
+            }
+        }).join();
+
+        List<Violation> pinned = awaitPinned();
+        assertThat(pinned).isNotEmpty();
+        assertThat(pinned.get(0).duration()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+        assertThat(pinned.get(0).operation()).contains(BlockingCallDetectorTest.class.getName());
+        assertThat(registry.get("cpm.diagnostics.pinned").timer().count()).isPositive();
+    }
+
+    private BlockingCallDetector start(boolean failFast) {
+        BlockingCallDetector started = new BlockingCallDetector(registry, failFast, Duration.ofMillis(20), 10);
+        started.start();
+        return started;
+    }
+
+    /** JFR streams flush about once a second. */
+    private List<Violation> awaitPinned() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            List<Violation> pinned = detector.violations().stream()
+                    .filter(violation -> violation.kind() == Kind.PINNED_VIRTUAL_THREAD)
+                    .toList();
+            if (!pinned.isEmpty()) {
+                return pinned;
+            }
+            Thread.sleep(100);
+        }
+        return List.of();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.eziocdl.infrastructure.adapter.events;
+
+import com.eziocdl.domain.event.ProvisioningRequestedEvent;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Ring buffer event pipeline")
+class EventRingBufferTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EventRingBuffer<Long> ring;
+
+    @AfterEach
+    void tearDown() {
+        if (ring != null) {
+            ring.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Ring")
+    class Ring {
+
+        @Test
+        @DisplayName("Should deliver every event once, in per-producer order, from several producers")
+        void shouldDeliverEveryEventInOrder() throws Exception {
+            int producers = 4;
+            int perProducer = 20_000;
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            AtomicInteger outOfOrder = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(producers * perProducer);
+            ring = new EventRingBuffer<>("test", 64, (event, sequence, endOfBatch) -> {
+                int producer = (int) (event / perProducer);
+                long seq = event % perProducer;
+                if (seq != lastSeen[producer] + 1) {
+                    outOfOrder.incrementAndGet();
+                }
+                lastSeen[producer] = seq;
+                done.countDown();
+            }, registry);
+
+            try (ExecutorService pool = Executors.newFixedThreadPool(producers)) {
+                for (int p = 0; p < producers; p++) {
+                    long base = (long) p * perProducer;
+                    pool.execute(() -> {
+                        for (int i = 0; i < perProducer; i++) {
+                            ring.publish(base + i);
+                        }
+                    });
+                }
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(outOfOrder.get()).isZero();
+            assertThat(registry.get("cpm.events.published").counter().count()).isEqualTo(producers * perProducer);
+            assertThat(registry.get("cpm.events.full").counter().count()).isPositive(); // Ring de 64: houve espera
+        }
+
+        @Test
+        @DisplayName("Should flag the last event of each batch")
+        void shouldFlagEndOfBatch() throws Exception {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Boolean> flags = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(6);
+            ring = new EventRingBuffer<>("test", 16, (event, sequence, endOfBatch) -> {
+                if (event == 0) {
+                    entered.countDown();
+                    await(release); // Segura o consumidor enquanto os outros 5 entram
+                }
+                flags.add(endOfBatch);
+                done.countDown();
+            }, registry);
+
+            ring.publish(0L);
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            for (long i = 1; i < 6; i++) {
+                ring.publish(i);
+            }
+            release.countDown();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(flags).containsExactly(true, false, false, false, false, true);
+        }
+
+        @Test
+        @DisplayName("Should refuse a try-publish on a full ring without waiting")
+        void shouldRefuseWhenFull() throws Exception {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(3);
+            ring = new EventRingBuffer<>("test", 2, (event, sequence, endOfBatch) -> {
+                if (event == 0) {
+                    entered.countDown();
+                    await(release);
+                }
+                done.countDown();
+            }, registry);
+
+            assertThat(ring.tryPublish(0L)).isTrue();
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(ring.tryPublish(1L)).isTrue();
+            long start = System.nanoTime();
+            assertThat(ring.tryPublish(2L)).isFalse(); // Slot 0 so volta quando o lote do consumidor termina
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+            assertThat(registry.get("cpm.events.full").counter().count()).isEqualTo(1.0);
+
+            release.countDown();
+            org.awaitility.Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> ring.tryPublish(2L));
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should keep going after a handler failure")
+        void shouldSurviveHandlerFailure() throws Exception {
+            CountDownLatch done = new CountDownLatch(2);
+            ring = new EventRingBuffer<>("test", 8, (event, sequence, endOfBatch) -> {
+                if (event == 1) {
+                    throw new IllegalStateException("boom");
+                }
+                done.countDown();
+            }, registry);
+
+            ring.publish(0L);
+            ring.publish(1L);
+            ring.publish(2L);
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(registry.get("cpm.events.failures").counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should drain published events on close and refuse new ones")
+        void shouldDrainOnClose() {
+            AtomicInteger handled = new AtomicInteger();
+            ring = new EventRingBuffer<>("test", 1024, (event, sequence, endOfBatch) -> {
+                sleep(1);
+                handled.incrementAndGet();
+            }, registry);
+            for (long i = 0; i < 200; i++) {
+                ring.publish(i);
+            }
+
+            ring.close();
+
+            assertThat(handled.get()).isEqualTo(200);
+            assertThatThrownBy(() -> ring.publish(201L)).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Should restore the publisher's context around the handler")
+        void shouldPropagateContext() throws Exception {
+            ThreadLocal<String> traceId = new ThreadLocal<>();
+            ContextRegistry.getInstance().registerThreadLocalAccessor("test.trace-id", traceId);
+            try {
+                List<String> seen = Collections.synchronizedList(new ArrayList<>());
+                CountDownLatch done = new CountDownLatch(2);
+                ring = new EventRingBuffer<>("test", 8, (event, sequence, endOfBatch) -> {
+                    seen.add(traceId.get());
+                    done.countDown();
+                }, registry);
+
+                traceId.set("trace-a");
+                ring.publish(0L);
+                traceId.set("trace-b");
+                ring.publish(1L);
+                traceId.remove();
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(seen).containsExactly("trace-a", "trace-b");
+            } finally {
+                ContextRegistry.getInstance().removeThreadLocalAccessor("test.trace-id");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a size that is not a power of two")
+        void shouldRejectBadSize() {
+            assertThatThrownBy(() -> new EventRingBuffer<Long>("test", 1000, (e, s, b) -> { }, registry))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Provisioning publisher")
+    class Publisher {
+
+        private final TransactionTemplate tx = new TransactionTemplate(new NoOpTransactionManager());
+
+        @Test
+        @DisplayName("Should hand the event over only after commit")
+        void shouldPublishAfterCommit() throws Exception {
+            List<ProvisioningRequestedEvent> handled = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(1);
+            try (RingBufferProvisioningEventPublisher publisher = new RingBufferProvisioningEventPublisher(16,
+                    event -> {
+                        handled.add(event);
+                        done.countDown();
+                    }, registry)) {
+                ProvisioningRequestedEvent committed = event("alice");
+
+                tx.executeWithoutResult(status -> {
+                    publisher.publish(committed);
+                    sleep(50);
+                    assertThat(handled).isEmpty(); // Ainda dentro da transacao
+                });
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(handled).containsExactly(committed);
+            }
+        }
+
+        @Test
+        @DisplayName("Should drop the event when the transaction rolls back")
+        void shouldNotPublishOnRollback() {
+            List<ProvisioningRequestedEvent> handled = Collections.synchronizedList(new ArrayList<>());
+            try (RingBufferProvisioningEventPublisher publisher = new RingBufferProvisioningEventPublisher(16,
+                    handled::add, registry)) {
+                tx.executeWithoutResult(status -> {
+                    publisher.publish(event("alice"));
+                    status.setRollbackOnly();
+                });
+            }
+
+            assertThat(handled).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should publish right away when there is no transaction (reactive create)")
+        void shouldPublishWithoutTransaction() throws Exception {
+            CountDownLatch done = new CountDownLatch(1);
+            try (RingBufferProvisioningEventPublisher publisher = new RingBufferProvisioningEventPublisher(16,
+                    event -> done.countDown(), registry)) {
+                publisher.publish(event("alice"));
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Benchmark: after-commit handoff, ring buffer vs Spring transactional event listener")
+        void shouldCompareWithSpringEvents() throws Exception {
+            int producers = 4;
+            int perProducer = 25_000;
+            ProvisioningRequestedEvent event = event("alice");
+
+            Result spring;
+            try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SpringPath.class)) {
+                SpringPath path = context.getBean(SpringPath.class);
+                TransactionTemplate springTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                SpringProvisioningEventPublisher publisher = new SpringProvisioningEventPublisher(context);
+                spring = run(producers, perProducer, path::onHandled,
+                        () -> springTx.executeWithoutResult(status -> publisher.publish(event)));
+            }
+
+            Result ringResult;
+            Handled handled = new Handled();
+            try (RingBufferProvisioningEventPublisher publisher =
+                         new RingBufferProvisioningEventPublisher(4096, e -> handled.accept(e), registry)) {
+                ringResult = run(producers, perProducer, handled::set,
+                        () -> tx.executeWithoutResult(status -> publisher.publish(event)));
+            }
+
+            System.out.printf("[Benchmark] after-commit handoff, %d producers x %d creates | "
+                            + "spring listener: %,d events/s, producer p50 %dns p99 %dns | "
+                            + "ring buffer: %,d events/s, producer p50 %dns p99 %dns, mean batch %.1f%n",
+                    producers, perProducer,
+                    spring.eventsPerSecond(), spring.p(50), spring.p(99),
+                    ringResult.eventsPerSecond(), ringResult.p(50), ringResult.p(99),
+                    registry.get("cpm.events.batch.size").summary().mean());
+
+            assertThat(spring.handled()).isEqualTo(producers * perProducer);
+            assertThat(ringResult.handled()).isEqualTo(producers * perProducer);
+            assertThat(ringResult.eventsPerSecond()).isGreaterThan(spring.eventsPerSecond());
+        }
+    }
+
+    /**
+     * Each producer runs {@code perProducer} transactions that publish one event; the handler stands in for
+     * the scheduler submit. Measures end-to-end events/s and the time each producer spends per transaction.
+     */
+    private static Result run(int producers, int perProducer, Consumer<Consumer<ProvisioningRequestedEvent>> bind,
+                              Runnable transaction) throws InterruptedException {
+        int total = producers * perProducer;
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(total);
+        bind.accept(event -> {
+            Blackhole.consume(event.provisioningId());
+            handled.incrementAndGet();
+            done.countDown();
+        });
+        long[][] latencies = new long[producers][perProducer];
+
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                long[] mine = latencies[p];
+                pool.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        long began = System.nanoTime();
+                        transaction.run();
+                        mine[i] = System.nanoTime() - began;
+                    }
+                });
+            }
+        }
+        done.await(30, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(handled.get(), total * TimeUnit.SECONDS.toNanos(1) / elapsed, all);
+    }
+
+    private record Result(int handled, long eventsPerSecond, long[] latencies) {
+        long p(int percentile) {
+            return latencies[Math.min(latencies.length - 1, latencies.length * percentile / 100)];
+        }
+    }
+
+    private static ProvisioningRequestedEvent event(String username) {
+        return new ProvisioningRequestedEvent(new ProvisioningRequest(username, "8GB", "4vCPU").snapshot(), "DEV");
+    }
+
+    /** Handler whose target is bound after the publisher is built. */
+    private static final class Handled {
+        private volatile Consumer<ProvisioningRequestedEvent> target = e -> { };
+
+        void set(Consumer<ProvisioningRequestedEvent> target) {
+            this.target = target;
+        }
+
+        void accept(ProvisioningRequestedEvent event) {
+            target.accept(event);
+        }
+    }
+
+    /** The previous path: publishEvent -> {@code @TransactionalEventListener(AFTER_COMMIT)}. */
+    @Configuration
+    @EnableTransactionManagement
+    static class SpringPath {
+
+        private volatile Consumer<ProvisioningRequestedEvent> target = e -> { };
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+
+        void onHandled(Consumer<ProvisioningRequestedEvent> target) {
+            this.target = target;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+        public void handle(ProvisioningRequestedEvent event) {
+            target.accept(event);
+        }
+    }
+
+    /** Real synchronization lifecycle (afterCommit, rollback) without a database. */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static final class Blackhole {
+        private static volatile Object sink;
+
+        static void consume(Object value) {
+            sink = value;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.eziocdl.infrastructure.adapter.ratelimit;
+
+import com.eziocdl.application.port.out.RateLimitLeasePort;
+import com.eziocdl.domain.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Per-user rate limit shared across replicas")
+class LeasedTokenBucketRateLimiterTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final InMemoryLeases leases = new InMemoryLeases();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:10Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Nested
+    @DisplayName("Accuracy")
+    class Accuracy {
+
+        @Test
+        @DisplayName("Should admit exactly the limit across two replicas under contention")
+        void shouldAdmitExactlyTheLimit() throws Exception {
+            List<LeasedTokenBucketRateLimiter> replicas = List.of(replica(100, 10), replica(100, 10));
+
+            int admitted = hammer(replicas, "alice", 8, 125);
+
+            assertThat(admitted).isEqualTo(100);
+            assertThat(leases.calls.get()).isLessThanOrEqualTo(100 / 10 + replicas.size());
+        }
+
+        @Test
+        @DisplayName("Should deny the rest of the window locally, with Retry-After until it ends")
+        void shouldDenyWithoutLeasingAgain() {
+            LeasedTokenBucketRateLimiter limiter = replica(5, 5);
+            for (int i = 0; i < 5; i++) {
+                limiter.acquire("alice");
+            }
+            assertThatThrownBy(() -> limiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+            int calls = leases.calls.get();
+
+            for (int i = 0; i < 100; i++) {
+                assertThatThrownBy(() -> limiter.acquire("alice"))
+                        .isInstanceOfSatisfying(RateLimitExceededException.class,
+                                e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(50)));
+            }
+            assertThat(leases.calls.get()).isEqualTo(calls);
+        }
+
+        @Test
+        @DisplayName("Should take a batch all or nothing, giving back what it took when the budget runs out")
+        void shouldTakeBatchAllOrNothing() {
+            LeasedTokenBucketRateLimiter limiter = replica(10, 4);
+            limiter.acquire("alice", 6);
+
+            assertThatThrownBy(() -> limiter.acquire("alice", 5)).isInstanceOf(RateLimitExceededException.class);
+
+            limiter.acquire("alice", 4); // Os 4 que sobraram nao se perderam no lote negado
+            assertThatThrownBy(() -> limiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+        }
+
+        @Test
+        @DisplayName("Should lose at most one chunk per extra replica when a user alternates between them")
+        void shouldBoundStrandedTokens() {
+            List<LeasedTokenBucketRateLimiter> replicas = List.of(replica(30, 5), replica(30, 5));
+
+            int admitted = 0;
+            for (int i = 0; i < 60; i++) {
+                try {
+                    replicas.get(i % 2).acquire("alice");
+                    admitted++;
+                } catch (RateLimitExceededException e) {
+                    // Esperado depois do limite
+                }
+            }
+
+            assertThat(admitted).isBetween(25, 30);
+        }
+
+        @Test
+        @DisplayName("Should start a fresh budget in the next window and keep users apart")
+        void shouldResetPerWindowAndUser() {
+            LeasedTokenBucketRateLimiter limiter = replica(3, 2);
+            for (int i = 0; i < 3; i++) {
+                limiter.acquire("alice");
+            }
+            assertThatThrownBy(() -> limiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+            limiter.acquire("bob");
+
+            clock.advance(MINUTE);
+
+            limiter.acquire("alice");
+            assertThat(registry.get("cpm.ratelimit.decisions").tag("outcome", "allowed").counter().count()).isEqualTo(5.0);
+        }
+
+        @Test
+        @DisplayName("Should fail open while the lease store is down")
+        void shouldFailOpen() {
+            LeasedTokenBucketRateLimiter limiter = replica(1, 1);
+            leases.down.set(true);
+
+            for (int i = 0; i < 3; i++) {
+                limiter.acquire("alice");
+            }
+        }
+
+        @Test
+        @DisplayName("Should purge buckets and stored windows from past windows")
+        void shouldPurgeOldWindows() {
+            LeasedTokenBucketRateLimiter limiter = replica(3, 1);
+            limiter.acquire("alice");
+            clock.advance(MINUTE.multipliedBy(2));
+
+            limiter.purgeExpiredWindows();
+
+            assertThat(leases.consumed).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark: leasing in chunks keeps most checks off the database")
+    void shouldKeepChecksOffTheDatabase() throws Exception {
+        leases.latencyMillis = 1;
+        int perCheck = hammer(List.of(replica(1_000_000, 1), replica(1_000_000, 1)), "alice", 4, 250);
+        long perCheckNanos = leases.lastRunNanos;
+        int perCheckCalls = leases.calls.getAndSet(0);
+
+        int leased = hammer(List.of(replica(1_000_000, 500), replica(1_000_000, 500)), "bob", 4, 50_000);
+        long leasedNanos = leases.lastRunNanos;
+        int leasedCalls = leases.calls.get();
+
+        double perCheckRate = perCheck * 1e9 / perCheckNanos;
+        double leasedRate = leased * 1e9 / leasedNanos;
+        System.out.printf("[Benchmark] 2 replicas x 4 threads, 1ms lease | per-check lease: %.0f checks/s, %d DB calls "
+                + "for %d | chunk 500: %.0f checks/s, %d DB calls for %d%n",
+                perCheckRate, perCheckCalls, perCheck, leasedRate, leasedCalls, leased);
+
+        assertThat(leased).isEqualTo(400_000);
+        assertThat(leasedCalls).isLessThanOrEqualTo(400_000 / 500 + 2);
+        assertThat(leasedRate).isGreaterThan(20 * perCheckRate);
+    }
+
+    private LeasedTokenBucketRateLimiter replica(int limit, int chunk) {
+        return new LeasedTokenBucketRateLimiter(leases, clock, limit, chunk, MINUTE, registry);
+    }
+
+    /** Every replica gets {@code threads} threads, each trying {@code attempts} creates for the user. */
+    private int hammer(List<LeasedTokenBucketRateLimiter> replicas, String username, int threads, int attempts)
+            throws InterruptedException {
+        AtomicInteger admitted = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(replicas.size() * threads)) {
+            for (LeasedTokenBucketRateLimiter replica : replicas) {
+                for (int t = 0; t < threads; t++) {
+                    pool.execute(() -> {
+                        for (int i = 0; i < attempts; i++) {
+                            try {
+                                replica.acquire(username);
+                                admitted.incrementAndGet();
+                            } catch (RateLimitExceededException e) {
+                                // Negado
+                            }
+                        }
+                    });
+                }
+            }
+        }
+        leases.lastRunNanos = System.nanoTime() - start;
+        return admitted.get();
+    }
+
+    /** Same semantics as the Postgres upsert: grants never add up to more than the limit per window. */
+    private static final class InMemoryLeases implements RateLimitLeasePort {
+
+        private final Map<String, Integer> consumed = new HashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicBoolean down = new AtomicBoolean();
+        private volatile long latencyMillis;
+        private volatile long lastRunNanos;
+
+        @Override
+        public int lease(String username, LocalDateTime windowStart, int chunk, int limit) {
+            calls.incrementAndGet();
+            if (down.get()) {
+                throw new IllegalStateException("database down");
+            }
+            sleep(latencyMillis);
+            synchronized (this) {
+                String key = username + "@" + windowStart;
+                int before = consumed.getOrDefault(key, 0);
+                int after = Math.min(before + chunk, limit);
+                consumed.put(key, after);
+                return after - before;
+            }
+        }
+
+        @Override
+        public synchronized void purgeBefore(LocalDateTime windowStart) {
+            consumed.keySet().removeIf(key -> LocalDateTime.parse(key.substring(key.indexOf('@') + 1)).isBefore(windowStart));
+        }
+
+        private static void sleep(long millis) {
+            if (millis > 0) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
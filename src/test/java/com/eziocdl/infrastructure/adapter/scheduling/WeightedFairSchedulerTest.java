@@ -0,0 +1,215 @@
+package com.eziocdl.infrastructure.adapter.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Weighted fair scheduling of provisioning work")
+class WeightedFairSchedulerTest {
+
+    private static final Map<String, Integer> WEIGHTS = Map.of("ADMIN", 8, "DEV", 4, "TRAINEE", 1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private WeightedFairScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    @Tag("perf") // Latencias contra o relogio com 400 tarefas de 10ms: ./mvnw -Pperf test
+    @DisplayName("Benchmark: light users keep a bounded latency while a heavy user floods")
+    void shouldBoundLightUserLatency() throws Exception {
+        scheduler = new WeightedFairScheduler(4, 4, WEIGHTS, registry);
+        long fair = flood((user, task) -> scheduler.submit(user, "TRAINEE", task));
+
+        long fifo;
+        try (ExecutorService fifoPool = Executors.newFixedThreadPool(4)) {
+            fifo = flood((user, task) -> fifoPool.execute(task));
+        }
+
+        System.out.printf("[Benchmark] light users behind 400 queued tasks (4 workers, 10ms each) | "
+                + "worst latency fifo: %dms | fair: %dms%n", fifo, fair);
+        assertThat(fair).isLessThan(250);
+        assertThat(fifo).isGreaterThan(fair * 3);
+    }
+
+    @Test
+    @DisplayName("Should finish running tasks on close and start none of the queued ones")
+    void shouldStopDispatchingOnClose() {
+        scheduler = new WeightedFairScheduler(1, 1, WEIGHTS, registry);
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            scheduler.submit("trainee", "TRAINEE", () -> {
+                sleep(200);
+                ran.incrementAndGet();
+            });
+        }
+
+        scheduler.close();
+
+        assertThat(ran).hasValue(1);
+        assertThat(registry.get("cpm.scheduler.queued").tag("role", "TRAINEE").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should let an ADMIN request overtake a TRAINEE backlog")
+    void shouldPrioritiseAdmin() throws Exception {
+        scheduler = new WeightedFairScheduler(1, 1, WEIGHTS, registry);
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(31);
+        for (int i = 0; i < 30; i++) {
+            scheduler.submit("trainee", "TRAINEE", () -> {
+                started.add("trainee");
+                sleep(5);
+                done.countDown();
+            });
+        }
+        scheduler.submit("admin", "ADMIN", () -> {
+            started.add("admin");
+            done.countDown();
+        });
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(started.indexOf("admin")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should share slots between backlogged roles by weight")
+    void shouldShareByRoleWeight() throws Exception {
+        scheduler = new WeightedFairScheduler(1, 1, WEIGHTS, registry);
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1 + 3 * 60);
+        scheduler.submit("blocker", "TRAINEE", () -> { // Segura o unico slot enquanto as filas enchem
+            await(gate);
+            done.countDown();
+        });
+        for (int i = 0; i < 60; i++) {
+            for (String role : List.of("ADMIN", "DEV", "TRAINEE")) {
+                scheduler.submit(role.toLowerCase() + "-" + (i % 3), role, () -> {
+                    started.add(role);
+                    done.countDown();
+                });
+            }
+        }
+        gate.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        List<String> firstRound = started.subList(0, 39); // 8 + 4 + 1 per round, three rounds
+        assertThat(Collections.frequency(firstRound, "ADMIN")).isBetween(22, 26);
+        assertThat(Collections.frequency(firstRound, "DEV")).isBetween(10, 14);
+        assertThat(Collections.frequency(firstRound, "TRAINEE")).isBetween(1, 5);
+    }
+
+    @Test
+    @DisplayName("Should run a user's tasks in order while other users run in parallel")
+    void shouldKeepPerUserOrder() throws Exception {
+        scheduler = new WeightedFairScheduler(8, 1, WEIGHTS, registry);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(80);
+
+        for (int i = 0; i < 40; i++) {
+            int seq = i;
+            scheduler.submit("alice", "DEV", () -> {
+                order.add(seq);
+                sleep(2);
+                done.countDown();
+            });
+            scheduler.submit("user-" + (i % 4), "DEV", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(3);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).hasSize(40).isSorted();
+        assertThat(maxRunning.get()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Should cap how many tasks of one user run at once")
+    void shouldCapPerUserConcurrency() throws Exception {
+        scheduler = new WeightedFairScheduler(8, 2, WEIGHTS, registry);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(40);
+
+        for (int i = 0; i < 40; i++) {
+            scheduler.submit("alice", "DEV", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(3);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    /**
+     * A heavy user queues 400 tasks, then five light users send three each.
+     * Returns the worst submit-to-finish latency among the light users, in ms.
+     */
+    private static long flood(BiConsumer<String, Runnable> submit) throws InterruptedException {
+        CountDownLatch heavyDone = new CountDownLatch(400);
+        for (int i = 0; i < 400; i++) {
+            submit.accept("heavy", () -> {
+                sleep(10);
+                heavyDone.countDown();
+            });
+        }
+        AtomicInteger worst = new AtomicInteger();
+        CountDownLatch lightDone = new CountDownLatch(15);
+        for (int i = 0; i < 15; i++) {
+            long submittedAt = System.nanoTime();
+            submit.accept("light-" + (i % 5), () -> {
+                sleep(10);
+                worst.accumulateAndGet((int) ((System.nanoTime() - submittedAt) / 1_000_000), Math::max);
+                lightDone.countDown();
+            });
+        }
+        lightDone.await(30, TimeUnit.SECONDS);
+        heavyDone.await(30, TimeUnit.SECONDS);
+        return worst.get();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
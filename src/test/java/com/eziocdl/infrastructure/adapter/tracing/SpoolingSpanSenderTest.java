@@ -0,0 +1,132 @@
+package com.eziocdl.infrastructure.adapter.tracing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zipkin2.reporter.urlconnection.URLConnectionSender;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Span export pipeline against a stub Zipkin collector")
+class SpoolingSpanSenderTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private HttpServer collector;
+    private final AtomicBoolean collectorUp = new AtomicBoolean(true);
+    private final AtomicInteger acceptedPosts = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private SpoolingSpanSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/api/v2/spans", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            int status = collectorUp.get() ? 202 : 503;
+            if (status == 202) {
+                acceptedPosts.incrementAndGet();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        collector.start();
+
+        registry = new SimpleMeterRegistry();
+        sender = newSender(new SpanSpool(spoolDir, 4096, 4));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sender.close();
+        collector.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should send directly while the collector is up")
+    void shouldSendDirectly() throws IOException {
+        sender.send(spans(5));
+
+        assertThat(acceptedPosts.get()).isEqualTo(1);
+        assertThat(count("sent")).isEqualTo(5);
+        assertThat(sender.spooledBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should spool spans while the collector is down and replay them later")
+    void shouldSpoolAndReplay() throws IOException {
+        collectorUp.set(false);
+        sender.send(spans(10));
+
+        assertThat(count("spooled")).isEqualTo(10);
+        assertThat(sender.spooledBytes()).isPositive();
+
+        collectorUp.set(true);
+        int replayed = sender.replayPending();
+
+        assertThat(replayed).isEqualTo(10);
+        assertThat(count("replayed")).isEqualTo(10);
+        assertThat(sender.spooledBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop spans once the spool is full instead of growing")
+    void shouldDropWhenSpoolFull() throws IOException {
+        collectorUp.set(false);
+        for (int i = 0; i < 20; i++) {
+            sender.send(spans(50));
+        }
+
+        assertThat(sender.spooledBytes()).isLessThanOrEqualTo(4 * 4096);
+        assertThat(count("dropped")).isPositive();
+        assertThat(count("spooled") + count("dropped")).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should recover spooled segments left by a previous process")
+    void shouldRecoverSegmentsOnRestart() throws IOException {
+        collectorUp.set(false);
+        sender.send(spans(8));
+        sender.close();
+
+        collectorUp.set(true);
+        sender = newSender(new SpanSpool(spoolDir, 4096, 4));
+
+        assertThat(sender.replayPending()).isEqualTo(8);
+    }
+
+    private SpoolingSpanSender newSender(SpanSpool spool) {
+        URLConnectionSender http = URLConnectionSender.newBuilder()
+                .endpoint("http://127.0.0.1:" + collector.getAddress().getPort() + "/api/v2/spans")
+                .compressionEnabled(true)
+                .build();
+        return new SpoolingSpanSender(http, spool, new SpanExportMetrics(registry), Duration.ofHours(1));
+    }
+
+    private double count(String outcome) {
+        return registry.get("cpm.tracing.spans").tag("outcome", outcome).counter().count();
+    }
+
+    private static List<byte[]> spans(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ("{\"traceId\":\"%016x\",\"id\":\"%016x\",\"name\":\"provision\"}"
+                        .formatted(i, i)).getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+}
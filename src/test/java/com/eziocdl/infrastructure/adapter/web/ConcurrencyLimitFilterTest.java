@@ -0,0 +1,219 @@
+package com.eziocdl.infrastructure.adapter.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Adaptive concurrency limit on the API")
+class ConcurrencyLimitFilterTest {
+
+    private static final long MS = 1_000_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Nested
+    @DisplayName("Limit")
+    class Limit {
+
+        @Test
+        @DisplayName("Should grow while latency stays flat and the limit is in use")
+        void shouldGrowWithFlatLatency() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.5);
+
+            for (int i = 0; i < 50; i++) {
+                saturate(limiter, 20 * MS);
+            }
+
+            assertThat(limiter.limit()).isGreaterThan(30);
+        }
+
+        @Test
+        @DisplayName("Should shrink when latency rises above the baseline")
+        void shouldShrinkWhenLatencyRises() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 1.5);
+            for (int i = 0; i < 100; i++) {
+                saturate(limiter, 20 * MS);
+            }
+            int before = limiter.limit();
+
+            for (int i = 0; i < 20; i++) {
+                saturate(limiter, 200 * MS);
+            }
+
+            assertThat(limiter.limit()).isLessThan(before / 2);
+        }
+
+        @Test
+        @DisplayName("Should cut the limit on failures and never go below the minimum")
+        void shouldBackOffOnDrops() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 1.5);
+
+            limiter.tryAcquire();
+            limiter.release(20 * MS, true);
+            assertThat(limiter.limit()).isEqualTo(18);
+
+            for (int i = 0; i < 50; i++) {
+                limiter.tryAcquire();
+                limiter.release(20 * MS, true);
+            }
+            assertThat(limiter.limit()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should refuse permits over the limit")
+        void shouldRefuseOverLimit() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5);
+
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isFalse();
+        }
+
+        /** Fills the limit, then releases every permit with the given latency. */
+        private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos, false);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Filter")
+    class Filter {
+
+        @Test
+        @DisplayName("Should shed with 503, Retry-After and a problem body when over the limit")
+        void shouldShedOverLimit() throws Exception {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5);
+            ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, Duration.ofSeconds(2), registry);
+            limiter.tryAcquire(); // Slot ocupado por outra requisicao
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/provisioning"), response,
+                    (req, res) -> { throw new AssertionError("should not reach the controller"); });
+
+            assertThat(response.getStatus()).isEqualTo(503);
+            assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+            assertThat(response.getContentType()).isEqualTo("application/problem+json");
+            assertThat(response.getContentAsString()).contains("\"status\":503");
+            assertThat(registry.get("cpm.api.shed").counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should let excluded paths through without taking or feeding a slot")
+        void shouldBypassExcludedPaths() throws Exception {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5);
+            ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, Duration.ofSeconds(2),
+                    List.of("/api/v1/provisioning/export"), registry);
+            limiter.tryAcquire();
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/provisioning/export"), response,
+                    (req, res) -> ((MockHttpServletResponse) res).setStatus(200));
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(limiter.inFlight()).isEqualTo(1);
+            assertThat(registry.get("cpm.api.shed").counter().count()).isZero();
+        }
+
+        @Test
+        @Tag("perf") // Carga aberta de 1200 req/s e limites de latencia: ./mvnw -Pperf test
+        @DisplayName("Benchmark: admitted latency stays flat under 3x overload")
+        void shouldKeepLatencyStableUnderOverload() throws Exception {
+            // Backend with 8 slots and 20ms per request: capacity ~400 req/s. Offered load: 1200 req/s
+            Result unprotected = overload(ConcurrencyLimitFilterTest.this::backend);
+            ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                    new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5), Duration.ofSeconds(1), registry);
+            Result protectedRun = overload((req, res) -> filter.doFilter(req, res, ConcurrencyLimitFilterTest.this::backend));
+
+            System.out.printf("[Benchmark] 3x overload (1200 req/s vs ~400 capacity) | no limit: p50 %dms p99 %dms, %d ok | "
+                            + "adaptive limit: p50 %dms p99 %dms, %d ok, %d shed, limit %d%n",
+                    unprotected.p(50), unprotected.p(99), unprotected.ok.get(),
+                    protectedRun.p(50), protectedRun.p(99), protectedRun.ok.get(), protectedRun.shed.get(),
+                    (int) registry.get("cpm.api.concurrency.limit").gauge().value());
+
+            assertThat(protectedRun.p(99)).isLessThan(150);
+            assertThat(unprotected.p(99)).isGreaterThan(5 * protectedRun.p(99));
+            assertThat(protectedRun.shed.get()).isPositive();
+            assertThat(protectedRun.ok.get()).isGreaterThan(480); // Goodput: capacidade em 1.5s = 600
+        }
+    }
+
+    private final Semaphore backendSlots = new Semaphore(8, true);
+
+    private void backend(ServletRequest req, ServletResponse res) {
+        backendSlots.acquireUninterruptibly();
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            backendSlots.release();
+        }
+        ((MockHttpServletResponse) res).setStatus(201);
+    }
+
+    /** Open-loop load: 1200 req/s for 1.5s, each request on its own virtual thread. */
+    private static Result overload(FilterChain entry) throws InterruptedException {
+        Result result = new Result();
+        long interval = TimeUnit.SECONDS.toNanos(1) / 1200;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 1800; i++) {
+                LockSupport.parkNanos(start + i * interval - System.nanoTime());
+                clients.execute(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    long sent = System.nanoTime();
+                    try {
+                        entry.doFilter(new MockHttpServletRequest("POST", "/api/v1/provisioning"), response);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (response.getStatus() == 503) {
+                        result.shed.incrementAndGet();
+                    } else {
+                        result.ok.incrementAndGet();
+                        result.latencies.add((System.nanoTime() - sent) / MS);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger ok = new AtomicInteger();
+        private final AtomicInteger shed = new AtomicInteger();
+
+        long p(int percentile) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+        }
+    }
+}
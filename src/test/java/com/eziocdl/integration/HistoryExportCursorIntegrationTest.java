@@ -0,0 +1,129 @@
+package com.eziocdl.integration;
+
+import com.eziocdl.TestcontainersConfiguration;
+import com.eziocdl.domain.model.ProvisioningHistoryQuery;
+import com.eziocdl.infrastructure.adapter.persistence.JdbcProvisioningHistoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the settings the PostgreSQL driver needs to stream the export through a server-side cursor,
+ * on the connection the export really used. Runs on the Flyway schema, which has the archive table.
+ */
+@SpringBootTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("History export cursor on PostgreSQL")
+class HistoryExportCursorIntegrationTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().withNano(0).minusDays(1);
+    private static final int FETCH_SIZE = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should read with autocommit off, the fetch size and a forward-only statement, then restore the connection")
+    void shouldStreamThroughCursor() {
+        for (int i = 0; i < 25; i++) {
+            insert(DAY.plusMinutes(i));
+        }
+        Recorded recorded = new Recorded();
+        JdbcProvisioningHistoryRepository history = new JdbcProvisioningHistoryRepository(
+                new JdbcTemplate(recording(recorded)), FETCH_SIZE);
+
+        long rows = history.stream(new ProvisioningHistoryQuery(DAY, DAY.plusHours(1), null), entry -> {
+            if (recorded.autoCommitWhileReading == null) {
+                recorded.snapshot(jdbcTemplate);
+            }
+        });
+
+        assertThat(rows).isEqualTo(25);
+        assertThat(recorded.autoCommitWhileReading).isFalse();
+        assertThat(recorded.fetchSize).isEqualTo(FETCH_SIZE);
+        assertThat(recorded.resultSetType).isEqualTo(ResultSet.TYPE_FORWARD_ONLY);
+        // Com cursor a transacao segue aberta entre um lote e outro
+        assertThat(recorded.idleInTransaction).isEqualTo(1L);
+        assertThat(recorded.autoCommitOnClose).isTrue();
+    }
+
+    /** Hands out the pool's connections, remembering what the export did with them. */
+    private DataSource recording(Recorded recorded) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection target = super.getConnection();
+                recorded.connection = target;
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("close")) {
+                                recorded.autoCommitOnClose = target.getAutoCommit();
+                            }
+                            try {
+                                Object result = method.invoke(target, args);
+                                if (result instanceof PreparedStatement statement) {
+                                    recorded.statement = statement;
+                                }
+                                return result;
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+    }
+
+    private static final class Recorded {
+
+        private Connection connection;
+        private PreparedStatement statement;
+        private Boolean autoCommitWhileReading;
+        private Integer fetchSize;
+        private Integer resultSetType;
+        private Long idleInTransaction;
+        private Boolean autoCommitOnClose;
+
+        private void snapshot(JdbcTemplate other) {
+            try {
+                autoCommitWhileReading = connection.getAutoCommit();
+                fetchSize = statement.getFetchSize();
+                resultSetType = statement.getResultSetType();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            idleInTransaction = other.queryForObject("""
+                    SELECT count(*) FROM pg_stat_activity
+                    WHERE state = 'idle in transaction' AND query LIKE '%provisioning_requests_archive%'
+                    """, Long.class);
+        }
+    }
+
+    private void insert(LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO provisioning_requests (id, requester_username, ram, cpu, status, created_at, cloud_provider)
+                VALUES (?, 'export', '8GB', '4vCPU', 'ACTIVE', ?, 'openstack')
+                """, UUID.randomUUID(), Timestamp.valueOf(createdAt));
+    }
+}
@@ -160,6 +160,18 @@ class ProvisioningIntegrationTest {
                 .jsonPath("$.userRole").isEqualTo("DEV");
     }
 
+    // ==================== INSTANCE LOOKUP TESTS ====================
+
+    @Test
+    @DisplayName("Should return 404 for an unknown cloud instance")
+    void shouldReturn404ForUnknownInstance() {
+        webTestClient.get()
+                .uri(API_URL + "/instances/{instanceId}?provider=openstack", "nao-existe")
+                .header("Authorization", basicAuth("devuser", "senhadev123"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     // ==================== HELPER METHOD ====================
 
     private String basicAuth(String username, String password) {
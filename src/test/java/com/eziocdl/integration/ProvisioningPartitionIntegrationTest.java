@@ -0,0 +1,171 @@
+package com.eziocdl.integration;
+
+import com.eziocdl.TestcontainersConfiguration;
+import com.eziocdl.application.port.in.RetryProvisioningUseCasePort;
+import com.eziocdl.application.port.out.ProvisioningArchivePort;
+import com.eziocdl.application.port.out.ProvisioningInventoryPort;
+import com.eziocdl.application.port.out.ProvisioningRepositoryPort;
+import com.eziocdl.domain.model.ProvisioningRequest;
+import com.eziocdl.domain.model.ProvisioningSnapshot;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs on the Flyway schema (partitioned provisioning_requests), not on the one Hibernate generates for tests.
+ */
+@SpringBootTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("Partitioned provisioning_requests on PostgreSQL")
+class ProvisioningPartitionIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProvisioningRepositoryPort repository;
+
+    @Autowired
+    private ProvisioningArchivePort archive;
+
+    @Autowired
+    private RetryProvisioningUseCasePort retry;
+
+    @Autowired
+    private ProvisioningInventoryPort inventory;
+
+    @Test
+    @DisplayName("Should resolve a server found on two requests to the newest one instead of failing")
+    void shouldPickNewestRequestForInstance() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID older = insert("ACTIVE", now.minusDays(200), "srv-dup");
+        UUID newer = insert("PROVISIONING", now.minusMinutes(5), "srv-dup");
+
+        assertThat(repository.findByInstance("openstack", "srv-dup"))
+                .map(ProvisioningRequest::getId)
+                .contains(newer);
+
+        jdbcTemplate.update("DELETE FROM provisioning_requests WHERE id = ?", newer);
+        assertThat(repository.findByInstance("openstack", "srv-dup")) // So na particao antiga
+                .map(ProvisioningRequest::getId)
+                .contains(older);
+    }
+
+    @Test
+    @DisplayName("Should split a month that already has rows in the DEFAULT partition off it")
+    void shouldSplitMonthOffDefaultPartition() {
+        YearMonth month = YearMonth.now().plusYears(2); // Bem depois das particoes pre-criadas
+        UUID id = insert("PENDING_APPROVAL", month.atDay(10).atTime(9, 0), null);
+        assertThat(partitionOf(id)).isEqualTo("provisioning_requests_default");
+
+        assertThat(archive.createPartitions(month, 0)).isEqualTo(1);
+
+        assertThat(partitionOf(id)).isEqualTo("provisioning_requests_p" + month.toString().replace("-", ""));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM provisioning_requests_default", Long.class)).isZero();
+        assertThat(archive.createPartitions(month, 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should archive old finished requests and keep ACTIVE ones, whose VMs still exist")
+    void shouldNotArchiveActive() {
+        LocalDateTime old = LocalDateTime.now().minusDays(200);
+        UUID active = insert("ACTIVE", old, "srv-kept");
+        UUID failed = insert("FAILED", old, null);
+
+        archive.archiveTerminal(LocalDateTime.now().minusDays(90), 100);
+
+        assertThat(repository.findById(active)).isPresent();
+        assertThat(repository.findById(failed)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM provisioning_requests_archive WHERE id = ?",
+                Long.class, failed)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only log the transitions the database applied, not a status it kept")
+    void shouldNotLogRefusedTransition() {
+        UUID deleting = insert("PROVISIONING", LocalDateTime.now().minusMinutes(5), "srv-refused");
+        UUID provisioning = insert("PROVISIONING", LocalDateTime.now().minusMinutes(5), "srv-applied");
+        ProvisioningRequest stale = repository.findById(deleting).orElseThrow();
+        ProvisioningRequest current = repository.findById(provisioning).orElseThrow();
+        jdbcTemplate.update("UPDATE provisioning_requests SET status = 'DELETING' WHERE id = ?", deleting);
+
+        stale.complete(); // Snapshot de antes da remocao
+        repository.update(stale);
+        current.complete();
+        repository.update(current);
+
+        // A fila do log e FIFO: quando a segunda chega, a primeira ja teria chegado
+        await().atMost(Duration.ofSeconds(5)).until(() -> transitionsOf(provisioning) == 1);
+        assertThat(transitionsOf(deleting)).isZero();
+        assertThat(repository.findById(deleting)).map(ProvisioningRequest::getStatus).contains(ProvisioningStatus.DELETING);
+    }
+
+    @Test
+    @DisplayName("Should keep a deletion and its lease when a stale request is parked for retry")
+    void shouldKeepDeletionWhenParkingStaleRequest() {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(5).withNano(0);
+        UUID id = insert("DELETING", createdAt, null);
+        Timestamp expiresAt = Timestamp.valueOf(createdAt.plusMinutes(4));
+        jdbcTemplate.update("UPDATE provisioning_requests SET expires_at = ? WHERE id = ?", expiresAt, id);
+
+        // O snapshot do evento e de antes da remocao e nao traz o lease
+        retry.enqueue(ProvisioningRequest.restore(new ProvisioningSnapshot(id, "dev", "8GB", "4vCPU",
+                ProvisioningStatus.PROVISIONING, createdAt)), "Provedor indisponivel (fallback)");
+
+        assertThat(repository.findById(id)).map(ProvisioningRequest::getStatus).contains(ProvisioningStatus.DELETING);
+        assertThat(jdbcTemplate.queryForObject("SELECT expires_at FROM provisioning_requests WHERE id = ?",
+                Timestamp.class, id)).isEqualTo(expiresAt);
+    }
+
+    @Test
+    @DisplayName("Should store the lease of requests created by reconcile")
+    void shouldInsertLease() {
+        ProvisioningRequest leased = new ProvisioningRequest("dev", "8GB", "4vCPU");
+        leased.leaseFor("TRAINEE", null);
+        ProvisioningRequest kept = new ProvisioningRequest("dev", "8GB", "4vCPU");
+
+        inventory.insertAll(List.of(leased, kept));
+
+        assertThat(repository.findById(leased.getId()).orElseThrow().getExpiresAt())
+                .isCloseTo(leased.getExpiresAt(), within(1, ChronoUnit.MILLIS)); // timestamp guarda microssegundos
+        assertThat(repository.findById(kept.getId())).map(ProvisioningRequest::getExpiresAt).isEmpty();
+    }
+
+    private long transitionsOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM provisioning_transitions WHERE provisioning_id = ?",
+                Long.class, id);
+    }
+
+    private String partitionOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM provisioning_requests WHERE id = ?",
+                String.class, id);
+    }
+
+    private UUID insert(String status, LocalDateTime createdAt, String instanceId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO provisioning_requests (id, requester_username, ram, cpu, status, created_at,
+                                                   cloud_provider, instance_id)
+                VALUES (?, 'dev', '8GB', '4vCPU', ?, ?, 'openstack', ?)
+                """, id, status, Timestamp.valueOf(createdAt), instanceId);
+        return id;
+    }
+}
@@ -0,0 +1,70 @@
+package com.eziocdl.integration;
+
+import com.eziocdl.TestcontainersConfiguration;
+import com.eziocdl.application.port.out.RateLimitLeasePort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("Rate limit lease upsert on PostgreSQL")
+class RateLimitLeaseIntegrationTest {
+
+    private static final LocalDateTime WINDOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private RateLimitLeasePort leases;
+
+    @Test
+    @DisplayName("Should grant whole chunks, then the remainder, then nothing for the window")
+    void shouldGrantUpToLimit() {
+        assertThat(leases.lease("lease-a", WINDOW, 4, 10)).isEqualTo(4);
+        assertThat(leases.lease("lease-a", WINDOW, 4, 10)).isEqualTo(4);
+        assertThat(leases.lease("lease-a", WINDOW, 4, 10)).isEqualTo(2);
+        assertThat(leases.lease("lease-a", WINDOW, 4, 10)).isZero();
+
+        assertThat(leases.lease("lease-a", WINDOW.plusMinutes(1), 4, 10)).isEqualTo(4);
+        assertThat(leases.lease("lease-b", WINDOW, 4, 10)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should never grant more than the limit to concurrent leases, each without a caller transaction")
+    void shouldNotOverGrantUnderContention() throws Exception {
+        List<Future<Integer>> grants = new ArrayList<>();
+        try (ExecutorService replicas = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 40; i++) {
+                grants.add(replicas.submit(() -> leases.lease("lease-c", WINDOW, 3, 50)));
+            }
+        }
+
+        int total = 0;
+        for (Future<Integer> grant : grants) {
+            total += grant.get();
+        }
+        assertThat(total).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should drop windows older than the cutoff")
+    void shouldPurgeOldWindows() {
+        leases.lease("lease-d", WINDOW.minusMinutes(5), 4, 10);
+
+        leases.purgeBefore(WINDOW);
+
+        assertThat(leases.lease("lease-d", WINDOW.minusMinutes(5), 4, 10)).isEqualTo(4); // Janela recriada do zero
+    }
+}
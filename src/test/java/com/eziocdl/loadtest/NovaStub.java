@@ -0,0 +1,212 @@
+package com.eziocdl.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process Nova with just the calls CPM makes: flavor/image catalog, single and multi-create,
+ * reservation lookup and the {@code changes-since} status poll.
+ *
+ * Every call waits {@code latency}; creates fail with 500 at {@code errorRate}. A server stays BUILD
+ * for {@code bootTime} and then reports ACTIVE, with {@code updated} set to that moment.
+ * Handlers run on virtual threads, so latency does not cap concurrency.
+ */
+final class NovaStub implements AutoCloseable {
+
+    static final String IMAGE_ID = "img-ubuntu-2204";
+
+    private final HttpServer server;
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final Duration latency;
+    private final double errorRate;
+    private final Duration bootTime;
+
+    private final ConcurrentSkipListMap<String, Server> servers = new ConcurrentSkipListMap<>();
+    private final AtomicLong creates = new AtomicLong();
+    private final AtomicLong failedCreates = new AtomicLong();
+
+    private NovaStub(Duration latency, double errorRate, Duration bootTime) throws IOException {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.bootTime = bootTime;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    static NovaStub start(Duration latency, double errorRate, Duration bootTime) {
+        try {
+            return new NovaStub(latency, errorRate, bootTime);
+        } catch (IOException e) {
+            throw new IllegalStateException("Nao foi possivel subir o stub do Nova", e);
+        }
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long creates() {
+        return creates.get();
+    }
+
+    long failedCreates() {
+        return failedCreates.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            sleep(latency);
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            Object body = switch (exchange.getRequestMethod() + " " + path) {
+                case "POST /servers" -> create(exchange);
+                case "GET /servers/detail" -> Map.of("servers", list(query));
+                case "GET /flavors/detail" -> Map.of("flavors", flavors());
+                case "GET /images" -> Map.of("images", List.of(Map.of("id", IMAGE_ID, "name", "ubuntu-22.04")));
+                default -> null;
+            };
+            if (body == null) {
+                if (exchange.getResponseCode() == -1) { // O create com erro ja respondeu 500
+                    exchange.sendResponseHeaders(404, -1);
+                }
+                return;
+            }
+            byte[] json = mapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(exchange.getRequestMethod().equals("POST") ? 202 : 200, json.length);
+            exchange.getResponseBody().write(json);
+        }
+    }
+
+    private Object create(HttpExchange exchange) throws IOException {
+        creates.incrementAndGet();
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            failedCreates.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            return null;
+        }
+        JsonNode request = mapper.readTree(exchange.getRequestBody()).path("server");
+        String name = request.path("name").asString();
+        int count = request.path("min_count").asInt(1);
+        Instant now = Instant.now();
+        if (count == 1 && !request.has("return_reservation_id")) {
+            Server created = add(name, null, now);
+            return Map.of("server", Map.of("id", created.id));
+        }
+        String reservation = "r-" + UUID.randomUUID();
+        for (int i = 1; i <= count; i++) {
+            add(name + "-" + i, reservation, now); // Nova numera os servidores do multi-create
+        }
+        return Map.of("reservation_id", reservation);
+    }
+
+    private Server add(String name, String reservation, Instant createdAt) {
+        Server created = new Server(UUID.randomUUID().toString(), name, reservation, createdAt);
+        servers.put(created.id, created);
+        return created;
+    }
+
+    /** Reservation lookup, or the tracker's changes-since poll (ordered by id, paged by marker). */
+    private List<Map<String, Object>> list(Map<String, String> query) {
+        Instant now = Instant.now();
+        String reservation = query.get("reservation_id");
+        if (reservation != null) {
+            return servers.values().stream()
+                    .filter(s -> reservation.equals(s.reservation))
+                    .map(s -> s.view(now, bootTime))
+                    .toList();
+        }
+        Instant since = query.containsKey("changes-since") ? Instant.parse(query.get("changes-since")) : Instant.EPOCH;
+        int limit = Integer.parseInt(query.getOrDefault("limit", "1000"));
+        Map<String, Server> page = query.containsKey("marker")
+                ? servers.tailMap(query.get("marker"), false)
+                : servers;
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Server candidate : page.values()) {
+            if (!candidate.updated(now, bootTime).isBefore(since)) {
+                result.add(candidate.view(now, bootTime));
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Map<String, Object>> flavors() {
+        List<Map<String, Object>> flavors = new ArrayList<>();
+        for (int vcpus : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            for (int ramGb : new int[]{2, 4, 8, 16, 32, 64, 128, 256}) {
+                Map<String, Object> flavor = new LinkedHashMap<>();
+                flavor.put("id", "flv-" + vcpus + "-" + ramGb);
+                flavor.put("name", vcpus + "vcpu." + ramGb + "gb");
+                flavor.put("vcpus", vcpus);
+                flavor.put("ram", ramGb * 1024);
+                flavors.add(flavor);
+            }
+        }
+        return flavors;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            Arrays.stream(rawQuery.split("&"))
+                    .map(pair -> pair.split("=", 2))
+                    .forEach(kv -> params.put(kv[0], kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : ""));
+        }
+        return params;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Server(String id, String name, String reservation, Instant createdAt) {
+
+        Instant updated(Instant now, Duration bootTime) {
+            Instant activeAt = createdAt.plus(bootTime);
+            return now.isBefore(activeAt) ? createdAt : activeAt;
+        }
+
+        Map<String, Object> view(Instant now, Duration bootTime) {
+            boolean active = !now.isBefore(createdAt.plus(bootTime));
+            return Map.of("id", id, "name", name, "status", active ? "ACTIVE" : "BUILD",
+                    "updated", updated(now, bootTime).toString());
+        }
+    }
+}
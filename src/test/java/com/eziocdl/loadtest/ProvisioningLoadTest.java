@@ -0,0 +1,275 @@
+package com.eziocdl.loadtest;
+
+import com.eziocdl.TestcontainersConfiguration;
+import com.eziocdl.domain.event.InstanceStatusChangedEvent;
+import com.eziocdl.domain.model.ProvisioningStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end throughput of {@code POST /api/v1/provisioning}: LDAP bind, policy, Postgres, the
+ * async listener, the scheduler and Nova, with embedded LDAP (seeded from infra/ldap), Postgres
+ * from Testcontainers and {@link NovaStub}. Runs offline once the postgres image is cached.
+ *
+ * Open model: arrivals follow a Poisson process at {@code loadtest.rate}, whether or not earlier
+ * requests finished, and latency counts from the scheduled send time (no coordinated omission).
+ * Excluded from the default build; run it with {@code ./mvnw -Ploadtest test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import({TestcontainersConfiguration.class, ProvisioningLoadTest.Completions.class})
+@ActiveProfiles("loadtest")
+@DisplayName("Provisioning load test (LDAP + Postgres + Nova stub)")
+class ProvisioningLoadTest {
+
+    private static final LoadProfile PROFILE = LoadProfile.fromSystemProperties();
+    private static final NovaStub NOVA = NovaStub.start(PROFILE.novaLatency(), PROFILE.novaErrorRate(), PROFILE.novaBootTime());
+    private static final int LDAP_PORT = freePort();
+
+    // Usuarios do ldap-data.ldif, cada um com um tamanho dentro da propria quota
+    private static final List<Caller> CALLERS = List.of(
+            new Caller("trainee", "senhatrainee123", "8GB", "4vCPU"),
+            new Caller("devuser", "senhadev123", "16GB", "4vCPU"),
+            new Caller("admin", "senhaadmin123", "64GB", "16vCPU"));
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Completions completions;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("cpm.cloud.endpoints.openstack.base-url", NOVA::baseUrl);
+        registry.add("spring.ldap.embedded.port", () -> LDAP_PORT);
+        registry.add("spring.ldap.urls", () -> "ldap://localhost:" + LDAP_PORT);
+    }
+
+    @AfterAll
+    static void stopNova() {
+        NOVA.close();
+    }
+
+    @Test
+    @DisplayName("Benchmark: open-model load on POST /api/v1/provisioning")
+    void shouldSustainOpenModelLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/provisioning");
+        run(client, uri, PROFILE.warmup(), new Result()); // JIT, pools de conexao e cache de bind do LDAP
+
+        Result result = new Result();
+        long start = System.nanoTime();
+        run(client, uri, PROFILE.duration(), result);
+        long sent = System.nanoTime() - start;
+        boolean drained = completions.awaitSettled(result.accepted.keySet(), PROFILE.drainTimeout());
+
+        List<Settled> settled = completions.of(result.accepted.keySet());
+        long active = settled.stream().filter(Settled::active).count();
+        long elapsed = settled.stream().mapToLong(Settled::at).max().orElse(System.nanoTime()) - start;
+        List<Long> provisioning = new ArrayList<>();
+        result.accepted.forEach((id, scheduled) -> {
+            Long at = completions.at(id);
+            if (at != null) {
+                provisioning.add((at - scheduled) / 1_000_000);
+            }
+        });
+        System.out.printf("[LoadTest] %.0f req/s for %ds (%d sent) | HTTP p50 %dms p99 %dms p999 %dms | "
+                        + "201: %d, 429: %d, 503: %d, other: %d | completed %d (failed %d) in %.1fs = %.1f provisionings/s | "
+                        + "POST->ACTIVE p50 %dms p99 %dms | nova creates %d (%d failed), drained: %s%n",
+                PROFILE.rate(), PROFILE.duration().toSeconds(), result.sent.get(),
+                result.p(50), result.p(99), result.p(99.9),
+                result.accepted.size(), result.status(429), result.status(503), result.other.get(),
+                active, settled.size() - active, elapsed / 1e9, active / (elapsed / 1e9),
+                percentile(provisioning, 50), percentile(provisioning, 99),
+                NOVA.creates(), NOVA.failedCreates(), drained);
+        System.out.printf("[LoadTest] offered %.1f req/s, achieved %.1f req/s%n",
+                PROFILE.rate(), result.sent.get() / (sent / 1e9));
+
+        assertThat(result.other.get()).as("respostas fora de 201/429/503").isZero();
+        assertThat(active).isPositive();
+    }
+
+    /** Fires requests at Poisson arrival times for {@code duration}, each on its own virtual thread. */
+    private static void run(HttpClient client, URI uri, Duration duration, Result result) throws InterruptedException {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / PROFILE.rate();
+        long next = start;
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; next < end; i++) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                Caller caller = CALLERS.get(i % CALLERS.size());
+                long scheduled = next;
+                senders.execute(() -> send(client, uri, caller, scheduled, result));
+                next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            }
+        }
+    }
+
+    private static void send(HttpClient client, URI uri, Caller caller, long scheduled, Result result) {
+        result.sent.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Authorization", caller.basicAuth())
+                .POST(HttpRequest.BodyPublishers.ofString(caller.body()))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            result.latencies.add((System.nanoTime() - scheduled) / 1_000_000);
+            result.statuses.computeIfAbsent(response.statusCode(), code -> new AtomicInteger()).incrementAndGet();
+            Matcher id = ID.matcher(response.body());
+            if (response.statusCode() == 201 && id.find()) {
+                result.accepted.put(UUID.fromString(id.group(1)), scheduled);
+            } else if (response.statusCode() != 429 && response.statusCode() != 503) {
+                result.other.incrementAndGet();
+            }
+        } catch (IOException e) {
+            result.other.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long percentile(List<Long> values, double percentile) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * percentile / 100)));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Load shape, from {@code -Dloadtest.*} and {@code -Dnova.*}. */
+    record LoadProfile(double rate, Duration warmup, Duration duration, Duration drainTimeout,
+                       Duration novaLatency, double novaErrorRate, Duration novaBootTime) {
+
+        static LoadProfile fromSystemProperties() {
+            return new LoadProfile(
+                    Double.parseDouble(System.getProperty("loadtest.rate", "20")),
+                    Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s")),
+                    Duration.parse("PT" + System.getProperty("loadtest.duration", "60s")),
+                    Duration.parse("PT" + System.getProperty("loadtest.drain-timeout", "60s")),
+                    Duration.ofMillis(Long.parseLong(System.getProperty("nova.latency-ms", "200"))),
+                    Double.parseDouble(System.getProperty("nova.error-rate", "0.0")),
+                    Duration.parse("PT" + System.getProperty("nova.boot-time", "5s")));
+        }
+    }
+
+    private record Caller(String username, String password, String ram, String cpu) {
+
+        String basicAuth() {
+            String credentials = username + ":" + password;
+            return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String body() {
+            return "{\"username\":\"" + username + "\",\"ram\":\"" + ram + "\",\"cpu\":\"" + cpu + "\"}";
+        }
+    }
+
+    private static final class Result {
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger other = new AtomicInteger();
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        private final Map<UUID, Long> accepted = new ConcurrentHashMap<>();
+
+        long p(double percentile) {
+            return percentile(latencies, percentile);
+        }
+
+        int status(int code) {
+            AtomicInteger count = statuses.get(code);
+            return count == null ? 0 : count.get();
+        }
+    }
+
+    /** Records when and how each request settled, from the status tracker's events. */
+    static class Completions {
+
+        private final Map<UUID, Settled> settled = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void onStatusChanged(InstanceStatusChangedEvent event) {
+            settled.put(event.provisioningId(), new Settled(System.nanoTime(), event.status()));
+        }
+
+        boolean awaitSettled(Set<UUID> ids, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (settled.keySet().containsAll(ids)) {
+                    return true;
+                }
+                Thread.sleep(100);
+            }
+            return false;
+        }
+
+        /** Settlements of the given requests only, so warm-up traffic does not leak into the numbers. */
+        List<Settled> of(Set<UUID> ids) {
+            return ids.stream().map(settled::get).filter(Objects::nonNull).toList();
+        }
+
+        Long at(UUID id) {
+            Settled outcome = settled.get(id);
+            return outcome == null ? null : outcome.at();
+        }
+    }
+
+    record Settled(long at, ProvisioningStatus status) {
+
+        boolean active() {
+            return status == ProvisioningStatus.ACTIVE;
+        }
+    }
+}